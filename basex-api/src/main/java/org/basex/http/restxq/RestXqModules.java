@@ -23,6 +23,10 @@ public final class RestXqModules {
 
   /** Module cache. */
   private HashMap<String, RestXqModule> modules = new HashMap<>();
+  /** Routing tree, built from the paths of the cached modules. */
+  private volatile RestXqRouter router;
+  /** Indicates if modules have been parsed while updating the cache. */
+  private boolean reparsed;
   /** RESTXQ path. */
   private IOFile restxq;
   /** Private constructor. */
@@ -57,16 +61,21 @@ public final class RestXqModules {
     cache(http);
 
     // collect all functions
-    final ArrayList<RestXqFunction> list = new ArrayList<>();
-    for(final RestXqModule mod : modules.values()) {
-      for(final RestXqFunction rxf : mod.functions()) {
-        if(rxf.matches(http, error)) list.add(rxf);
+    final ArrayList<RestXqFunction> list = new ArrayList<>(1);
+    if(error == null) {
+      router.find(http, list);
+    } else {
+      for(final RestXqModule mod : modules.values()) {
+        for(final RestXqFunction rxf : mod.functions()) {
+          if(rxf.matches(http, error)) list.add(rxf);
+        }
       }
     }
     // no path matches
     if(list.isEmpty()) return null;
 
     // sort by relevance
+    if(list.size() == 1) return list.get(0);
     Collections.sort(list);
 
     // return best matching function
@@ -137,8 +146,12 @@ public final class RestXqModules {
     }
     // create new cache
     final HashMap<String, RestXqModule> cache = new HashMap<>();
+    reparsed = false;
     cache(http, restxq, cache);
+    // rebuild routing tree if modules have been added, changed or removed
+    final boolean changed = reparsed || !cache.keySet().equals(modules.keySet());
     modules = cache;
+    if(changed || router == null) router = new RestXqRouter(cache.values());
   }
 
   /**
@@ -167,7 +180,11 @@ public final class RestXqModules {
             module = new RestXqModule(file);
           }
           // add module if it has been parsed, and if it contains annotations
-          if(parsed || module.parse(http)) {
+          if(!parsed && module.parse(http)) {
+            reparsed = true;
+            parsed = true;
+          }
+          if(parsed) {
             module.touch();
             cache.put(path, module);
           }
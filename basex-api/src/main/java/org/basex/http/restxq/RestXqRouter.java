@@ -0,0 +1,156 @@
+package org.basex.http.restxq;
+
+import java.util.*;
+
+import org.basex.http.*;
+
+/**
+ * This class organizes the path templates of RESTXQ functions in a tree of path segments.
+ * It is used to quickly find all functions that may match the path of an HTTP request.
+ *
+ * <p>Literal segments are resolved via hash lookups, and segments that consist of a
+ * single template variable are represented by a dedicated child node. Segments with
+ * custom regular expressions, mixed literals and templates, or escaped characters cannot
+ * be resolved segment-wise: the affected functions are attached to the node at which the
+ * segment starts, and their full path pattern will be matched instead.</p>
+ *
+ * <p>The tree is immutable and will be recreated whenever RESTXQ modules change.</p>
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class RestXqRouter {
+  /** Root node. */
+  private final Node root = new Node();
+
+  /**
+   * Constructor.
+   * @param modules modules
+   */
+  RestXqRouter(final Collection<RestXqModule> modules) {
+    for(final RestXqModule mod : modules) {
+      for(final RestXqFunction rxf : mod.functions()) {
+        if(rxf.path != null) add(rxf);
+      }
+    }
+  }
+
+  /**
+   * Adds all functions to the specified list that match the current request.
+   * @param http HTTP context
+   * @param list list of functions
+   */
+  void find(final HTTPContext http, final ArrayList<RestXqFunction> list) {
+    final String path = http.path();
+    find(root, path, path.startsWith("/") ? 1 : 0, http, list);
+  }
+
+  /**
+   * Adds a function to the tree.
+   * @param rxf function
+   */
+  private void add(final RestXqFunction rxf) {
+    Node node = root;
+    for(final String segment : segments(rxf.path.toString())) {
+      if(segment.indexOf('%') != -1 || segment.indexOf('{') != -1 && !template(segment)) {
+        // segment cannot be resolved: match full path pattern
+        node.patterns.add(rxf);
+        return;
+      }
+      if(segment.indexOf('{') != -1) {
+        if(node.template == null) node.template = new Node();
+        node = node.template;
+      } else {
+        // literals are compared with the decoded request path
+        final String literal = HTTPContext.decode(segment);
+        Node child = node.children.get(literal);
+        if(child == null) {
+          child = new Node();
+          node.children.put(literal, child);
+        }
+        node = child;
+      }
+    }
+    node.functions.add(rxf);
+  }
+
+  /**
+   * Recursively adds all functions that match the current request.
+   * @param node current node
+   * @param path request path
+   * @param start start offset of the current segment
+   * @param http HTTP context
+   * @param list list of functions
+   */
+  private static void find(final Node node, final String path, final int start,
+      final HTTPContext http, final ArrayList<RestXqFunction> list) {
+
+    for(final RestXqFunction rxf : node.patterns) {
+      if(rxf.matches(http, null)) list.add(rxf);
+    }
+    if(start > path.length()) {
+      for(final RestXqFunction rxf : node.functions) {
+        if(rxf.matches(http, null)) list.add(rxf);
+      }
+    } else {
+      int end = path.indexOf('/', start);
+      if(end == -1) end = path.length();
+      if(!node.children.isEmpty()) {
+        final Node child = node.children.get(path.substring(start, end));
+        if(child != null) find(child, path, end + 1, http, list);
+      }
+      if(node.template != null && end > start) find(node.template, path, end + 1, http, list);
+    }
+  }
+
+  /**
+   * Splits a path template into segments. Slashes within template variables are ignored.
+   * @param path path template
+   * @return segments
+   */
+  private static ArrayList<String> segments(final String path) {
+    final ArrayList<String> segments = new ArrayList<>();
+    final StringBuilder sb = new StringBuilder();
+    final int pl = path.length();
+    int braces = 0;
+    for(int p = path.startsWith("/") ? 1 : 0; p < pl; p++) {
+      final char ch = path.charAt(p);
+      if(ch == '/' && braces == 0) {
+        segments.add(sb.toString());
+        sb.setLength(0);
+      } else {
+        if(ch == '{') braces++;
+        else if(ch == '}') braces--;
+        sb.append(ch);
+      }
+    }
+    segments.add(sb.toString());
+    return segments;
+  }
+
+  /**
+   * Checks if the specified segment consists of a single template variable without a
+   * custom regular expression.
+   * @param segment segment
+   * @return result of check
+   */
+  private static boolean template(final String segment) {
+    final int sl = segment.length();
+    if(sl < 3 || segment.charAt(0) != '{' || segment.charAt(sl - 1) != '}') return false;
+    final String var = segment.substring(1, sl - 1).trim();
+    return var.startsWith("$") && var.indexOf('=') == -1 && var.indexOf('{') == -1 &&
+        var.indexOf('}') == -1;
+  }
+
+  /** Node of the routing tree. */
+  private static final class Node {
+    /** Child nodes for literal segments. */
+    final HashMap<String, Node> children = new HashMap<>();
+    /** Child node for segments with a single template variable (can be {@code null}). */
+    Node template;
+    /** Functions with a path that ends at this node. */
+    final ArrayList<RestXqFunction> functions = new ArrayList<>(1);
+    /** Functions with a path that needs to be matched from this node on. */
+    final ArrayList<RestXqFunction> patterns = new ArrayList<>(1);
+  }
+}
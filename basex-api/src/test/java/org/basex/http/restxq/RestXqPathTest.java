@@ -52,6 +52,25 @@ public final class RestXqPathTest extends RestXqTest {
     get(f, "var/y", "y");
   }
 
+  /**
+   * Chooses between literal and template segments.
+   * @throws Exception exception
+   */
+  @Test
+  public void getSegments() throws Exception {
+    final String f = "declare %R:path('a/b') function m:f() {'b'};" +
+        "declare %R:path('a/{$x}') function m:g($x) {$x};" +
+        "declare %R:path('a/{$x}/c') function m:h($x) {'c' || $x};" +
+        "declare %R:path('a/{$x=.+}/d') function m:i($x) {'d' || $x};";
+    get(f, "a/b", "b");
+    get(f, "a/x", "x");
+    get(f, "a/x/c", "cx");
+    get(f, "a/b/c", "cb");
+    get(f, "a/x/y/d", "dx/y");
+    getE(f, "a");
+    getE(f, "a/x/y");
+  }
+
   /**
    * Retrieves paths with namespace declarations.
    * @throws Exception exception
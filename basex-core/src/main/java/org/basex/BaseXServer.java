@@ -4,6 +4,7 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
 
 import org.basex.api.client.*;
@@ -38,6 +39,8 @@ public final class BaseXServer extends CLI implements Runnable {
   private StringList commands;
   /** Server socket. */
   private ServerSocket socket;
+  /** Client pool. */
+  private ClientPool pool;
   /** Start as daemon. */
   private boolean service;
   /** Quiet flag. */
@@ -104,13 +107,15 @@ public final class BaseXServer extends CLI implements Runnable {
       // execute initial command-line arguments
       for(final String c : commands) execute(c);
 
-      socket = new ServerSocket();
+      // channel-based sockets can be registered with the selector of the client pool
+      socket = ServerSocketChannel.open().socket();
       socket.setReuseAddress(true);
       socket.bind(new InetSocketAddress(addr, port));
       esocket = new ServerSocket();
       esocket.setReuseAddress(true);
       esocket.bind(new InetSocketAddress(addr, eport));
       stopFile = stopFile(port);
+      pool = new ClientPool();
     } catch(final IOException ex) {
       context.log.writeServer(LogType.ERROR, Util.message(ex));
       throw ex;
@@ -153,7 +158,7 @@ public final class BaseXServer extends CLI implements Runnable {
               if(ms - cs.last > ka) cs.quit();
             }
           }
-          final ClientListener cl = new ClientListener(s, context, this);
+          final ClientListener cl = new ClientListener(s, context, this, pool);
           // start authentication timeout
           final long to = context.soptions.get(StaticOptions.KEEPALIVE) * 1000L;
           if(to > 0) {
@@ -165,7 +170,7 @@ public final class BaseXServer extends CLI implements Runnable {
             }, to);
             auth.add(cl);
           }
-          cl.start();
+          pool.execute(cl);
         }
       } catch(final SocketException ex) {
         break;
@@ -201,6 +206,7 @@ public final class BaseXServer extends CLI implements Runnable {
     for(final ClientListener cs : context.sessions) {
       cs.quit();
     }
+    pool.close();
 
     try {
       // close interactive input if server was stopped by another process
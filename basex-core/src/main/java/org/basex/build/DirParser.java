@@ -4,14 +4,18 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.regex.*;
 import java.util.zip.*;
 
 import org.basex.core.*;
 import org.basex.core.MainOptions.MainParser;
 import org.basex.core.cmd.*;
+import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.io.in.*;
+import org.basex.io.serial.*;
+import org.basex.query.value.node.*;
 import org.basex.util.*;
 import org.basex.util.list.*;
 
@@ -19,12 +23,19 @@ import org.basex.util.list.*;
  * This class recursively scans files and directories and parses all
  * relevant files.
  *
+ * If {@link MainOptions#PARSERTHREADS} is larger than 1, the files of directories and archives
+ * are parsed in parallel: each file is parsed into a temporary main-memory instance, and the
+ * results are added to the target builder in the order in which the files were found.
+ * Large files and inputs of unknown size are parsed directly by the builder.
+ *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
  */
 public final class DirParser extends Parser {
   /** Number of skipped files to log. */
   private static final int SKIPLOG = 10;
+  /** Maximum size of files that will be parsed in parallel. */
+  private static final long MAXPARALLEL = 1 << 24;
   /** Skipped files. */
   private final StringList skipped = new StringList();
   /** File pattern. */
@@ -42,9 +53,16 @@ public final class DirParser extends Parser {
   private final boolean dtd;
   /** Raw parsing. */
   private final boolean rawParser;
+  /** Number of threads for parsing files in parallel. */
+  private final int threads;
   /** Database path for storing binary files. */
   private IOFile rawPath;
 
+  /** Thread pool ({@code null} if files are parsed sequentially). */
+  private ExecutorService pool;
+  /** Documents that are parsed in parallel, in the order in which they will be added. */
+  private final ArrayDeque<Doc> docs = new ArrayDeque<>();
+
   /** Last source. */
   private IO lastSrc;
   /** Parser reference. */
@@ -69,6 +87,8 @@ public final class DirParser extends Parser {
     rawParser = options.get(MainOptions.PARSER) == MainParser.RAW;
     filter = !source.isDir() && !source.isArchive() ? null :
       Pattern.compile(IOFile.regex(options.get(MainOptions.CREATEFILTER)));
+    final int pt = options.get(MainOptions.PARSERTHREADS);
+    threads = pt > 0 ? pt : Runtime.getRuntime().availableProcessors();
   }
 
   /**
@@ -86,7 +106,18 @@ public final class DirParser extends Parser {
   public void parse(final Builder build) throws IOException {
     build.meta.filesize = 0;
     build.meta.original = source.path();
-    parse(build, source);
+    if(filter != null && threads > 1 && !rawParser) pool = Executors.newFixedThreadPool(threads);
+    try {
+      parse(build, source);
+      while(!docs.isEmpty()) add(build);
+    } finally {
+      if(pool != null) {
+        for(final Doc doc : docs) doc.data.cancel(true);
+        docs.clear();
+        pool.shutdownNow();
+        pool = null;
+      }
+    }
   }
 
   /**
@@ -181,6 +212,14 @@ public final class DirParser extends Parser {
         }
       } else {
         // store input as XML
+        if(pool != null) {
+          if(l != -1 && l <= MAXPARALLEL) {
+            parallel(b, targ);
+            return;
+          }
+          // add pending documents before parsing large files
+          while(!docs.isEmpty()) add(b);
+        }
         boolean ok = true;
         IO in = source;
         if(skipCorrupt) {
@@ -212,6 +251,60 @@ public final class DirParser extends Parser {
     }
   }
 
+  /**
+   * Parses the current source in a separate thread.
+   * @param b builder instance
+   * @param targ target path
+   * @throws IOException I/O exception
+   */
+  private void parallel(final Builder b, final String targ) throws IOException {
+    // cache contents of archive entries, as the stream will be consumed by the next entry
+    IO in = source;
+    if(!(in instanceof IOFile || in instanceof IOContent)) {
+      in = new IOContent(source.read());
+      in.name(source.name());
+    }
+    final IO input = in;
+    docs.add(new Doc(source.path(), pool.submit(new Callable<MemData>() {
+      @Override
+      public MemData call() throws IOException {
+        return MemBuilder.build("", Parser.singleParser(input, options, targ));
+      }
+    })));
+    // limit number of documents in main memory
+    if(docs.size() > threads << 2) add(b);
+  }
+
+  /**
+   * Waits for the first pending document and adds it to the builder.
+   * @param b builder instance
+   * @throws IOException I/O exception
+   */
+  private void add(final Builder b) throws IOException {
+    b.checkStop();
+    final Doc doc = docs.poll();
+    final MemData data;
+    try {
+      data = doc.data.get();
+    } catch(final InterruptedException ex) {
+      throw new ProcException();
+    } catch(final ExecutionException ex) {
+      final Throwable th = ex.getCause();
+      if(th instanceof IOException) {
+        if(!skipCorrupt) throw (IOException) th;
+        Util.debug(th);
+        skipped.add(doc.path);
+        return;
+      }
+      if(th instanceof RuntimeException) throw (RuntimeException) th;
+      throw new IOException(th);
+    }
+    new BuilderSerializer(b).serialize(new DBNode(data, 0));
+    if(!data.meta.encoding.equals(Strings.UTF8)) b.encoding(data.meta.encoding);
+    // dump debug data
+    if(Prop.debug && (++c & 0x3FF) == 0) Util.err(";");
+  }
+
   @Override
   public String info() {
     final TokenBuilder tb = new TokenBuilder();
@@ -245,4 +338,24 @@ public final class DirParser extends Parser {
   public void close() throws IOException {
     if(parser != null) parser.close();
   }
+
+  /**
+   * Document that is parsed in parallel.
+   */
+  private static final class Doc {
+    /** Path of the source. */
+    private final String path;
+    /** Parsed document. */
+    private final Future<MemData> data;
+
+    /**
+     * Constructor.
+     * @param path path of the source
+     * @param data parsed document
+     */
+    private Doc(final String path, final Future<MemData> data) {
+      this.path = path;
+      this.data = data;
+    }
+  }
 }
@@ -20,6 +20,8 @@ public final class CsvBuilder extends CsvConverter {
   private final Atts atts = new Atts();
   /** Namespaces. */
   private final Atts nsp = new Atts();
+  /** Start time (nanoseconds). */
+  private final long start = System.nanoTime();
   /** Record. */
   private boolean record;
   /** Builder. */
@@ -80,7 +82,8 @@ public final class CsvBuilder extends CsvConverter {
 
   @Override
   protected String det() {
-    return Util.info(LINE_X, line);
+    final long time = System.nanoTime() - start;
+    return Util.info(LINE_X_X, line, time == 0 ? 0 : line * 1000000000L / time);
   }
 
   @Override
@@ -1,20 +1,24 @@
 package org.basex.build.html;
 
+import static org.basex.core.Text.*;
 import static org.basex.util.Token.*;
 
 import java.io.*;
-import java.lang.reflect.*;
 
+import org.basex.build.*;
 import org.basex.build.xml.*;
 import org.basex.core.*;
 import org.basex.io.*;
 import org.basex.io.in.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 import org.xml.sax.*;
+import org.xml.sax.helpers.*;
 
 /**
  * This class uses TagSoup to convert HTML input to well-formed XML.
- * If TagSoup is not found in the classpath, the original document is passed on.
+ * The SAX events of TagSoup are directly passed on to the database builder.
+ * If TagSoup is not found in the classpath, the original document is parsed as XML.
  *
  * TagSoup was written by John Cowan and is based on the Apache 2.0 License:
  * {@code http://home.ccil.org/~cowan/XML/tagsoup/}.
@@ -22,7 +26,7 @@ import org.xml.sax.*;
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
  */
-public final class HtmlParser extends XMLParser {
+public final class HtmlParser extends SingleParser {
   /** Name of HTML Parser. */
   private static final String NAME = "TagSoup";
   /** TagSoup URL. */
@@ -30,15 +34,11 @@ public final class HtmlParser extends XMLParser {
 
   /** XML parser class string. */
   private static final String PCLASS = "org.ccil.cowan.tagsoup.Parser";
-  /** XML writer class string. */
-  private static final String WCLASS = "org.ccil.cowan.tagsoup.XMLWriter";
   /** HTML reader. */
   private static final Class<?> READER = Reflect.find(PCLASS);
-  /** HTML writer. */
-  private static final Constructor<?> WRITER = Reflect.find(Reflect.find(WCLASS), Writer.class);
-  /** XML writer output property method. */
-  private static final Method METHOD = Reflect.method(
-    Reflect.find(WCLASS), "setOutputProperty", new Class[] { String.class, String.class });
+
+  /** HTML options. */
+  private final HtmlOptions hopts;
 
   /**
    * Checks if a CatalogResolver is available.
@@ -60,9 +60,8 @@ public final class HtmlParser extends XMLParser {
    * Constructor.
    * @param source document source
    * @param opts database options
-   * @throws IOException I/O exception
    */
-  public HtmlParser(final IO source, final MainOptions opts) throws IOException {
+  public HtmlParser(final IO source, final MainOptions opts) {
     this(source, opts, opts.get(MainOptions.HTMLPARSER));
   }
 
@@ -71,107 +70,169 @@ public final class HtmlParser extends XMLParser {
    * @param source document source
    * @param opts database options
    * @param hopts html options
-   * @throws IOException I/O exception
    */
-  public HtmlParser(final IO source, final MainOptions opts, final HtmlOptions hopts)
-      throws IOException {
-    super(toXML(source, hopts), opts);
+  public HtmlParser(final IO source, final MainOptions opts, final HtmlOptions hopts) {
+    super(source, opts);
+    this.hopts = hopts;
   }
 
-  /**
-   * Converts an HTML document to XML.
-   * @param io io reference
-   * @param opts html options
-   * @return parser
-   * @throws IOException I/O exception
-   */
-  private static IO toXML(final IO io, final HtmlOptions opts) throws IOException {
+  @Override
+  protected void parse() throws IOException {
     // reader could not be initialized; fall back to XML
-    if(READER == null) return io;
+    if(READER == null) {
+      parse(new XMLParser(source, options));
+      return;
+    }
 
-    try {
-      // tries to extract the encoding from the input
-      final TextInput ti = new TextInput(io);
-      String enc = ti.encoding();
-      final byte[] content = ti.content();
-
-      // looks for a charset definition
-      final byte[] encoding = token("charset=");
-      int cs = indexOf(content, encoding);
-      if(cs > 0) {
-        // extracts the encoding string
-        cs += encoding.length;
-        int ce = cs;
-        final int cl = content.length;
-        while(++ce < cl && content[ce] > 0x28);
-        enc = string(substring(content, cs, ce));
-      }
+    // tries to extract the encoding from the input
+    final TextInput ti = new TextInput(source);
+    String enc = ti.encoding();
+    final byte[] content = ti.content();
+
+    // looks for a charset definition
+    final byte[] encoding = token("charset=");
+    int cs = indexOf(content, encoding);
+    if(cs > 0) {
+      // extracts the encoding string
+      cs += encoding.length;
+      int ce = cs;
+      final int cl = content.length;
+      while(++ce < cl && content[ce] > 0x28);
+      enc = string(substring(content, cs, ce));
+    }
 
-      // define input
-      final InputSource is = new InputSource(new ArrayInput(content));
-      is.setEncoding(Strings.supported(enc) ? Strings.normEncoding(enc) : Strings.UTF8);
-      // define output
-      final StringWriter sw = new StringWriter();
-      final XMLReader reader = (XMLReader) Reflect.get(READER);
-      final Object writer = Reflect.get(WRITER, sw);
+    // define input
+    final InputSource is = new InputSource(new ArrayInput(content));
+    is.setEncoding(Strings.supported(enc) ? Strings.normEncoding(enc) : Strings.UTF8);
+    final HtmlHandler handler = new HtmlHandler(builder, options.get(MainOptions.CHOP),
+        options.get(MainOptions.STRIPNS));
 
+    try {
+      final XMLReader reader = (XMLReader) Reflect.get(READER);
       // set TagSoup options
-      if(opts.get(HtmlOptions.HTML)) {
+      if(hopts.get(HtmlOptions.HTML) || hopts.get(HtmlOptions.NONS))
         reader.setFeature("http://xml.org/sax/features/namespaces", false);
-        opt(writer, "method", "html");
-        opt(writer, "omit-xml-declaration", "yes");
-      }
-      if(opts.get(HtmlOptions.NONS))
-        reader.setFeature("http://xml.org/sax/features/namespaces", false);
-      if(opts.get(HtmlOptions.OMITXML))
-        opt(writer, "omit-xml-declaration", "yes");
-      if(opts.get(HtmlOptions.NOBOGONS))
+      if(hopts.get(HtmlOptions.NOBOGONS))
         reader.setFeature(FEATURES + "ignore-bogons", true);
-      if(opts.get(HtmlOptions.NODEFAULTS))
+      if(hopts.get(HtmlOptions.NODEFAULTS))
         reader.setFeature(FEATURES + "default-attributes", false);
-      if(opts.get(HtmlOptions.NOCOLONS))
+      if(hopts.get(HtmlOptions.NOCOLONS))
         reader.setFeature(FEATURES + "translate-colons", true);
-      if(opts.get(HtmlOptions.NORESTART))
+      if(hopts.get(HtmlOptions.NORESTART))
         reader.setFeature(FEATURES + "restart-elements", false);
-      if(opts.get(HtmlOptions.IGNORABLE))
+      if(hopts.get(HtmlOptions.IGNORABLE))
         reader.setFeature(FEATURES + "ignorable-whitespace", true);
-      if(opts.get(HtmlOptions.EMPTYBOGONS))
+      if(hopts.get(HtmlOptions.EMPTYBOGONS))
         reader.setFeature(FEATURES + "bogons-empty", true);
-      if(opts.get(HtmlOptions.ANY))
+      if(hopts.get(HtmlOptions.ANY))
         reader.setFeature(FEATURES + "bogons-empty", false);
-      if(opts.get(HtmlOptions.NOROOTBOGONS))
+      if(hopts.get(HtmlOptions.NOROOTBOGONS))
         reader.setFeature(FEATURES + "root-bogons", false);
-      if(opts.get(HtmlOptions.NOCDATA))
+      if(hopts.get(HtmlOptions.NOCDATA))
         reader.setFeature(FEATURES + "cdata-elements", false);
-      if(opts.get(HtmlOptions.LEXICAL))
-        reader.setProperty("http://xml.org/sax/properties/lexical-handler", writer);
-      if(opts.contains(HtmlOptions.METHOD))
-        opt(writer, "method", opts.get(HtmlOptions.METHOD));
-      if(opts.contains(HtmlOptions.DOCTYPESYS))
-        opt(writer, "doctype-system", opts.get(HtmlOptions.DOCTYPESYS));
-      if(opts.contains(HtmlOptions.DOCTYPEPUB))
-        opt(writer, "doctype-public", opts.get(HtmlOptions.DOCTYPEPUB));
-      if(opts.contains(HtmlOptions.ENCODING))
-        is.setEncoding(opts.get(HtmlOptions.ENCODING));
+      if(hopts.get(HtmlOptions.LEXICAL))
+        reader.setProperty("http://xml.org/sax/properties/lexical-handler", handler);
+      if(hopts.contains(HtmlOptions.ENCODING))
+        is.setEncoding(hopts.get(HtmlOptions.ENCODING));
       // end TagSoup options
 
-      reader.setContentHandler((ContentHandler) writer);
+      reader.setContentHandler(handler);
       reader.parse(is);
-      return new IOContent(token(sw.toString()), io.name());
-
     } catch(final SAXException ex) {
-      Util.errln(ex);
-      return io;
+      // prefix message with source id
+      throw new IOException('"' + source.path() + '"' + COLS + Util.message(ex), ex);
     }
   }
 
   /**
-   * Reflection invoke XMLWriter.setOutputProperty().
-   * @param writer writer instance
-   * @param name property
-   * @param value value
+   * SAX handler for TagSoup events. Namespaces are declared in the same way as by the
+   * XMLWriter of TagSoup: prefixes are removed from names without namespace URI, and
+   * the namespaces of all other names are declared if they are not in scope yet.
    */
-  private static void opt(final Object writer, final String name, final String value) {
-    Reflect.invoke(METHOD, writer, name, value);
+  private static final class HtmlHandler extends SAXHandler {
+    /** In-scope namespaces (prefixes and URIs). */
+    private final Atts scope = new Atts();
+    /** Number of in-scope namespaces of the opened elements. */
+    private final IntList sizes = new IntList();
+    /** Attributes with adjusted names. */
+    private final AttributesImpl atts = new AttributesImpl();
+
+    /**
+     * Constructor.
+     * @param builder builder reference
+     * @param chop chopping flag
+     * @param stripNS strip namespaces
+     */
+    private HtmlHandler(final Builder builder, final boolean chop, final boolean stripNS) {
+      super(builder, chop, stripNS);
+    }
+
+    @Override
+    public void startElement(final String uri, final String local, final String name,
+        final Attributes attr) throws SAXException {
+
+      sizes.push(scope.size());
+      final String en = name(uri, name, true);
+      atts.clear();
+      final int as = attr.getLength();
+      for(int a = 0; a < as; a++) {
+        final String au = attr.getURI(a);
+        atts.addAttribute(au, attr.getLocalName(a), name(au, attr.getQName(a), false),
+            attr.getType(a), attr.getValue(a));
+      }
+      super.startElement(uri, local, en, atts);
+    }
+
+    @Override
+    public void endElement(final String uri, final String local, final String name)
+        throws SAXException {
+      super.endElement(uri, local, name);
+      for(int s = sizes.pop(); scope.size() > s;) scope.delete(scope.size() - 1);
+    }
+
+    @Override
+    public void startPrefixMapping(final String prefix, final String uri) {
+      // namespaces are declared when elements are opened
+    }
+
+    /**
+     * Returns the name of an element or attribute, and declares its namespace if required.
+     * @param uri namespace URI
+     * @param name qualified name
+     * @param elem element flag
+     * @return name
+     */
+    private String name(final String uri, final String name, final boolean elem) {
+      final int c = name.indexOf(':');
+      final String prefix = c == -1 ? "" : name.substring(0, c);
+      if(prefix.isEmpty()) {
+        // unprefixed attributes have no namespace
+        if(elem) declare(prefix, uri);
+        return name;
+      }
+      if(uri.isEmpty()) return name.substring(c + 1);
+      if(!prefix.equals("xml")) declare(prefix, uri);
+      return name;
+    }
+
+    /**
+     * Declares a namespace if it is not in scope yet.
+     * @param prefix prefix
+     * @param uri namespace URI
+     */
+    private void declare(final String prefix, final String uri) {
+      final byte[] pref = token(prefix), u = token(uri);
+      byte[] current = EMPTY;
+      for(int s = scope.size() - 1; s >= 0; s--) {
+        if(eq(scope.name(s), pref)) {
+          current = scope.value(s);
+          break;
+        }
+      }
+      if(!eq(current, u)) {
+        scope.add(pref, u);
+        super.startPrefixMapping(prefix, uri);
+      }
+    }
   }
 }
@@ -2,6 +2,7 @@ package org.basex.build.json;
 
 import java.io.*;
 
+import org.basex.build.*;
 import org.basex.build.xml.*;
 import org.basex.core.*;
 import org.basex.io.*;
@@ -14,17 +15,22 @@ import org.basex.io.parse.json.*;
  * <p>The parser provides some options, which can be specified via the
  * {@link MainOptions#JSONPARSER} option.</p>
  *
+ * <p>If possible, the parse events are directly passed on to the database builder.
+ * Otherwise, the input is converted to XML first.</p>
+ *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
  */
-public final class JsonParser extends XMLParser {
+public final class JsonParser extends SingleParser {
+  /** JSON options. */
+  private final JsonParserOptions jopts;
+
   /**
    * Constructor.
    * @param source document source
    * @param opts database options
-   * @throws IOException I/O exception
    */
-  public JsonParser(final IO source, final MainOptions opts) throws IOException {
+  public JsonParser(final IO source, final MainOptions opts) {
     this(source, opts, opts.get(MainOptions.JSONPARSER));
   }
 
@@ -33,11 +39,19 @@ public final class JsonParser extends XMLParser {
    * @param source document source
    * @param opts database options
    * @param jopts parser options
-   * @throws IOException I/O exception
    */
-  public JsonParser(final IO source, final MainOptions opts, final JsonParserOptions jopts)
-      throws IOException {
-    super(toXML(source, jopts), opts);
+  public JsonParser(final IO source, final MainOptions opts, final JsonParserOptions jopts) {
+    super(source, opts);
+    this.jopts = jopts;
+  }
+
+  @Override
+  protected void parse() throws IOException {
+    if(JsonBuilder.supported(jopts)) {
+      new JsonBuilder(jopts, builder, options.get(MainOptions.CHOP)).convert(source);
+    } else {
+      parse(new XMLParser(toXML(source, jopts), options));
+    }
   }
 
   /**
@@ -4,6 +4,7 @@ import org.basex.core.locks.*;
 import org.basex.core.users.*;
 import org.basex.data.*;
 import org.basex.io.random.*;
+import org.basex.query.*;
 import org.basex.query.util.pkg.*;
 import org.basex.server.*;
 import org.basex.util.*;
@@ -40,6 +41,10 @@ public final class Context {
   public final Repo repo;
   /** Databases list. */
   public final Databases databases;
+  /** Cached query plans. */
+  public final QueryCache queries;
+  /** Worker threads for parallel query evaluation. */
+  public final ForkPool forks;
 
   /** Log. */
   public final Log log;
@@ -95,6 +100,8 @@ public final class Context {
     users = ctx.users;
     repo = ctx.repo;
     log = ctx.log;
+    queries = ctx.queries;
+    forks = ctx.forks;
   }
 
   /**
@@ -113,6 +120,8 @@ public final class Context {
     users = new Users(soptions);
     repo = new Repo(soptions);
     log = new Log(soptions);
+    queries = new QueryCache(soptions);
+    forks = new ForkPool(soptions);
     user = users.get(UserText.ADMIN);
     listener = null;
   }
@@ -142,6 +151,7 @@ public final class Context {
     while(!sessions.isEmpty()) sessions.get(0).quit();
     dbs.close();
     log.close();
+    forks.close();
   }
 
   /**
@@ -33,6 +33,8 @@ public final class MainOptions extends Options {
   public static final BooleanOption SKIPCORRUPT = new BooleanOption("SKIPCORRUPT", false);
   /** Flag for adding remaining files as raw files. */
   public static final BooleanOption ADDRAW = new BooleanOption("ADDRAW", false);
+  /** Number of threads for parsing multiple files (0: number of available processors). */
+  public static final NumberOption PARSERTHREADS = new NumberOption("PARSERTHREADS", 1);
   /** Define CSV parser options. */
   public static final OptionsOption<CsvParserOptions> CSVPARSER =
       new OptionsOption<>("CSVPARSER", new CsvParserOptions());
@@ -77,11 +79,15 @@ public final class MainOptions extends Options {
   public static final BooleanOption ATTRINDEX = new BooleanOption("ATTRINDEX", true);
   /** Flag for creating a full-text index. */
   public static final BooleanOption FTINDEX = new BooleanOption("FTINDEX", false);
+  /** Flag for creating a typed range index. */
+  public static final BooleanOption RANGEINDEX = new BooleanOption("RANGEINDEX", false);
 
   /** Maximum number of text/attribute index entries to keep in memory during index creation. */
   public static final NumberOption INDEXSPLITSIZE = new NumberOption("INDEXSPLITSIZE", 0);
   /** Maximum number of fulltext index entries to keep in memory during index creation. */
   public static final NumberOption FTINDEXSPLITSIZE = new NumberOption("FTINDEXSPLITSIZE", 0);
+  /** Number of threads for creating index structures (0: number of available processors). */
+  public static final NumberOption INDEXTHREADS = new NumberOption("INDEXTHREADS", 1);
 
   /** Maximum length of index entries. */
   public static final NumberOption MAXLEN = new NumberOption("MAXLEN", 96);
@@ -91,6 +97,8 @@ public final class MainOptions extends Options {
   public static final BooleanOption UPDINDEX = new BooleanOption("UPDINDEX", false);
   /** Flag for automatic index updates. */
   public static final BooleanOption AUTOOPTIMIZE = new BooleanOption("AUTOOPTIMIZE", false);
+  /** Flag for accessing the database table via memory mapping. */
+  public static final BooleanOption MAPTABLE = new BooleanOption("MAPTABLE", false);
 
   // Full-Text
 
@@ -119,6 +127,11 @@ public final class MainOptions extends Options {
   public static final NumberOption INLINELIMIT = new NumberOption("INLINELIMIT", 100);
   /** Flag for tail-call optimization. */
   public static final NumberOption TAILCALLS = new NumberOption("TAILCALLS", 256);
+  /**
+   * Maximum number of FLWOR tuples that are sorted or grouped in main memory (0: no limit).
+   * If the limit is exceeded, groups are returned in the order of their partitions on disk.
+   */
+  public static final NumberOption SPILLSIZE = new NumberOption("SPILLSIZE", 0);
   /** Favor global database when opening resources. */
   public static final BooleanOption DEFAULTDB = new BooleanOption("DEFAULTDB", false);
   /** Caches the query results. */
@@ -70,6 +70,10 @@ public final class StaticOptions extends Options {
   public static final NumberOption KEEPALIVE = new NumberOption("KEEPALIVE", 600);
   /** Defines the number of parallel readers. */
   public static final NumberOption PARALLEL = new NumberOption("PARALLEL", 8);
+  /** Maximum number of cached query plans; deactivated if set to 0. */
+  public static final NumberOption QUERYCACHE = new NumberOption("QUERYCACHE", 100);
+  /** Maximum number of cached entries per index. */
+  public static final NumberOption INDEXCACHE = new NumberOption("INDEXCACHE", 65536);
   /** Logging flag. */
   public static final BooleanOption LOG = new BooleanOption("LOG", true);
   /** Log message cut-off. */
@@ -149,6 +149,10 @@ public interface Text {
   /** Command keyword. */
   String S_ALL = "ALL";
   /** Command keyword. */
+  String S_ONLINE = "ONLINE";
+  /** Command keyword. */
+  String S_INCREMENTAL = "INCREMENTAL";
+  /** Command keyword. */
   String S_TO = "TO";
   /** Command keyword. */
   String S_QUERY = "query";
@@ -173,11 +177,44 @@ public interface Text {
   String LI_SIZE = LI + "Size: ";
   /** Index info. */
   String LI_ENTRIES = LI + "Entries: ";
+  /** Index info. */
+  String LI_CACHE = LI + "Cache: ";
+  /** Index info. */
+  String LI_CACHE_HITS = LI + "Cache hits: ";
+  /** Index info. */
+  String LI_CACHE_MISSES = LI + "Cache misses: ";
+  /** Index info. */
+  String LI_CACHE_EVICTIONS = LI + "Cache evictions: ";
+  /** Index info. */
+  String LI_NUMBERS = LI + "Numbers: ";
+  /** Index info. */
+  String LI_DATES = LI + "Dates: ";
+  /** Index info. */
+  String LI_DATETIMES = LI + "Date/times: ";
+
+  /** Storage info. */
+  String LI_BLOCKS = LI + "Blocks: ";
+  /** Storage info. */
+  String LI_BUFFER_HITS = LI + "Buffer hits: ";
+  /** Storage info. */
+  String LI_BUFFER_MISSES = LI + "Buffer misses: ";
+  /** Storage info. */
+  String LI_MAPPED = LI + "Mapped: ";
+  /** Storage info. */
+  String LI_MAPPINGS = LI + "Mappings: ";
 
   /** Index info. */
   String HASH = "Hash";
   /** Index info. */
   String SORTED_LIST = "Sorted List";
+  /** Index info. */
+  String SORTED_BLOCKS = "Sorted Blocks";
+  /** Storage info. */
+  String BUFFERED_BLOCKS = "Buffered Blocks";
+  /** Storage info. */
+  String MEMORY_MAPPED = "Memory-Mapped Blocks";
+  /** Storage info. */
+  String MAIN_MEMORY = "Main Memory";
 
   /** Query hits. */
   String ITEM = "Item";
@@ -272,14 +309,15 @@ public interface Text {
     CmdCreate.EVENT + '|' + CmdCreate.INDEX + '|' + CmdCreate.USER + "] [...]",
     lang("c_create1"),
     lang("c_create2") + NL +
-    LI + CmdDrop.BACKUP + " [" + S_NAME + "]:" + NL +
+    LI + CmdDrop.BACKUP + " [" + S_NAME + "] (" + S_INCREMENTAL + "):" + NL +
     "  " + lang("c_create4", S_NAME) + NL +
+    "  " + lang("c_create10", S_INCREMENTAL) + NL +
     LI + CmdCreate.DATABASE + " [" + S_NAME + "] ([" + S_INPUT + "]):"  + NL +
     "  " + lang("c_create3", S_NAME, S_INPUT) + NL +
     LI + CmdCreate.EVENT + " [" + S_NAME + "]: " + NL +
     "  " + lang("c_create9") + NL +
     LI + CmdCreate.INDEX + " [" + CmdIndex.TEXT + '|' + CmdIndex.ATTRIBUTE +
-    '|' + CmdIndex.FULLTEXT + "]:" + NL +
+    '|' + CmdIndex.FULLTEXT + '|' + CmdIndex.RANGE + "]:" + NL +
     "  " + lang("c_create5") + NL +
     LI + CmdCreate.USER + " [" + S_NAME + "] ([" + S_PW + "]):" + NL +
     "  " + lang("c_create8")
@@ -348,7 +386,7 @@ public interface Text {
     LI + CmdDrop.EVENT + " [" + S_NAME + "]:" + NL +
       "  " + lang("c_drop25", S_NAME) + NL +
     LI + CmdDrop.INDEX + " [" + CmdIndex.TEXT + '|' +
-      CmdIndex.ATTRIBUTE + '|' + CmdIndex.FULLTEXT + "]:" + NL +
+      CmdIndex.ATTRIBUTE + '|' + CmdIndex.FULLTEXT + '|' + CmdIndex.RANGE + "]:" + NL +
       "  " + lang("c_drop22") + NL +
     LI + CmdDrop.USER + " [" + S_NAME + "] (" + ON + " [pattern]): " + NL +
       "  " + lang("c_drop23")
@@ -359,7 +397,8 @@ public interface Text {
   };
   /** Command help. */
   String[] HELPOPTIMIZE = {
-    '(' + S_ALL + ')', lang("c_optimize1"), lang("c_optimize2", S_ALL)
+    '(' + S_ALL + " (" + S_ONLINE + "))", lang("c_optimize1"),
+    lang("c_optimize2", S_ALL, S_ONLINE)
   };
 
   /** Command help. */
@@ -529,6 +568,8 @@ public interface Text {
   String INDEX_ATTRIBUTES_D = lang("index_attributes") + DOTS;
   /** Create full-text index. */
   String INDEX_FULLTEXT_D = lang("index_fulltext") + DOTS;
+  /** Create range index. */
+  String INDEX_RANGE_D = lang("index_range") + DOTS;
 
   /** Database created. */
   String DB_CREATED_X_X = lang("db_created_%_%");
@@ -611,6 +652,10 @@ public interface Text {
   String BACKUP_DROPPED_X = lang("backup_dropped_%");
   /** Backup was not found. */
   String BACKUP_NOT_FOUND_X = lang("backup_not_found_%");
+  /** Backup is based on another backup. */
+  String BACKUP_BASED_X_X = lang("backup_based_%_%");
+  /** Checksum of a restored file does not match. */
+  String BACKUP_CHECKSUM_X = lang("backup_checksum_%");
   /** File could not be deleted. */
   String FILE_NOT_DELETED_X = lang("file_not_deleted_%");
   /** File could not be renamed. */
@@ -649,6 +694,10 @@ public interface Text {
   String RESULT = lang("result");
   /** Query info: plan. */
   String QUERY_PLAN = lang("query_plan");
+  /** Query cache. */
+  String QUERY_CACHE = lang("query_cache");
+  /** Query cache info. */
+  String QUERY_CACHE_X_X_X = lang("query_cache_%_%_%");
 
   /** "Query: ". */
   String QUERY_CC = lang("query") + COLS;
@@ -681,11 +730,15 @@ public interface Text {
   String STOPPED_AT = lang("stopped_at") + ' ';
   /** Line info. */
   String LINE_X = lang("line_%");
+  /** Line info with throughput. */
+  String LINE_X_X = lang("line_%_%");
 
   // ADMIN COMMANDS ==========================================================
 
   /** Show sessions. */
   String SESSIONS_X = lang("sessions_%");
+  /** Active and idle sessions. */
+  String SESSION_STATES_X_X = " (" + lang("session_states_%_%") + ')';
   /** Show events. */
   String EVENTS_X = lang("events_%");
   /** Show packages. */
@@ -824,6 +877,8 @@ public interface Text {
   String ATTRIBUTE_INDEX = lang("attribute_index");
   /** Info on full-text indexing. */
   String FULLTEXT_INDEX = lang("fulltext_index");
+  /** Info on range indexing. */
+  String RANGE_INDEX = lang("range_index");
   /** Info on path summary. */
   String PATH_INDEX = lang("path_index");
   /** Info on up-to-date. */
@@ -1171,6 +1226,8 @@ public interface Text {
   String BACKUPS = lang("backups");
   /** Backup(s). */
   String BACKUPS_X = lang("backups_%");
+  /** Base backup. */
+  String BASE = lang("base");
   /** Line number. */
   String LINE_NUMBER = lang("line_number");
 
@@ -109,6 +109,8 @@ public abstract class ACreate extends Command {
         data.meta.attrindex = true;
       } else if(type == IndexType.FULLTEXT) {
         data.meta.ftxtindex = true;
+      } else if(type == IndexType.RANGE) {
+        data.meta.rangeindex = true;
       } else {
         throw Util.notExpected();
       }
@@ -132,6 +134,8 @@ public abstract class ACreate extends Command {
         data.meta.attrindex = false;
       } else if(type == IndexType.FULLTEXT) {
         data.meta.ftxtindex = false;
+      } else if(type == IndexType.RANGE) {
+        data.meta.rangeindex = false;
       } else {
         throw Util.notExpected();
       }
@@ -5,6 +5,7 @@ import static org.basex.data.DataText.*;
 
 import java.io.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.core.*;
 import org.basex.core.locks.*;
@@ -23,12 +24,25 @@ import org.basex.util.list.*;
  * @author Christian Gruen
  */
 public final class CreateBackup extends ABackup {
+  /** Incremental flag. */
+  private final boolean incremental;
+
   /**
    * Default constructor.
    * @param arg optional argument
    */
   public CreateBackup(final String arg) {
+    this(arg, false);
+  }
+
+  /**
+   * Constructor.
+   * @param arg optional argument
+   * @param incremental only back up changes since the last backup
+   */
+  public CreateBackup(final String arg, final boolean incremental) {
     super(arg);
+    this.incremental = incremental;
   }
 
   @Override
@@ -40,23 +54,52 @@ public final class CreateBackup extends ABackup {
     final StringList dbs = context.databases.listDBs(name);
     if(dbs.isEmpty()) return error(DB_NOT_FOUND_X, name);
 
-    // loop through all databases
+    // skip databases that are marked as updating (or corrupt)
     boolean ok = true;
+    final StringList backup = new StringList();
     for(final String db : dbs) {
       if(!soptions.dbpath(db).isDir()) continue;
-
-      // don't open databases marked as updating
       if(MetaData.file(soptions.dbpath(db), DATAUPD).exists()) {
-        // reject backups of databases that are currently being updated (or corrupt)
         info(DB_UPDATED_X, db);
         ok = false;
       } else {
+        backup.add(db);
+      }
+    }
+
+    final int bs = backup.size();
+    if(bs == 1) {
+      final String db = backup.get(0);
+      try {
+        backup(db, context, incremental, this);
+        info(DB_BACKUP_X, db, perf);
+      } catch(final IOException ex) {
+        Util.debug(ex);
+        info(DB_NOT_BACKUP_X, db);
+        ok = false;
+      }
+    } else if(bs > 1) {
+      // back up multiple databases in parallel
+      final ExecutorService pool = Executors.newFixedThreadPool(
+          Math.min(bs, Runtime.getRuntime().availableProcessors()));
+      final ArrayList<Future<String>> results = new ArrayList<>(bs);
+      for(final String db : backup) {
+        results.add(pool.submit(new Callable<String>() {
+          @Override
+          public String call() throws IOException {
+            final Performance p = new Performance();
+            backup(db, context, incremental, null);
+            return Util.info(DB_BACKUP_X, db, p);
+          }
+        }));
+      }
+      pool.shutdown();
+      for(int b = 0; b < bs; b++) {
         try {
-          backup(db, soptions, this);
-          // backup was successful
-          info(DB_BACKUP_X, db, perf);
-        } catch(final IOException ex) {
-          info(DB_NOT_BACKUP_X, db);
+          info(results.get(b).get());
+        } catch(final InterruptedException | ExecutionException ex) {
+          Util.debug(ex);
+          info(DB_NOT_BACKUP_X, backup.get(b));
           ok = false;
         }
       }
@@ -65,25 +108,35 @@ public final class CreateBackup extends ABackup {
   }
 
   /**
-   * Backups the specified database.
+   * Backups the specified database. Existing backups will not be overwritten.
    * @param db name of the database
-   * @param sopts static options
+   * @param ctx database context
+   * @param incremental only back up changes since the last backup
    * @param cmd calling command instance
    * @throws IOException I/O Exception
    */
-  public static void backup(final String db, final StaticOptions sopts, final CreateBackup cmd)
-      throws IOException {
+  public static void backup(final String db, final Context ctx, final boolean incremental,
+      final CreateBackup cmd) throws IOException {
+
+    final StaticOptions sopts = ctx.soptions;
+    final StringList backups = ctx.databases.backups(db);
+    final String base = incremental && !backups.isEmpty() ? backups.get(0) : null;
 
-    final String backup = db + '-' + DateTime.format(new Date(), DateTime.DATETIME) + IO.ZIPSUFFIX;
-    final IOFile zf = sopts.dbpath(backup);
-    final Zip zip = new Zip(zf);
-    if(cmd != null) cmd.proc(zip);
+    // wait until a new timestamp is available
+    IOFile zf;
+    while(true) {
+      zf = sopts.dbpath(db + '-' + DateTime.format(new Date(), DateTime.DATETIME) + IO.ZIPSUFFIX);
+      if(!zf.exists()) break;
+      Performance.sleep(100);
+    }
+    final Backup backup = new Backup(zf);
+    if(cmd != null) cmd.proc(backup);
 
     // skip file that indicates a current update operation (will be the case when using XQuery)
     final IOFile dbpath = sopts.dbpath(db);
     final StringList files = dbpath.descendants();
     files.delete(DATAUPD + IO.BASEXSUFFIX);
-    zip.zip(dbpath, files);
+    backup.create(dbpath, files, base);
   }
 
   @Override
@@ -105,5 +158,6 @@ public final class CreateBackup extends ABackup {
   @Override
   public void build(final CmdBuilder cb) {
     cb.init(Cmd.CREATE + " " + CmdCreate.BACKUP).args();
+    if(incremental) cb.key(S_INCREMENTAL);
   }
 }
@@ -104,6 +104,7 @@ public final class CreateDB extends ACreate {
           if(data.meta.createtext) create(IndexType.TEXT,      data, options, this);
           if(data.meta.createattr) create(IndexType.ATTRIBUTE, data, options, this);
           if(data.meta.createftxt) create(IndexType.FULLTEXT,  data, options, this);
+          if(data.meta.createrange) create(IndexType.RANGE,    data, options, this);
 
           // for testing purposes
           final Class<?> luceneClass = Reflect.find("org.basex.modules.LuceneIndex");
@@ -182,6 +183,7 @@ public final class CreateDB extends ACreate {
     if(data.meta.createtext) create(IndexType.TEXT,      data, options, null);
     if(data.meta.createattr) create(IndexType.ATTRIBUTE, data, options, null);
     if(data.meta.createftxt) create(IndexType.FULLTEXT,  data, options, null);
+    if(data.meta.createrange) create(IndexType.RANGE,    data, options, null);
     return data;
   }
 
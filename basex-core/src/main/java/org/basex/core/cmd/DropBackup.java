@@ -2,11 +2,14 @@ package org.basex.core.cmd;
 
 import static org.basex.core.Text.*;
 
+import java.io.*;
+
 import org.basex.core.*;
 import org.basex.core.parse.*;
 import org.basex.core.parse.Commands.Cmd;
 import org.basex.core.parse.Commands.CmdDrop;
 import org.basex.io.*;
+import org.basex.util.*;
 import org.basex.util.list.*;
 
 /**
@@ -34,14 +37,44 @@ public final class DropBackup extends ABackup {
     // if the given argument is not a database name, it could be the name of a backup file
     if(dbs.isEmpty()) dbs.add(name);
 
-    // drop all backups
-    for(final String db : dbs) {
-      for(final String backup : context.databases.backups(db)) drop(backup, soptions);
+    // collect all backups
+    final StringList backups = new StringList();
+    for(final String db : dbs) backups.add(context.databases.backups(db));
+
+    // reject deletion if a remaining backup is based on one of the backups
+    try {
+      final String[] based = based(backups, context);
+      if(based != null) return error(BACKUP_BASED_X_X, based[0], based[1]);
+    } catch(final IOException ex) {
+      return error(Util.message(ex));
     }
 
+    // drop all backups
+    for(final String backup : backups) drop(backup, soptions);
+
     return info(BACKUP_DROPPED_X, name + '*' + IO.ZIPSUFFIX);
   }
 
+  /**
+   * Checks if a backup that will not be dropped is based on one of the specified backups.
+   * @param backups names of the backups to be dropped
+   * @param ctx database context
+   * @return names of the remaining backup and its base, or {@code null}
+   * @throws IOException I/O exception
+   */
+  public static String[] based(final StringList backups, final Context ctx)
+      throws IOException {
+
+    for(final String backup : backups) {
+      for(final String other : ctx.databases.backups(Databases.name(backup))) {
+        if(backups.contains(other)) continue;
+        final String base = Backup.base(ctx.soptions.dbpath(other + IO.ZIPSUFFIX));
+        if(backups.contains(base)) return new String[] { other, base };
+      }
+    }
+    return null;
+  }
+
   /**
    * Drops a backup with the specified name.
    * @param name name of backup file
@@ -41,6 +41,10 @@ public final class DropIndex extends ACreate {
       if(data.inMemory()) return error(NO_MAINMEM);
       data.meta.createftxt = false;
       type = IndexType.FULLTEXT;
+    } else if(ci == CmdIndex.RANGE) {
+      if(data.inMemory()) return error(NO_MAINMEM);
+      data.meta.createrange = false;
+      type = IndexType.RANGE;
     } else {
       return error(UNKNOWN_CMD_X, this);
     }
@@ -51,6 +51,7 @@ public final class Info extends AInfo {
       info(tb, USED_MEM, Performance.getMemory());
     }
     if(user.has(Perm.ADMIN)) {
+      info(tb, QUERY_CACHE, context.queries.info());
       final StaticOptions sopts = context.soptions;
       tb.add(NL + GLOBAL_OPTIONS + COL + NL);
       for(final Option<?> o : sopts) info(tb, o.name(), sopts.get(o));
@@ -72,6 +72,7 @@ public final class InfoDB extends AInfo {
     info(tb, TIMESTAMP, DateTime.format(new Date(meta.time), DateTime.DATETIME));
     info(tb, ENCODING, meta.encoding);
     info(tb, MainOptions.CHOP.name(), meta.chop);
+    info(tb, MainOptions.MAPTABLE.name(), meta.maptable);
 
     if(index) {
       tb.add(NL).addExt(header, INDEXES);
@@ -82,6 +83,7 @@ public final class InfoDB extends AInfo {
         info(tb, MainOptions.TEXTINDEX.name(), meta.textindex);
         info(tb, MainOptions.ATTRINDEX.name(), meta.attrindex);
         info(tb, MainOptions.FTINDEX.name(), meta.ftxtindex);
+        info(tb, MainOptions.RANGEINDEX.name(), meta.rangeindex);
         info(tb, MainOptions.LANGUAGE.name(), meta.language);
         info(tb, MainOptions.STEMMING.name(), meta.stemming);
         info(tb, MainOptions.CASESENS.name(), meta.casesens);
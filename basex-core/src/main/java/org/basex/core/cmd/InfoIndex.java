@@ -54,6 +54,7 @@ public final class InfoIndex extends AInfo {
     tb.add(info(CmdIndexInfo.TEXT, data, options));
     tb.add(info(CmdIndexInfo.ATTRIBUTE, data, options));
     tb.add(info(CmdIndexInfo.FULLTEXT, data, options));
+    tb.add(info(CmdIndexInfo.RANGE, data, options));
     tb.add(info(CmdIndexInfo.PATH, data, options));
     out.print(tb.finish());
     return true;
@@ -85,6 +86,8 @@ public final class InfoIndex extends AInfo {
         return info(ATTRIBUTE_INDEX, IndexType.ATTRIBUTE, data, options, data.meta.attrindex);
       case FULLTEXT:
         return info(FULLTEXT_INDEX, IndexType.FULLTEXT, data, options, data.meta.ftxtindex);
+      case RANGE:
+        return info(RANGE_INDEX, IndexType.RANGE, data, options, data.meta.rangeindex);
       default:
         return Token.token(LI + NOT_AVAILABLE);
     }
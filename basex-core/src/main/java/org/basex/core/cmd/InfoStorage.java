@@ -60,6 +60,7 @@ public final class InfoStorage extends AQuery {
       }
       out.print(table(data, ps, pe));
     }
+    out.print(new TokenBuilder(NL).add(TABLE).add(NL).add(data.tableInfo()).finish());
     return true;
   }
 
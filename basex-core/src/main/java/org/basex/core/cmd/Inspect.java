@@ -45,7 +45,7 @@ public final class Inspect extends Command {
     final Check invKind = new Check();
     final Check parRef = new Check();
     final Check parChild = new Check();
-    final Check idPre = md.updindex ? new Check() : null;
+    final Check idPre = new Check();
     // loop through all database nodes
     for(int pre = 0; pre < md.size; pre++) {
       // check node kind
@@ -62,7 +62,7 @@ public final class Inspect extends Command {
             par + data.size(par, parKind) < pre) parChild.add(pre);
       }
       // check if id/pre mapping is correct
-      if(idPre != null && data.pre(data.id(pre)) != pre) idPre.add(pre);
+      if(data.pre(data.id(pre)) != pre) idPre.add(pre);
     }
 
     final TokenBuilder info = new TokenBuilder();
@@ -70,7 +70,7 @@ public final class Inspect extends Command {
     info.add(invKind.info("invalid node kinds"));
     info.add(parRef.info("invalid parent references"));
     info.add(parChild.info("wrong parent/descendant relationships"));
-    if(idPre != null) info.add(idPre.info("wrong id/pre mappings"));
+    info.add(idPre.info("wrong id/pre mappings"));
     if(invKind.invalid + parRef.invalid + parChild.invalid == 0) {
       info.add("No inconsistencies found.").add(Prop.NL);
     } else {
@@ -146,6 +146,10 @@ public final class Optimize extends ACreate {
     optimize(IndexType.ATTRIBUTE, data, options, md.createattr, md.attrindex, enforce, cmd);
     optimize(IndexType.TEXT,      data, options, md.createtext, md.textindex, enforce, cmd);
     optimize(IndexType.FULLTEXT,  data, options, md.createftxt, md.ftxtindex, enforceFT, cmd);
+    // range index is only available for disk-based databases
+    if(!data.inMemory()) {
+      optimize(IndexType.RANGE,   data, options, md.createrange, md.rangeindex, enforce, cmd);
+    }
   }
 
   /**
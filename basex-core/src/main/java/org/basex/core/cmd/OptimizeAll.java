@@ -23,10 +23,21 @@ import org.basex.util.list.*;
  * the currently opened database. This effectively eliminates all fragmentation
  * and can lead to significant space savings after updates.
  *
+ * In the online mode, the database is rebuilt while it is read-locked, and the rebuilt
+ * database is swapped in while it is write-locked. If the database has been updated in the
+ * meantime, the rebuild will be repeated.
+ *
  * @author BaseX Team 2005-15, BSD License
  * @author Leo Woerteler
  */
 public final class OptimizeAll extends ACreate {
+  /** Maximum number of rebuilds in the online mode. */
+  private static final int ATTEMPTS = 3;
+
+  /** Online mode. */
+  private final boolean online;
+  /** Indicates if the database is write-locked. */
+  private boolean exclusive;
   /** Current pre value. */
   private int pre;
   /** Data size. */
@@ -36,14 +47,28 @@ public final class OptimizeAll extends ACreate {
    * Default constructor.
    */
   public OptimizeAll() {
+    this(false);
+  }
+
+  /**
+   * Constructor.
+   * @param online online mode: rebuild database while it can still be read
+   */
+  public OptimizeAll(final boolean online) {
     super(Perm.WRITE, true);
+    this.online = online;
+    exclusive = !online;
   }
 
   @Override
   protected boolean run() {
     final Data data = context.data();
     try {
-      optimizeAll(data, context, options, this);
+      if(online) {
+        if(!optimizeOnline(data)) return error(DB_UPDATED_X, data.meta.name);
+      } else {
+        optimizeAll(data, context, options, this);
+      }
     } catch(final IOException ex) {
       return error(Util.message(ex));
     } finally {
@@ -60,9 +85,14 @@ public final class OptimizeAll extends ACreate {
     return true;
   }
 
+  @Override
+  public boolean updating(final Context ctx) {
+    return exclusive;
+  }
+
   @Override
   public void databases(final LockResult lr) {
-    lr.write.add(DBLocking.CTX);
+    (exclusive ? lr.write : lr.read).add(DBLocking.CTX);
   }
 
   @Override
@@ -82,7 +112,52 @@ public final class OptimizeAll extends ACreate {
 
   @Override
   public void build(final CmdBuilder cb) {
-    cb.init(Cmd.OPTIMIZE + " " + S_ALL);
+    cb.init(Cmd.OPTIMIZE + " " + S_ALL + (online ? " " + S_ONLINE : ""));
+  }
+
+  /**
+   * Rebuilds the database while it is read-locked, and swaps in the new instance while it is
+   * write-locked.
+   * @param data disk data
+   * @return {@code false} if the database was repeatedly updated during the rebuild
+   * @throws IOException I/O Exception during index rebuild
+   */
+  private boolean optimizeOnline(final Data data) throws IOException {
+    if(data.inMemory()) throw new BaseXException(NO_MAINMEM);
+
+    for(int a = 0; a < ATTEMPTS; a++) {
+      final int updates = data.meta.updates;
+      final String tname = build(data, context, options, this);
+
+      // replace read lock with write lock
+      lock(true);
+      if(data.meta.updates == updates) {
+        try {
+          checkPins(data, context);
+        } catch(final BaseXException ex) {
+          DropDB.drop(tname, soptions);
+          throw ex;
+        }
+        swap(data, tname, context, options);
+        return true;
+      }
+      // database has been updated in the meantime: discard rebuilt database and try again
+      DropDB.drop(tname, soptions);
+      lock(false);
+      pre = 0;
+    }
+    return false;
+  }
+
+  /**
+   * Replaces the current database lock.
+   * @param write write lock
+   */
+  private void lock(final boolean write) {
+    context.unregister(this);
+    exclusive = write;
+    updating = write;
+    context.register(this);
   }
 
   /**
@@ -100,12 +175,35 @@ public final class OptimizeAll extends ACreate {
 
     if(data.inMemory()) throw new BaseXException(NO_MAINMEM);
 
+    checkPins(data, context);
+    swap(data, build(data, context, options, cmd), context, options);
+  }
+
+  /**
+   * Checks if the database is also pinned by other users.
+   * @param data data reference
+   * @param context database context
+   * @throws BaseXException database exception
+   */
+  private static void checkPins(final Data data, final Context context) throws BaseXException {
+    final String name = data.meta.name;
+    if(context.dbs.pins(name) > 1) throw new BaseXException(DB_PINNED_X, name);
+  }
+
+  /**
+   * Rebuilds the database and index structures in a temporary database.
+   * @param data disk data
+   * @param context database context
+   * @param options main options
+   * @param cmd command reference or {@code null}
+   * @return name of the temporary database
+   * @throws IOException I/O Exception during index rebuild
+   */
+  private static String build(final Data data, final Context context,
+      final MainOptions options, final OptimizeAll cmd) throws IOException {
+
     final DiskData odata = (DiskData) data;
     final MetaData ometa = odata.meta;
-    final String name = ometa.name;
-
-    // check if database is also pinned by other users
-    if(context.dbs.pins(ometa.name) > 1) throw new BaseXException(DB_PINNED_X, name);
 
     // adopt original meta information
     options.set(MainOptions.CHOP, ometa.chop);
@@ -124,7 +222,7 @@ public final class OptimizeAll extends ACreate {
     // build database and index structures
     if(cmd != null) cmd.size = ometa.size;
     final StaticOptions sopts = context.soptions;
-    final String tname = sopts.random(name);
+    final String tname = sopts.random(ometa.name);
     final DBParser parser = new DBParser(odata, options, cmd);
     try(final DiskBuilder builder = new DiskBuilder(tname, parser, sopts, options)) {
       final DiskData dt = builder.build();
@@ -132,26 +230,46 @@ public final class OptimizeAll extends ACreate {
         if(ometa.createtext) create(IndexType.TEXT, dt, options, cmd);
         if(ometa.createattr) create(IndexType.ATTRIBUTE, dt, options, cmd);
         if(ometa.createftxt) create(IndexType.FULLTEXT, dt, options, cmd);
+        if(ometa.createrange) create(IndexType.RANGE, dt, options, cmd);
         // adopt original meta data
         dt.meta.createtext = ometa.createtext;
         dt.meta.createattr = ometa.createattr;
         dt.meta.createftxt = ometa.createftxt;
+        dt.meta.createrange = ometa.createrange;
         dt.meta.filesize   = ometa.filesize;
         dt.meta.dirty      = true;
-
-        // move binary files
-        final IOFile bin = data.meta.binaries();
-        if(bin.exists()) bin.rename(dt.meta.binaries());
-        final IOFile upd = odata.meta.updateFile();
-        if(upd.exists()) upd.copyTo(dt.meta.updateFile());
       } finally {
         dt.close();
       }
     }
+    return tname;
+  }
+
+  /**
+   * Replaces the database with the rebuilt instance and closes it.
+   * @param data disk data
+   * @param tname name of the temporary database
+   * @param context database context
+   * @param options main options
+   * @throws IOException I/O Exception
+   */
+  private static void swap(final Data data, final String tname, final Context context,
+      final MainOptions options) throws IOException {
+
+    final MetaData ometa = data.meta, tmeta = new MetaData(tname, options, context.soptions);
+    final String name = ometa.name;
+
+    // move binary files
+    final IOFile bin = ometa.binaries();
+    if(bin.exists()) bin.rename(tmeta.binaries());
+    final IOFile upd = ometa.updateFile();
+    if(upd.exists()) upd.copyTo(tmeta.updateFile());
+
     // return database instance
     Close.close(data, context);
 
     // drop old database and rename temporary to final name
+    final StaticOptions sopts = context.soptions;
     if(!DropDB.drop(name, sopts)) throw new BaseXException(DB_NOT_DROPPED_X, name);
     if(!AlterDB.alter(tname, name, sopts)) throw new BaseXException(DB_NOT_RENAMED_X, tname);
   }
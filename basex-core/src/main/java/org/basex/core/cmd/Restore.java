@@ -65,7 +65,8 @@ public final class Restore extends ABackup {
   }
 
   /**
-   * Restores the specified database.
+   * Restores the specified database. Incremental backups are restored by applying all backups
+   * of their chain.
    * @param db name of database
    * @param backup name of backup
    * @param sopts static options
@@ -75,13 +76,9 @@ public final class Restore extends ABackup {
   public static void restore(final String db, final String backup, final StaticOptions sopts,
       final Restore cmd) throws IOException {
 
-    // drop target database
-    DropDB.drop(db, sopts);
-
-    final IOFile dbpath = sopts.dbpath();
-    final Zip zip = new Zip(new IOFile(dbpath, backup + IO.ZIPSUFFIX));
-    if(cmd != null) cmd.proc(zip);
-    zip.unzip(dbpath);
+    final Backup bckp = new Backup(sopts.dbpath(backup + IO.ZIPSUFFIX));
+    if(cmd != null) cmd.proc(bckp);
+    bckp.restore(sopts.dbpath(db));
   }
 
   @Override
@@ -26,12 +26,15 @@ public final class ShowBackups extends ABackup {
     table.description = BACKUPS_X;
     table.header.add(NAME);
     table.header.add(SIZE);
+    table.header.add(BASE);
 
     final IOFile dbpath = soptions.dbpath();
     for(final String name : context.databases.backups()) {
       final TokenList tl = new TokenList();
+      final IOFile file = new IOFile(dbpath, name + IO.ZIPSUFFIX);
       tl.add(name);
-      tl.add(new IOFile(dbpath, name + IO.ZIPSUFFIX).length());
+      tl.add(file.length());
+      tl.add(Backup.base(file));
       table.contents.add(tl);
     }
     out.println(table.sort().finish());
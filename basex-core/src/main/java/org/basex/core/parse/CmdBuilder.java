@@ -59,6 +59,16 @@ public final class CmdBuilder {
     return this;
   }
 
+  /**
+   * Adds the specified keyword.
+   * @param key keyword
+   * @return self instance
+   */
+  public CmdBuilder key(final String key) {
+    tb.add(' ').add(key);
+    return this;
+  }
+
   /**
    * Adds the specified argument as XQuery string.
    * @param arg argument index
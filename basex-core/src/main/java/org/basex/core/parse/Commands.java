@@ -152,6 +152,10 @@ public interface Commands {
   String VALUE = "value";
   /** Command attribute: "command". */
   String COMMAND = "command";
+  /** Command attribute: "online". */
+  String ONLINE = "online";
+  /** Command attribute: "incremental". */
+  String INCREMENTAL = "incremental";
 
   /** Create commands. */
   enum CmdCreate { DATABASE, DB, INDEX, USER, BACKUP, EVENT }
@@ -166,9 +170,9 @@ public interface Commands {
   /** Permission commands. */
   enum CmdPerm { NONE, READ, WRITE, CREATE, ADMIN }
   /** Index types. */
-  enum CmdIndex { TEXT, ATTRIBUTE, FULLTEXT }
+  enum CmdIndex { TEXT, ATTRIBUTE, FULLTEXT, RANGE }
   /** Index types. */
-  enum CmdIndexInfo { NULL, TEXT, ATTRIBUTE, FULLTEXT, PATH, TAG, ATTNAME }
+  enum CmdIndexInfo { NULL, TEXT, ATTRIBUTE, FULLTEXT, RANGE, PATH, TAG, ATTNAME }
   /** Alter types. */
   enum CmdAlter { DATABASE, DB, PASSWORD, USER }
   /** Repo types. */
@@ -72,7 +72,7 @@ final class StringParser extends CmdParser {
       case CREATE:
         switch(consume(CmdCreate.class, cmd)) {
           case BACKUP:
-            return new CreateBackup(glob(cmd));
+            return new CreateBackup(glob(cmd), key(S_INCREMENTAL, null));
           case DATABASE: case DB:
             return new CreateDB(name(cmd), remaining(null));
           case INDEX:
@@ -153,7 +153,7 @@ final class StringParser extends CmdParser {
           case NULL:
             return new Optimize();
           case ALL:
-            return new OptimizeAll();
+            return new OptimizeAll(key(S_ONLINE, null));
         }
         break;
       case EXPORT:
@@ -363,7 +363,7 @@ final class StringParser extends CmdParser {
     consumeWS();
     final int p = parser.pos;
     final boolean ok = (parser.consume(key) || parser.consume(
-        key.toLowerCase(Locale.ENGLISH))) && (parser.curr(0) || ws(parser.curr()));
+        key.toLowerCase(Locale.ENGLISH))) && (!parser.more() || ws(parser.curr()));
     if(!ok) {
       parser.pos = p;
       if(cmd != null) throw help(null, cmd);
@@ -73,8 +73,8 @@ final class XMLParser extends CmdParser {
       return new Close();
     if(e.equals(COPY) && check(root, NAME, NEWNAME))
       return new Copy(value(root, NAME), value(root, NEWNAME));
-    if(e.equals(CREATE_BACKUP) && check(root, NAME))
-      return new CreateBackup(value(root, NAME));
+    if(e.equals(CREATE_BACKUP) && check(root, NAME, INCREMENTAL + '?'))
+      return new CreateBackup(value(root, NAME), Boolean.parseBoolean(value(root, INCREMENTAL)));
     if(e.equals(CREATE_DB) && check(root, NAME, '<' + INPUT + '?'))
       return new CreateDB(value(root, NAME), xml(root));
     if(e.equals(CREATE_EVENT) && check(root, NAME + '?'))
@@ -125,8 +125,8 @@ final class XMLParser extends CmdParser {
       return new Open(value(root, NAME), value(root, PATH));
     if(e.equals(OPTIMIZE) && check(root))
       return new Optimize();
-    if(e.equals(OPTIMIZE_ALL) && check(root))
-      return new OptimizeAll();
+    if(e.equals(OPTIMIZE_ALL) && check(root, ONLINE + '?'))
+      return new OptimizeAll(Boolean.parseBoolean(value(root, ONLINE)));
     if(e.equals(PASSWORD) && check(root, '#' + PASSWORD + '?'))
       return new Password(password(root));
     if(e.equals(QUIT) && check(root))
@@ -101,13 +101,15 @@ public abstract class Data {
   public Index attrIndex;
   /** Full-text index instance. */
   public Index ftxtIndex;
+  /** Range index instance. */
+  public Index rangeIndex;
   /** Number of current database users. */
   public int pins = 1;
 
   /** Table access file. */
   TableAccess table;
-  /** ID->PRE mapping. */
-  IdPreMap idmap;
+  /** ID->PRE mapping ({@code null} if it has not been built yet). */
+  volatile IdPreMap idmap;
   /** States if distance caching is active. */
   public boolean cache;
 
@@ -190,6 +192,14 @@ public abstract class Data {
     return index(type).info(options);
   }
 
+  /**
+   * Returns info on the table storage.
+   * @return info string
+   */
+  public final byte[] tableInfo() {
+    return table.info();
+  }
+
   /**
    * Returns the index reference for the specified index type.
    * @param type index type
@@ -202,6 +212,7 @@ public abstract class Data {
       case TEXT:      return textIndex;
       case ATTRIBUTE: return attrIndex;
       case FULLTEXT:  return ftxtIndex;
+      case RANGE:     return rangeIndex;
       case PATH:      return paths;
       default:        throw Util.notExpected();
     }
@@ -254,7 +265,9 @@ public abstract class Data {
    * @return pre value or {@code -1} if id was not found
    */
   public final int pre(final int id) {
-    return meta.updindex ? idmap.pre(id) : findPre(id);
+    final int pre = idmap().pre(id);
+    // reject ids of deleted nodes
+    return pre >= 0 && pre < meta.size && id(pre) == id ? pre : -1;
   }
 
   /**
@@ -265,24 +278,36 @@ public abstract class Data {
    * @return sorted pre values
    */
   public final int[] pre(final int[] ids, final int off, final int len) {
-    if(meta.updindex) return idmap.pre(ids, off, len);
-    final IntList il = new IntList(len - off);
-    for(int i = off; i < len; ++i) il.add(findPre(ids[i]));
-    return il.sort().finish();
+    return idmap().pre(ids, off, len);
   }
 
   /**
-   * Returns a pre value for the specified id by scanning the table.
-   * @param id unique node id
-   * @return pre value or -1 if id was not found
+   * Returns the ID->PRE mapping. If no mapping exists yet, it will be built by scanning
+   * the table once. This is the case for main memory instances, which are built without
+   * mapping, and for databases created by older versions.
+   * @return mapping
    */
-  private int findPre(final int id) {
-    // find pre value in table; start with specified id
-    for(int p = Math.max(0, id); p < meta.size; ++p) if(id == id(p)) return p;
-    final int ps = Math.min(meta.size, id);
-    for(int p = 0; p < ps; ++p) if(id == id(p)) return p;
-    // id not found
-    return -1;
+  private IdPreMap idmap() {
+    IdPreMap map = idmap;
+    if(map == null) {
+      synchronized(this) {
+        map = idmap;
+        if(map == null) {
+          // ids of subsequent nodes are usually consecutive: add them as runs
+          map = new IdPreMap(-1);
+          final int size = meta.size;
+          for(int p = 0; p < size;) {
+            final int id = id(p);
+            int n = p + 1;
+            while(n < size && id(n) == id + n - p) n++;
+            map.insert(p, id, n - p);
+            p = n;
+          }
+          idmap = map;
+        }
+      }
+    }
+    return map;
   }
 
   /**
@@ -544,6 +569,7 @@ public abstract class Data {
     final int diff = size - tsize;
     buffer(size);
     resources.replace(tpre, tsize, source);
+    final IdPreMap map = idmap();
 
     if(meta.updindex) {
       // update index
@@ -597,12 +623,10 @@ public abstract class Data {
       }
     }
 
-    if(meta.updindex) {
-      indexAdd();
-      // update ID -> PRE map:
-      idmap.delete(tpre, id(tpre), -tsize);
-      idmap.insert(tpre, meta.lastid - size + 1, size);
-    }
+    if(meta.updindex) indexAdd();
+    // update ID -> PRE map:
+    map.delete(tpre, id(tpre), -tsize);
+    map.insert(tpre, meta.lastid - size + 1, size);
 
     // update table:
     table.replace(tpre, buffer(), tsize);
@@ -672,10 +696,8 @@ public abstract class Data {
     // preserve empty root node
     if(kind(pre) == DOC) meta.ndocs.decrementAndGet();
 
-    if(meta.updindex) {
-      // delete node and descendants from ID -> PRE map:
-      idmap.delete(pre, id(pre), -s);
-    }
+    // delete node and descendants from ID -> PRE map:
+    idmap().delete(pre, id(pre), -s);
 
     // delete node from table structure and reduce document size
     table.delete(pre, s);
@@ -707,6 +729,8 @@ public abstract class Data {
     // update value and document indexes
     if(meta.updindex) indexBegin();
     resources.insert(tpre, source);
+    // build ID -> PRE map before the table is modified
+    final IdPreMap map = idmap();
 
     final int size = source.size();
     final int buf = Math.min(size, IO.BLOCKSIZE >> IO.NODEPOWER);
@@ -830,11 +854,9 @@ public abstract class Data {
       p = parent(p, k);
     }
 
-    if(meta.updindex) {
-      // add the entries to the ID -> PRE mapping:
-      idmap.insert(tpre, id(tpre), size);
-      indexAdd();
-    }
+    // add the entries to the ID -> PRE mapping:
+    map.insert(tpre, id(tpre), size);
+    if(meta.updindex) indexAdd();
 
     if(!cache) updateDist(tpre + size, size);
   }
@@ -40,12 +40,16 @@ public interface DataText {
   String DBUPDIDX = "UPDINDEX";
   /** Automatic optimization. */
   String DBAUTOOPT = "AUTOOPT";
+  /** Memory-mapped table access. */
+  String DBMAPTBL = "MAPTABLE";
   /** Text indexing. */
   String DBTXTIDX = "TXTINDEX";
   /** Attribute indexing. */
   String DBATVIDX = "ATVINDEX";
   /** Full-text indexing. */
   String DBFTXIDX = "FTXINDEX";
+  /** Range indexing. */
+  String DBRNGIDX = "RNGINDEX";
   /** Full-text stemming. */
   String DBFTST = "FTSTEM";
   /** Full-text language. */
@@ -74,6 +78,8 @@ public interface DataText {
   String DBCRTATV = "CRTATV";
   /** Full-text indexing. */
   String DBCRTFTX = "CRTFTX";
+  /** Range indexing. */
+  String DBCRTRNG = "CRTRNG";
 
   /** Full-text wildcards indexing (legacy, obsolete). */
   String DBWCIDX = "WCINDEX";
@@ -103,6 +109,8 @@ public interface DataText {
   String DATAATV = "atv";
   /** Database - Full-text index. */
   String DATAFTX = "ftx";
+  /** Database - Range index. */
+  String DATARNG = "rng";
   /** Database - Stopword list. */
   String DATASWL = "swl";
   /** Database - Updating flag. */
@@ -73,8 +73,10 @@ public final class DiskData extends Data {
 
     // open data and indexes
     init();
+    // the ID -> PRE mapping will be built on demand if it was not stored by older versions
+    final IOFile idp = meta.dbfile(DATAIDP);
+    if(idp.exists()) idmap = new IdPreMap(idp);
     if(meta.updindex) {
-      idmap = new IdPreMap(meta.dbfile(DATAIDP));
       if(meta.textindex) textIndex = new UpdatableDiskValues(this, true);
       if(meta.attrindex) attrIndex = new UpdatableDiskValues(this, false);
     } else {
@@ -82,6 +84,7 @@ public final class DiskData extends Data {
       if(meta.attrindex) attrIndex = new DiskValues(this, false);
     }
     if(meta.ftxtindex) ftxtIndex = new FTIndex(this);
+    if(meta.rangeindex) rangeIndex = new RangeIndex(this);
   }
 
   /**
@@ -102,7 +105,7 @@ public final class DiskData extends Data {
     this.paths = paths;
     this.nspaces = n;
     paths.data(this);
-    if(meta.updindex) idmap = new IdPreMap(meta.lastid);
+    idmap = new IdPreMap(meta.lastid);
     init();
   }
 
@@ -146,6 +149,8 @@ public final class DiskData extends Data {
     if(closed) return;
     closed = true;
     try {
+      // write buffered index updates while the table is still accessible
+      compact();
       write();
       table.close();
       texts.close();
@@ -153,11 +158,20 @@ public final class DiskData extends Data {
       close(IndexType.TEXT);
       close(IndexType.ATTRIBUTE);
       close(IndexType.FULLTEXT);
+      close(IndexType.RANGE);
     } catch(final IOException ex) {
       Util.stack(ex);
     }
   }
 
+  /**
+   * Writes buffered updates of the value indexes to disk.
+   */
+  private void compact() {
+    if(textIndex != null) ((DiskValues) textIndex).compact();
+    if(attrIndex != null) ((DiskValues) attrIndex).compact();
+  }
+
   /**
    * Closes the specified index.
    * @param type index to be closed
@@ -182,6 +196,7 @@ public final class DiskData extends Data {
       case TEXT:      ib = new DiskValuesBuilder(this, options, true); break;
       case ATTRIBUTE: ib = new DiskValuesBuilder(this, options, false); break;
       case FULLTEXT:  ib = new FTBuilder(this, options); break;
+      case RANGE:     ib = new RangeIndexBuilder(this); break;
       default:        throw Util.notExpected();
     }
     if(cmd != null) cmd.proc(ib);
@@ -207,6 +222,7 @@ public final class DiskData extends Data {
       case TEXT:      textIndex = index; break;
       case ATTRIBUTE: attrIndex = index; break;
       case FULLTEXT:  ftxtIndex = index; break;
+      case RANGE:     rangeIndex = index; break;
       default:        break;
     }
   }
@@ -233,6 +249,7 @@ public final class DiskData extends Data {
 
     // db:optimize(..., true) will close the database before this function is called
     if(!closed) {
+      compact();
       flush(auto);
       if(!table.lock(false)) throw Util.notExpected("Database '%': could not unlock.", meta.name);
     }
@@ -276,10 +293,11 @@ public final class DiskData extends Data {
   public int textLen(final int pre, final boolean text) {
     final long o = textOff(pre);
     if(number(o)) return numDigits((int) o);
-    final DataAccess da = text ? texts : values;
-    final int l = da.readNum(o & IO.OFFCOMP - 1);
+    final DataReader dr = (text ? texts : values).reader();
+    final long off = o & IO.OFFCOMP - 1;
+    final int l = dr.readNum(off);
     // compressed: next number contains number of compressed bytes
-    return compressed(o) ? da.readNum() : l;
+    return compressed(o) ? dr.readNum(off + Num.length(l)) : l;
   }
 
   /**
@@ -289,7 +307,7 @@ public final class DiskData extends Data {
    * @return text
    */
   private byte[] txt(final long off, final boolean text) {
-    final byte[] txt = (text ? texts : values).readToken(off & IO.OFFCOMP - 1);
+    final byte[] txt = (text ? texts : values).reader().readToken(off & IO.OFFCOMP - 1);
     return compressed(off) ? COMP.get().unpack(txt) : txt;
   }
 
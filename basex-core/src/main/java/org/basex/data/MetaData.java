@@ -25,6 +25,8 @@ import org.basex.util.ft.*;
 public final class MetaData {
   /** Database path. Set to {@code null} if database is in main memory. */
   public final IOFile path;
+  /** Maximum number of cached entries per index. */
+  public final int indexcache;
 
   /** Database name. */
   public volatile String name;
@@ -46,18 +48,24 @@ public final class MetaData {
   public volatile boolean updindex;
   /** Flag for automatic index updating. */
   public volatile boolean autoopt;
+  /** Flag for memory-mapped table access. */
+  public volatile boolean maptable;
   /** Indicates if a text index exists. */
   public volatile boolean textindex;
   /** Indicates if an attribute index exists. */
   public volatile boolean attrindex;
   /** Indicates if a full-text index exists. */
   public volatile boolean ftxtindex;
+  /** Indicates if a range index exists. */
+  public volatile boolean rangeindex;
   /** Indicates if text index is to be recreated. */
   public volatile boolean createtext;
   /** Indicates if attribute index is to be recreated. */
   public volatile boolean createattr;
   /** Indicates if full-text index is to be recreated. */
   public volatile boolean createftxt;
+  /** Indicates if range index is to be recreated. */
+  public volatile boolean createrange;
 
   /** Flag for full-text stemming. */
   public volatile boolean stemming;
@@ -82,6 +90,8 @@ public final class MetaData {
   public volatile boolean corrupt;
   /** Dirty flag. */
   public volatile boolean dirty;
+  /** Number of updates since the database has been opened (will not be stored). */
+  public volatile int updates;
 
   /** Number of nodes. */
   public volatile int size;
@@ -112,15 +122,19 @@ public final class MetaData {
   public MetaData(final String name, final MainOptions options, final StaticOptions sopts) {
     this.name = name;
     path = sopts != null ? sopts.dbpath(name) : null;
+    indexcache = sopts != null ? sopts.get(StaticOptions.INDEXCACHE) :
+      StaticOptions.INDEXCACHE.value();
     chop = options.get(MainOptions.CHOP);
     createtext = options.get(MainOptions.TEXTINDEX);
     createattr = options.get(MainOptions.ATTRINDEX);
     createftxt = options.get(MainOptions.FTINDEX);
+    createrange = options.get(MainOptions.RANGEINDEX);
     diacritics = options.get(MainOptions.DIACRITICS);
     stemming = options.get(MainOptions.STEMMING);
     casesens = options.get(MainOptions.CASESENS);
     updindex = options.get(MainOptions.UPDINDEX);
     autoopt = options.get(MainOptions.AUTOOPTIMIZE);
+    maptable = options.get(MainOptions.MAPTABLE);
     maxlen = options.get(MainOptions.MAXLEN);
     maxcats = options.get(MainOptions.MAXCATS);
     stopwords = options.get(MainOptions.STOPWORDS);
@@ -297,12 +311,15 @@ public final class MetaData {
         else if(k.equals(DBCHOP))     chop       = toBool(v);
         else if(k.equals(DBUPDIDX))   updindex   = toBool(v);
         else if(k.equals(DBAUTOOPT))  autoopt    = toBool(v);
+        else if(k.equals(DBMAPTBL))   maptable   = toBool(v);
         else if(k.equals(DBTXTIDX))   textindex  = toBool(v);
         else if(k.equals(DBATVIDX))   attrindex  = toBool(v);
         else if(k.equals(DBFTXIDX))   ftxtindex  = toBool(v);
+        else if(k.equals(DBRNGIDX))   rangeindex = toBool(v);
         else if(k.equals(DBCRTTXT))   createtext = toBool(v);
         else if(k.equals(DBCRTATV))   createattr = toBool(v);
         else if(k.equals(DBCRTFTX))   createftxt = toBool(v);
+        else if(k.equals(DBCRTRNG))   createrange = toBool(v);
         else if(k.equals(DBWCIDX))    wcindex    = toBool(v);
         else if(k.equals(DBFTST))     stemming   = toBool(v);
         else if(k.equals(DBFTCS))     casesens   = toBool(v);
@@ -340,12 +357,15 @@ public final class MetaData {
     writeInfo(out, DBCHOP,     chop);
     writeInfo(out, DBUPDIDX,   updindex);
     writeInfo(out, DBAUTOOPT,  autoopt);
+    writeInfo(out, DBMAPTBL,   maptable);
     writeInfo(out, DBTXTIDX,   textindex);
     writeInfo(out, DBATVIDX,   attrindex);
     writeInfo(out, DBFTXIDX,   ftxtindex);
+    writeInfo(out, DBRNGIDX,   rangeindex);
     writeInfo(out, DBCRTTXT,   createtext);
     writeInfo(out, DBCRTATV,   createattr);
     writeInfo(out, DBCRTFTX,   createftxt);
+    writeInfo(out, DBCRTRNG,   createrange);
     writeInfo(out, DBFTST,     stemming);
     writeInfo(out, DBFTCS,     casesens);
     writeInfo(out, DBFTDC,     diacritics);
@@ -364,6 +384,7 @@ public final class MetaData {
   public void update() {
     // update database timestamp
     time = System.currentTimeMillis();
+    updates++;
     uptodate = false;
     dirty = true;
     if(!updindex) {
@@ -371,6 +392,7 @@ public final class MetaData {
       attrindex = false;
     }
     ftxtindex = false;
+    rangeindex = false;
   }
 
   /**
@@ -122,7 +122,9 @@ final class DialogCsvParser extends DialogParser {
       format.setEnabled(head);
       lax.setEnabled(head && copts.get(CsvOptions.FORMAT) == CsvFormat.DIRECT);
 
-      final DBNode node = new DBNode(CsvParser.toXML(new IOContent(EXAMPLE), copts));
+      final MainOptions opts = new MainOptions();
+      opts.set(MainOptions.CSVPARSER, copts);
+      final DBNode node = new DBNode(new CsvParser(new IOContent(EXAMPLE), opts));
       example.setText(example(MainParser.CSV.name(), EXAMPLE, node.serialize().toString()));
     } catch(final IOException ex) {
       example.setText(error(ex));
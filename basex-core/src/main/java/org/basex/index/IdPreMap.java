@@ -33,6 +33,11 @@ public class IdPreMap {
 
   /** Number of records in the table. */
   private int rows;
+  /**
+   * Indexes of records with inserted IDs, sorted by ID ({@code null} if not yet computed).
+   * The array may be computed and published by concurrent readers.
+   */
+  private volatile int[] inserted;
 
   /**
    * Constructor.
@@ -91,10 +96,14 @@ public class IdPreMap {
     if(rows == 0 || id < pres[0]) return id;
 
     if(id > baseid) {
-      // id was inserted by update
-      for(int i = 0; i < rows; ++i) {
-        // if(fids[i] == id) return pres[i]; // is this optimization?
-        if(fids[i] <= id && id <= nids[i]) return pres[i] + id - fids[i];
+      // id was inserted by update: the ID intervals are disjoint
+      final int[] ins = inserted();
+      int low = 0, high = ins.length - 1;
+      while(low <= high) {
+        final int mid = low + high >>> 1, i = ins[mid];
+        if(nids[i] < id) low = mid + 1;
+        else if(fids[i] > id) high = mid - 1;
+        else return pres[i] + id - fids[i];
       }
     } else {
       // id is affected by updates
@@ -124,6 +133,7 @@ public class IdPreMap {
    * @param c number of inserted records
    */
   public void insert(final int pre, final int id, final int c) {
+    inserted = null;
     if(rows == 0 && pre == id && id == baseid + 1) {
       // no mapping and we append at the end => nothing to do
       baseid += c;
@@ -182,6 +192,7 @@ public class IdPreMap {
    * @param c number of deleted records
    */
   public void delete(final int pre, final int id, final int c) {
+    inserted = null;
     if(rows == 0 && pre == id && id - c == baseid + 1) {
       // no mapping and we delete at the end => nothing to do
       baseid += c;
@@ -249,6 +260,27 @@ public class IdPreMap {
     increment(endIndex + 1, c);
   }
 
+  /**
+   * Returns the indexes of all records with inserted IDs, sorted by their first ID.
+   * @return indexes
+   */
+  private int[] inserted() {
+    int[] ins = inserted;
+    if(ins == null) {
+      // sort records by their first ID (ID values are stored in the upper half)
+      final long[] keys = new long[rows];
+      int k = 0;
+      for(int i = 0; i < rows; ++i) {
+        if(fids[i] != INV) keys[k++] = (long) fids[i] << 32 | i;
+      }
+      Arrays.sort(keys, 0, k);
+      ins = new int[k];
+      for(int i = 0; i < k; ++i) ins[i] = (int) keys[i];
+      inserted = ins;
+    }
+    return ins;
+  }
+
   /**
    * Shrink the given tuple from the start.
    * @param i index of the tuple
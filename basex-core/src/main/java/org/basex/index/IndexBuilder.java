@@ -3,9 +3,12 @@ package org.basex.index;
 import static org.basex.core.Text.*;
 
 import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import org.basex.core.*;
 import org.basex.data.*;
+import org.basex.io.*;
 import org.basex.util.*;
 
 /**
@@ -16,12 +19,26 @@ import org.basex.util.*;
  * @author Christian Gruen
  */
 public abstract class IndexBuilder extends Proc {
+  /** Minimum number of nodes per partition. */
+  private static final int MINPARTITION = 1 << 16;
+
   /** Data reference. */
   protected final Data data;
-  /** Total parsing value. */
-  protected final int size;
   /** Number of index operations to perform before writing a partial index to disk. */
   private final int splitSize;
+  /** Number of threads to use. */
+  private final int threads;
+  /** Parent builder (only assigned if this builder indexes a partition). */
+  private final IndexBuilder parent;
+  /** Partition number (only assigned if this builder indexes a partition). */
+  private final int part;
+  /** Partition builders (only assigned if the index is built in parallel). */
+  private IndexBuilder[] partitions;
+
+  /** First pre value to be indexed. */
+  protected final int start;
+  /** Total parsing value (last pre value + 1). */
+  protected final int size;
 
   /** Maximum memory to consume. */
   private final long maxMem = (long) (Runtime.getRuntime().maxMemory() * 0.8);
@@ -34,19 +51,47 @@ public abstract class IndexBuilder extends Proc {
   protected int splits;
   /** Threshold for freeing memory when estimating main memory consumption. */
   private int gcCount;
+  /** Number of requested splits (incremented by the parent builder if memory is exhausted). */
+  private int requests;
+  /** Indicates if all nodes of a partition have been indexed. */
+  private boolean done;
 
   /**
    * Constructor.
    * @param data reference
    * @param max maximum number of operations per partial index
+   * @param threads number of threads to use (if smaller than 1, all available processors
+   *   will be used)
    */
-  protected IndexBuilder(final Data data, final int max) {
+  protected IndexBuilder(final Data data, final int max, final int threads) {
     this.data = data;
+    start = 0;
     size = data.meta.size;
     splitSize = max;
+    this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    parent = null;
+    part = -1;
     if(Performance.memory() >= maxMem) Performance.gc(1);
   }
 
+  /**
+   * Constructor for a partition builder.
+   * @param parent parent builder
+   * @param part partition number
+   * @param start first pre value to be indexed
+   * @param end last pre value to be indexed + 1
+   */
+  protected IndexBuilder(final IndexBuilder parent, final int part, final int start,
+      final int end) {
+    this.parent = parent;
+    this.part = part;
+    this.start = start;
+    data = parent.data;
+    size = end;
+    splitSize = parent.splitSize;
+    threads = 1;
+  }
+
   /**
    * Builds the index structure and returns an index instance.
    * @return index instance
@@ -59,6 +104,7 @@ public abstract class IndexBuilder extends Proc {
    */
   protected final void check() {
     checkStop();
+    if(parent != null) parent.checkStop();
     if(Prop.debug && (pre & 0x1FFFFF) == 0) Util.err(".");
   }
 
@@ -73,23 +119,63 @@ public abstract class IndexBuilder extends Proc {
     final boolean split;
     if(splitSize > 0) {
       split = count >= (splits + 1L) * splitSize;
+    } else if(parent != null) {
+      // partitions share the main memory: splits are coordinated by the parent builder
+      split = parent.split(this);
     } else {
       // if not, estimate how much main memory is left
-      split = Performance.memory() >= maxMem;
-      // stop operation if index splitting degenerates
-      int gc = gcCount;
-      if(split) {
-        if(gc >= 0) throw new BaseXException(OUT_OF_MEM + H_OUT_OF_MEM);
-        gc = 30;
-      } else {
-        gc = Math.max(-1, gc - 1);
-      }
-      gcCount = gc;
+      split = memory();
     }
     if(split && Prop.debug) Util.err("|");
     return split;
   }
 
+  /**
+   * Decides whether the specified partition builder must flush its temporary index
+   * structures. If main memory is exhausted, all partitions will be requested to write
+   * their structures to disk. No new request will be made before all running partitions
+   * have responded to the current one.
+   * @param ib partition builder
+   * @return true if structures shall be flushed to disk
+   * @throws IOException I/O Exception
+   */
+  private synchronized boolean split(final IndexBuilder ib) throws IOException {
+    // respond to pending request
+    if(ib.requests < requests) {
+      ib.requests = requests;
+      return true;
+    }
+    // wait until other partitions have responded
+    for(final IndexBuilder pb : partitions) {
+      if(!pb.done && pb.requests < requests) {
+        ib.gcCount = Math.max(-1, ib.gcCount - 1);
+        return false;
+      }
+    }
+    if(!ib.memory()) return false;
+    ib.requests = ++requests;
+    return true;
+  }
+
+  /**
+   * Estimates if main memory is exhausted.
+   * @return result of check
+   * @throws IOException I/O Exception
+   */
+  private boolean memory() throws IOException {
+    final boolean split = Performance.memory() >= maxMem;
+    // stop operation if index splitting degenerates
+    int gc = gcCount;
+    if(split) {
+      if(gc >= 0) throw new BaseXException(OUT_OF_MEM + H_OUT_OF_MEM);
+      gc = 30;
+    } else {
+      gc = Math.max(-1, gc - 1);
+    }
+    gcCount = gc;
+    return split;
+  }
+
   /**
    * Performs memory cleanup after writing partial memory if necessary.
    */
@@ -111,6 +197,135 @@ public abstract class IndexBuilder extends Proc {
     Util.errln(sb);
   }
 
+  /**
+   * Returns the number of partitions that will be indexed in parallel.
+   * @return number of partitions ({@code 1} if the index will be built by a single thread)
+   */
+  protected final int partitions() {
+    return parent != null ? 1 : Math.max(1, Math.min(threads, (size - start) / MINPARTITION));
+  }
+
+  /**
+   * Indicates if this builder indexes a partition of the table.
+   * @return result of check
+   */
+  protected final boolean partitioned() {
+    return parent != null;
+  }
+
+  /**
+   * Indexes the table in parallel. The table is divided into the specified number of
+   * partitions of contiguous pre values. Each partition is indexed by a separate builder,
+   * which writes its partial indexes to the files returned by {@link #infix(int)}.
+   * Afterwards, the partial indexes will be renamed to consecutive split numbers in the
+   * order of the partitions, and the total number of splits will be assigned.
+   * @param parts number of partitions
+   * @param prefix file prefix of the index
+   * @param suffixes suffixes of the index files
+   * @throws IOException I/O exception
+   */
+  protected final void parallel(final int parts, final String prefix, final String suffixes)
+      throws IOException {
+
+    final int sz = size - start;
+    partitions = new IndexBuilder[parts];
+    for(int p = 0; p < parts; p++) {
+      partitions[p] = partition(p, start + (int) ((long) sz * p / parts),
+          start + (int) ((long) sz * (p + 1) / parts));
+    }
+
+    final ExecutorService pool = Executors.newFixedThreadPool(parts);
+    try {
+      final ArrayList<Future<Void>> futures = new ArrayList<>(parts);
+      for(final IndexBuilder ib : partitions) {
+        futures.add(pool.submit(new Callable<Void>() {
+          @Override
+          public Void call() throws IOException {
+            try {
+              ib.index();
+              return null;
+            } catch(final IOException | RuntimeException ex) {
+              // stop remaining partitions
+              for(final IndexBuilder pb : partitions) pb.stop();
+              throw ex;
+            } finally {
+              synchronized(IndexBuilder.this) {
+                ib.done = true;
+              }
+            }
+          }
+        }));
+      }
+      // wait for all partitions, and pass on the first exception that is not caused by a stop
+      Throwable error = null;
+      for(final Future<Void> future : futures) {
+        try {
+          future.get();
+        } catch(final ExecutionException ex) {
+          final Throwable th = ex.getCause();
+          if(error == null || error instanceof ProcException) error = th;
+        } catch(final InterruptedException ex) {
+          if(error == null) error = new ProcException();
+        }
+      }
+      if(error instanceof IOException) throw (IOException) error;
+      if(error instanceof RuntimeException) throw (RuntimeException) error;
+      if(error != null) throw new IOException(error);
+    } finally {
+      pool.shutdownNow();
+    }
+    checkStop();
+
+    // assign consecutive split numbers
+    int s = 0;
+    for(final IndexBuilder ib : partitions) {
+      for(int i = 0; i < ib.splits; i++) {
+        final String source = ib.infix(i);
+        for(final char suffix : suffixes.toCharArray()) {
+          final IOFile file = data.meta.dbfile(prefix + source + suffix);
+          if(!file.rename(data.meta.dbfile(prefix + s + suffix)))
+            throw new BaseXException(FILE_NOT_SAVED_X, file);
+        }
+        s++;
+      }
+      count += ib.count;
+    }
+    splits = s;
+    pre = size;
+  }
+
+  /**
+   * Returns the file name infix of a partial index.
+   * @param split split number
+   * @return infix
+   */
+  protected final String infix(final int split) {
+    return parent == null ? Integer.toString(split) : "p" + part + '_' + split;
+  }
+
+  /**
+   * Creates a builder for the specified partition.
+   * Must be implemented by builders that support parallel indexing.
+   * @param p partition number
+   * @param first first pre value
+   * @param end last pre value + 1
+   * @return builder
+   * @throws IOException I/O exception
+   */
+  protected IndexBuilder partition(final int p, final int first, final int end)
+      throws IOException {
+    throw Util.notExpected();
+  }
+
+  /**
+   * Indexes all nodes of a partition and writes the results to partial index files.
+   * Must be implemented by builders that support parallel indexing.
+   * @throws IOException I/O exception
+   */
+  protected void index() throws IOException {
+    throw Util.notExpected();
+  }
+
   @Override
   public final String tit() {
     return CREATING_INDEXES;
@@ -118,6 +333,13 @@ public abstract class IndexBuilder extends Proc {
 
   @Override
   public final double prog() {
-    return (double) pre / (size + (splits > 0 ? size / 50 : 0));
+    int p = pre - start;
+    final IndexBuilder[] parts = partitions;
+    if(parts != null && p < size - start) {
+      p = 0;
+      for(final IndexBuilder ib : parts) p += Math.max(0, ib.pre - ib.start);
+    }
+    final int sz = size - start;
+    return (double) p / (sz + (splits > 0 || parts != null ? sz / 50 : 0));
   }
 }
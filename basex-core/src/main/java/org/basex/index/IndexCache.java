@@ -1,50 +1,56 @@
 package org.basex.index;
 
+import static org.basex.core.Text.*;
 import static org.basex.util.Token.*;
 
-import java.lang.ref.*;
-import java.util.concurrent.locks.*;
-
+import org.basex.core.*;
 import org.basex.util.*;
 
 /**
  * This class caches sizes and offsets from index results.
  *
+ * The cache is divided into segments, which are selected by the hash of a key and locked
+ * independently. The maximum number of entries is assigned via {@link StaticOptions#INDEXCACHE}
+ * and evenly distributed among the segments. If a segment is full, an entry is evicted via the
+ * CLOCK algorithm: entries that have been accessed since the clock hand last passed them get
+ * a second chance.
+ *
  * @author BaseX Team 2005-15, BSD License
  * @author Dimitar Popov
  */
 public final class IndexCache {
-  /** Queue used to collect unused keys. */
-  private final ReferenceQueue<IndexEntry> queue = new ReferenceQueue<>();
-  /** Read-write lock. */
-  private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock(true);
-  /** Hash table buckets. */
-  private BucketEntry[] buckets = new BucketEntry[Array.CAPACITY];
-  /** Number of entries in the cache. */
-  private int size;
+  /** Number of segments (must be a power of two). */
+  private static final int SEGMENTS = 16;
+  /** Estimated memory consumption of an entry, excluding the key. */
+  private static final int ENTRYSIZE = 96;
+
+  /** Segments. */
+  private final Segment[] segments = new Segment[SEGMENTS];
+
+  /**
+   * Constructor, using the default capacity.
+   */
+  public IndexCache() {
+    this(StaticOptions.INDEXCACHE.value());
+  }
+
+  /**
+   * Constructor.
+   * @param capacity maximum number of cached entries
+   */
+  public IndexCache(final int capacity) {
+    final int cap = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+    for(int s = 0; s < SEGMENTS; s++) segments[s] = new Segment(cap);
+  }
 
   /**
    * Gets cached entry for the specified key.
    * @param key key
-   * @return cached entry or {@code null} if the entry is stale
+   * @return cached entry or {@code null} if the entry is not cached
    */
   public IndexEntry get(final byte[] key) {
     final int hash = hash(key);
-    rwl.readLock().lock();
-
-    try {
-      final int i = indexFor(hash, buckets.length);
-      BucketEntry e = buckets[i];
-      while(e != null) {
-        final IndexEntry entry = e.get();
-        if(entry != null && e.hash == hash && eq(entry.key, key)) return entry;
-        e = e.next;
-      }
-    } finally {
-      rwl.readLock().unlock();
-    }
-
-    return null;
+    return segment(hash).get(key, hash);
   }
 
   /**
@@ -57,31 +63,7 @@ public final class IndexCache {
    */
   public IndexEntry add(final byte[] key, final int sz, final long off) {
     final int hash = hash(key);
-    rwl.writeLock().lock();
-
-    try {
-      purge();
-      final int i = indexFor(hash, buckets.length);
-      BucketEntry current = buckets[i], prev = current;
-      while(current != null) {
-        final BucketEntry next = current.next;
-        final IndexEntry entry = current.get();
-        if(entry == null) {
-          delete(i, current, prev, next);
-        } else if(current.hash == hash && eq(entry.key, key)) {
-          update(entry, sz, off);
-          return entry;
-        }
-        prev = current;
-        current = next;
-      }
-
-      final IndexEntry entry = new IndexEntry(key, sz, off);
-      add(i, hash, entry);
-      return entry;
-    } finally {
-      rwl.writeLock().unlock();
-    }
+    return segment(hash).add(key, hash, sz, off);
   }
 
   /**
@@ -90,142 +72,248 @@ public final class IndexCache {
    */
   public void delete(final byte[] key) {
     final int hash = hash(key);
-    rwl.writeLock().lock();
-
-    try {
-      purge();
-      final int i = indexFor(hash, buckets.length);
-      BucketEntry e = buckets[i], prev = e;
-      while(e != null) {
-        final BucketEntry next = e.next;
-        final IndexEntry entry = e.get();
-        if(entry == null) {
-          delete(i, e, prev, next);
-        } else if(e.hash == hash && eq(entry.key, key)) {
-          delete(i, e, prev, next);
-          break;
-        }
-        prev = e;
-        e = next;
-      }
-    } finally {
-      rwl.writeLock().unlock();
-    }
+    segment(hash).delete(key, hash);
   }
 
   /**
-   * Purges stale entries from the cache.
+   * Adds information on the cache to the specified token builder.
+   * @param tb token builder
    */
-  private void purge() {
-    for(Object x; (x = queue.poll()) != null;) {
-      final BucketEntry e = (BucketEntry) x;
-      final int i = indexFor(e.hash, buckets.length);
-      BucketEntry prev = buckets[i], p = prev;
-      while(p != null) {
-        final BucketEntry next = p.next;
-        if(p == e) {
-          delete(i, e, prev, next);
-          break;
-        }
-        prev = p;
-        p = next;
+  public void info(final TokenBuilder tb) {
+    long entries = 0, bytes = 0, hits = 0, misses = 0, evictions = 0;
+    for(final Segment s : segments) {
+      synchronized(s) {
+        entries += s.size;
+        bytes += s.bytes;
+        hits += s.hits;
+        misses += s.misses;
+        evictions += s.evictions;
       }
     }
+    final long total = hits + misses;
+    tb.add(LI_CACHE).addLong(entries).add(" entries, ").add(Performance.format(bytes, true));
+    tb.add(NL);
+    tb.add(LI_CACHE_HITS).addLong(hits).add(total == 0 ? "" :
+      " (" + hits * 100 / total + "%)").add(NL);
+    tb.add(LI_CACHE_MISSES).addLong(misses).add(NL);
+    tb.add(LI_CACHE_EVICTIONS).addLong(evictions).add(NL);
   }
 
   /**
-   * Add a new index entry to the bucket with the specified index.
-   * @param i bucket index
-   * @param hash hash of the new index key
-   * @param entry index entry
+   * Returns the segment for the specified hash value.
+   * @param hash hash value
+   * @return segment
    */
-  private void add(final int i, final int hash, final IndexEntry entry) {
-    buckets[i] = new BucketEntry(hash, buckets[i], entry, queue);
-    if(++size == buckets.length) rehash();
+  private Segment segment(final int hash) {
+    return segments[(hash ^ hash >>> 16) & SEGMENTS - 1];
   }
 
   /**
-   * Update an existing index entry.
-   * @param entry index entry to update
-   * @param sz new size
-   * @param off new offset
+   * Cache segment. All entries are referenced by a hash table and a clock ring.
    */
-  private static void update(final IndexEntry entry, final int sz, final long off) {
-    entry.size = sz;
-    entry.offset = off;
-  }
+  private static final class Segment {
+    /** Maximum number of entries. */
+    private final int capacity;
+    /** Hash table buckets. */
+    private Node[] buckets = new Node[Array.CAPACITY];
+    /** Clock ring with all entries. */
+    private Node[] ring = new Node[0];
+    /** Free slots in the clock ring. */
+    private int[] free = new int[0];
+    /** Number of free slots. */
+    private int frees;
+    /** Position of the clock hand. */
+    private int hand;
 
-  /**
-   * Deletes a cached entry from the buckets with the specified index.
-   * @param i buckets index
-   * @param e cached entry to delete
-   * @param p previous cache entry
-   * @param n next cache entry
-   */
-  private void delete(final int i, final BucketEntry e, final BucketEntry p, final BucketEntry n) {
-    if(p == e) buckets[i] = n;
-    else p.next = n;
-    e.next = null;
-    --size;
-  }
+    /** Number of entries. */
+    int size;
+    /** Estimated memory consumption. */
+    long bytes;
+    /** Number of cache hits. */
+    long hits;
+    /** Number of cache misses. */
+    long misses;
+    /** Number of evicted entries. */
+    long evictions;
 
-  /**
-   * Resizes the hash table.
-   */
-  private void rehash() {
-    purge();
-
-    final int s = size << 1;
-    final BucketEntry[] tmp = new BucketEntry[s];
-
-    final int l = buckets.length;
-    for(int i = 0; i < l; ++i) {
-      BucketEntry e = buckets[i];
-      buckets[i] = null;
-      while(e != null) {
-        final BucketEntry next = e.next;
-        final int p = indexFor(e.hash, tmp.length);
-        e.next = tmp[p];
-        tmp[p] = e;
-        e = next;
+    /**
+     * Constructor.
+     * @param capacity maximum number of entries
+     */
+    Segment(final int capacity) {
+      this.capacity = capacity;
+    }
+
+    /**
+     * Returns the entry for the specified key.
+     * @param key key
+     * @param hash hash value
+     * @return entry or {@code null}
+     */
+    synchronized IndexEntry get(final byte[] key, final int hash) {
+      final Node node = find(key, hash);
+      if(node == null) {
+        misses++;
+        return null;
       }
+      node.used = true;
+      hits++;
+      return node.entry;
     }
-    buckets = tmp;
-  }
 
-  /**
-   * Returns buckets index for a hash code.
-   * @param h hash code
-   * @param n number of available buckets
-   * @return index of a buckets
-   */
-  private static int indexFor(final int h, final int n) {
-    return h & n - 1;
+    /**
+     * Adds or updates an entry.
+     * @param key key
+     * @param hash hash value
+     * @param sz number of index hits
+     * @param off offset to id list
+     * @return entry
+     */
+    synchronized IndexEntry add(final byte[] key, final int hash, final int sz,
+        final long off) {
+      final Node node = find(key, hash);
+      if(node != null) {
+        node.used = true;
+        node.entry.size = sz;
+        node.entry.offset = off;
+        return node.entry;
+      }
+
+      if(frees == 0) {
+        if(ring.length < capacity) grow();
+        else evict();
+      }
+      final int slot = free[--frees];
+      final int b = bucket(hash);
+      final IndexEntry entry = new IndexEntry(key, sz, off);
+      final Node nw = new Node(hash, slot, entry, buckets[b]);
+      buckets[b] = nw;
+      ring[slot] = nw;
+      size++;
+      bytes += ENTRYSIZE + key.length;
+      return entry;
+    }
+
+    /**
+     * Deletes an entry.
+     * @param key key
+     * @param hash hash value
+     */
+    synchronized void delete(final byte[] key, final int hash) {
+      final Node node = find(key, hash);
+      if(node != null) remove(node);
+    }
+
+    /**
+     * Enlarges the clock ring and, if necessary, the hash table.
+     */
+    private void grow() {
+      final int rl = ring.length, nl = Math.min(capacity, Math.max(Array.CAPACITY, rl << 1));
+      ring = Array.copy(ring, new Node[nl]);
+      free = new int[nl];
+      for(int f = rl; f < nl; f++) free[frees++] = nl - 1 - f + rl;
+
+      if(nl > buckets.length) {
+        final Node[] tmp = new Node[Integer.highestOneBit(nl - 1) << 1];
+        for(final Node bucket : buckets) {
+          for(Node n = bucket; n != null;) {
+            final Node next = n.next;
+            final int b = n.hash >>> 4 & tmp.length - 1;
+            n.next = tmp[b];
+            tmp[b] = n;
+            n = next;
+          }
+        }
+        buckets = tmp;
+      }
+    }
+
+    /**
+     * Evicts an entry that has not been used since the clock hand last passed it.
+     */
+    private void evict() {
+      final int rl = ring.length;
+      while(true) {
+        final Node node = ring[hand];
+        hand = (hand + 1) % rl;
+        if(node == null) continue;
+        if(node.used) {
+          node.used = false;
+        } else {
+          remove(node);
+          evictions++;
+          return;
+        }
+      }
+    }
+
+    /**
+     * Removes a node from the hash table and the clock ring.
+     * @param node node to be removed
+     */
+    private void remove(final Node node) {
+      final int b = bucket(node.hash);
+      Node prev = null;
+      for(Node n = buckets[b]; n != node; n = n.next) prev = n;
+      if(prev == null) buckets[b] = node.next;
+      else prev.next = node.next;
+
+      ring[node.slot] = null;
+      free[frees++] = node.slot;
+      size--;
+      bytes -= ENTRYSIZE + node.entry.key.length;
+    }
+
+    /**
+     * Finds the node for the specified key.
+     * @param key key
+     * @param hash hash value
+     * @return node or {@code null}
+     */
+    private Node find(final byte[] key, final int hash) {
+      for(Node n = buckets[bucket(hash)]; n != null; n = n.next) {
+        if(n.hash == hash && eq(n.entry.key, key)) return n;
+      }
+      return null;
+    }
+
+    /**
+     * Returns the bucket index for a hash value.
+     * @param hash hash value
+     * @return bucket index
+     */
+    private int bucket(final int hash) {
+      return hash >>> 4 & buckets.length - 1;
+    }
   }
 
   /**
-   * Cache buckets entry. Used to implement a linked list of cache entries for
-   * each buckets. It also stores the hash of the current entry for better
-   * performance.
+   * Cache node. Used to implement a linked list of cache entries for each bucket.
    */
-  private static class BucketEntry extends SoftReference<IndexEntry> {
+  private static final class Node {
     /** Hash code of the stored cache entry key. */
     final int hash;
-    /** Next buckets entry or {@code null} if the last one for this buckets. */
-    BucketEntry next;
+    /** Slot in the clock ring. */
+    final int slot;
+    /** Cache entry. */
+    final IndexEntry entry;
+    /** Next bucket entry or {@code null} if the last one for this bucket. */
+    Node next;
+    /** Indicates if the entry has been accessed since the clock hand last passed it. */
+    boolean used;
 
     /**
      * Constructor.
-     * @param h hash code of the cache entry key
-     * @param n next buckets entry or {@code null} if the last one
-     * @param v stored cache entry
-     * @param rq reference queue
+     * @param hash hash code of the cache entry key
+     * @param slot slot in the clock ring
+     * @param entry cache entry
+     * @param next next bucket entry or {@code null} if the last one
      */
-    BucketEntry(final int h, final BucketEntry n, final IndexEntry v,
-        final ReferenceQueue<IndexEntry> rq) {
-      super(v, rq);
-      hash = h;
-      next = n;
+    Node(final int hash, final int slot, final IndexEntry entry, final Node next) {
+      this.hash = hash;
+      this.slot = slot;
+      this.entry = entry;
+      this.next = next;
     }
   }
 }
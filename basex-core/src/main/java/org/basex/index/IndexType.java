@@ -17,6 +17,8 @@ public enum IndexType {
   ATTRIBUTE,
   /** Full-text index. */
   FULLTEXT,
+  /** Typed range index. */
+  RANGE,
   /** Path index. */
   PATH
 }
@@ -27,6 +27,8 @@ public final class FTBuilder extends IndexBuilder {
   private final FTLexer lex;
   /** Number of indexed tokens. */
   private long ntok;
+  /** Options. */
+  private final MainOptions options;
 
   /**
    * Constructor.
@@ -35,9 +37,37 @@ public final class FTBuilder extends IndexBuilder {
    * @throws IOException IOException
    */
   public FTBuilder(final Data data, final MainOptions options) throws IOException {
-    super(data, options.get(MainOptions.FTINDEXSPLITSIZE));
+    super(data, options.get(MainOptions.FTINDEXSPLITSIZE),
+        options.get(MainOptions.INDEXTHREADS));
+    this.options = options;
     tree = new FTIndexTrees(data.meta.maxlen);
+    lex = lexer(data, options);
+  }
+
+  /**
+   * Constructor for a partition builder.
+   * @param parent parent builder
+   * @param part partition number
+   * @param start first pre value
+   * @param end last pre value + 1
+   * @throws IOException IOException
+   */
+  private FTBuilder(final FTBuilder parent, final int part, final int start, final int end)
+      throws IOException {
+    super(parent, part, start, end);
+    options = parent.options;
+    tree = new FTIndexTrees(data.meta.maxlen);
+    lex = lexer(data, options);
+  }
 
+  /**
+   * Creates a lexer for the specified options.
+   * @param data data reference
+   * @param options options
+   * @return lexer
+   * @throws IOException IOException
+   */
+  private static FTLexer lexer(final Data data, final MainOptions options) throws IOException {
     final FTOpt fto = new FTOpt();
     fto.set(FTFlag.DC, options.get(MainOptions.DIACRITICS));
     fto.set(FTFlag.ST, options.get(MainOptions.STEMMING));
@@ -50,21 +80,47 @@ public final class FTBuilder extends IndexBuilder {
     if(options.get(MainOptions.STEMMING) && !Stemmer.supportFor(fto.ln))
       throw new BaseXException(NO_STEMMER_X, fto.ln);
 
-    lex = new FTLexer(fto);
+    return new FTLexer(fto);
   }
 
-  /**
-   * Extracts and indexes words from the specified data reference.
-   * @throws IOException I/O Exception
-   */
-  private void index() throws IOException {
+  @Override
+  public FTIndex build() throws IOException {
     // delete old index
     abort();
 
     final Performance perf = Prop.debug ? new Performance() : null;
     Util.debug(det());
 
-    for(pre = 0; pre < size; ++pre) {
+    final int parts = partitions();
+    if(parts > 1) {
+      // index partitions in parallel and merge the resulting partial index structures
+      parallel(parts, DATAFTX, "xyz");
+      if(splits > 0) merge();
+      else writeIndex(false);
+    } else {
+      index();
+      // finalize partial or all index structures
+      write(splits > 0);
+    }
+
+    data.meta.ftxtindex = true;
+    finishIndex(perf);
+    return new FTIndex(data);
+  }
+
+  @Override
+  protected FTBuilder partition(final int p, final int first, final int end)
+      throws IOException {
+    return new FTBuilder(this, p, first, end);
+  }
+
+  /**
+   * Extracts and indexes words from the specified data reference.
+   * @throws IOException I/O Exception
+   */
+  @Override
+  protected void index() throws IOException {
+    for(pre = start; pre < size; ++pre) {
       if((pre & 0xFFFF) == 0) check();
 
       final int k = data.kind(pre);
@@ -89,18 +145,8 @@ public final class FTBuilder extends IndexBuilder {
         }
       }
     }
-
-    // finalize partial or all index structures
-    write(splits > 0);
-
-    data.meta.ftxtindex = true;
-    finishIndex(perf);
-  }
-
-  @Override
-  public FTIndex build() throws IOException {
-    index();
-    return new FTIndex(data);
+    // write remaining entries of a partition
+    if(partitioned() && count > 0) writeIndex(true);
   }
 
   /**
@@ -110,9 +156,14 @@ public final class FTBuilder extends IndexBuilder {
    */
   private void write(final boolean partial) throws IOException {
     writeIndex(partial);
-    if(!partial) return;
+    if(partial) merge();
+  }
 
-    // merges temporary index files
+  /**
+   * Merges temporary index files.
+   * @throws IOException I/O exception
+   */
+  private void merge() throws IOException {
     try(final DataOutput outX = new DataOutput(data.meta.dbfile(DATAFTX + 'x'));
         final DataOutput outY = new DataOutput(data.meta.dbfile(DATAFTX + 'y'));
         final DataOutput outZ = new DataOutput(data.meta.dbfile(DATAFTX + 'z'))) {
@@ -185,7 +236,7 @@ public final class FTBuilder extends IndexBuilder {
    * @throws IOException I/O exception
    */
   private void writeIndex(final boolean partial) throws IOException {
-    final String name = DATAFTX + (partial ? splits : "");
+    final String name = DATAFTX + (partial ? infix(splits) : "");
     try(final DataOutput outX = new DataOutput(data.meta.dbfile(name + 'x'));
         final DataOutput outY = new DataOutput(data.meta.dbfile(name + 'y'));
         final DataOutput outZ = new DataOutput(data.meta.dbfile(name + 'z'))) {
@@ -0,0 +1,284 @@
+package org.basex.index.ft;
+
+import static org.basex.util.FTToken.*;
+import static org.basex.util.Token.*;
+
+import java.util.*;
+
+import org.basex.io.random.*;
+import org.basex.query.expr.ft.*;
+import org.basex.util.*;
+
+/**
+ * <p>This class provides lock-free access to the token dictionary of the full-text index
+ * (see file <b>y</b> in {@link FTIndex}). All tokens of the same length are stored in
+ * lexicographical order. The tokens of a length are thus traversed as an implicit trie:
+ * all tokens with a common prefix form a contiguous range of entries, and the sub-ranges
+ * of all extensions of a prefix are found via binary search.</p>
+ *
+ * <p>Fuzzy and wildcard expansions are performed by intersecting an automaton with this trie:
+ * the automaton consumes one character per trie level, and all tokens with a prefix that can
+ * no longer be accepted are skipped. Accepted tokens are checked once more with the original
+ * {@link Levenshtein} and {@link FTWildcard} matchers, so the results will be the same as
+ * if all tokens were compared.</p>
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class FTDictionary {
+  /** Dictionary reader. */
+  private final DataReader reader;
+  /** Token positions, indexed by token length. */
+  private final int[] tp;
+  /** Entry size, excluding the token. */
+  private final int entry;
+
+  /**
+   * Constructor.
+   * @param reader dictionary reader
+   * @param tp token positions
+   * @param entry entry size, excluding the token
+   */
+  FTDictionary(final DataReader reader, final int[] tp, final int entry) {
+    this.reader = reader;
+    this.tp = tp;
+    this.entry = entry;
+  }
+
+  /**
+   * Visits all tokens that are similar to the specified token.
+   * @param token token to look for
+   * @param k number of errors allowed (dynamic calculation if value is 0)
+   * @param visitor visitor
+   */
+  void fuzzy(final byte[] token, final int k, final Visitor visitor) {
+    final int tokl = token.length, tl = tp.length;
+    final int e = Math.min(tl - 1, tokl + k);
+    final Fuzzy fuzzy = new Fuzzy(token, k);
+    for(int s = Math.max(1, tokl - k); s <= e; s++) {
+      visit(s, fuzzy, fuzzy.start(), visitor);
+    }
+  }
+
+  /**
+   * Visits all tokens that are matched by the specified wildcard expression.
+   * @param wc wildcard expression
+   * @param visitor visitor
+   */
+  void wildcard(final FTWildcard wc, final Visitor visitor) {
+    final Wildcard wildcard = new Wildcard(wc);
+    // maximum number of characters, converted to the maximum byte length of a UTF-8 token
+    final int l = (int) Math.min(tp.length - 1, (long) wc.max() << 2);
+    for(int s = wc.prefix().length; s <= l; s++) {
+      visit(s, wildcard, wildcard.start(), visitor);
+    }
+  }
+
+  /**
+   * Visits all tokens of the specified length that are accepted by the automaton.
+   * @param <S> state type
+   * @param len token length
+   * @param automaton automaton
+   * @param state initial state
+   * @param visitor visitor
+   */
+  private <S> void visit(final int len, final Automaton<S> automaton, final S state,
+      final Visitor visitor) {
+
+    final long start = tp[len];
+    if(start == -1) return;
+    int t = len + 1, end = -1;
+    while(t < tp.length && end == -1) end = tp[t++];
+    if(end == -1) return;
+    final int size = (int) ((end - start) / (len + entry));
+    visit(start, len, 0, size, 0, new byte[len], automaton, state, visitor);
+  }
+
+  /**
+   * Visits all tokens in the specified range that are accepted by the automaton.
+   * All tokens in the range share the same prefix.
+   * @param <S> state type
+   * @param start offset of the first token of the current length
+   * @param len token length
+   * @param lo first entry of the range
+   * @param hi last entry of the range + 1
+   * @param depth length of the common prefix
+   * @param prefix common prefix
+   * @param automaton automaton
+   * @param state current state
+   * @param visitor visitor
+   */
+  private <S> void visit(final long start, final int len, final int lo, final int hi,
+      final int depth, final byte[] prefix, final Automaton<S> automaton, final S state,
+      final Visitor visitor) {
+
+    final int el = len + entry;
+    if(depth == len) {
+      // tokens are unique: the range contains a single entry
+      if(automaton.accepts(state, prefix)) {
+        final long p = start + (long) lo * el;
+        visitor.visit(prefix.clone(), reader.read5(p + len), reader.read4(p + len + 5));
+      }
+      return;
+    }
+
+    final int cl = Math.min(4, len - depth);
+    for(int i = lo; i < hi;) {
+      // read next character
+      final byte[] bytes = reader.readBytes(start + (long) i * el + depth, cl);
+      final int n = Math.min(cl(bytes[0]), bytes.length);
+      final byte[] ch = n == bytes.length ? bytes : Arrays.copyOf(bytes, n);
+      // find first entry with a different character
+      int l = i + 1, h = hi - 1;
+      while(l <= h) {
+        final int m = l + h >>> 1;
+        if(diff(reader.readBytes(start + (long) m * el + depth, n), ch) == 0) l = m + 1;
+        else h = m - 1;
+      }
+      final S next = automaton.step(state, cp(ch, 0));
+      if(next != null) {
+        System.arraycopy(ch, 0, prefix, depth, n);
+        visit(start, len, i, l, depth + n, prefix, automaton, next, visitor);
+      }
+      i = l;
+    }
+  }
+
+  /**
+   * Visitor for accepted tokens.
+   */
+  interface Visitor {
+    /**
+     * Visits an accepted token.
+     * @param token token
+     * @param pointer pointer to the full-text data
+     * @param size number of pre values
+     */
+    void visit(byte[] token, long pointer, int size);
+  }
+
+  /**
+   * Automaton, consuming one character per step.
+   * @param <S> state type
+   */
+  private interface Automaton<S> {
+    /**
+     * Returns the initial state.
+     * @return state
+     */
+    S start();
+
+    /**
+     * Returns the state that is reached by consuming the specified character.
+     * @param state current state
+     * @param cp codepoint
+     * @return new state, or {@code null} if no token with the consumed prefix can be accepted
+     */
+    S step(S state, int cp);
+
+    /**
+     * Checks if the specified token is accepted.
+     * @param state state after consuming all characters of the token
+     * @param token token
+     * @return result of check
+     */
+    boolean accepts(S state, byte[] token);
+  }
+
+  /**
+   * Levenshtein automaton. A state is a row of the distance matrix that is computed by the
+   * {@link Levenshtein} class for the consumed prefix; the last two entries store the
+   * number of consumed characters and the last character.
+   */
+  private static final class Fuzzy implements Automaton<int[]> {
+    /** Normalized characters of the query token. */
+    private final int[] query;
+    /** Query token. */
+    private final byte[] token;
+    /** Number of errors allowed. */
+    private final int k;
+    /** Maximum number of errors. */
+    private final int max;
+
+    /**
+     * Constructor.
+     * @param token query token
+     * @param k number of errors allowed (dynamic calculation if value is 0)
+     */
+    Fuzzy(final byte[] token, final int k) {
+      this.token = token;
+      this.k = k;
+      final int[] cps = cps(token);
+      final int sl = cps.length;
+      for(int s = 0; s < sl; s++) cps[s] = noDiacritics(lc(cps[s]));
+      query = cps;
+      max = k != 0 ? k : sl < 4 ? 0 : Math.max(1, sl >> 2);
+    }
+
+    @Override
+    public int[] start() {
+      final int sl = query.length;
+      final int[] row = new int[sl + 3];
+      for(int s = 0; s <= sl; s++) row[s] = s;
+      row[sl + 2] = -1;
+      return row;
+    }
+
+    @Override
+    public int[] step(final int[] prev, final int cp) {
+      final int sl = query.length, t = prev[sl + 1], e2 = prev[sl + 2];
+      final int e = noDiacritics(lc(cp));
+      final int[] row = new int[sl + 3];
+      row[0] = t + 1;
+      int d = Integer.MAX_VALUE, f2 = t == 0 || sl == 0 ? -1 : query[sl - 1];
+      for(int s = 0; s < sl; s++) {
+        final int f = query[s];
+        int c = Math.min(Math.min(prev[s + 1] + 1, row[s] + 1), prev[s] + (e == f ? 0 : 1));
+        if(e == f2 && f == e2) c = prev[s];
+        row[s + 1] = c;
+        d = Math.min(d, c);
+        f2 = f;
+      }
+      if(d > max) return null;
+      row[sl + 1] = t + 1;
+      row[sl + 2] = e;
+      return row;
+    }
+
+    @Override
+    public boolean accepts(final int[] state, final byte[] tok) {
+      return state[query.length] <= max && new Levenshtein().similar(tok, token, k);
+    }
+  }
+
+  /**
+   * Wildcard automaton.
+   */
+  private static final class Wildcard implements Automaton<int[]> {
+    /** Wildcard expression. */
+    private final FTWildcard wc;
+
+    /**
+     * Constructor.
+     * @param wc wildcard expression
+     */
+    Wildcard(final FTWildcard wc) {
+      this.wc = wc;
+    }
+
+    @Override
+    public int[] start() {
+      return wc.start();
+    }
+
+    @Override
+    public int[] step(final int[] state, final int cp) {
+      return wc.step(state, cp);
+    }
+
+    @Override
+    public boolean accepts(final int[] state, final byte[] token) {
+      return wc.accepts(state) && wc.match(token);
+    }
+  }
+}
@@ -52,8 +52,6 @@ public final class FTIndex implements Index {
 
   /** Cached texts. Increases used memory, but speeds up repeated queries. */
   private final IntObjMap<byte[]> ctext = new IntObjMap<>();
-  /** Levenshtein reference. */
-  private final Levenshtein ls = new Levenshtein();
   /** Data reference. */
   private final Data data;
 
@@ -66,9 +64,11 @@ public final class FTIndex implements Index {
   private final DataAccess inZ;
 
   /** Cache for number of hits and data reference per token. */
-  private final IndexCache cache = new IndexCache();
+  private final IndexCache cache;
   /** Token positions. */
   private final int[] tp;
+  /** Token dictionary, used for fuzzy and wildcard searches. */
+  private final FTDictionary dict;
 
   /**
    * Constructor, initializing the index structure.
@@ -77,6 +77,7 @@ public final class FTIndex implements Index {
    */
   public FTIndex(final Data d) throws IOException {
     data = d;
+    cache = new IndexCache(d.meta.indexcache);
 
     // cache token length index
     inY = new DataAccess(d.meta.dbfile(DATAFTX + 'y'));
@@ -100,13 +101,14 @@ public final class FTIndex implements Index {
       tp[p] = r;
     }
     tp[tl - 1] = (int) inY.length();
+    dict = new FTDictionary(inY.reader(), tp, ENTRY);
   }
 
   @Override
   public synchronized void init() { }
 
   @Override
-  public synchronized int costs(final IndexToken it) {
+  public int costs(final IndexToken it) {
     final byte[] tok = it.get();
     if(tok.length > data.meta.maxlen) return Integer.MAX_VALUE;
 
@@ -118,7 +120,7 @@ public final class FTIndex implements Index {
   }
 
   @Override
-  public synchronized IndexIterator iter(final IndexToken it) {
+  public IndexIterator iter(final IndexToken it) {
     final byte[] tok = it.get();
 
     // wildcard search
@@ -131,7 +133,7 @@ public final class FTIndex implements Index {
 
     // return cached or new result
     final IndexEntry e = entry(tok);
-    return e.size > 0 ? iter(e.offset, e.size, inZ, tok) : FTIndexIterator.FTEMPTY;
+    return e.size > 0 ? iter(e.offset, e.size, tok) : FTIndexIterator.FTEMPTY;
   }
 
   /**
@@ -224,6 +226,7 @@ public final class FTIndex implements Index {
     final TokenBuilder tb = new TokenBuilder();
     final long l = inX.length() + inY.length() + inZ.length();
     tb.add(LI_SIZE + Performance.format(l, true) + NL);
+    cache.info(tb);
 
     final IndexStats stats = new IndexStats(options.get(MainOptions.MAXSTAT));
     addOccs(stats);
@@ -264,13 +267,13 @@ public final class FTIndex implements Index {
     final int o = tl + ENTRY;
     while(l < r) {
       final int m = l + (r - l >> 1) / o * o;
-      final int c = diff(inY.readBytes(m, tl), token);
+      final int c = diff(inY.reader().readBytes(m, tl), token);
       if(c == 0) return m;
       if(c < 0) l = m + o;
       else r = m - o;
     }
     // accept entry if pointer is inside relevant tokens
-    return r != x && l == r && eq(inY.readBytes(l, tl), token) ? l : -1;
+    return r != x && l == r && eq(inY.reader().readBytes(l, tl), token) ? l : -1;
   }
 
   /**
@@ -301,7 +304,7 @@ public final class FTIndex implements Index {
    * @return int pointer on ftdata
    */
   private long pointer(final long pt, final int lt) {
-    return inY.read5(pt + lt);
+    return inY.reader().read5(pt + lt);
   }
 
   /**
@@ -311,7 +314,7 @@ public final class FTIndex implements Index {
    * @return size of the ftdata
    */
   private int size(final long pt, final int lt) {
-    return inY.read4(pt + lt + 5);
+    return inY.reader().read4(pt + lt + 5);
   }
 
   /**
@@ -320,25 +323,15 @@ public final class FTIndex implements Index {
    * @param k number of errors allowed
    * @return iterator
    */
-  private synchronized IndexIterator fuzzy(final byte[] token, final int k) {
-    FTIndexIterator it = FTIndexIterator.FTEMPTY;
-    final int tokl = token.length, tl = tp.length;
-    final int e = Math.min(tl - 1, tokl + k);
-    int s = Math.max(1, tokl - k) - 1;
-
-    while(++s <= e) {
-      int p = tp[s];
-      if(p == -1) continue;
-      int t = s + 1, r = -1;
-      while(t < tl && r == -1) r = tp[t++];
-      while(p < r) {
-        if(ls.similar(inY.readBytes(p, s), token, k)) {
-          it = FTIndexIterator.union(iter(pointer(p, s), size(p, s), inZ, token), it);
-        }
-        p += s + ENTRY;
+  private IndexIterator fuzzy(final byte[] token, final int k) {
+    final FTIndexIterator[] it = { FTIndexIterator.FTEMPTY };
+    dict.fuzzy(token, k, new FTDictionary.Visitor() {
+      @Override
+      public void visit(final byte[] tok, final long pointer, final int size) {
+        it[0] = FTIndexIterator.union(iter(pointer, size, token), it[0]);
       }
-    }
-    return it;
+    });
+    return it[0];
   }
 
   /**
@@ -346,38 +339,18 @@ public final class FTIndex implements Index {
    * @param token token to look for
    * @return iterator
    */
-  private synchronized IndexIterator wc(final byte[] token) {
-    final FTIndexIterator it = FTIndexIterator.FTEMPTY;
+  private IndexIterator wc(final byte[] token) {
     final FTWildcard wc = new FTWildcard(token);
-    if(!wc.parse()) return it;
+    if(!wc.parse()) return FTIndexIterator.FTEMPTY;
 
     final IntList pr = new IntList();
     final IntList ps = new IntList();
-    final byte[] pref = wc.prefix();
-    final int pl = pref.length, tl = tp.length;
-    final int l = Math.min(tl - 1, wc.max());
-    for(int ti = pl; ti <= l; ti++) {
-      int i = tp[ti];
-      if(i == -1) continue;
-      int c = ti + 1;
-      int e = -1;
-      while(c < tl && e == -1) e = tp[c++];
-      i = find(pref, i, e, ti);
-
-      while(i < e) {
-        final byte[] t = inY.readBytes(i, ti);
-        if(!startsWith(t, pref)) break;
-        if(wc.match(t)) {
-          inZ.cursor(pointer(i, ti));
-          final int s = size(i, ti);
-          for(int d = 0; d < s; d++) {
-            pr.add(inZ.readNum());
-            ps.add(inZ.readNum());
-          }
-        }
-        i += ti + ENTRY;
+    dict.wildcard(wc, new FTDictionary.Visitor() {
+      @Override
+      public void visit(final byte[] tok, final long pointer, final int size) {
+        read(pointer, size, pr, ps);
       }
-    }
+    });
     return iter(new FTCache(pr, ps), token);
   }
 
@@ -385,29 +358,42 @@ public final class FTIndex implements Index {
    * Returns an iterator for an index entry.
    * @param off offset on entries
    * @param size number of id/pos entries
-   * @param da data source
    * @param token index token
    * @return iterator
    */
-  private static FTIndexIterator iter(final long off, final int size, final DataAccess da,
-      final byte[] token) {
-    da.cursor(off);
+  private FTIndexIterator iter(final long off, final int size, final byte[] token) {
     final IntList pr = new IntList(size);
     final IntList ps = new IntList(size);
-    for(int c = 0; c < size; c++) {
-      pr.add(da.readNum());
-      ps.add(da.readNum());
-    }
+    read(off, size, pr, ps);
     return iter(new FTCache(pr, ps), token);
   }
 
+  /**
+   * Reads the pre and pos values of an index entry.
+   * @param off offset on entries
+   * @param size number of id/pos entries
+   * @param pr pre values
+   * @param ps pos values
+   */
+  private void read(final long off, final int size, final IntList pr, final IntList ps) {
+    // read compressed values in a single step (each value occupies at most 5 bytes)
+    final byte[] bytes = inZ.reader().readBytes(off, (int) Math.min(size * 10L,
+        inZ.length() - off));
+    for(int c = 0, p = 0; c < size; c++) {
+      pr.add(Num.get(bytes, p));
+      p += Num.length(bytes, p);
+      ps.add(Num.get(bytes, p));
+      p += Num.length(bytes, p);
+    }
+  }
+
   /**
    * Returns an iterator for an index entry.
    * @param ftc id cache
    * @param token index token
    * @return iterator
    */
-  private static synchronized FTIndexIterator iter(final FTCache ftc, final byte[] token) {
+  private static FTIndexIterator iter(final FTCache ftc, final byte[] token) {
     final int size = ftc.pre.size();
 
     return new FTIndexIterator() {
@@ -0,0 +1,164 @@
+package org.basex.index.query;
+
+import java.math.*;
+
+import org.basex.index.*;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+
+/**
+ * This class stores a numeric or date range for accessing the range index.
+ *
+ * The range index stores sortable 64-bit keys. Numbers are mapped to keys without loss of
+ * precision. Dates are mapped to milliseconds, rounded down; entries with keys that equal a
+ * boundary key will be checked once more via {@link #contains(ADate)}.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class TypedRange implements IndexToken {
+  /** Smallest number of seconds that can be represented as key. */
+  private static final BigDecimal MINSEC = BigDecimal.valueOf(Long.MIN_VALUE / 1000);
+  /** Largest number of seconds that can be represented as key. */
+  private static final BigDecimal MAXSEC = BigDecimal.valueOf(Long.MAX_VALUE / 1000);
+
+  /** Index type (texts/attributes). */
+  public final boolean text;
+  /** Date type ({@link AtomType#DAT} or {@link AtomType#DTM}), {@code null} for numbers. */
+  public final Type type;
+  /** Minimum number (inclusive). */
+  public final double min;
+  /** Maximum number (inclusive). */
+  public final double max;
+
+  /** Minimum date ({@code null} if undefined). */
+  public final ADate dmin;
+  /** Include minimum date. */
+  public final boolean mni;
+  /** Maximum date ({@code null} if undefined). */
+  public final ADate dmax;
+  /** Include maximum date. */
+  public final boolean mxi;
+  /** Implicit timezone in seconds. */
+  private final int zone;
+
+  /**
+   * Constructor for numeric ranges.
+   * @param text text/attribute index
+   * @param min minimum value (inclusive)
+   * @param max maximum value (inclusive)
+   */
+  public TypedRange(final boolean text, final double min, final double max) {
+    this.text = text;
+    this.min = min;
+    this.max = max;
+    type = null;
+    dmin = null;
+    dmax = null;
+    mni = true;
+    mxi = true;
+    zone = 0;
+  }
+
+  /**
+   * Constructor for date ranges. At least one of the boundaries must be specified, and both
+   * must be of the same type.
+   * @param text text/attribute index
+   * @param min minimum date ({@code null} if undefined)
+   * @param mni include minimum date
+   * @param max maximum date ({@code null} if undefined)
+   * @param mxi include maximum date
+   */
+  public TypedRange(final boolean text, final ADate min, final boolean mni, final ADate max,
+      final boolean mxi) {
+    this.text = text;
+    dmin = min;
+    this.mni = mni;
+    dmax = max;
+    this.mxi = mxi;
+    type = (min != null ? min : max).type;
+    zone = ADate.implicitZone() * 60;
+    this.min = Double.NaN;
+    this.max = Double.NaN;
+  }
+
+  /**
+   * Returns the minimum key.
+   * @param zoned dates with timezone
+   * @return key
+   */
+  public long min(final boolean zoned) {
+    return type == null ? key(min) : dmin == null ? Long.MIN_VALUE : key(dmin, zoned);
+  }
+
+  /**
+   * Returns the maximum key.
+   * @param zoned dates with timezone
+   * @return key
+   */
+  public long max(final boolean zoned) {
+    return type == null ? key(max) : dmax == null ? Long.MAX_VALUE : key(dmax, zoned);
+  }
+
+  /**
+   * Checks if the specified date is included in the range.
+   * @param date date
+   * @return result of check
+   */
+  public boolean contains(final ADate date) {
+    try {
+      int c;
+      return (dmin == null || (c = date.diff(dmin, null, null)) > 0 || mni && c == 0) &&
+             (dmax == null || (c = date.diff(dmax, null, null)) < 0 || mxi && c == 0);
+    } catch(final QueryException ex) {
+      throw Util.notExpected(ex);
+    }
+  }
+
+  /**
+   * Returns the key of a date boundary. Dates without timezone are stored without
+   * normalization; in this case, the boundary will be shifted by the implicit timezone.
+   * @param date date
+   * @param zoned dates with timezone
+   * @return key
+   */
+  private long key(final ADate date, final boolean zoned) {
+    BigDecimal sec = date.localSeconds();
+    if(date.zon() == Short.MAX_VALUE) sec = sec.subtract(BigDecimal.valueOf(zone));
+    if(!zoned) sec = sec.add(BigDecimal.valueOf(zone));
+    return key(sec);
+  }
+
+  /**
+   * Returns a sortable key for the specified number.
+   * @param number number (must not be {@code NaN})
+   * @return key
+   */
+  public static long key(final double number) {
+    // normalize negative zero, flip bits of negative numbers
+    final long bits = Double.doubleToLongBits(number == 0 ? 0 : number);
+    return bits < 0 ? bits ^ Long.MAX_VALUE : bits;
+  }
+
+  /**
+   * Returns a sortable key for the specified number of seconds.
+   * @param seconds seconds
+   * @return key (milliseconds, rounded down)
+   */
+  public static long key(final BigDecimal seconds) {
+    final BigDecimal sec = seconds.max(MINSEC).min(MAXSEC);
+    return sec.movePointRight(3).setScale(0, RoundingMode.FLOOR).longValue();
+  }
+
+  @Override
+  public IndexType type() {
+    return IndexType.RANGE;
+  }
+
+  @Override
+  public byte[] get() {
+    return Token.EMPTY;
+  }
+}
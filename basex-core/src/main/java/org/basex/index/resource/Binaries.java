@@ -2,8 +2,6 @@ package org.basex.index.resource;
 
 import static org.basex.util.Token.*;
 
-import java.util.*;
-
 import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.util.*;
@@ -39,11 +37,14 @@ final class Binaries {
     final String np = MetaData.normPath(path);
     if(np == null || data.inMemory()) return tl;
 
-    final String exct = Prop.CASE ? np : np.toLowerCase(Locale.ENGLISH);
-    final String pref = exct.endsWith("/") ? exct : exct + '/';
-    for(final String f : data.meta.binaries().descendants()) {
-      final String lc = Prop.CASE ? f : f.toLowerCase(Locale.ENGLISH);
-      if(exct.isEmpty() || lc.equals(exct) || lc.startsWith(pref)) tl.add(f);
+    // only traverse the addressed file or directory
+    final IOFile file = data.meta.binary(np);
+    if(file == null) return tl;
+    if(file.isDir()) {
+      final String pref = np.isEmpty() || np.endsWith("/") ? np : np + '/';
+      for(final String f : file.descendants()) tl.add(pref + f);
+    } else if(file.exists() && !np.endsWith("/")) {
+      tl.add(np);
     }
     return tl.sort(Prop.CASE);
   }
@@ -7,7 +7,9 @@ import java.io.*;
 
 import org.basex.data.*;
 import org.basex.data.atomic.*;
+import org.basex.io.*;
 import org.basex.io.in.DataInput;
+import org.basex.io.out.*;
 import org.basex.io.out.DataOutput;
 import org.basex.util.*;
 import org.basex.util.hash.*;
@@ -17,27 +19,42 @@ import org.basex.util.list.*;
  * <p>This data structure contains references to all document nodes in a
  * database. The document nodes are incrementally updated.</p>
  *
- * <p>If updates are performed, the path order is discarded, as its continuous
- * update would be more expensive in some cases (e.g. when bulk insertions of
- * new documents are performed). A tree structure could be introduced to
- * offer better general performance.</p>
+ * <p>The document paths are additionally referenced by a path order, which is
+ * stored on disk and incrementally updated: single paths are inserted and removed
+ * via binary search, and bulk insertions are merged with the existing order.
+ * Lookups of single paths, directories and prefixes require logarithmic time.</p>
+ *
+ * <p>Changes of the document paths are appended to a journal when the index is written.
+ * The paths and their order are only rewritten if the journal has grown larger than
+ * half of the path file. When the paths are read again, the journal is replayed, and the
+ * path order is recreated.</p>
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
  * @author Lukas Kircher
  */
 final class Docs {
+  /** Journal entry: inserted paths. */
+  private static final int INSERT = 0;
+  /** Journal entry: deleted path. */
+  private static final int DELETE = 1;
+  /** Journal entry: renamed path. */
+  private static final int RENAME = 2;
+
   /** Data reference. */
   private final Data data;
   /** Pre values of document nodes (may be {@code null}).
    * This variable should always be requested via {@link #docs()}. */
   private IntList docList;
-  /** Sorted document paths (may be {@code null}).
+  /** Document paths, in document order (may be {@code null}).
    * This variable should always be requested via {@link #paths()}. */
   private TokenList pathList;
-  /** Ordered path indexes (may be {@code null}).
+  /** Indexes of the document paths, in path order (may be {@code null}).
    * This variable should always be requested via {@link #order()}. */
-  private int[] pathOrder;
+  private IntList pathOrder;
+  /** Changes of the document paths that have not been written to the journal yet
+   * ({@code null} if the paths and their order need to be rewritten). */
+  private ArrayOutput changes;
   /** Dirty flag. */
   private boolean dirty;
   /** Indicates if a path index is available. */
@@ -68,14 +85,31 @@ final class Docs {
    */
   void write(final DataOutput out) throws IOException {
     out.writeDiffs(docs());
-    if(dirty && pathIndex) {
-      // retrieve paths (must be called before file is opened for writing!)
-      final TokenList paths = paths();
-      // write paths
-      try(final DataOutput doc = new DataOutput(data.meta.dbfile(DATAPTH))) {
-        doc.writeNum(paths.size());
-        for(final byte[] path : paths) doc.writeToken(path);
+    // paths are only written if they have been retrieved
+    if(dirty && pathIndex && pathList != null) {
+      final IOFile file = data.meta.dbfile(DATAPTH), journal = data.meta.dbfile(DATAPTH + 'l');
+      if(changes != null && journal.length() + changes.size() <= file.length() / 2) {
+        // append changes to journal
+        if(changes.size() != 0) {
+          try(final FileOutputStream fos = new FileOutputStream(journal.file(), true)) {
+            fos.write(changes.buffer(), 0, (int) changes.size());
+          }
+        }
+      } else {
+        // retrieve order (must be called before file is opened for writing!)
+        final TokenList paths = pathList;
+        final IntList order = order();
+        journal.delete();
+        // write paths, followed by their order
+        try(final DataOutput doc = new DataOutput(file)) {
+          final int ps = paths.size();
+          doc.writeNum(ps);
+          for(final byte[] path : paths) doc.writeToken(path);
+          doc.writeNum(ps);
+          for(int p = 0; p < ps; p++) doc.writeNum(order.get(p));
+        }
       }
+      changes = new ArrayOutput();
       dirty = false;
     }
   }
@@ -107,7 +141,14 @@ final class Docs {
     if(pathList == null && pathIndex) {
       // try to read paths from disk
       try(final DataInput in = new DataInput(data.meta.dbfile(DATAPTH))) {
-        pathList = new TokenList(in.readTokens());
+        final TokenList paths = new TokenList(in.readTokens());
+        // path order is missing if database was created by an older version
+        final int[] order = in.readNums();
+        final boolean legacy = order.length != paths.size(), replayed = replay(paths);
+        pathList = paths;
+        if(!legacy && !replayed) pathOrder = new IntList(order);
+        // rewrite paths if the order is missing
+        changes = legacy ? null : new ArrayOutput();
       } catch(final IOException ignore) { }
     }
 
@@ -122,17 +163,71 @@ final class Docs {
       }
       pathIndex = true;
       pathList = paths;
+      changes = null;
       update();
     }
     return pathList;
   }
 
   /**
-   * Returns the document path order, and initialize the array if necessary.
+   * Applies the changes of the journal to the specified paths.
+   * @param paths paths
+   * @return {@code true} if the journal contained changes
+   * @throws IOException I/O exception
+   */
+  private boolean replay(final TokenList paths) throws IOException {
+    final IOFile journal = data.meta.dbfile(DATAPTH + 'l');
+    if(!journal.exists()) return false;
+
+    try(final DataInput in = new DataInput(journal)) {
+      boolean changed = false;
+      for(int op; (op = in.read()) != -1;) {
+        final int doc = in.readNum();
+        if(op == INSERT) {
+          final int ps = in.readNum();
+          final byte[][] tmp = new byte[ps][];
+          for(int p = 0; p < ps; p++) tmp[p] = in.readToken();
+          paths.insert(doc, tmp);
+        } else if(op == DELETE) {
+          paths.remove(doc);
+        } else {
+          paths.set(doc, in.readToken());
+        }
+        changed = true;
+      }
+      return changed;
+    }
+  }
+
+  /**
+   * Records a change of the document paths.
+   * @param op operation ({@link #INSERT}, {@link #DELETE} or {@link #RENAME})
+   * @param doc index of the first affected document
+   * @param paths inserted or renamed paths
+   */
+  private void log(final int op, final int doc, final byte[]... paths) {
+    if(changes == null) return;
+    try {
+      final DataOutput out = new DataOutput(changes);
+      out.write(op);
+      out.writeNum(doc);
+      if(op == INSERT) out.writeNum(paths.length);
+      for(final byte[] path : paths) out.writeToken(path);
+    } catch(final IOException ex) {
+      throw Util.notExpected(ex);
+    }
+  }
+
+  /**
+   * Returns the document path order, and initializes it if necessary.
    * @return path order (internal representation!)
    */
-  private synchronized int[] order() {
-    if(pathOrder == null) pathOrder = Array.createOrder(paths().toArray(), false, true);
+  private synchronized IntList order() {
+    if(pathOrder == null) {
+      pathOrder = new IntList(Array.createOrder(paths().toArray(), false, true));
+      // order is only written if paths need to be rewritten
+      if(changes == null) update();
+    }
     return pathOrder;
   }
 
@@ -164,6 +259,8 @@ final class Docs {
       final byte[][] tmp = new byte[ps][];
       for(int t = 0; t < ps; t++) tmp[t] = normalize(clip.data.text(pres[t] - pre, true));
       paths.insert(i, tmp);
+      log(INSERT, i, tmp);
+      if(pathOrder != null) order(i, tmp);
     }
 
     // insert pre values
@@ -186,7 +283,15 @@ final class Docs {
 
     // pre value points to a document node...
     if(doc >= 0) {
-      if(pathIndex) paths().remove(doc);
+      if(pathIndex) {
+        final TokenList paths = paths();
+        if(pathOrder != null) {
+          pathOrder.remove(position(doc));
+          if(doc + 1 < paths.size()) shift(doc + 1, -1);
+        }
+        paths.remove(doc);
+        log(DELETE, doc);
+      }
       docs.remove(doc);
     }
 
@@ -201,7 +306,19 @@ final class Docs {
    * @param value new name
    */
   void rename(final int pre, final byte[] value) {
-    if(pathIndex) paths().set(docs().sortedIndexOf(pre), normalize(value));
+    if(pathIndex) {
+      final int doc = docs().sortedIndexOf(pre);
+      final TokenList paths = paths();
+      final byte[] path = normalize(value);
+      if(pathOrder != null) {
+        pathOrder.remove(position(doc));
+        paths.set(doc, path);
+        pathOrder.insert(index(path), new int[] { doc });
+      } else {
+        paths.set(doc, path);
+      }
+      log(RENAME, doc, path);
+    }
     update();
   }
 
@@ -220,7 +337,6 @@ final class Docs {
    * Notifies the meta structures of an update and invalidates the indexes.
    */
   private synchronized void update() {
-    pathOrder = null;
     data.meta.dirty = true;
     dirty = true;
   }
@@ -251,10 +367,17 @@ final class Docs {
     // relevant paths: exact hits and prefixes
     final IntList il = new IntList();
     final TokenList paths = paths();
-    final int ps = paths.size();
-    for(int p = 0; p < ps; p++) {
-      final byte[] pt = paths.get(p);
-      if(eq(pt, exct) || !exact && startsWith(pt, pref)) il.add(docs.get(p));
+    final IntList order = order();
+    final int os = order.size();
+    if(exct.length != 0) {
+      for(int o = index(exct); o < os && eq(paths.get(order.get(o)), exct); o++) {
+        il.add(docs.get(order.get(o)));
+      }
+    }
+    if(!exact) {
+      for(int o = index(pref); o < os && startsWith(paths.get(order.get(o)), pref); o++) {
+        il.add(docs.get(order.get(o)));
+      }
     }
     return il.sort();
   }
@@ -278,8 +401,9 @@ final class Docs {
    */
   synchronized boolean isDir(final byte[] path) {
     final byte[] pa = concat(path, SLASH);
-    for(final byte[] b : paths()) if(startsWith(b, pa)) return true;
-    return false;
+    final IntList order = order();
+    final int o = index(pa);
+    return o < order.size() && startsWith(paths().get(order.get(o)), pa);
   }
 
   /**
@@ -296,9 +420,14 @@ final class Docs {
     byte[] root = token(pth);
     if(root.length != 0) root = concat(root, SLASH);
 
-    final IntList docs = docs();
-    final int ds = docs.size();
-    for(int d = 0; d < ds; d++) {
+    // only consider documents whose normalized paths start with the root path
+    final byte[] prefix = normalize(root);
+    final IntList docs = docs(), order = order();
+    final TokenList paths = paths();
+    final int os = order.size();
+    for(int o = index(prefix); o < os; o++) {
+      final int d = order.get(o);
+      if(!startsWith(paths.get(d), prefix)) break;
       byte[] np = data.text(docs.get(d), true);
       if(startsWith(np, root)) {
         np = substring(np, root.length, np.length);
@@ -316,18 +445,93 @@ final class Docs {
    * @return pre value, or {@code -1}
    */
   private int find(final byte[] path) {
+    final IntList order = order();
+    final int o = index(path);
+    if(o == order.size()) return -1;
+    final int d = order.get(o);
+    return eq(paths().get(d), path) ? docs().get(d) : -1;
+  }
+
+  /**
+   * Returns the position of the first path in the path order that is equal to or
+   * greater than the specified path.
+   * @param path path to be found
+   * @return position in the path order
+   */
+  private int index(final byte[] path) {
     // binary search
     final TokenList paths = paths();
-    final int[] order = order();
-    int l = 0, h = order.length - 1;
-    while(l <= h) {
+    final IntList order = order();
+    int l = 0, h = order.size();
+    while(l < h) {
       final int m = l + h >>> 1;
-      final int c = diff(paths.get(order[m]), path);
-      if(c == 0) return docs().get(m);
-      if(c < 0) l = m + 1;
-      else h = m - 1;
+      if(diff(paths.get(order.get(m)), path) < 0) l = m + 1;
+      else h = m;
+    }
+    return l;
+  }
+
+  /**
+   * Returns the position of the specified document in the path order.
+   * @param doc index of the document
+   * @return position in the path order
+   */
+  private int position(final int doc) {
+    final IntList order = order();
+    // documents with identical paths are adjacent
+    int o = index(paths().get(doc));
+    while(order.get(o) != doc) o++;
+    return o;
+  }
+
+  /**
+   * Adds new paths to the path order.
+   * @param doc index of the first inserted document
+   * @param paths inserted paths
+   */
+  private void order(final int doc, final byte[][] paths) {
+    final int ps = paths.length;
+    // skip adjustment if documents were appended
+    if(doc < pathOrder.size()) shift(doc, ps);
+    if(ps == 1) {
+      pathOrder.insert(index(paths[0]), new int[] { doc });
+      return;
+    }
+
+    // bulk insertion: sort new paths and merge them with the existing order
+    final TokenList pl = pathList;
+    final IntList order = pathOrder;
+    final int[] po = Array.createOrder(paths.clone(), false, true);
+    final int os = order.size();
+    final int[] merged = new int[os + ps];
+    int o = 0, p = 0, m = 0;
+    while(o < os && p < ps) {
+      final int od = order.get(o), pd = doc + po[p];
+      if(diff(pl.get(od), pl.get(pd)) <= 0) {
+        merged[m++] = od;
+        o++;
+      } else {
+        merged[m++] = pd;
+        p++;
+      }
+    }
+    while(o < os) merged[m++] = order.get(o++);
+    while(p < ps) merged[m++] = doc + po[p++];
+    pathOrder = new IntList(merged);
+  }
+
+  /**
+   * Adjusts the document indexes in the path order.
+   * @param doc index of the first document to be adjusted
+   * @param diff difference
+   */
+  private void shift(final int doc, final int diff) {
+    final IntList order = pathOrder;
+    final int os = order.size();
+    for(int o = 0; o < os; o++) {
+      final int d = order.get(o);
+      if(d >= doc) order.set(o, d + diff);
     }
-    return -1;
   }
 
   /**
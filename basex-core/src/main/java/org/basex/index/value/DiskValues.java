@@ -32,7 +32,7 @@ public class DiskValues implements Index {
   /** Data reference. */
   final Data data;
   /** Cached index entries: mapping between keys and index entries. */
-  final IndexCache cache = new IndexCache();
+  final IndexCache cache;
   /** Cached texts: mapping between key positions and indexed texts. */
   final IntObjMap<byte[]> ctext = new IntObjMap<>();
   /** Number of current index entries. */
@@ -63,6 +63,7 @@ public class DiskValues implements Index {
   DiskValues(final Data data, final boolean text, final String pref) throws IOException {
     this.data = data;
     this.text = text;
+    cache = new IndexCache(data.meta.indexcache);
     idxl = new DataAccess(data.meta.dbfile(pref + 'l'));
     idxr = new DataAccess(data.meta.dbfile(pref + 'r'));
     size.set(idxl.read4());
@@ -84,9 +85,10 @@ public class DiskValues implements Index {
       for(int m = 0; m < s; ++m) {
         final long pos = idxr.read5(m * 5L);
         final int oc = idxl.readNum(pos);
-        if(stats.adding(oc)) stats.add(data.text(pre(idxl.readNum()), text));
+        if(stats.adding(oc)) stats.add(key(m, idxl.readNum()));
       }
     }
+    cache.info(tb);
     stats.print(tb);
     return tb.finish();
   }
@@ -143,6 +145,11 @@ public class DiskValues implements Index {
   @SuppressWarnings("unused")
   public void replace(final byte[] old, final byte[] key, final int id) { }
 
+  /**
+   * Writes buffered updates to disk.
+   */
+  public void compact() { }
+
   @Override
   public EntryIterator entries(final IndexEntries input) {
     final byte[] key = input.get();
@@ -162,7 +169,7 @@ public class DiskValues implements Index {
   /**
    * Returns the {@code pre} value for the specified id.
    * @param id id value
-   * @return pre value
+   * @return pre value, or {@code -1} if the id has been removed from the index
    */
   int pre(final int id) {
     return id;
@@ -393,7 +400,8 @@ public class DiskValues implements Index {
       idxl.cursor(offset);
       for(int i = 0, id = 0; i < sz; i++) {
         id += idxl.readNum();
-        pres.add(pre(id));
+        final int pre = pre(id);
+        if(pre != -1) pres.add(pre);
       }
     }
     return iter(pres.sort());
@@ -414,14 +422,14 @@ public class DiskValues implements Index {
       for(int l = i < 0 ? -i - 1 : tok.mni ? i : i + 1; l < s; l++) {
         final int ps = idxl.readNum(idxr.read5(l * 5L));
         int id = idxl.readNum();
-        final int pre = pre(id);
 
         // value is too large: skip traversal
-        final int d = diff(data.text(pre, text), tok.max);
+        final int d = diff(key(l, id), tok.max);
         if(d > 0 || !tok.mxi && d == 0) break;
         // add pre values
         for(int p = 0; p < ps; ++p) {
-          pres.add(pre(id));
+          final int pre = pre(id);
+          if(pre != -1) pres.add(pre);
           id += idxl.readNum();
         }
       }
@@ -448,15 +456,18 @@ public class DiskValues implements Index {
         final int ds = idxl.readNum(idxr.read5(l * 5L));
         int id = idxl.readNum();
         final int pre = pre(id);
+        final byte[] key = pre == -1 ? key(l, id) : null;
 
-        final double v = data.textDbl(pre, text);
+        final double v = key != null ? toDouble(key) : data.textDbl(pre, text);
         if(v >= min && v <= max) {
           // value is in range
           for(int d = 0; d < ds; ++d) {
-            pres.add(pre(id));
+            final int p = pre(id);
+            if(p != -1) pres.add(p);
             id += idxl.readNum();
           }
-        } else if(simple && v > max && data.textLen(pre, text) == len) {
+        } else if(simple && v > max && (key != null ? key.length :
+          data.textLen(pre, text)) == len) {
           // if limits are integers, if min, max and current value have the same
           // string length, and if current value is larger than max, test can be
           // skipped, as all remaining values will be bigger
@@ -467,12 +478,25 @@ public class DiskValues implements Index {
     return iter(pres.sort());
   }
 
+  /**
+   * Returns the key at the specified position.
+   * <p><em>Important:</em> This method is NOT thread-safe, since it is used in loops.</p>
+   * @param index key position
+   * @param id first id of the key
+   * @return key
+   */
+  final byte[] key(final int index, final int id) {
+    // keys of updated entries are cached, as their first id may not be valid anymore
+    final byte[] key = ctext.get(index);
+    return key != null ? key : data.text(pre(id), text);
+  }
+
   /**
    * Returns an iterator for the specified id list.
    * @param pres pre values
    * @return iterator
    */
-  private static IndexIterator iter(final IntList pres) {
+  static IndexIterator iter(final IntList pres) {
     return new IndexIterator() {
       final int s = pres.size();
       int p = -1;
@@ -506,7 +530,7 @@ public class DiskValues implements Index {
         final long pos = idxr.read5(m * 5L);
         final int oc = idxl.readNum(pos);
         int id = idxl.readNum();
-        tb.add("  ").addInt(m).add(". key: \"").add(data.text(pre(id), text)).add("\"; offset: ");
+        tb.add("  ").addInt(m).add(". key: \"").add(key(m, id)).add("\"; offset: ");
         tb.addLong(pos).add("; id/dists: ").addInt(id).add('/').addInt(pre(id));
         for(int n = 1; n < oc; n++) {
           id += idxl.readNum();
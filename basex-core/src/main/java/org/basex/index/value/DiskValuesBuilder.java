@@ -47,10 +47,23 @@ public final class DiskValuesBuilder extends IndexBuilder {
    * @param text value type (text/attribute)
    */
   public DiskValuesBuilder(final Data data, final MainOptions options, final boolean text) {
-    super(data, options.get(MainOptions.INDEXSPLITSIZE));
+    super(data, options.get(MainOptions.INDEXSPLITSIZE), options.get(MainOptions.INDEXTHREADS));
     this.text = text;
   }
 
+  /**
+   * Constructor for a partition builder.
+   * @param parent parent builder
+   * @param part partition number
+   * @param start first pre value
+   * @param end last pre value + 1
+   */
+  private DiskValuesBuilder(final DiskValuesBuilder parent, final int part, final int start,
+      final int end) {
+    super(parent, part, start, end);
+    text = parent.text;
+  }
+
   @Override
   public DiskValues build() throws IOException {
     // delete old index
@@ -59,9 +72,44 @@ public final class DiskValuesBuilder extends IndexBuilder {
     final Performance perf = Prop.debug ? new Performance() : null;
     Util.debug(det());
 
-    final int k = text ? Data.TEXT : Data.ATTR;
+    final int parts = partitions();
+    if(parts > 1) {
+      // index partitions in parallel and merge the resulting partial index structures
+      index = null;
+      parallel(parts, text ? DATATXT : DATAATV, "lrt");
+      if(splits > 0) {
+        merge();
+      } else {
+        index = new IndexTree();
+        writeIndex(false);
+      }
+    } else {
+      index();
+      writeIndex(splits > 0);
+      // merge partial index structures
+      if(splits > 1) {
+        index = null;
+        Performance.gc(1);
+        merge();
+      }
+    }
+
+    if(text) data.meta.textindex = true;
+    else data.meta.attrindex = true;
+
+    finishIndex(perf);
+    return data.meta.updindex ? new UpdatableDiskValues(data, text) : new DiskValues(data, text);
+  }
+
+  @Override
+  protected DiskValuesBuilder partition(final int p, final int first, final int end) {
+    return new DiskValuesBuilder(this, p, first, end);
+  }
 
-    for(pre = 0; pre < size; ++pre) {
+  @Override
+  protected void index() throws IOException {
+    final int k = text ? Data.TEXT : Data.ATTR;
+    for(pre = start; pre < size; ++pre) {
       if((pre & 0x0FFF) == 0) {
         check();
         // check if main memory is exhausted
@@ -77,20 +125,8 @@ public final class DiskValuesBuilder extends IndexBuilder {
         count++;
       }
     }
-
-    writeIndex(splits > 0);
-    // merge partial index structures
-    if(splits > 1) {
-      index = null;
-      Performance.gc(1);
-      merge();
-    }
-
-    if(text) data.meta.textindex = true;
-    else data.meta.attrindex = true;
-
-    finishIndex(perf);
-    return data.meta.updindex ? new UpdatableDiskValues(data, text) : new DiskValues(data, text);
+    // write remaining entries of a partition
+    if(partitioned() && index.size() > 0) writeIndex(true);
   }
 
   /**
@@ -162,7 +198,7 @@ public final class DiskValuesBuilder extends IndexBuilder {
    */
   private void writeIndex(final boolean partial) throws IOException {
     // write id arrays and references
-    final String name = (text ? DATATXT : DATAATV) + (partial ? splits : "");
+    final String name = (text ? DATATXT : DATAATV) + (partial ? infix(splits) : "");
     try(final DataOutput outL = new DataOutput(data.meta.dbfile(name + 'l'));
         final DataOutput outR = new DataOutput(data.meta.dbfile(name + 'r'))) {
       outL.write4(index.size());
@@ -0,0 +1,315 @@
+package org.basex.index.value;
+
+import static org.basex.core.Text.*;
+import static org.basex.data.DataText.*;
+
+import java.io.*;
+
+import org.basex.core.*;
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.io.random.*;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class provides access to the range index, which stores numbers, dates and date/times
+ * of text nodes and attribute values as sorted keys. The data structure is described in the
+ * {@link RangeIndexBuilder} class. All methods are thread-safe.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class RangeIndex implements Index {
+  /** Section: numbers. */
+  static final int NUMBER = 0;
+  /** Section: dates without timezone. */
+  private static final int DATE = 1;
+  /** Section: dates with timezone. */
+  private static final int DATE_TZ = 2;
+  /** Section: date/times without timezone. */
+  private static final int DATETIME = 3;
+  /** Section: date/times with timezone. */
+  private static final int DATETIME_TZ = 4;
+  /** Number of sections. */
+  static final int SECTIONS = 5;
+
+  /** Number of entries per block. */
+  static final int BLOCK = 128;
+  /** Size of the file header. */
+  static final int HEADER = SECTIONS * 9;
+  /** Size of a block directory entry. */
+  static final int DIRENTRY = 13;
+
+  /** Data reference. */
+  private final Data data;
+  /** Text nodes. */
+  private final Part texts;
+  /** Attribute values. */
+  private final Part attributes;
+
+  /**
+   * Constructor, initializing the index structure.
+   * @param data data reference
+   * @throws IOException I/O Exception
+   */
+  public RangeIndex(final Data data) throws IOException {
+    this.data = data;
+    texts = new Part(new DataAccess(data.meta.dbfile(DATARNG + 't')));
+    attributes = new Part(new DataAccess(data.meta.dbfile(DATARNG + 'a')));
+  }
+
+  /**
+   * Returns the section for the specified value type.
+   * @param type type ({@code null} for numbers)
+   * @param zoned dates with timezone
+   * @return section
+   */
+  static int section(final Type type, final boolean zoned) {
+    return type == null ? NUMBER : type == AtomType.DAT ? zoned ? DATE_TZ : DATE :
+      zoned ? DATETIME_TZ : DATETIME;
+  }
+
+  @Override
+  public void init() { }
+
+  @Override
+  public byte[] info(final MainOptions options) {
+    final TokenBuilder tb = new TokenBuilder();
+    tb.add(LI_STRUCTURE).add(SORTED_BLOCKS).add(NL);
+    tb.add(LI_SIZE).add(Performance.format(texts.da.length() + attributes.da.length(), true));
+    tb.add(NL);
+    final String[] labels = { LI_NUMBERS, LI_DATES, LI_DATETIMES };
+    final int[][] sections = { { NUMBER }, { DATE, DATE_TZ }, { DATETIME, DATETIME_TZ } };
+    for(int l = 0; l < labels.length; l++) {
+      long t = 0, a = 0;
+      for(final int s : sections[l]) {
+        t += texts.counts[s];
+        a += attributes.counts[s];
+      }
+      tb.add(labels[l]).addLong(t).add(" texts, ").addLong(a).add(" attributes").add(NL);
+    }
+    return tb.finish();
+  }
+
+  @Override
+  public EntryIterator entries(final IndexEntries entries) {
+    throw Util.notExpected();
+  }
+
+  @Override
+  public IndexIterator iter(final IndexToken token) {
+    final TypedRange tr = (TypedRange) token;
+    final Part part = tr.text ? texts : attributes;
+    final IntList pres = new IntList();
+    if(tr.type == null) {
+      // no results for NaN boundaries
+      if(tr.min <= tr.max) part.range(NUMBER, tr, true, pres);
+    } else {
+      part.range(section(tr.type, false), tr, false, pres);
+      part.range(section(tr.type, true), tr, true, pres);
+    }
+    return iter(pres.sort());
+  }
+
+  @Override
+  public int costs(final IndexToken token) {
+    final TypedRange tr = (TypedRange) token;
+    final Part part = tr.text ? texts : attributes;
+    if(tr.type == null) {
+      return tr.min <= tr.max ? part.costs(NUMBER, tr.min(true), tr.max(true)) : 0;
+    }
+    return part.costs(section(tr.type, false), tr.min(false), tr.max(false)) +
+        part.costs(section(tr.type, true), tr.min(true), tr.max(true));
+  }
+
+  @Override
+  public void close() {
+    texts.da.close();
+    attributes.da.close();
+  }
+
+  @Override
+  public boolean drop() {
+    return data.meta.drop(DATARNG + '.');
+  }
+
+  /**
+   * Returns an iterator for the specified pre values.
+   * @param pres sorted pre values
+   * @return iterator
+   */
+  private static IndexIterator iter(final IntList pres) {
+    return new IndexIterator() {
+      final int s = pres.size();
+      int p = -1;
+
+      @Override
+      public boolean more() {
+        return ++p < s;
+      }
+
+      @Override
+      public int pre() {
+        return pres.get(p);
+      }
+
+      @Override
+      public int size() {
+        return s;
+      }
+    };
+  }
+
+  /**
+   * Index file for text nodes or attribute values.
+   */
+  private final class Part {
+    /** Index file. */
+    final DataAccess da;
+    /** Stateless reader. */
+    final DataReader reader;
+    /** Number of entries per section. */
+    final int[] counts = new int[SECTIONS];
+    /** Offsets to the block directories of all sections. */
+    final long[] dirs = new long[SECTIONS];
+
+    /**
+     * Constructor.
+     * @param da index file
+     */
+    Part(final DataAccess da) {
+      this.da = da;
+      reader = da.reader();
+      for(int s = 0; s < SECTIONS; s++) {
+        counts[s] = reader.read4(s * 9L);
+        dirs[s] = reader.read5(s * 9L + 4);
+      }
+    }
+
+    /**
+     * Adds the pre values of all entries of a section that are within the specified range.
+     * @param s section
+     * @param tr typed range
+     * @param zoned dates with timezone
+     * @param pres pre values
+     */
+    void range(final int s, final TypedRange tr, final boolean zoned, final IntList pres) {
+      final long min = tr.min(zoned), max = tr.max(zoned);
+      final int n = counts[s];
+      if(n == 0 || min > max) return;
+
+      final int bl = blocks(s);
+      for(int b = block(s, min); b < bl; b++) {
+        long key = key(s, b);
+        if(key > max) break;
+
+        final long off = offset(s, b), end = b + 1 < bl ? offset(s, b + 1) : dirs[s];
+        final byte[] bytes = reader.readBytes(off, (int) (end - off));
+        final int c = Math.min(BLOCK, n - b * BLOCK);
+        for(int e = 0, p = 0; e < c; e++) {
+          // decode key difference and pre value
+          long diff = 0;
+          for(int sh = 0;; sh += 7) {
+            final int v = bytes[p++];
+            diff |= (long) (v & 0x7F) << sh;
+            if(v >= 0) break;
+          }
+          key += diff;
+          final int pre = Num.get(bytes, p);
+          p += Num.length(bytes, p);
+
+          if(key < min) continue;
+          if(key > max) return;
+          // dates with boundary keys may be out of range
+          if(tr.type != null && (key == min || key == max) && !contains(tr, pre)) continue;
+          pres.add(pre);
+        }
+      }
+    }
+
+    /**
+     * Estimates the number of entries of a section that are within the specified range.
+     * @param s section
+     * @param min minimum key
+     * @param max maximum key
+     * @return estimated number of results
+     */
+    int costs(final int s, final long min, final long max) {
+      final int n = counts[s];
+      if(n == 0 || min > max) return 0;
+      final int f = block(s, min), l = block(s, max);
+      return (int) Math.min(n, (l - f + 1L) * BLOCK);
+    }
+
+    /**
+     * Checks if the date of the specified entry is within the range.
+     * @param tr typed range
+     * @param pre pre value
+     * @return result of check
+     */
+    private boolean contains(final TypedRange tr, final int pre) {
+      final byte[] value = data.text(pre, tr.text);
+      try {
+        return tr.contains(tr.type == AtomType.DAT ? new Dat(value, null) : new Dtm(value, null));
+      } catch(final QueryException ex) {
+        return false;
+      }
+    }
+
+    /**
+     * Returns the last block of a section with a first key that is smaller than the
+     * specified key, or {@code 0}.
+     * @param s section
+     * @param key key
+     * @return block
+     */
+    private int block(final int s, final long key) {
+      int l = 0, h = blocks(s) - 1, b = 0;
+      while(l <= h) {
+        final int m = l + h >>> 1;
+        if(key(s, m) < key) {
+          b = m;
+          l = m + 1;
+        } else {
+          h = m - 1;
+        }
+      }
+      return b;
+    }
+
+    /**
+     * Returns the number of blocks of a section.
+     * @param s section
+     * @return number of blocks
+     */
+    private int blocks(final int s) {
+      return (counts[s] + BLOCK - 1) / BLOCK;
+    }
+
+    /**
+     * Returns the first key of a block.
+     * @param s section
+     * @param b block
+     * @return key
+     */
+    private long key(final int s, final int b) {
+      final long pos = dirs[s] + (long) b * DIRENTRY;
+      return (long) reader.read4(pos) << 32 | reader.read4(pos + 4) & 0xFFFFFFFFL;
+    }
+
+    /**
+     * Returns the offset of a block.
+     * @param s section
+     * @param b block
+     * @return offset
+     */
+    private long offset(final int s, final int b) {
+      return reader.read5(dirs[s] + (long) b * DIRENTRY + 8);
+    }
+  }
+}
@@ -0,0 +1,244 @@
+package org.basex.index.value;
+
+import static org.basex.core.Text.*;
+import static org.basex.data.DataText.*;
+import static org.basex.index.value.RangeIndex.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
+import org.basex.io.out.DataOutput;
+import org.basex.query.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * <p>This class builds a range index for all text nodes and attribute values that can be
+ * converted to numbers, dates or date/times. The values are stored as sortable 64-bit keys,
+ * which are created by {@link TypedRange#key(double)} and
+ * {@link TypedRange#key(java.math.BigDecimal)}.</p>
+ *
+ * <p>The data is stored on disk in the files {@code DATARNG + 't'} (text nodes) and
+ * {@code DATARNG + 'a'} (attribute values). Each file is divided into sections, one for each
+ * value type (see {@link RangeIndex}). The file header contains the number of entries of each
+ * section (4 bytes) and the offset to its block directory (5 bytes). The entries of a section
+ * are sorted by their keys and stored in compressed blocks: each entry consists of the
+ * difference to the previous key (variable-length encoding) and the pre value
+ * ({@link Num} format). A block directory follows each section; it contains the first key
+ * (8 bytes) and the offset (5 bytes) of each block.</p>
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class RangeIndexBuilder extends IndexBuilder {
+  /**
+   * Constructor.
+   * @param data data reference
+   */
+  public RangeIndexBuilder(final Data data) {
+    super(data, 0, 1);
+  }
+
+  @Override
+  public RangeIndex build() throws IOException {
+    final Performance perf = Prop.debug ? new Performance() : null;
+    Util.debug(det());
+
+    final Entries[][] entries = new Entries[2][SECTIONS];
+    for(final Entries[] es : entries) {
+      for(int s = 0; s < SECTIONS; s++) es[s] = new Entries();
+    }
+
+    for(pre = 0; pre < size; pre++) {
+      if((pre & 0x0FFF) == 0) check();
+      final int kind = data.kind(pre);
+      if(kind != Data.TEXT && kind != Data.ATTR) continue;
+
+      final boolean text = kind == Data.TEXT;
+      final Entries[] es = entries[text ? 0 : 1];
+      final double d = data.textDbl(pre, text);
+      if(d == d) {
+        es[NUMBER].add(TypedRange.key(d), pre);
+        count++;
+      } else {
+        final ADate date = date(data.text(pre, text));
+        if(date != null) {
+          es[section(date.type, date.zon() != Short.MAX_VALUE)].add(
+              TypedRange.key(date.localSeconds()), pre);
+          count++;
+        }
+      }
+    }
+
+    write(entries[0], 't');
+    write(entries[1], 'a');
+    data.meta.rangeindex = true;
+    finishIndex(perf);
+    return new RangeIndex(data);
+  }
+
+  /**
+   * Writes an index file.
+   * @param entries index entries
+   * @param suffix file suffix
+   * @throws IOException I/O exception
+   */
+  private void write(final Entries[] entries, final char suffix) throws IOException {
+    // compress blocks and compute the offsets of all sections
+    final ByteList[] blocks = new ByteList[SECTIONS];
+    final long[][] offsets = new long[SECTIONS][];
+    long off = HEADER;
+    for(int s = 0; s < SECTIONS; s++) {
+      final Entries es = entries[s];
+      es.sort();
+      final int n = es.size, bl = (n + BLOCK - 1) / BLOCK;
+      final ByteList bytes = new ByteList();
+      final long[] offs = new long[bl];
+      for(int e = 0; e < n; e++) {
+        if(e % BLOCK == 0) offs[e / BLOCK] = off + bytes.size();
+        writeLong(bytes, e % BLOCK == 0 ? 0 : es.keys[e] - es.keys[e - 1]);
+        bytes.add(Num.num(es.pres[e]));
+      }
+      blocks[s] = bytes;
+      offsets[s] = offs;
+      off += bytes.size() + (long) bl * DIRENTRY;
+    }
+
+    try(final DataOutput out = new DataOutput(data.meta.dbfile(DATARNG + suffix))) {
+      for(int s = 0; s < SECTIONS; s++) {
+        out.write4(entries[s].size);
+        out.write5(offsets[s].length == 0 ? HEADER : offsets[s][0] + blocks[s].size());
+      }
+      for(int s = 0; s < SECTIONS; s++) {
+        final Entries es = entries[s];
+        out.writeBytes(blocks[s].finish());
+        final long[] offs = offsets[s];
+        final int bl = offs.length;
+        for(int b = 0; b < bl; b++) {
+          final long key = es.keys[b * BLOCK];
+          out.write4((int) (key >>> 32));
+          out.write4((int) key);
+          out.write5(offs[b]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Returns a date for the specified token, or {@code null} if it does not represent an
+   * {@code xs:date} or {@code xs:dateTime} value.
+   * @param token token
+   * @return date or {@code null}
+   */
+  private static ADate date(final byte[] token) {
+    // skip tokens that do not start with a date
+    final byte[] tok = Token.trim(token);
+    final int tl = tok.length;
+    int t = tl != 0 && tok[0] == '-' ? 1 : 0;
+    final int y = t;
+    while(t < tl && Token.digit(tok[t])) t++;
+    if(t - y < 4 || t + 6 > tl || tok[t] != '-' || tok[t + 3] != '-') return null;
+
+    try {
+      return t + 6 < tl && tok[t + 6] == 'T' ? new Dtm(tok, null) : new Dat(tok, null);
+    } catch(final QueryException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes a long value with variable length.
+   * @param bytes byte list
+   * @param value value (will be treated as unsigned value)
+   */
+  private static void writeLong(final ByteList bytes, final long value) {
+    long v = value;
+    while((v & ~0x7FL) != 0) {
+      bytes.add((int) (v & 0x7F | 0x80));
+      v >>>= 7;
+    }
+    bytes.add((int) v);
+  }
+
+  @Override
+  protected void abort() {
+    data.meta.drop(DATARNG + ".");
+    data.meta.rangeindex = false;
+  }
+
+  @Override
+  protected String det() {
+    return INDEX_RANGE_D;
+  }
+
+  /**
+   * Index entries of a section.
+   */
+  private static final class Entries {
+    /** Keys. */
+    long[] keys = new long[Array.CAPACITY];
+    /** Pre values. */
+    int[] pres = new int[Array.CAPACITY];
+    /** Number of entries. */
+    int size;
+
+    /**
+     * Adds an entry.
+     * @param key key
+     * @param pre pre value
+     */
+    void add(final long key, final int pre) {
+      if(size == keys.length) {
+        final int s = Array.newSize(size);
+        keys = Arrays.copyOf(keys, s);
+        pres = Arrays.copyOf(pres, s);
+      }
+      keys[size] = key;
+      pres[size++] = pre;
+    }
+
+    /**
+     * Sorts the entries by their keys. As entries are added in ascending pre order,
+     * a stable merge sort is applied.
+     */
+    void sort() {
+      long[] k = keys, tk = new long[size];
+      int[] p = pres, tp = new int[size];
+      for(int w = 1; w < size; w <<= 1) {
+        for(int l = 0; l < size; l += w << 1) {
+          final int m = Math.min(l + w, size), h = Math.min(l + (w << 1), size);
+          int i = l, j = m, o = l;
+          while(i < m && j < h) {
+            if(k[j] < k[i]) {
+              tk[o] = k[j];
+              tp[o++] = p[j++];
+            } else {
+              tk[o] = k[i];
+              tp[o++] = p[i++];
+            }
+          }
+          while(i < m) {
+            tk[o] = k[i];
+            tp[o++] = p[i++];
+          }
+          while(j < h) {
+            tk[o] = k[j];
+            tp[o++] = p[j++];
+          }
+        }
+        final long[] sk = k;
+        k = tk;
+        tk = sk;
+        final int[] sp = p;
+        p = tp;
+        tp = sp;
+      }
+      keys = k;
+      pres = p;
+    }
+  }
+}
@@ -1,10 +1,13 @@
 package org.basex.index.value;
 
 import static org.basex.data.DataText.*;
+import static org.basex.util.Token.*;
 
 import java.io.*;
 
 import org.basex.data.*;
+import org.basex.index.*;
+import org.basex.index.query.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
 import org.basex.util.list.*;
@@ -13,12 +16,18 @@ import org.basex.util.list.*;
  * This class provides access and update functions to attribute values and text contents stored on
  * disk. The data structure is described in the {@link DiskValuesBuilder} class.
  *
+ * Updates are buffered in a {@link ValuesDelta} instance, which is merged with the on-disk
+ * entries at query time. The buffered changes are written to disk in a single pass at the end
+ * of each update, so that no changes are lost if the process is terminated.
+ *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
  */
 public final class UpdatableDiskValues extends DiskValues {
   /** Free slots. */
   private final FreeSlots free = new FreeSlots();
+  /** Buffered changes. */
+  private final ValuesDelta delta = new ValuesDelta();
 
   /**
    * Constructor, initializing the index structure.
@@ -32,39 +41,167 @@ public final class UpdatableDiskValues extends DiskValues {
 
   @Override
   protected int pre(final int id) {
-    return data.pre(id);
+    return delta.deleted(id) ? -1 : data.pre(id);
+  }
+
+  @Override
+  public int costs(final IndexToken it) {
+    final int c = super.costs(it);
+    if(delta.isEmpty() || c == Integer.MAX_VALUE) return c;
+    final IntList ids = new IntList();
+    delta.ids(it, ids);
+    return c + ids.size();
+  }
+
+  @Override
+  public IndexIterator iter(final IndexToken it) {
+    final IndexIterator ii = super.iter(it);
+    if(delta.isEmpty()) return ii;
+
+    // merge results of on-disk index with added ids
+    final IntList ids = new IntList();
+    delta.ids(it, ids);
+    if(ids.isEmpty()) return ii;
+    final int is = ids.size();
+    final IntList pres = new IntList(ii.size() + is);
+    while(ii.more()) pres.add(ii.pre());
+    for(int i = 0; i < is; i++) pres.add(data.pre(ids.get(i)));
+    return iter(pres.sort());
+  }
+
+  @Override
+  public EntryIterator entries(final IndexEntries input) {
+    final EntryIterator ei = super.entries(input);
+    if(delta.isEmpty()) return ei;
+
+    // merge entries of on-disk index with changed entries
+    final TokenIntMap map = new TokenIntMap();
+    for(byte[] key; (key = ei.next()) != null;) map.put(key, ei.count());
+    final byte[] token = input.get();
+    for(final byte[] key : delta.keys()) {
+      if(token.length == 0 || (input.prefix ? startsWith(key, token) :
+        input.descending ? diff(key, token) < 0 : diff(key, token) >= 0)) {
+        map.put(key, Math.max(0, map.get(key)) + delta.count(key));
+      }
+    }
+    final TokenList keys = new TokenList(map.size());
+    for(final byte[] key : map) {
+      if(map.get(key) > 0) keys.add(key);
+    }
+    keys.sort(true, !input.descending);
+
+    return new EntryIterator() {
+      final int ks = keys.size();
+      int k = -1;
+
+      @Override
+      public byte[] next() {
+        return ++k < ks ? keys.get(k) : null;
+      }
+
+      @Override
+      public int count() {
+        return k < ks ? map.get(keys.get(k)) : -1;
+      }
+    };
   }
 
   @Override
   public synchronized void add(final TokenObjMap<IntList> map) {
-    // create a sorted list of the new keys and update the old keys
-    final TokenList newKeys = new TokenList();
+    for(final byte[] key : map) {
+      final IntList ids = map.get(key);
+      final int is = ids.size();
+      for(int i = 0; i < is; i++) delta.add(key, ids.get(i));
+    }
+  }
+
+  @Override
+  public synchronized void delete(final TokenObjMap<IntList> map) {
+    for(final byte[] key : map) {
+      final boolean stored = stored(key);
+      final IntList ids = map.get(key);
+      final int is = ids.size();
+      for(int i = 0; i < is; i++) delta.delete(key, ids.get(i), stored);
+    }
+  }
+
+  @Override
+  public synchronized void replace(final byte[] old, final byte[] key, final int id) {
+    delta.delete(old, id, stored(old));
+    if(key.length <= data.meta.maxlen) delta.add(key, id);
+  }
+
+  @Override
+  public synchronized void compact() {
+    if(delta.isEmpty()) return;
 
-    // update id lists of existing keys (use sorted map to allow for binary search)
+    // merge changes of existing keys, collect new keys and keys without ids
+    final TokenObjMap<IntList> newKeys = new TokenObjMap<>();
+    final IntList emptyKeys = new IntList();
     int index = 0;
     final int sz = size();
-    for(final byte[] key : new TokenList(map).sort(true)) {
+    for(final byte[] key : delta.keys()) {
+      final IntList adds = delta.adds(key), dels = delta.dels(key);
       index = get(key, index, sz);
       if(index >= 0) {
-        final int[] ids = map.get(key).finish();
         final long off = idxr.read5(index * 5L);
         final int oldSize = idxl.readNum(off);
-        final IntList il = new IntList(oldSize + ids.length);
+        final IntList il = new IntList(oldSize + (adds != null ? adds.size() : 0));
+        if(dels != null) dels.sort();
         for(int o = 0, c = 0; o < oldSize; ++o) {
           c += idxl.readNum();
-          il.add(c);
+          if(dels == null || dels.sortedIndexOf(c) < 0) il.add(c);
         }
-        // write new ids
+        if(adds != null) il.add(adds.toArray());
         free.add((int) (idxl.cursor() - off), off);
-        writeIds(key, il.add(ids), index++);
+        if(il.isEmpty()) {
+          cache.delete(key);
+          emptyKeys.add(index);
+        } else {
+          writeIds(key, il, index);
+        }
+        index++;
       } else {
         index = -(index + 1);
-        newKeys.add(key);
+        if(adds != null && !adds.isEmpty()) newKeys.put(key, adds);
       }
     }
+    delta.clear();
+
+    // positions of empty keys are sorted, as keys were sorted, too
+    if(!emptyKeys.isEmpty()) deleteKeys(emptyKeys.finish());
+    if(!newKeys.isEmpty()) insert(newKeys);
+  }
+
+  @Override
+  public void close() {
+    compact();
+    super.close();
+  }
+
+  /**
+   * Checks if the specified key exists in the on-disk index. If yes, the key will be cached,
+   * as its first id may be removed from the data structures before the changes are compacted.
+   * @param key key
+   * @return result of check
+   */
+  private boolean stored(final byte[] key) {
+    final int index = get(key);
+    if(index < 0) return false;
+    ctext.put(index, key);
+    return true;
+  }
+
+  /**
+   * Inserts new keys and their ids.
+   * @param map a set of [key, id-list] pairs
+   */
+  private void insert(final TokenObjMap<IntList> map) {
+    // create a sorted list of the new keys
+    final TokenList newKeys = new TokenList(map).sort(true);
+    final int sz = size(), ns = newKeys.size();
 
     // insert new keys in descending order
-    final int ns = newKeys.size();
     for(int j = ns - 1, oldIndex = sz - 1, newIndex = sz + j; j >= 0; --j) {
       final byte[] key = newKeys.get(j);
       final int idx = -(1 + get(key, 0, oldIndex + 1));
@@ -81,112 +218,6 @@ public final class UpdatableDiskValues extends DiskValues {
     size(sz + ns);
   }
 
-  @Override
-  public synchronized void delete(final TokenObjMap<IntList> map) {
-    // delete ids and create a list of the key positions which should be deleted
-    final IntList il = new IntList(map.size());
-
-    // add sorted keys (allows faster binary search)
-    int p = 0;
-    final int sz = size();
-    for(final byte[] key : new TokenList(map).sort(true)) {
-      p = get(key, p, sz);
-      if(p < 0) throw Util.notExpected("Key does not exist: '%'", key);
-      if(deleteIds(p, key, map.get(key).sort().finish())) il.add(p);
-      p++;
-    }
-    // empty should contain sorted keys, since keys were sorted, too
-    if(!il.isEmpty()) deleteKeys(il.finish());
-  }
-
-  @Override
-  public synchronized void replace(final byte[] old, final byte[] key, final int id) {
-    // delete the id from the old key
-    final int p = get(old);
-    if(p >= 0) {
-      final int[] tmp = { id };
-      if(deleteIds(p, old, tmp)) {
-        tmp[0] = p;
-        deleteKeys(tmp);
-      }
-    }
-
-    final IntList newIds;
-    int index = get(key);
-    if(index < 0) {
-      newIds = new IntList(1).add(id);
-
-      // new id list
-      index = -(index + 1);
-      // create space for new entry
-      final int sz = size() + 1;
-      final byte[] tmp = idxr.readBytes(0, sz * 5);
-      for(int i = sz - 1; i > index; --i) copy(tmp, i, i - 1);
-      idxr.cursor(0);
-      idxr.writeBytes(tmp, 0, sz * 5);
-      size(sz);
-
-    } else {
-      // add id to the existing id list
-      final long off = idxr.read5(index * 5L);
-      final int num = idxl.readNum(off);
-      final int newSize = num + 1;
-      newIds = new IntList(newSize);
-
-      boolean notadded = true;
-      int prevId = 0;
-      for(int i = 0; i < num; ++i) {
-        int v = idxl.readNum();
-        if(notadded && id < prevId + v) {
-          // add the new id
-          newIds.add(id);
-          notadded = false;
-          // decrement the difference to the next id
-          v -= id - prevId;
-          prevId = id;
-        }
-        newIds.add(id);
-        prevId += v;
-      }
-      if(notadded) newIds.add(id);
-    }
-    // write new ids
-    writeIds(key, newIds, index);
-  }
-
-  /**
-   * Removes record ids from the index.
-   * @param index index of the key
-   * @param key record key
-   * @param ids list of record ids to delete
-   * @return {@code true} if list was completely deleted
-   */
-  private boolean deleteIds(final int index, final byte[] key, final int[] ids) {
-    final long off = idxr.read5(index * 5L);
-
-    // read each id from the list and skip the ones that should be deleted
-    final int oldSize = idxl.readNum(off), delSize = ids.length, newSize = oldSize - delSize;
-    final IntList newIds = new IntList(newSize);
-    for(int o = 0, d = 0, currId = 0; o < oldSize; o++) {
-      currId += idxl.readNum();
-      if(d < delSize && currId == ids[d]) d++;
-      else newIds.add(currId);
-    }
-
-    // remove old ids
-    free.add((int) (idxl.cursor() - off), off);
-
-    // delete cached index entry if no ids remain
-    if(newSize == 0) {
-      cache.delete(key);
-      return true;
-    }
-
-    // write new ids
-    writeIds(key, newIds, index);
-    return false;
-  }
-
   /**
    * Deletes keys from the index.
    * @param keys list of key positions to delete
@@ -277,6 +308,6 @@ public final class UpdatableDiskValues extends DiskValues {
 
   @Override
   public String toString() {
-    return super.toString() + "FREE BLOCKS: " + free;
+    return super.toString() + "FREE BLOCKS: " + free + "\nBUFFERED CHANGES: " + delta.size();
   }
 }
@@ -0,0 +1,174 @@
+package org.basex.index.value;
+
+import static org.basex.util.Token.*;
+
+import org.basex.index.query.*;
+import org.basex.util.hash.*;
+import org.basex.util.list.*;
+
+/**
+ * This class buffers updates of an updatable value index in main memory. It stores the ids
+ * that have been added to a key, and the ids that have been removed from the lists of the
+ * on-disk index. The buffered changes are merged with the on-disk index when it is queried,
+ * and they are written back to disk by {@link UpdatableDiskValues#compact()}.
+ *
+ * This class is not thread-safe: it is modified by updating operations, which require
+ * exclusive access to the database.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class ValuesDelta {
+  /** Added ids. */
+  private TokenObjMap<IntList> adds = new TokenObjMap<>();
+  /** Ids that have been removed from the on-disk index. */
+  private TokenObjMap<IntList> dels = new TokenObjMap<>();
+  /** Ids that have been removed from the on-disk index, independent of their keys. */
+  private IntSet deleted = new IntSet();
+  /** Number of buffered changes. */
+  private int size;
+
+  /**
+   * Adds an id to a key.
+   * @param key key
+   * @param id id
+   */
+  void add(final byte[] key, final int id) {
+    list(adds, key).add(id);
+    size++;
+  }
+
+  /**
+   * Removes an id from a key.
+   * @param key key
+   * @param id id
+   * @param stored indicates if the key exists in the on-disk index
+   */
+  void delete(final byte[] key, final int id, final boolean stored) {
+    final IntList ids = adds.get(key);
+    if(ids != null && ids.contains(id)) {
+      // remove id that has not been written yet
+      ids.delete(id);
+      size--;
+    } else if(stored) {
+      list(dels, key).add(id);
+      deleted.add(id);
+      size++;
+    }
+  }
+
+  /**
+   * Checks if the specified id has been removed from the on-disk index.
+   * @param id id
+   * @return result of check
+   */
+  boolean deleted(final int id) {
+    return deleted.contains(id);
+  }
+
+  /**
+   * Adds the ids of all added keys that match the specified index token.
+   * @param token index token
+   * @param ids id list
+   */
+  void ids(final IndexToken token, final IntList ids) {
+    if(token instanceof StringRange) {
+      final StringRange sr = (StringRange) token;
+      for(final byte[] key : adds) {
+        final int mn = diff(key, sr.min), mx = diff(key, sr.max);
+        if((sr.mni ? mn >= 0 : mn > 0) && (sr.mxi ? mx <= 0 : mx < 0)) {
+          ids.add(adds.get(key).toArray());
+        }
+      }
+    } else if(token instanceof NumericRange) {
+      final NumericRange nr = (NumericRange) token;
+      for(final byte[] key : adds) {
+        final double d = toDouble(key);
+        if(d >= nr.min && d <= nr.max) ids.add(adds.get(key).toArray());
+      }
+    } else {
+      final IntList il = adds.get(token.get());
+      if(il != null) ids.add(il.toArray());
+    }
+  }
+
+  /**
+   * Returns the difference between the number of added and removed ids of a key.
+   * @param key key
+   * @return difference
+   */
+  int count(final byte[] key) {
+    final IntList a = adds.get(key), d = dels.get(key);
+    return (a != null ? a.size() : 0) - (d != null ? d.size() : 0);
+  }
+
+  /**
+   * Returns the ids that have been added to a key.
+   * @param key key
+   * @return ids or {@code null}
+   */
+  IntList adds(final byte[] key) {
+    return adds.get(key);
+  }
+
+  /**
+   * Returns the ids that have been removed from a key.
+   * @param key key
+   * @return ids or {@code null}
+   */
+  IntList dels(final byte[] key) {
+    return dels.get(key);
+  }
+
+  /**
+   * Returns all keys with changes in ascending order.
+   * @return keys
+   */
+  TokenList keys() {
+    final TokenSet keys = new TokenSet();
+    for(final byte[] key : adds) keys.add(key);
+    for(final byte[] key : dels) keys.add(key);
+    return new TokenList(keys).sort(true);
+  }
+
+  /**
+   * Returns the number of buffered changes.
+   * @return number of changes
+   */
+  int size() {
+    return size;
+  }
+
+  /**
+   * Checks if changes have been buffered.
+   * @return result of check
+   */
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Removes all changes.
+   */
+  void clear() {
+    adds = new TokenObjMap<>();
+    dels = new TokenObjMap<>();
+    deleted = new IntSet();
+    size = 0;
+  }
+
+  /**
+   * Returns the id list of a key.
+   * @param map map
+   * @param key key
+   * @return id list
+   */
+  private static IntList list(final TokenObjMap<IntList> map, final byte[] key) {
+    IntList ids = map.get(key);
+    if(ids == null) {
+      ids = new IntList(1);
+      map.put(key, ids);
+    }
+    return ids;
+  }
+}
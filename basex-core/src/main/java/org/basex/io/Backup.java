@@ -0,0 +1,517 @@
+package org.basex.io;
+
+import static org.basex.core.Text.*;
+
+import java.io.*;
+import java.security.*;
+import java.util.*;
+import java.util.zip.*;
+
+import org.basex.core.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.io.out.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * Creates and restores database backups.
+ *
+ * A backup is a zip archive with the files of a database directory and a manifest, which
+ * contains the SHA-256 digests of all blocks of the backed up files. An incremental backup only
+ * contains the blocks that have changed since its base backup. It is restored by applying
+ * all backups of its chain, starting with the full backup.
+ *
+ * The manifest starts with a list of all files, sorted by their paths, which is followed by the
+ * digests of all files in the same order. The digests are never kept in main memory: they are
+ * streamed to a temporary file while a backup is created, and read sequentially when they are
+ * compared.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class Backup extends Proc {
+  /** Name of the manifest entry. */
+  private static final String MANIFEST = "backup" + IO.BASEXSUFFIX;
+  /** Block size. */
+  private static final int BLOCK = IO.BLOCKSIZE << 4;
+  /** Size of a block digest. */
+  private static final int DIGEST = 32;
+
+  /** Archive. */
+  private final IOFile archive;
+  /** Total number of bytes to be processed. */
+  private long total;
+  /** Number of processed bytes. */
+  private long curr;
+
+  /**
+   * Constructor.
+   * @param file archive file
+   */
+  public Backup(final IOFile file) {
+    archive = file;
+  }
+
+  /**
+   * Returns the name of the base backup.
+   * @param file archive file
+   * @return name of base backup, or an empty string for full backups
+   * @throws IOException I/O exception
+   */
+  public static String base(final IOFile file) throws IOException {
+    final Manifest mf = manifest(file);
+    return mf == null ? "" : mf.base;
+  }
+
+  /**
+   * Backs up the specified files.
+   * @param root database directory
+   * @param files relative paths of the files to be backed up
+   * @param base name of the base backup (if {@code null}, or if the base backup has no
+   *   manifest, a full backup is created)
+   * @throws IOException I/O exception
+   */
+  public void create(final IOFile root, final StringList files, final String base)
+      throws IOException {
+
+    final IOFile bf = base == null ? null : file(base);
+    final IOFile old = bf != null && manifest(bf) != null ? bf : null;
+    final Manifest mf = new Manifest(old == null ? "" : base);
+
+    // files are processed in the order of the manifest
+    final TreeMap<String, String> paths = new TreeMap<>();
+    for(final String file : files) paths.put(Prop.WIN ? file.replace('\\', '/') : file, file);
+
+    total = 0;
+    curr = 0;
+    for(final String file : files) total += new IOFile(root, file).length();
+
+    final IOFile tmp = new IOFile(File.createTempFile(Prop.NAME, IO.BASEXSUFFIX));
+    try(final Digests prev = old == null ? null : new Digests(old);
+        final OutputStream digests = new BufferedOutputStream(new FileOutputStream(tmp.file()));
+        final ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(
+            new FileOutputStream(archive.path())))) {
+      // use simple, fast compression
+      out.setLevel(1);
+      final byte[] data = new byte[BLOCK];
+      final MessageDigest md = digest();
+      for(final Map.Entry<String, String> entry : paths.entrySet()) {
+        final String path = entry.getKey();
+        final boolean found = prev != null && prev.find(path);
+        final IntList blocks = new IntList();
+        int b = 0, last = 0;
+        boolean open = false;
+        try(final FileInputStream in = new FileInputStream(new File(root.file(),
+            entry.getValue()))) {
+          for(int size; (size = read(in, data)) > 0; b++) {
+            md.update(data, 0, size);
+            final byte[] digest = md.digest();
+            digests.write(digest);
+            if(!found || !prev.same(b, digest, size)) {
+              // write changed block
+              if(!open) {
+                out.putNextEntry(new ZipEntry(root.name() + '/' + path));
+                open = true;
+              }
+              out.write(data, 0, size);
+              blocks.add(b);
+            }
+            curr += size;
+            last = size;
+          }
+        }
+        if(open) out.closeEntry();
+        mf.add(path, new Entry(b, last, blocks));
+      }
+
+      // write manifest, followed by the digests
+      out.putNextEntry(new ZipEntry(MANIFEST));
+      final ArrayOutput ao = new ArrayOutput();
+      try(final DataOutput dout = new DataOutput(ao)) {
+        mf.write(dout);
+      }
+      out.write(ao.finish());
+      digests.flush();
+      try(final FileInputStream in = new FileInputStream(tmp.file())) {
+        for(int size; (size = read(in, data)) > 0;) out.write(data, 0, size);
+      }
+      out.closeEntry();
+    } finally {
+      tmp.delete();
+    }
+  }
+
+  /**
+   * Restores the backup to the specified database directory. The directory is deleted
+   * as soon as it is clear that all backups of the chain exist. If the backup is incremental,
+   * all backups of its chain are applied, and the result is compared with the digests of
+   * the manifest.
+   * @param root database directory
+   * @throws IOException I/O exception
+   */
+  public void restore(final IOFile root) throws IOException {
+    // collect backup chain, starting with the full backup
+    final ArrayList<IOFile> chain = new ArrayList<>();
+    final ArrayList<Manifest> manifests = new ArrayList<>();
+    for(IOFile file = archive;;) {
+      final Manifest mf = manifest(file);
+      chain.add(0, file);
+      manifests.add(0, mf);
+      if(mf == null || mf.base.isEmpty()) break;
+      file = file(mf.base);
+      if(!file.exists()) throw new FileNotFoundException(file.path());
+    }
+    if(root.exists() && !root.delete()) throw new BaseXException(FILE_NOT_DELETED_X, root);
+
+    total = 0;
+    curr = 0;
+    for(final IOFile file : chain) total += file.length();
+
+    final int cs = chain.size();
+    for(int c = 0; c < cs; c++) {
+      final IOFile file = chain.get(c);
+      final Manifest mf = manifests.get(c);
+      if(mf == null) {
+        // no manifest: unzip all files
+        final Zip zip = new Zip(file);
+        proc(zip);
+        zip.unzip(root.parent());
+      } else {
+        apply(file, mf, root);
+      }
+      curr += file.length();
+    }
+    if(cs > 1) verify(archive, manifests.get(cs - 1), root);
+  }
+
+  @Override
+  protected double prog() {
+    return total == 0 ? 0 : (double) curr / total;
+  }
+
+  /**
+   * Applies the blocks of a backup to the specified directory.
+   * @param file archive file
+   * @param mf manifest of the archive
+   * @param root database directory
+   * @throws IOException I/O exception
+   */
+  private static void apply(final IOFile file, final Manifest mf, final IOFile root)
+      throws IOException {
+
+    root.md();
+    try(final ZipFile zf = new ZipFile(file.file())) {
+      final byte[] data = new byte[BLOCK];
+      for(final Map.Entry<String, Entry> me : mf.entries.entrySet()) {
+        final String path = me.getKey();
+        final Entry entry = me.getValue();
+        final IOFile trg = new IOFile(root, path);
+        trg.parent().md();
+        try(final RandomAccessFile raf = new RandomAccessFile(trg.file(), "rw")) {
+          final ZipEntry ze = zf.getEntry(root.name() + '/' + path);
+          if(ze != null) {
+            try(final InputStream in = zf.getInputStream(ze)) {
+              final int bs = entry.blocks.size();
+              for(int b = 0; b < bs; b++) {
+                final int block = entry.blocks.get(b), size = entry.size(block);
+                if(read(in, data, size) != size) throw new EOFException(ze.getName());
+                raf.seek((long) block * BLOCK);
+                raf.write(data, 0, size);
+              }
+            }
+          }
+          raf.setLength(entry.length());
+        }
+      }
+    }
+
+    // delete files that did not exist anymore when the backup was created
+    for(final String path : root.descendants()) {
+      if(!mf.entries.containsKey(Prop.WIN ? path.replace('\\', '/') : path)) {
+        new IOFile(root, path).delete();
+      }
+    }
+  }
+
+  /**
+   * Compares the restored files with the digests of the manifest.
+   * @param file archive file
+   * @param mf manifest of the archive
+   * @param root database directory
+   * @throws IOException I/O exception
+   */
+  private static void verify(final IOFile file, final Manifest mf, final IOFile root)
+      throws IOException {
+
+    final byte[] data = new byte[BLOCK];
+    final MessageDigest md = digest();
+    try(final Digests digests = new Digests(file)) {
+      for(final Map.Entry<String, Entry> me : mf.entries.entrySet()) {
+        final IOFile trg = new IOFile(root, me.getKey());
+        boolean ok = digests.find(me.getKey());
+        int b = 0;
+        try(final FileInputStream in = new FileInputStream(trg.file())) {
+          for(int size; ok && (size = read(in, data)) > 0; b++) {
+            md.update(data, 0, size);
+            ok = digests.same(b, md.digest(), size);
+          }
+        }
+        if(!ok || b != me.getValue().count) throw new BaseXException(BACKUP_CHECKSUM_X, trg);
+      }
+    }
+  }
+
+  /**
+   * Returns a new instance for computing block digests.
+   * @return message digest
+   */
+  private static MessageDigest digest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch(final NoSuchAlgorithmException ex) {
+      throw Util.notExpected(ex);
+    }
+  }
+
+  /**
+   * Returns the archive file of the specified backup.
+   * @param backup name of backup
+   * @return archive file
+   */
+  private IOFile file(final String backup) {
+    return new IOFile(archive.dir(), backup + IO.ZIPSUFFIX);
+  }
+
+  /**
+   * Returns the manifest of a backup.
+   * @param file archive file
+   * @return manifest, or {@code null} if the archive contains no manifest
+   * @throws IOException I/O exception
+   */
+  private static Manifest manifest(final IOFile file) throws IOException {
+    try(final ZipFile zf = new ZipFile(file.file())) {
+      final ZipEntry ze = zf.getEntry(MANIFEST);
+      if(ze == null) return null;
+      try(final DataInput in = new DataInput(new IOStream(zf.getInputStream(ze)))) {
+        return new Manifest(in);
+      }
+    }
+  }
+
+  /**
+   * Fills the specified array with bytes from the input stream.
+   * @param in input stream
+   * @param data array to be filled
+   * @return number of read bytes
+   * @throws IOException I/O exception
+   */
+  private static int read(final InputStream in, final byte[] data) throws IOException {
+    return read(in, data, data.length);
+  }
+
+  /**
+   * Reads the specified number of bytes from the input stream.
+   * @param in input stream
+   * @param data array to be filled
+   * @param size number of bytes to be read
+   * @return number of read bytes
+   * @throws IOException I/O exception
+   */
+  private static int read(final InputStream in, final byte[] data, final int size)
+      throws IOException {
+    int o = 0;
+    for(int c; o < size && (c = in.read(data, o, size - o)) != -1;) o += c;
+    return o;
+  }
+
+  /** Backup manifest. */
+  private static final class Manifest {
+    /** Files (relative paths) and their entries. */
+    private final TreeMap<String, Entry> entries = new TreeMap<>();
+    /** Name of the base backup (empty for full backups). */
+    private final String base;
+
+    /**
+     * Constructor.
+     * @param base name of base backup
+     */
+    private Manifest(final String base) {
+      this.base = base;
+    }
+
+    /**
+     * Constructor, reading the manifest from the specified input.
+     * @param in input stream
+     * @throws IOException I/O exception
+     */
+    private Manifest(final DataInput in) throws IOException {
+      base = Token.string(in.readToken());
+      for(int e = in.readNum(); e > 0; e--) {
+        final String path = Token.string(in.readToken());
+        entries.put(path, new Entry(in.readNum(), in.readNum(), in.readDiffs()));
+      }
+    }
+
+    /**
+     * Adds an entry.
+     * @param path relative path
+     * @param entry entry
+     */
+    private void add(final String path, final Entry entry) {
+      entries.put(path, entry);
+    }
+
+    /**
+     * Writes the file list of the manifest to the specified output.
+     * @param out output stream
+     * @throws IOException I/O exception
+     */
+    private void write(final DataOutput out) throws IOException {
+      out.writeToken(Token.token(base));
+      out.writeNum(entries.size());
+      for(final Map.Entry<String, Entry> me : entries.entrySet()) {
+        final Entry entry = me.getValue();
+        out.writeToken(Token.token(me.getKey()));
+        out.writeNum(entry.count);
+        out.writeNum(entry.last);
+        out.writeDiffs(entry.blocks);
+      }
+    }
+  }
+
+  /** Sequential reader for the digests of a manifest. */
+  private static final class Digests implements Closeable {
+    /** Archive. */
+    private final ZipFile zip;
+    /** Input stream, pointing to the next digest. */
+    private final DataInput in;
+    /** Iterator over the entries of the manifest. */
+    private final Iterator<Map.Entry<String, Entry>> iter;
+    /** Buffer for a single digest. */
+    private final byte[] digest = new byte[DIGEST];
+    /** Next entry of the manifest ({@code null} if all entries have been visited). */
+    private Map.Entry<String, Entry> next;
+    /** Current entry. */
+    private Entry entry;
+    /** Number of digests of the current entry that have been read. */
+    private int read;
+
+    /**
+     * Constructor.
+     * @param file archive file
+     * @throws IOException I/O exception
+     */
+    private Digests(final IOFile file) throws IOException {
+      zip = new ZipFile(file.file());
+      final ZipEntry ze = zip.getEntry(MANIFEST);
+      if(ze == null) {
+        zip.close();
+        throw new FileNotFoundException(file.path() + '/' + MANIFEST);
+      }
+      in = new DataInput(new IOStream(zip.getInputStream(ze)));
+      iter = new Manifest(in).entries.entrySet().iterator();
+      next = iter.hasNext() ? iter.next() : null;
+    }
+
+    /**
+     * Skips the digests of all entries with smaller paths, and positions the input at the
+     * digests of the specified path. Paths must be passed on in ascending order.
+     * @param path relative path
+     * @return {@code true} if the manifest contains an entry for the path
+     * @throws IOException I/O exception
+     */
+    private boolean find(final String path) throws IOException {
+      if(entry != null) skip(entry.count - read);
+      entry = null;
+      while(next != null) {
+        final int c = next.getKey().compareTo(path);
+        if(c > 0) break;
+        final Entry e = next.getValue();
+        next = iter.hasNext() ? iter.next() : null;
+        if(c == 0) {
+          entry = e;
+          read = 0;
+          return true;
+        }
+        skip(e.count);
+      }
+      return false;
+    }
+
+    /**
+     * Checks if the specified block of the current entry is unchanged.
+     * Blocks must be passed on in ascending order, starting with {@code 0}.
+     * @param block block index
+     * @param dgst digest of the block
+     * @param size size of the block
+     * @return result of check
+     * @throws IOException I/O exception
+     */
+    private boolean same(final int block, final byte[] dgst, final int size) throws IOException {
+      if(block >= entry.count) return false;
+      if(read(in, digest, DIGEST) != DIGEST) throw new EOFException(MANIFEST);
+      read++;
+      return entry.size(block) == size && Arrays.equals(digest, dgst);
+    }
+
+    /**
+     * Skips the specified number of digests.
+     * @param digests number of digests
+     * @throws IOException I/O exception
+     */
+    private void skip(final int digests) throws IOException {
+      for(int d = 0; d < digests; d++) {
+        if(read(in, digest, DIGEST) != DIGEST) throw new EOFException(MANIFEST);
+      }
+    }
+
+    @Override
+    public void close() throws IOException {
+      try {
+        in.close();
+      } finally {
+        zip.close();
+      }
+    }
+  }
+
+  /** Manifest entry of a single file. */
+  private static final class Entry {
+    /** Number of blocks. */
+    private final int count;
+    /** Size of the last block. */
+    private final int last;
+    /** Indexes of the blocks stored in the backup. */
+    private final IntList blocks;
+
+    /**
+     * Constructor.
+     * @param count number of blocks
+     * @param last size of the last block
+     * @param blocks indexes of the blocks stored in the backup
+     */
+    private Entry(final int count, final int last, final IntList blocks) {
+      this.count = count;
+      this.last = last;
+      this.blocks = blocks;
+    }
+
+    /**
+     * Returns the size of the specified block.
+     * @param block block index
+     * @return size
+     */
+    private int size(final int block) {
+      return block == count - 1 ? last : BLOCK;
+    }
+
+    /**
+     * Returns the file length.
+     * @return length
+     */
+    private long length() {
+      return count == 0 ? 0 : (long) (count - 1) * BLOCK + last;
+    }
+  }
+}
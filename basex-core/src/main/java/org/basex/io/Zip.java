@@ -4,11 +4,10 @@ import java.io.*;
 import java.util.zip.*;
 
 import org.basex.core.*;
-import org.basex.util.*;
 import org.basex.util.list.*;
 
 /**
- * Contains methods for zipping and unzipping archives.
+ * Contains methods for reading and unzipping archives.
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
@@ -81,35 +80,6 @@ public final class Zip extends Proc {
     }
   }
 
-  /**
-   * Zips the specified files.
-   * @param root root directory
-   * @param files files to add
-   * @throws IOException I/O exception
-   */
-  public void zip(final IOFile root, final StringList files) throws IOException {
-    if(!(archive instanceof IOFile)) throw new FileNotFoundException(archive.path());
-
-    curr = 0;
-    try(final ZipOutputStream out = new ZipOutputStream(new BufferedOutputStream(
-        new FileOutputStream(archive.path())))) {
-      // use simple, fast compression
-      out.setLevel(1);
-      // loop through all files
-      total = files.size();
-      final byte[] data = new byte[IO.BLOCKSIZE];
-      for(final String file : files) {
-        curr++;
-        try(final FileInputStream in = new FileInputStream(new File(root.file(), file))) {
-          final String fl = Prop.WIN ? file.replace('\\', '/') : file;
-          out.putNextEntry(new ZipEntry(root.name() + '/' + fl));
-          for(int c; (c = in.read(data)) != -1;) out.write(data, 0, c);
-          out.closeEntry();
-        }
-      }
-    }
-  }
-
   @Override
   protected double prog() {
     return (double) curr / total;
@@ -159,6 +159,16 @@ public class BufferInput extends InputStream {
     return length;
   }
 
+  /**
+   * Returns an estimate of the number of bytes that can be read without blocking.
+   * @return number of buffered and available bytes
+   * @throws IOException I/O exception
+   */
+  @Override
+  public int available() throws IOException {
+    return bsize - bpos + (in != null ? in.available() : 0);
+  }
+
   @Override
   public final boolean markSupported() {
     return true;
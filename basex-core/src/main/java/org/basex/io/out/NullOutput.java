@@ -9,4 +9,7 @@ package org.basex.io.out;
 public final class NullOutput extends PrintOutput {
   @Override
   public void write(final int value) { }
+
+  @Override
+  public void write(final byte[] value, final int off, final int len) { }
 }
@@ -67,6 +67,13 @@ public class PrintOutput extends OutputStream {
     if(size++ < max) os.write(b);
   }
 
+  @Override
+  public void write(final byte[] b, final int off, final int len) throws IOException {
+    final long l = Math.min(len, max - size);
+    if(l > 0) os.write(b, off, (int) l);
+    size += len;
+  }
+
   /**
    * Prints a unicode character.
    * @param ch character to be printed
@@ -115,7 +122,7 @@ public class PrintOutput extends OutputStream {
    * @throws IOException I/O exception
    */
   public final void print(final byte[] token) throws IOException {
-    for(final byte t : token) write(t);
+    write(token, 0, token.length);
   }
 
   /**
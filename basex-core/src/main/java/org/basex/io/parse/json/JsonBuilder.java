@@ -0,0 +1,182 @@
+package org.basex.io.parse.json;
+
+import static org.basex.io.parse.json.JsonConstants.*;
+import static org.basex.util.Token.*;
+
+import java.io.*;
+
+import org.basex.build.*;
+import org.basex.build.json.*;
+import org.basex.build.json.JsonOptions.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+
+/**
+ * This class passes on the events of the JSON parser to a database builder.
+ * It generates the same structure as {@link JsonDirectConverter} and {@link JsonAttsConverter},
+ * but no intermediate tree is built. Each JSON value is represented by a single element,
+ * which is opened when the value starts and closed when it ends.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JsonBuilder extends JsonConverter {
+  /** Attributes. */
+  private final Atts atts = new Atts();
+  /** Namespaces. */
+  private final Atts nsp = new Atts();
+  /** Builder. */
+  private final Builder builder;
+  /** Attributes format. */
+  private final boolean attributes;
+  /** Lax QName conversion. */
+  private final boolean lax;
+  /** Include string type. */
+  private final boolean strings;
+  /** Chop whitespaces. */
+  private final boolean chop;
+
+  /** Name of the next element. */
+  private byte[] name = JSON;
+
+  /**
+   * Constructor.
+   * @param opts json options
+   * @param builder builder
+   * @param chop chop whitespaces of string values
+   */
+  public JsonBuilder(final JsonParserOptions opts, final Builder builder, final boolean chop) {
+    super(opts);
+    this.builder = builder;
+    this.chop = chop;
+    attributes = jopts.get(JsonOptions.FORMAT) == JsonFormat.ATTRIBUTES;
+    lax = jopts.get(JsonOptions.LAX);
+    strings = jopts.get(JsonOptions.STRINGS);
+  }
+
+  /**
+   * Checks if the specified options can be processed by this class. Type information
+   * of merged documents is only known after the whole input has been parsed.
+   * @param opts json options
+   * @return result of check
+   */
+  public static boolean supported(final JsonParserOptions opts) {
+    final JsonFormat format = opts.get(JsonOptions.FORMAT);
+    return (format == JsonFormat.DIRECT || format == JsonFormat.ATTRIBUTES) &&
+        !opts.get(JsonOptions.MERGE);
+  }
+
+  @Override
+  void openObject() throws IOException {
+    open(OBJECT);
+  }
+
+  @Override
+  void openPair(final byte[] key) {
+    if(attributes) {
+      name = PAIR;
+      atts.add(NAME, key);
+    } else {
+      name = XMLToken.encode(key, lax);
+    }
+  }
+
+  @Override
+  void closePair(final boolean add) { }
+
+  @Override
+  void closeObject() throws IOException {
+    builder.closeElem();
+  }
+
+  @Override
+  void openArray() throws IOException {
+    open(ARRAY);
+  }
+
+  @Override
+  void openItem() {
+    name = attributes ? ITEM : VALUE;
+  }
+
+  @Override
+  void closeItem() { }
+
+  @Override
+  void closeArray() throws IOException {
+    builder.closeElem();
+  }
+
+  @Override
+  void openConstr(final byte[] nm) throws IOException {
+    openObject();
+    openPair(nm);
+    openArray();
+  }
+
+  @Override
+  void openArg() {
+    openItem();
+  }
+
+  @Override
+  void closeArg() {
+    closeItem();
+  }
+
+  @Override
+  void closeConstr() throws IOException {
+    closeArray();
+    closePair(true);
+    closeObject();
+  }
+
+  @Override
+  void numberLit(final byte[] value) throws IOException {
+    literal(NUMBER, value);
+  }
+
+  @Override
+  void stringLit(final byte[] value) throws IOException {
+    literal(STRING, chop ? trim(value) : value);
+  }
+
+  @Override
+  void nullLit() throws IOException {
+    literal(NULL, EMPTY);
+  }
+
+  @Override
+  void booleanLit(final byte[] value) throws IOException {
+    literal(BOOLEAN, value);
+  }
+
+  @Override
+  Item finish() {
+    return null;
+  }
+
+  /**
+   * Adds an element with a single text node.
+   * @param type JSON type
+   * @param value value
+   * @throws IOException I/O exception
+   */
+  private void literal(final byte[] type, final byte[] value) throws IOException {
+    open(type);
+    builder.text(value);
+    builder.closeElem();
+  }
+
+  /**
+   * Opens an element with the given type.
+   * @param type JSON type
+   * @throws IOException I/O exception
+   */
+  private void open(final byte[] type) throws IOException {
+    if(strings || type != STRING) atts.add(TYPE, type);
+    builder.openElem(name, atts, nsp);
+    atts.reset();
+    name = null;
+  }
+}
@@ -35,7 +35,10 @@ public abstract class JsonConverter {
    */
   public Item convert(final IO input) throws IOException {
     final String encoding = jopts.get(JsonParserOptions.ENCODING);
-    return convert(new NewlineInput(input).encoding(encoding).content(), input.path());
+    try(final NewlineInput nli = new NewlineInput(input)) {
+      JsonParser.parse(nli.encoding(encoding), input.path(), jopts, this);
+    }
+    return finish();
   }
 
   /**
@@ -46,7 +49,7 @@ public abstract class JsonConverter {
    * @return result
    */
   public Item convert(final byte[] input, final String path) throws QueryIOException {
-    JsonParser.parse(Token.string(input), path, jopts, this);
+    JsonParser.parse(input, path, jopts, this);
     return finish();
   }
 
@@ -66,102 +69,105 @@ public abstract class JsonConverter {
 
   /**
    * Called when a JSON object is opened.
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void openObject() throws QueryIOException;
+  abstract void openObject() throws IOException;
 
   /**
    * Called when a pair of a JSON object is opened.
    * @param key the key of the entry
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void openPair(byte[] key) throws QueryIOException;
+  abstract void openPair(byte[] key) throws IOException;
 
   /**
    * Called when a pair of a JSON object is closed.
    * @param add add pair
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void closePair(boolean add) throws QueryIOException;
+  abstract void closePair(boolean add) throws IOException;
 
   /**
    * Called when a JSON object is closed.
+   * @throws IOException I/O exception
    */
-  abstract void closeObject();
+  abstract void closeObject() throws IOException;
 
   /**
    * Called when a JSON array is opened.
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void openArray() throws QueryIOException;
+  abstract void openArray() throws IOException;
 
   /**
    * Called when an item of a JSON array is opened.
+   * @throws IOException I/O exception
    */
-  abstract void openItem();
+  abstract void openItem() throws IOException;
 
   /**
    * Called when an item of a JSON array is closed.
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void closeItem() throws QueryIOException;
+  abstract void closeItem() throws IOException;
 
   /**
    * Called when a JSON array is closed.
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void closeArray() throws QueryIOException;
+  abstract void closeArray() throws IOException;
 
   /**
    * Called when a constructor function is opened.
    * @param name name of the constructor
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void openConstr(byte[] name) throws QueryIOException;
+  abstract void openConstr(byte[] name) throws IOException;
 
   /**
    * Called when an argument of a constructor function is opened.
+   * @throws IOException I/O exception
    */
-  abstract void openArg();
+  abstract void openArg() throws IOException;
 
   /**
    * Called when an argument of a constructor function is closed.
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void closeArg() throws QueryIOException;
+  abstract void closeArg() throws IOException;
 
   /**
    * Called when a constructor function is closed.
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void closeConstr() throws QueryIOException;
+  abstract void closeConstr() throws IOException;
 
   /**
    * Called when a number literal is encountered.
    * @param value string representation of the number literal
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void numberLit(byte[] value) throws QueryIOException;
+  abstract void numberLit(byte[] value) throws IOException;
 
   /**
    * Called when a string literal is encountered.
    * @param bs the string
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void stringLit(byte[] bs) throws QueryIOException;
+  abstract void stringLit(byte[] bs) throws IOException;
 
   /**
    * Called when a {@code null} literal is encountered.
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void nullLit() throws QueryIOException;
+  abstract void nullLit() throws IOException;
 
   /**
    * Called when a boolean literal is encountered.
    * @param b the boolean
-   * @throws QueryIOException query exception
+   * @throws IOException I/O exception
    */
-  abstract void booleanLit(byte[] b) throws QueryIOException;
+  abstract void booleanLit(byte[] b) throws IOException;
 
   /**
    * Returns the resulting XQuery value.
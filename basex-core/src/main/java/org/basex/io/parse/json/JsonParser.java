@@ -3,19 +3,25 @@ package org.basex.io.parse.json;
 import static org.basex.query.QueryError.*;
 import static org.basex.util.Token.*;
 
+import java.io.*;
+
 import org.basex.build.json.*;
 import org.basex.build.json.JsonParserOptions.*;
+import org.basex.core.*;
+import org.basex.io.*;
+import org.basex.io.in.*;
 import org.basex.query.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
 
 /**
  * A JSON parser generating parse events similar to a SAX XML parser.
+ * The input is read as a stream; only the current literal is kept in main memory.
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Leo Woerteler
  */
-final class JsonParser extends InputParser {
+final class JsonParser {
   /** Names of control characters not allowed in string literals. */
   private static final String[] CTRL = {
     // U+0000 -- U+001F
@@ -25,6 +31,10 @@ final class JsonParser extends InputParser {
     "CAN", "EM",  "SUB", "ESC", "FS",  "GS",  "RS",  "US",
   };
 
+  /** Input. */
+  private final TextInput input;
+  /** Input path (can be {@code null}). */
+  private final String file;
   /** Converter. */
   private final JsonConverter conv;
   /** Spec. */
@@ -36,23 +46,47 @@ final class JsonParser extends InputParser {
   /** Token builder for string literals. */
   private final TokenBuilder tb = new TokenBuilder();
 
+  /** Current character ({@code -1} if the end of the input has been reached). */
+  private int curr;
+  /** Line of the current character. */
+  private int line = 1;
+  /** Column of the current character. */
+  private int col = 1;
+
   /**
-   * Constructor taking the input string and the spec according to which it is parsed.
-   * @param in input string
+   * Constructor taking the input and the spec according to which it is parsed.
+   * @param input input
+   * @param path input path (can be {@code null)}
    * @param opts options
    * @param cnv converter
+   * @throws IOException I/O exception
    */
-  private JsonParser(final String in, final JsonParserOptions opts, final JsonConverter cnv) {
-    super(in);
+  private JsonParser(final TextInput input, final String path, final JsonParserOptions opts,
+      final JsonConverter cnv) throws IOException {
+    this.input = input;
+    file = path;
     liberal = opts.get(JsonParserOptions.LIBERAL);
     unescape = opts.get(JsonParserOptions.UNESCAPE);
     duplicates = opts.get(JsonParserOptions.DUPLICATES);
     conv = cnv;
+    curr = input.read();
   }
 
   /**
-   * Parses the input string, directs the parse events to the given handler and returns
-   * the resulting value.
+   * Parses the input, and directs the parse events to the given handler.
+   * @param input input
+   * @param path input path (can be {@code null)}
+   * @param opts options
+   * @param conv converter
+   * @throws IOException I/O exception (a {@link QueryIOException} is raised for parse errors)
+   */
+  static void parse(final TextInput input, final String path, final JsonParserOptions opts,
+      final JsonConverter conv) throws IOException {
+    new JsonParser(input, path, opts, conv).parse();
+  }
+
+  /**
+   * Parses the input string, and directs the parse events to the given handler.
    * @param input input string
    * @param path input path (can be {@code null)}
    * @param opts options
@@ -61,16 +95,34 @@ final class JsonParser extends InputParser {
    */
   static void parse(final String input, final String path, final JsonParserOptions opts,
       final JsonConverter conv) throws QueryIOException {
-    final JsonParser parser = new JsonParser(input, opts, conv);
-    parser.file = path;
-    parser.parse();
+    parse(token(input), path, opts, conv);
+  }
+
+  /**
+   * Parses the input, and directs the parse events to the given handler.
+   * @param input input
+   * @param path input path (can be {@code null)}
+   * @param opts options
+   * @param conv converter
+   * @throws QueryIOException parse exception
+   */
+  static void parse(final byte[] input, final String path, final JsonParserOptions opts,
+      final JsonConverter conv) throws QueryIOException {
+    try {
+      parse(new TextInput(new IOContent(input)), path, opts, conv);
+    } catch(final QueryIOException ex) {
+      throw ex;
+    } catch(final IOException ex) {
+      // main memory input
+      throw Util.notExpected(ex);
+    }
   }
 
   /**
    * Parses a JSON expression.
-   * @throws QueryIOException query I/O exception
+   * @throws IOException I/O exception
    */
-  private void parse() throws QueryIOException {
+  private void parse() throws IOException {
     skipWs();
     value();
     if(more()) throw error("Unexpected trailing content: %", rest());
@@ -78,11 +130,11 @@ final class JsonParser extends InputParser {
 
   /**
    * Parses a JSON value.
-   * @throws QueryIOException query I/O exception
+   * @throws IOException I/O exception
    */
-  private void value() throws QueryIOException {
-    if(pos >= length) throw eof(", expected JSON value.");
-    switch(curr()) {
+  private void value() throws IOException {
+    if(!more()) throw eof(", expected JSON value.");
+    switch(curr) {
       case '[':
         array();
         break;
@@ -109,26 +161,40 @@ final class JsonParser extends InputParser {
         break;
       default:
         // boolean, null or constructor
-        if(consume("true")) conv.booleanLit(TRUE);
-        else if(consume("false")) conv.booleanLit(FALSE);
-        else if(consume("null")) conv.nullLit();
-        else if(liberal && consume("new") && Character.isWhitespace(curr())) constr();
-        else throw error("Unexpected JSON value: '%'", rest());
+        if(consume("true", 0)) {
+          conv.booleanLit(TRUE);
+        } else if(consume("false", 0)) {
+          conv.booleanLit(FALSE);
+        } else if(consume('n')) {
+          // null and constructors share the first character
+          if(consume("null", 1)) {
+            conv.nullLit();
+          } else if(liberal && consume("new", 1)) {
+            if(!Character.isWhitespace(curr)) {
+              throw error(3, "Unexpected JSON value: 'new%'", rest());
+            }
+            constr();
+          } else {
+            throw error(1, "Unexpected JSON value: 'n%'", rest());
+          }
+        } else {
+          throw error("Unexpected JSON value: '%'", rest());
+        }
         skipWs();
     }
   }
 
   /**
    * Parses a JSON object.
-   * @throws QueryIOException query I/O exception
+   * @throws IOException I/O exception
    */
-  private void object() throws QueryIOException {
+  private void object() throws IOException {
     consumeWs('{', true);
     conv.openObject();
     if(!consumeWs('}', false)) {
       final TokenSet set = new TokenSet();
       do {
-        final byte[] key = !liberal || curr() == '"' ? string() : unquoted();
+        final byte[] key = !liberal || curr == '"' ? string() : unquoted();
         final boolean dupl = set.contains(key);
         if(dupl && duplicates == JsonDuplicates.REJECT)
           throw error(BXJS_DUPLICATE_X, "Key '%' occurs more than once.", key);
@@ -138,7 +204,7 @@ final class JsonParser extends InputParser {
         value();
         conv.closePair(!dupl || duplicates == JsonDuplicates.USE_LAST);
         set.put(key);
-      } while(consumeWs(',', false) && !(liberal && curr() == '}'));
+      } while(consumeWs(',', false) && !(liberal && curr == '}'));
       consumeWs('}', true);
     }
     conv.closeObject();
@@ -146,9 +212,9 @@ final class JsonParser extends InputParser {
 
   /**
    * Parses a JSON array.
-   * @throws QueryIOException query I/O exception
+   * @throws IOException I/O exception
    */
-  private void array() throws QueryIOException {
+  private void array() throws IOException {
     consumeWs('[', true);
     conv.openArray();
     if(!consumeWs(']', false)) {
@@ -156,7 +222,7 @@ final class JsonParser extends InputParser {
         conv.openItem();
         value();
         conv.closeItem();
-      } while(consumeWs(',', false) && !(liberal && curr() == ']'));
+      } while(consumeWs(',', false) && !(liberal && curr == ']'));
       consumeWs(']', true);
     }
     conv.closeArray();
@@ -164,16 +230,17 @@ final class JsonParser extends InputParser {
 
   /**
    * Parses a JSON constructor function.
-   * @throws QueryIOException query I/O exception
+   * @throws IOException I/O exception
    */
-  private void constr() throws QueryIOException {
+  private void constr() throws IOException {
     skipWs();
-    if(!input.substring(pos).matches("^[a-zA-Z0-9_-]+\\(.*"))
-      throw error("Wrong constructor syntax: '%'", rest());
-
-    final int p = input.indexOf('(', pos);
-    conv.openConstr(token(input.substring(pos, p)));
-    pos = p + 1;
+    tb.reset();
+    while(curr >= 'a' && curr <= 'z' || curr >= 'A' && curr <= 'Z' ||
+        curr >= '0' && curr <= '9' || curr == '_' || curr == '-') tb.add(consume());
+    if(tb.isEmpty() || !consume('(')) {
+      throw error("Wrong constructor syntax: '%%'", tb, rest());
+    }
+    conv.openConstr(tb.toArray());
     skipWs();
     if(!consumeWs(')', false)) {
       do {
@@ -189,17 +256,15 @@ final class JsonParser extends InputParser {
   /**
    * Reads an unquoted string literal.
    * @return the string
-   * @throws QueryIOException query I/O exception
+   * @throws IOException I/O exception
    */
-  private byte[] unquoted() throws QueryIOException {
-    int cp = more() ? input.codePointAt(pos) : -1;
-    if(cp < 0 || !Character.isJavaIdentifierStart(cp))
+  private byte[] unquoted() throws IOException {
+    if(!more() || !Character.isJavaIdentifierStart(curr))
       throw error("Expected unquoted string, found %", rest());
     tb.reset();
     do {
-      add(cp);
-      cp = input.codePointAt(pos += cp < 0x10000 ? 1 : 2);
-    } while(Character.isJavaIdentifierPart(cp));
+      add(consume());
+    } while(more() && Character.isJavaIdentifierPart(curr));
     skipWs();
     return tb.toArray();
   }
@@ -207,9 +272,9 @@ final class JsonParser extends InputParser {
   /**
    * Parses a number literal.
    * @return string representation
-   * @throws QueryIOException query I/O exception
+   * @throws IOException I/O exception
    */
-  private byte[] number() throws QueryIOException {
+  private byte[] number() throws IOException {
     tb.reset();
 
     // integral part
@@ -222,7 +287,7 @@ final class JsonParser extends InputParser {
     }
 
     final boolean zero = ch == '0';
-    ch = curr();
+    ch = curr;
     if(zero && ch >= '0' && ch <= '9') throw error("No digit allowed after '0'");
     loop: while(true) {
       switch(ch) {
@@ -237,8 +302,7 @@ final class JsonParser extends InputParser {
         case '8':
         case '9':
           add(ch);
-          pos++;
-          ch = curr();
+          ch = next();
           break;
         case '.':
         case 'e':
@@ -252,12 +316,11 @@ final class JsonParser extends InputParser {
 
     if(consume('.')) {
       add('.');
-      ch = curr();
+      ch = curr;
       if(ch < '0' || ch > '9') throw error("Number expected after '.'");
       do {
         add(ch);
-        pos++;
-        ch = curr();
+        ch = next();
       } while(ch >= '0' && ch <= '9');
       if(ch != 'e' && ch != 'E') {
         skipWs();
@@ -267,15 +330,15 @@ final class JsonParser extends InputParser {
 
     // 'e' or 'E'
     add(consume());
-    ch = curr();
+    ch = curr;
     if(ch == '-' || ch == '+') {
       add(consume());
-      ch = curr();
+      ch = curr;
     }
 
     if(ch < '0' || ch > '9') throw error("Exponent expected");
     do add(consume());
-    while((ch = curr()) >= '0' && ch <= '9');
+    while((ch = curr) >= '0' && ch <= '9');
     skipWs();
     return tb.toArray();
   }
@@ -283,13 +346,13 @@ final class JsonParser extends InputParser {
   /**
    * Parses a string literal.
    * @return the string
-   * @throws QueryIOException query I/O exception
+   * @throws IOException I/O exception
    */
-  private byte[] string() throws QueryIOException {
-    if(!consume('"')) throw error("Expected string, found '%'", curr());
+  private byte[] string() throws IOException {
+    if(!consume('"')) throw error("Expected string, found '%'", found());
     tb.reset();
     char hi = 0; // cached high surrogate
-    while(pos < length) {
+    while(more()) {
       int ch = consume();
       if(ch == '"') {
         if(hi != 0) add(hi);
@@ -329,29 +392,28 @@ final class JsonParser extends InputParser {
             ch = unescape ? '\n' : 'n';
             break;
           case 'u':
-            if(pos + 4 >= length) throw eof(", expected four-digit hex value");
             if(unescape) {
               ch = 0;
               for(int i = 0; i < 4; i++) {
-                final char x = consume();
+                final int x = hex();
                 if(x >= '0' && x <= '9')      ch = 16 * ch + x      - '0';
                 else if(x >= 'a' && x <= 'f') ch = 16 * ch + x + 10 - 'a';
                 else if(x >= 'A' && x <= 'F') ch = 16 * ch + x + 10 - 'A';
-                else throw error("Illegal hexadecimal digit: '%'", x);
+                else throw error("Illegal hexadecimal digit: '%'", (char) x);
               }
             } else {
               add('u');
               for(int i = 0; i < 4; i++) {
-                final char x = consume();
+                final int x = hex();
                 if(x >= '0' && x <= '9' || x >= 'a' && x <= 'f' || x >= 'A' && x <= 'F') {
                   if(i < 3) add(x);
                   else ch = x;
-                } else throw error("Illegal hexadecimal digit: '%'", x);
+                } else throw error("Illegal hexadecimal digit: '%'", (char) x);
               }
             }
             break;
           default:
-            throw error("Unknown character escape: '\\%'", n);
+            throw error("Unknown character escape: '\\%'", (char) n);
         }
       } else if(!liberal && ch <= 0x1F) {
         throw error("Non-escaped control character: '\\%'", CTRL[ch]);
@@ -379,16 +441,29 @@ final class JsonParser extends InputParser {
     tb.add(ch);
   }
 
-  /** Consumes all whitespace characters from the remaining query. */
-  private void skipWs() {
-    while(pos < length) {
-      switch(input.charAt(pos)) {
+  /**
+   * Reads a hexadecimal digit of an escaped character.
+   * @return digit
+   * @throws IOException I/O exception
+   */
+  private int hex() throws IOException {
+    if(!more()) throw eof(", expected four-digit hex value");
+    return consume();
+  }
+
+  /**
+   * Consumes all whitespace characters from the remaining input.
+   * @throws IOException I/O exception
+   */
+  private void skipWs() throws IOException {
+    while(true) {
+      switch(curr) {
         case ' ':
         case '\t':
         case '\r':
         case '\n':
         case '\u00A0': // non-breaking space
-          pos++;
+          next();
           break;
         default:
           return;
@@ -402,18 +477,108 @@ final class JsonParser extends InputParser {
    * @param ch character to be consumed
    * @param err error flag
    * @return if the character was consumed
-   * @throws QueryIOException parse error
+   * @throws IOException I/O exception
    */
-  private boolean consumeWs(final char ch, final boolean err) throws QueryIOException {
-    if(consume() != ch) {
-      pos--;
-      if(err) throw error("Expected '%', found '%'", ch, curr());
+  private boolean consumeWs(final char ch, final boolean err) throws IOException {
+    if(!consume(ch)) {
+      if(err) throw error("Expected '%', found '%'", ch, found());
       return false;
     }
     skipWs();
     return true;
   }
 
+  /**
+   * Checks if the end of the input has not been reached yet.
+   * @return result of check
+   */
+  private boolean more() {
+    return curr != -1;
+  }
+
+  /**
+   * Consumes the current character and reads the next one.
+   * @return next character ({@code -1} if the end of the input has been reached)
+   * @throws IOException I/O exception
+   */
+  private int next() throws IOException {
+    if(curr == '\n') {
+      line++;
+      col = 1;
+    } else if(curr != '\r') {
+      col++;
+    }
+    curr = input.read();
+    return curr;
+  }
+
+  /**
+   * Consumes the current character.
+   * @return consumed character ({@code 0} if the end of the input has been reached)
+   * @throws IOException I/O exception
+   */
+  private int consume() throws IOException {
+    final int ch = curr;
+    if(ch == -1) return 0;
+    next();
+    return ch;
+  }
+
+  /**
+   * Consumes the specified character if it equals the current character.
+   * @param ch character to consume
+   * @return result of check
+   * @throws IOException I/O exception
+   */
+  private boolean consume(final int ch) throws IOException {
+    if(curr != ch) return false;
+    next();
+    return true;
+  }
+
+  /**
+   * Consumes the remaining characters of a literal if the character at the specified
+   * position equals the current character.
+   * @param literal literal to consume
+   * @param start position of the first character to be consumed (the preceding characters
+   *   have already been consumed)
+   * @return {@code false} if the character at the start position does not match
+   * @throws IOException I/O exception (raised if the remaining characters do not match)
+   */
+  private boolean consume(final String literal, final int start) throws IOException {
+    if(!consume(literal.charAt(start))) return false;
+    final int sl = literal.length();
+    for(int s = start + 1; s < sl; s++) {
+      if(!consume(literal.charAt(s))) {
+        throw error(s, "Unexpected JSON value: '%%'", literal.substring(0, s), rest());
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the current character for error messages.
+   * @return current character (empty if the end of the input has been reached)
+   */
+  private String found() {
+    return more() ? new TokenBuilder().add(curr).toString() : "";
+  }
+
+  /**
+   * Returns the remaining input (up to 15 characters) for error messages.
+   * @return remaining input
+   * @throws IOException I/O exception
+   */
+  private String rest() throws IOException {
+    final TokenBuilder rest = new TokenBuilder();
+    int ch = curr;
+    for(int r = 0; r < 15 && ch != -1; r++) {
+      rest.add(ch);
+      ch = input.read();
+    }
+    return rest + (ch != -1 ? Text.DOTS : "");
+  }
+
   /**
    * Throws an end-of-input error.
    * @param desc description
@@ -434,15 +599,31 @@ final class JsonParser extends InputParser {
     return error(BXJS_PARSE_X_X_X, msg, ext);
   }
 
+  /**
+   * Raises an error for a value whose first characters have already been consumed.
+   * The error position will point to the first character of the value.
+   * @param consumed number of consumed characters (all in the current line)
+   * @param msg error message
+   * @param ext error details
+   * @return build exception
+   */
+  private QueryIOException error(final int consumed, final String msg, final Object... ext) {
+    col -= more() ? consumed : consumed - 1;
+    return error(msg, ext);
+  }
+
   /**
    * Raises an error with the specified message.
+   * If the end of the input has been reached, the error position will point to the
+   * last consumed character.
    * @param msg error message
    * @param ext error details
    * @param err error code
    * @return build exception
    */
   private QueryIOException error(final QueryError err, final String msg, final Object... ext) {
-    final InputInfo info = new InputInfo(this);
-    return new QueryIOException(err.get(info, info.line(), info.column(), Util.inf(msg, ext)));
+    if(!more() && col > 1) col--;
+    final InputInfo info = new InputInfo(file, line, col);
+    return new QueryIOException(err.get(info, line, col, Util.inf(msg, ext)));
   }
 }
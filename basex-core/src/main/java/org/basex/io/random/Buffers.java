@@ -13,6 +13,10 @@ final class Buffers {
   private final Buffer[] buf = new Buffer[BUFFERS];
   /** Current buffer offset. */
   private int off;
+  /** Number of requests that were answered by an existing buffer. */
+  long hits;
+  /** Number of requests that required a new buffer. */
+  long misses;
 
   /**
    * Constructor.
@@ -45,9 +49,13 @@ final class Buffers {
   boolean cursor(final long p) {
     final int o = off;
     do {
-      if(buf[off].pos == p) return false;
+      if(buf[off].pos == p) {
+        hits++;
+        return false;
+      }
     } while((off = off + 1 & BUFFERS - 1) != o);
     off = o + 1 & BUFFERS - 1;
+    misses++;
     return true;
   }
 }
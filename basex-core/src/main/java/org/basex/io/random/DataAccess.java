@@ -16,10 +16,14 @@ public final class DataAccess implements AutoCloseable {
   private final Buffers bm = new Buffers();
   /** Reference to the data input stream. */
   private final RandomAccessFile raf;
+  /** Stateless reader. */
+  private final DataReader reader;
   /** File length. */
   private long length;
   /** Changed flag. */
   private boolean changed;
+  /** Indicates if all changes have been written to disk. */
+  private volatile boolean synced = true;
   /** Offset. */
   private int off;
 
@@ -34,6 +38,7 @@ public final class DataAccess implements AutoCloseable {
       f = new RandomAccessFile(file.file(), "rw");
       length = f.length();
       raf = f;
+      reader = new DataReader(this, file);
       cursor(0);
     } catch(final IOException ex) {
       if(f != null) f.close();
@@ -51,6 +56,7 @@ public final class DataAccess implements AutoCloseable {
         raf.setLength(length);
         changed = false;
       }
+      synced = true;
     } catch(final IOException ex) {
       Util.stack(ex);
     }
@@ -59,6 +65,7 @@ public final class DataAccess implements AutoCloseable {
   @Override
   public synchronized void close() {
     flush();
+    reader.close();
     try {
       raf.close();
     } catch(final IOException ex) {
@@ -66,6 +73,22 @@ public final class DataAccess implements AutoCloseable {
     }
   }
 
+  /**
+   * Returns a stateless reader, which can be used for concurrent positional read operations.
+   * @return reader
+   */
+  public DataReader reader() {
+    return reader;
+  }
+
+  /**
+   * Indicates if all changes have been written to disk.
+   * @return result of check
+   */
+  boolean synced() {
+    return synced;
+  }
+
   /**
    * Returns the current file position.
    * @return position in the file
@@ -317,7 +340,7 @@ public final class DataAccess implements AutoCloseable {
       final Buffer bf = buffer();
       final int l = Math.min(last - o, IO.BLOCKSIZE - off);
       System.arraycopy(buffer, o, bf.data, off, l);
-      bf.dirty = true;
+      dirty(bf);
       off += l;
       o += l;
       // adjust file size
@@ -382,6 +405,7 @@ public final class DataAccess implements AutoCloseable {
   private synchronized void length(final long len) {
     if(len != length) {
       changed = true;
+      synced = false;
       length = len;
     }
   }
@@ -403,7 +427,7 @@ public final class DataAccess implements AutoCloseable {
    */
   private void write(final int value) {
     final Buffer bf = buffer();
-    bf.dirty = true;
+    dirty(bf);
     bf.data[off++] = (byte) value;
     final long nl = bf.pos + off;
     if(nl > length) length(nl);
@@ -437,6 +461,15 @@ public final class DataAccess implements AutoCloseable {
     }
   }
 
+  /**
+   * Marks the specified buffer as dirty.
+   * @param bf buffer
+   */
+  private void dirty(final Buffer bf) {
+    bf.dirty = true;
+    if(synced) synced = false;
+  }
+
   /**
    * Writes the specified block to disk.
    * @param buffer buffer to write
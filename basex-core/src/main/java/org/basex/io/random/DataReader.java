@@ -0,0 +1,218 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.file.*;
+
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * This class provides stateless, positional read access to a database file.
+ * In contrast to {@link DataAccess}, no cursor is shared, and reads will be performed
+ * via a separate, read-only file channel. Instances can thus be shared by concurrent
+ * readers without locking.
+ *
+ * As long as the underlying {@link DataAccess} instance contains changes that have not
+ * been written to disk, or if the channel has been closed by an interrupted thread,
+ * the synchronized methods of the data access will be called instead.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class DataReader {
+  /** Size of the thread-local read buffers. */
+  private static final int BUFFER = 1 << 9;
+  /** Thread-local read buffers. */
+  private static final ThreadLocal<ByteBuffer> BUFFERS = new ThreadLocal<ByteBuffer>() {
+    @Override
+    protected ByteBuffer initialValue() {
+      return ByteBuffer.allocateDirect(BUFFER);
+    }
+  };
+
+  /** Data access, used as fallback. */
+  private final DataAccess da;
+  /** Path to the file. */
+  private final Path path;
+  /** File channel (can be {@code null}). */
+  private volatile FileChannel channel;
+
+  /**
+   * Constructor.
+   * @param da data access
+   * @param file file
+   */
+  DataReader(final DataAccess da, final IOFile file) {
+    this.da = da;
+    path = file.file().toPath();
+  }
+
+  /**
+   * Reads a byte value from the specified position.
+   * @param pos position
+   * @return integer value
+   */
+  public byte read1(final long pos) {
+    final ByteBuffer bb = read(pos, 1);
+    return bb != null ? bb.get() : da.read1(pos);
+  }
+
+  /**
+   * Reads an integer value from the specified position.
+   * @param pos position
+   * @return integer value
+   */
+  public int read4(final long pos) {
+    final ByteBuffer bb = read(pos, 4);
+    return bb != null ? bb.getInt() : da.read4(pos);
+  }
+
+  /**
+   * Reads a 5-byte value from the specified position.
+   * @param pos position
+   * @return long value
+   */
+  public long read5(final long pos) {
+    final ByteBuffer bb = read(pos, 5);
+    return bb != null ? ((long) (bb.get() & 0xFF) << 32) + (bb.getInt() & 0xFFFFFFFFL) :
+      da.read5(pos);
+  }
+
+  /**
+   * Reads a {@link Num} value from the specified position.
+   * @param pos position
+   * @return read num
+   */
+  public int readNum(final long pos) {
+    final ByteBuffer bb = read(pos, 5);
+    return bb != null ? readNum(bb) : da.readNum(pos);
+  }
+
+  /**
+   * Reads a token from the specified position.
+   * @param pos position
+   * @return text as byte array
+   */
+  public byte[] readToken(final long pos) {
+    final ByteBuffer bb = read(pos, BUFFER);
+    if(bb != null) {
+      final int len = readNum(bb);
+      final byte[] token = new byte[len];
+      final int l = Math.min(len, bb.remaining());
+      bb.get(token, 0, l);
+      if(l == len || read(ByteBuffer.wrap(token, l, len - l), pos + bb.position())) return token;
+    }
+    return da.readToken(pos);
+  }
+
+  /**
+   * Reads a number of bytes from the specified position.
+   * @param pos position
+   * @param len length
+   * @return byte array
+   */
+  public byte[] readBytes(final long pos, final int len) {
+    final byte[] bytes = new byte[len];
+    return read(ByteBuffer.wrap(bytes), pos) ? bytes : da.readBytes(pos, len);
+  }
+
+  /**
+   * Closes the file channel.
+   */
+  synchronized void close() {
+    final FileChannel fc = channel;
+    channel = null;
+    if(fc != null) {
+      try {
+        fc.close();
+      } catch(final IOException ex) {
+        Util.debug(ex);
+      }
+    }
+  }
+
+  // PRIVATE METHODS ==============================================================================
+
+  /**
+   * Reads the specified number of bytes into a thread-local buffer.
+   * @param pos file position
+   * @param len maximum number of bytes to read
+   * @return buffer, or {@code null} if the fallback must be used
+   */
+  private ByteBuffer read(final long pos, final int len) {
+    final ByteBuffer bb = BUFFERS.get();
+    bb.clear().limit(len);
+    if(!read(bb, pos)) return null;
+    bb.flip();
+    return bb;
+  }
+
+  /**
+   * Fills the specified buffer with bytes from the specified position.
+   * The operation stops if the buffer is full or if the end of the file has been reached.
+   * @param bb buffer
+   * @param pos file position
+   * @return success flag, or {@code false} if the fallback must be used
+   */
+  private boolean read(final ByteBuffer bb, final long pos) {
+    if(!da.synced()) return false;
+    FileChannel fc = null;
+    try {
+      fc = channel();
+      final int start = bb.position();
+      while(bb.hasRemaining()) {
+        if(fc.read(bb, pos + bb.position() - start) == -1) break;
+      }
+      return true;
+    } catch(final ClosedChannelException ex) {
+      // channel was closed by an interrupted thread: reopen it with the next call
+      Util.debug(ex);
+      synchronized(this) {
+        if(channel == fc) channel = null;
+      }
+      return false;
+    } catch(final IOException ex) {
+      throw Util.notExpected(ex);
+    }
+  }
+
+  /**
+   * Returns the file channel, and opens it if required.
+   * @return file channel
+   * @throws IOException I/O exception
+   */
+  private FileChannel channel() throws IOException {
+    FileChannel fc = channel;
+    if(fc == null) {
+      synchronized(this) {
+        fc = channel;
+        if(fc == null) {
+          fc = FileChannel.open(path, StandardOpenOption.READ);
+          channel = fc;
+        }
+      }
+    }
+    return fc;
+  }
+
+  /**
+   * Reads a compressed number from the specified buffer.
+   * @param bb buffer
+   * @return number
+   */
+  private static int readNum(final ByteBuffer bb) {
+    final int value = bb.get() & 0xFF;
+    switch(value & 0xC0) {
+    case 0:
+      return value;
+    case 0x40:
+      return (value - 0x40 << 8) + (bb.get() & 0xFF);
+    case 0x80:
+      return (value - 0x80 << 24) + ((bb.get() & 0xFF) << 16) + (bb.getShort() & 0xFFFF);
+    default:
+      return bb.getInt();
+    }
+  }
+}
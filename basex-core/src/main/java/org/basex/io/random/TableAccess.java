@@ -39,6 +39,12 @@ public abstract class TableAccess {
    */
   public abstract void close() throws IOException;
 
+  /**
+   * Returns information on the table storage.
+   * @return info string
+   */
+  public abstract byte[] info();
+
   /**
    * Tries to acquires a lock on the table. If a lock exists, it is first released.
    * @param write write/read lock
@@ -1,5 +1,6 @@
 package org.basex.io.random;
 
+import static org.basex.core.Text.*;
 import static org.basex.data.DataText.*;
 
 import java.io.*;
@@ -16,7 +17,12 @@ import org.basex.util.*;
 /**
  * This class stores the table on disk and reads it block-wise.
  *
- * NOTE: this class is not thread-safe.
+ * If {@link MetaData#maptable} is enabled, read operations will be performed on
+ * a memory-mapped snapshot of the table file, which can be accessed by concurrent
+ * readers without locking. As long as updated buffers have not been flushed,
+ * the buffered access will be used instead.
+ *
+ * NOTE: updating operations are not thread-safe.
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
@@ -31,6 +37,10 @@ public final class TableDiskAccess extends TableAccess {
   private BitArray usedPages;
   /** File lock. */
   private FileLock fl;
+  /** Memory-mapped snapshot of the table (can be {@code null}). */
+  private volatile TableMapping mapping;
+  /** Number of created memory mappings. */
+  private int mappings;
 
   /** First pre values (ascending order); will be initialized with the first update. */
   private int[] fpres;
@@ -85,6 +95,7 @@ public final class TableDiskAccess extends TableAccess {
     // initialize data file
     file = new RandomAccessFile(meta.dbfile(DATATBL).file(), "rw");
     if(!lock(write)) throw new BaseXException(Text.DB_PINNED_X, md.name);
+    map();
   }
 
   /**
@@ -107,6 +118,7 @@ public final class TableDiskAccess extends TableAccess {
   @Override
   public synchronized void flush(final boolean all) throws IOException {
     for(final Buffer b : bm.all()) if(b.dirty) writeBlock(b);
+    map();
     if(!dirty || !all) return;
 
     try(final DataOutput out = new DataOutput(meta.dbfile(DATATBL + 'i'))) {
@@ -128,6 +140,7 @@ public final class TableDiskAccess extends TableAccess {
   @Override
   public synchronized void close() throws IOException {
     flush(true);
+    mapping = null;
     file.close();
   }
 
@@ -144,37 +157,54 @@ public final class TableDiskAccess extends TableAccess {
   }
 
   @Override
-  public synchronized int read1(final int pre, final int off) {
-    final int o = off + cursor(pre);
-    final byte[] b = bm.current().data;
-    return b[o] & 0xFF;
+  public int read1(final int pre, final int off) {
+    final TableMapping tm = mapping;
+    if(tm != null) return tm.read1(pre, off);
+    synchronized(this) {
+      final int o = off + cursor(pre);
+      final byte[] b = bm.current().data;
+      return b[o] & 0xFF;
+    }
   }
 
   @Override
-  public synchronized int read2(final int pre, final int off) {
-    final int o = off + cursor(pre);
-    final byte[] b = bm.current().data;
-    return ((b[o] & 0xFF) << 8) + (b[o + 1] & 0xFF);
+  public int read2(final int pre, final int off) {
+    final TableMapping tm = mapping;
+    if(tm != null) return tm.read2(pre, off);
+    synchronized(this) {
+      final int o = off + cursor(pre);
+      final byte[] b = bm.current().data;
+      return ((b[o] & 0xFF) << 8) + (b[o + 1] & 0xFF);
+    }
   }
 
   @Override
-  public synchronized int read4(final int pre, final int off) {
-    final int o = off + cursor(pre);
-    final byte[] b = bm.current().data;
-    return ((b[o] & 0xFF) << 24) + ((b[o + 1] & 0xFF) << 16) +
-      ((b[o + 2] & 0xFF) << 8) + (b[o + 3] & 0xFF);
+  public int read4(final int pre, final int off) {
+    final TableMapping tm = mapping;
+    if(tm != null) return tm.read4(pre, off);
+    synchronized(this) {
+      final int o = off + cursor(pre);
+      final byte[] b = bm.current().data;
+      return ((b[o] & 0xFF) << 24) + ((b[o + 1] & 0xFF) << 16) +
+        ((b[o + 2] & 0xFF) << 8) + (b[o + 3] & 0xFF);
+    }
   }
 
   @Override
-  public synchronized long read5(final int pre, final int off) {
-    final int o = off + cursor(pre);
-    final byte[] b = bm.current().data;
-    return ((long) (b[o] & 0xFF) << 32) + ((long) (b[o + 1] & 0xFF) << 24) +
-      ((b[o + 2] & 0xFF) << 16) + ((b[o + 3] & 0xFF) << 8) + (b[o + 4] & 0xFF);
+  public long read5(final int pre, final int off) {
+    final TableMapping tm = mapping;
+    if(tm != null) return tm.read5(pre, off);
+    synchronized(this) {
+      final int o = off + cursor(pre);
+      final byte[] b = bm.current().data;
+      return ((long) (b[o] & 0xFF) << 32) + ((long) (b[o + 1] & 0xFF) << 24) +
+        ((b[o + 2] & 0xFF) << 16) + ((b[o + 3] & 0xFF) << 8) + (b[o + 4] & 0xFF);
+    }
   }
 
   @Override
   public void write1(final int pre, final int off, final int v) {
+    mapping = null;
     final int o = off + cursor(pre);
     final Buffer bf = bm.current();
     final byte[] b = bf.data;
@@ -184,6 +214,7 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   public void write2(final int pre, final int off, final int v) {
+    mapping = null;
     final int o = off + cursor(pre);
     final Buffer bf = bm.current();
     final byte[] b = bf.data;
@@ -194,6 +225,7 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   public void write4(final int pre, final int off, final int v) {
+    mapping = null;
     final int o = off + cursor(pre);
     final Buffer bf = bm.current();
     final byte[] b = bf.data;
@@ -206,6 +238,7 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   public void write5(final int pre, final int off, final long v) {
+    mapping = null;
     final int o = off + cursor(pre);
     final Buffer bf = bm.current();
     final byte[] b = bf.data;
@@ -421,6 +454,7 @@ public final class TableDiskAccess extends TableAccess {
 
   @Override
   protected void dirty() {
+    mapping = null;
     // initialize data structures required for performing updates
     if(fpres == null) {
       final int b = blocks;
@@ -435,8 +469,35 @@ public final class TableDiskAccess extends TableAccess {
     dirty = true;
   }
 
+  @Override
+  public synchronized byte[] info() {
+    final TokenBuilder tb = new TokenBuilder();
+    final TableMapping tm = mapping;
+    tb.add(LI_STRUCTURE).add(tm != null ? MEMORY_MAPPED : BUFFERED_BLOCKS).add(NL);
+    tb.add(LI_SIZE).add(Performance.format((long) blocks * IO.BLOCKSIZE, true)).add(NL);
+    tb.add(LI_BLOCKS).addInt(used).add(" / ").addInt(blocks).add(NL);
+    tb.add(LI_BUFFER_HITS).addLong(bm.hits).add(NL);
+    tb.add(LI_BUFFER_MISSES).addLong(bm.misses).add(NL);
+    if(meta.maptable) {
+      if(tm != null) tb.add(LI_MAPPED).add(Performance.format(tm.length, true)).add(NL);
+      tb.add(LI_MAPPINGS).addInt(mappings).add(NL);
+    }
+    return tb.finish();
+  }
+
   // PRIVATE METHODS ==========================================================
 
+  /**
+   * Creates a memory-mapped snapshot of the table if the database requests it
+   * and if no snapshot exists yet. Must only be called if all buffers have been flushed.
+   * @throws IOException I/O exception
+   */
+  private void map() throws IOException {
+    if(!meta.maptable || mapping != null) return;
+    mapping = new TableMapping(file.getChannel(), blocks, fpres, pages, used);
+    mappings++;
+  }
+
   /**
    * Searches for the block containing the entry for the specified pre value.
    * Reads the block and returns its offset inside the block.
@@ -0,0 +1,151 @@
+package org.basex.io.random;
+
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.*;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.*;
+
+import org.basex.io.*;
+import org.basex.util.*;
+
+/**
+ * This class provides a read-only, memory-mapped snapshot of the database table.
+ * The page directory is copied when the snapshot is created, and all read operations
+ * are stateless. Instances can thus be shared by concurrent readers without locking.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class TableMapping {
+  /** Power of the segment size (1 GB). Segments are a multiple of the block size. */
+  private static final int SEGPOWER = 30;
+  /** Segment mask. */
+  private static final long SEGMASK = (1L << SEGPOWER) - 1;
+
+  /** Mapped segments. */
+  private final MappedByteBuffer[] segments;
+  /** First pre values (ascending order), or {@code null} if page index is regular. */
+  private final int[] fpres;
+  /** Page index, or {@code null} if page index is regular. */
+  private final int[] pages;
+  /** Number of used pages. */
+  private final int used;
+  /** Number of mapped bytes. */
+  final long length;
+
+  /**
+   * Constructor.
+   * @param channel file channel
+   * @param blocks total number of blocks
+   * @param fpres first pre values (may be {@code null})
+   * @param pages page index (may be {@code null})
+   * @param used number of used pages
+   * @throws IOException I/O exception
+   */
+  TableMapping(final FileChannel channel, final int blocks, final int[] fpres, final int[] pages,
+      final int used) throws IOException {
+
+    this.fpres = fpres == null ? null : Arrays.copyOf(fpres, used);
+    this.pages = pages == null ? null : Arrays.copyOf(pages, used);
+    this.used = used;
+
+    length = Math.min(channel.size(), (long) blocks * IO.BLOCKSIZE);
+    final int ss = (int) ((length + SEGMASK) >>> SEGPOWER);
+    segments = new MappedByteBuffer[ss];
+    for(int s = 0; s < ss; s++) {
+      final long pos = (long) s << SEGPOWER;
+      segments[s] = channel.map(MapMode.READ_ONLY, pos, Math.min(SEGMASK + 1, length - pos));
+    }
+  }
+
+  /**
+   * Reads a byte value and returns it as an integer value.
+   * @param pre pre value
+   * @param off offset
+   * @return integer value
+   */
+  int read1(final int pre, final int off) {
+    final long pos = pos(pre, off);
+    return segment(pos).get(index(pos)) & 0xFF;
+  }
+
+  /**
+   * Reads a short value and returns it as an integer value.
+   * @param pre pre value
+   * @param off offset
+   * @return integer value
+   */
+  int read2(final int pre, final int off) {
+    final long pos = pos(pre, off);
+    return segment(pos).getShort(index(pos)) & 0xFFFF;
+  }
+
+  /**
+   * Reads an integer value.
+   * @param pre pre value
+   * @param off offset
+   * @return integer value
+   */
+  int read4(final int pre, final int off) {
+    final long pos = pos(pre, off);
+    return segment(pos).getInt(index(pos));
+  }
+
+  /**
+   * Reads a 5-byte value and returns it as a long value.
+   * @param pre pre value
+   * @param off offset
+   * @return integer value
+   */
+  long read5(final int pre, final int off) {
+    final long pos = pos(pre, off);
+    final ByteBuffer bb = segment(pos);
+    final int i = index(pos);
+    return ((long) (bb.get(i) & 0xFF) << 32) + (bb.getInt(i + 1) & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Returns the file position of the specified entry.
+   * @param pre pre value
+   * @param off offset
+   * @return file position
+   */
+  private long pos(final int pre, final int off) {
+    final int page, fpre;
+    if(fpres == null) {
+      page = pre / IO.ENTRIES;
+      fpre = page * IO.ENTRIES;
+    } else {
+      // binary search for the last page with a first pre value smaller than or equal to pre
+      int l = 0, h = used - 1;
+      while(l < h) {
+        final int m = l + h + 1 >>> 1;
+        if(fpres[m] <= pre) l = m;
+        else h = m - 1;
+      }
+      if(l >= used) throw Util.notExpected("Data Access out of bounds: " + pre);
+      page = pages[l];
+      fpre = fpres[l];
+    }
+    return (long) page * IO.BLOCKSIZE + (pre - fpre << IO.NODEPOWER) + off;
+  }
+
+  /**
+   * Returns the segment for the specified file position.
+   * @param pos file position
+   * @return segment
+   */
+  private ByteBuffer segment(final long pos) {
+    return segments[(int) (pos >>> SEGPOWER)];
+  }
+
+  /**
+   * Returns the segment index for the specified file position.
+   * @param pos file position
+   * @return index
+   */
+  private static int index(final long pos) {
+    return (int) (pos & SEGMASK);
+  }
+}
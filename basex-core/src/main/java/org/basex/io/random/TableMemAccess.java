@@ -1,5 +1,7 @@
 package org.basex.io.random;
 
+import static org.basex.core.Text.*;
+
 import java.util.*;
 
 import org.basex.data.*;
@@ -37,6 +39,11 @@ public final class TableMemAccess extends TableAccess {
   @Override
   public boolean lock(final boolean lock) { return true; }
 
+  @Override
+  public byte[] info() {
+    return new TokenBuilder().add(LI_STRUCTURE).add(MAIN_MEMORY).add(NL).finish();
+  }
+
   @Override
   public int read1(final int p, final int o) {
     return (int) ((o < 8 ? buf1 : buf2)[p] >> ((o < 8 ? 7 : 15) - o << 3) & 0xFF);
@@ -70,6 +70,8 @@ public abstract class OutputSerializer extends Serializer {
   private final Charset encoding;
   /** UTF8 flag. */
   private final boolean utf8;
+  /** Flag for writing texts in chunks (UTF8, no normalization, default encoding of characters). */
+  private final boolean chunks;
   /** CData elements. */
   private final TokenSet cdata = new TokenSet();
   /** Suppress indentation elements. */
@@ -187,9 +189,11 @@ public abstract class OutputSerializer extends Serializer {
     }
     form = frm;
 
-    // collect CData elements
     final boolean html = this instanceof HTMLSerializer;
     final boolean xml = this instanceof XMLSerializer || this instanceof XHTMLSerializer;
+    chunks = xml && utf8 && frm == null;
+
+    // collect CData elements
     if(xml || html) {
       final String cdse = opts.get(CDATA_SECTION_ELEMENTS);
       if(!cdse.isEmpty()) {
@@ -267,30 +271,19 @@ public abstract class OutputSerializer extends Serializer {
     print(' ');
     print(name);
     print(ATT1);
-    final byte[] val = norm(value);
-    final int vl = val.length;
-    for(int k = 0; k < vl; k += cl(val, k)) {
-      final int cp = cp(val, k);
-      if(cp == '"') {
-        print(E_QUOT);
-      } else if(cp == 0x9 || cp == 0xA) {
-        hex(cp);
-      } else {
-        encode(cp);
-      }
-    }
+    encode(norm(value), true);
     print(ATT2);
   }
 
   @Override
   protected void text(final byte[] value, final FTPos ftp) throws IOException {
     final byte[] val = norm(value);
-    final int vl = val.length;
     if(ftp == null) {
       if(cdata.isEmpty() || elems.isEmpty() || !cdata.contains(elems.peek())) {
-        for(int k = 0; k < vl; k += cl(val, k)) encode(cp(val, k));
+        encode(val, false);
       } else {
         print(CDATA_O);
+        final int vl = val.length;
         int c = 0;
         for(int k = 0; k < vl; k += cl(val, k)) {
           final int cp = cp(val, k);
@@ -312,9 +305,7 @@ public abstract class OutputSerializer extends Serializer {
       while(lex.hasNext()) {
         final FTSpan span = lex.next();
         if(!span.del && ftp.contains(span.pos)) print((char) TokenBuilder.MARK);
-        final byte[] text = span.text;
-        final int tl = text.length;
-        for(int t = 0; t < tl; t += cl(text, t)) encode(cp(text, t));
+        encode(span.text, false);
       }
     }
     sep = false;
@@ -419,6 +410,40 @@ public abstract class OutputSerializer extends Serializer {
     }
   }
 
+  /**
+   * Encodes and prints the specified text or attribute value. If possible, characters
+   * that need not be encoded are written in chunks.
+   * @param text text to be encoded and printed
+   * @param attr attribute flag
+   * @throws IOException I/O exception
+   */
+  private void encode(final byte[] text, final boolean attr) throws IOException {
+    final int tl = text.length;
+    int s = 0;
+    for(int t = 0; t < tl;) {
+      final byte b = text[t];
+      // skip ASCII characters that need not be encoded and multi-byte characters that are not
+      // prefixed by 0xC2 (U+0080-U+00BF) or 0xE2 (U+2000-U+2FFF)
+      if(chunks && (b >= ' ' ? b != '&' && b != '<' && b != '>' && b != 0x7F &&
+          (!attr || b != '"') : b < 0 && b != (byte) 0xC2 && b != (byte) 0xE2)) {
+        t++;
+        continue;
+      }
+      if(s < t) out.write(text, s, t - s);
+      final int cp = cp(text, t);
+      if(attr && cp == '"') {
+        print(E_QUOT);
+      } else if(attr && (cp == 0x9 || cp == 0xA)) {
+        hex(cp);
+      } else {
+        encode(cp);
+      }
+      t += cl(text, t);
+      s = t;
+    }
+    if(s < tl) out.write(text, s, tl - s);
+  }
+
   /**
    * Normalizes the specified text.
    * @param text text to be normalized
@@ -521,7 +546,7 @@ public abstract class OutputSerializer extends Serializer {
   protected final void print(final byte[] token) throws IOException {
     // comparison by reference
     if(utf8) {
-      for(final byte b : token) out.write(b);
+      out.print(token);
     } else {
       out.write(string(token).getBytes(encoding));
     }
@@ -535,7 +560,7 @@ public abstract class OutputSerializer extends Serializer {
   protected final void print(final String string) throws IOException {
     // comparison by reference
     if(utf8) {
-      for(final byte b : token(string)) out.write(b);
+      out.print(token(string));
     } else {
       out.write(string.getBytes(encoding));
     }
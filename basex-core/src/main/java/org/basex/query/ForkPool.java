@@ -0,0 +1,77 @@
+package org.basex.query;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.core.*;
+import org.basex.util.*;
+
+/**
+ * This class provides the worker threads for evaluating functions in parallel. It is shared
+ * by all queries of a database context. The number of busy workers is limited by
+ * {@link StaticOptions#PARALLEL}. If all workers are busy, a task will be run by the calling
+ * thread. As a result, nested parallel evaluations will never wait for each other, and the
+ * number of threads will not grow beyond the specified limit.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class ForkPool {
+  /** Number of created worker threads. */
+  private final AtomicInteger threads = new AtomicInteger();
+  /** Permits for busy workers. */
+  private final Semaphore permits;
+  /** Worker threads. */
+  private final ExecutorService workers;
+
+  /**
+   * Constructor.
+   * @param sopts static options
+   */
+  public ForkPool(final StaticOptions sopts) {
+    permits = new Semaphore(Math.max(1, sopts.get(StaticOptions.PARALLEL)));
+    workers = Executors.newCachedThreadPool(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable r) {
+        final Thread t = new Thread(r, Util.className(ForkPool.class) + '-' +
+            threads.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      }
+    });
+  }
+
+  /**
+   * Runs a task by an idle worker or, if all workers are busy, by the calling thread.
+   * @param task task to be run
+   */
+  public void execute(final RunnableFuture<?> task) {
+    if(permits.tryAcquire()) {
+      try {
+        workers.execute(new Runnable() {
+          @Override
+          public void run() {
+            try {
+              task.run();
+            } finally {
+              permits.release();
+            }
+          }
+        });
+        return;
+      } catch(final RejectedExecutionException ex) {
+        // pool has been shut down: run task by calling thread
+        Util.debug(ex);
+        permits.release();
+      }
+    }
+    task.run();
+  }
+
+  /**
+   * Shuts down the worker threads.
+   */
+  public void close() {
+    workers.shutdownNow();
+  }
+}
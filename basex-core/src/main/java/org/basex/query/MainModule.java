@@ -13,6 +13,7 @@ import org.basex.query.value.node.*;
 import org.basex.query.value.type.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
+import org.basex.util.hash.*;
 import org.basex.util.list.*;
 
 /**
@@ -65,6 +66,18 @@ public final class MainModule extends StaticScope {
     this.declType = declType;
   }
 
+  /**
+   * Creates a copy of this module for the specified query context.
+   * The static variables of the query must have been copied before.
+   * @param qc query context
+   * @return copy
+   */
+  MainModule copy(final QueryContext qc) {
+    final VarScope scp = new VarScope(sc);
+    final Expr ex = expr.copy(qc, scp, new IntObjMap<Var>());
+    return new MainModule(ex, scp, declType, docString(), sc, info);
+  }
+
   @Override
   public void compile(final QueryContext qc) throws QueryException {
     if(compiled) return;
@@ -0,0 +1,100 @@
+package org.basex.query;
+
+import static org.basex.core.Text.*;
+
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.core.users.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+
+/**
+ * This class caches parsed query plans. Plans are shared by all clients of a server and
+ * are evicted in least-recently-used order. A cached plan will only be returned if the
+ * query string, the user, the database options and the base URI are identical. The plans
+ * are never compiled: a copy will be created for each execution. Namespaces that are added
+ * by element constructors at runtime are stored in the query context, so the static context
+ * of a plan is not modified during evaluation.
+ *
+ * Only queries without user-defined functions and module imports will be cached.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class QueryCache {
+  /** Cached plans (in the order of access). */
+  private final LinkedHashMap<String, QueryPlan> plans = new LinkedHashMap<>(16, 0.75f, true);
+  /** Maximum number of cached plans. */
+  private final int max;
+  /** Number of cache hits. */
+  private long hits;
+  /** Number of cache misses. */
+  private long misses;
+
+  /**
+   * Constructor.
+   * @param sopts static options
+   */
+  public QueryCache(final StaticOptions sopts) {
+    max = sopts.get(StaticOptions.QUERYCACHE);
+  }
+
+  /**
+   * Returns the cache key for the specified query, or {@code null} if the query will
+   * not be cached.
+   * @param query query string
+   * @param sc static context
+   * @param context database context
+   * @return key or {@code null}
+   */
+  String key(final String query, final StaticContext sc, final Context context) {
+    final MainOptions opts = context.options;
+    // external variables are bound while the query is parsed
+    if(max == 0 || !opts.get(MainOptions.BINDINGS).trim().isEmpty()) return null;
+
+    final User user = context.user();
+    final Uri uri = sc.baseURI();
+    final StringBuilder sb = new StringBuilder();
+    sb.append(user.name()).append(' ').append(user.has(Perm.ADMIN)).append('\n');
+    sb.append(uri != null ? uri : "").append('\n');
+    // include all options that differ from their defaults, as many of them affect parsing
+    // and compilation (inlining, default database, whitespace chopping, etc.)
+    sb.append(opts).append('\n');
+    return sb.append(query).toString();
+  }
+
+  /**
+   * Returns a cached plan.
+   * @param key key
+   * @return plan or {@code null}
+   */
+  synchronized QueryPlan get(final String key) {
+    final QueryPlan plan = plans.get(key);
+    if(plan != null) hits++;
+    else misses++;
+    return plan;
+  }
+
+  /**
+   * Caches a plan.
+   * @param key key
+   * @param plan plan
+   */
+  synchronized void put(final String key, final QueryPlan plan) {
+    plans.put(key, plan);
+    if(plans.size() > max) {
+      final Iterator<QueryPlan> iter = plans.values().iterator();
+      iter.next();
+      iter.remove();
+    }
+  }
+
+  /**
+   * Returns information on the cached plans.
+   * @return info string
+   */
+  public synchronized String info() {
+    return Util.info(QUERY_CACHE_X_X_X, plans.size(), hits, misses);
+  }
+}
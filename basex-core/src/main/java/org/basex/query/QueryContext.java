@@ -80,6 +80,8 @@ public final class QueryContext extends Proc implements AutoCloseable {
   public long pos = 1;
   /** Current context size. */
   public long size = 1;
+  /** Namespaces that are added by element constructors at runtime. */
+  public final Atts namespaces = new Atts();
 
   /** Full-text position data (needed for highlighting full-text results). */
   public FTPosData ftPosData = Prop.gui ? new FTPosData() : null;
@@ -216,6 +218,36 @@ public final class QueryContext extends Proc implements AutoCloseable {
     return root;
   }
 
+  /**
+   * Parses the specified query or, if available, assigns a copy of a cached query plan.
+   * @param query query string
+   * @param sc static context
+   * @return main module
+   * @throws QueryException query exception
+   */
+  MainModule parseCached(final String query, final StaticContext sc) throws QueryException {
+    final QueryCache cache = context.queries;
+    final String key = cache.key(query, sc, context);
+    if(key != null) {
+      final QueryPlan plan = cache.get(key);
+      if(plan != null) {
+        // assign query path, as done by the parser
+        final String path = context.options.get(MainOptions.QUERYPATH);
+        if(!path.isEmpty()) sc.baseURI(path);
+        plan.assign(this, query);
+        return root;
+      }
+    }
+
+    final MainModule ci = ctxItem;
+    parseMain(query, null, sc);
+    if(key != null) {
+      final QueryPlan plan = QueryPlan.get(this, ci);
+      if(plan != null) cache.put(key, plan);
+    }
+    return root;
+  }
+
   /**
    * Parses the specified module.
    * @param query query string
@@ -513,6 +545,14 @@ public final class QueryContext extends Proc implements AutoCloseable {
     (qcParent != null ? qcParent.info : info).evalInfo(string);
   }
 
+  /**
+   * Registers a Java function call.
+   * @param cached indicates if the call was resolved via the call-site cache
+   */
+  public void javaCall(final boolean cached) {
+    (qcParent != null ? qcParent.info : info).javaCall(cached);
+  }
+
   /**
    * Returns info on query compilation and evaluation.
    * @return query info
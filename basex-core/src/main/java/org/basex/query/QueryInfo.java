@@ -45,6 +45,10 @@ public final class QueryInfo {
   private final TokenList compile = new TokenList(0);
   /** Evaluation info. */
   private final TokenList evaluate = new TokenList(0);
+  /** Number of Java function calls. */
+  private long javaCalls;
+  /** Number of Java function calls that were resolved via the call-site cache. */
+  private long javaHits;
 
   /**
    * Constructor.
@@ -74,10 +78,21 @@ public final class QueryInfo {
    * Adds some evaluation info.
    * @param string evaluation info
    */
-  void evalInfo(final String string) {
+  synchronized void evalInfo(final String string) {
     if(verbose) evaluate.add(token(string.replaceAll("\r?\n\\s*", " ")));
   }
 
+  /**
+   * Registers a Java function call.
+   * @param cached indicates if the call was resolved via the call-site cache
+   */
+  synchronized void javaCall(final boolean cached) {
+    if(verbose) {
+      javaCalls++;
+      if(cached) javaHits++;
+    }
+  }
+
   /**
    * Returns detailed query information.
    * @param qp query processor
@@ -136,9 +151,13 @@ public final class QueryInfo {
       tb.add(NL).add(OPTIMIZED_QUERY).add(COL).add(NL);
       tb.add(qc.root == null ? qc.funcs.toString() : usedDecls(qc.root)).add(NL);
     }
-    if(!evaluate.isEmpty()) {
+    if(!evaluate.isEmpty() || javaCalls != 0) {
       tb.add(NL).add(EVALUATING).add(COL).add(NL);
       for(final byte[] line : evaluate) tb.add(LI).add(line).add(NL);
+      if(javaCalls != 0) {
+        tb.add(LI).add(Util.info(QueryText.JAVACACHE, javaHits, javaCalls,
+            javaHits * 100 / javaCalls)).add(NL);
+      }
     }
     return tb.toString();
   }
@@ -0,0 +1,69 @@
+package org.basex.query;
+
+import org.basex.io.serial.*;
+import org.basex.query.var.*;
+
+/**
+ * Parsed query plan, which can be instantiated for multiple query contexts.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class QueryPlan {
+  /** Main module. */
+  private final MainModule root;
+  /** Static variables. */
+  private final Variables vars;
+  /** Updating flag. */
+  private final boolean updating;
+  /** Serialization parameters (can be {@code null}). */
+  private final SerializerOptions serialOpts;
+  /** Read locks. */
+  private final String[] readLocks;
+  /** Write locks. */
+  private final String[] writeLocks;
+
+  /**
+   * Constructor.
+   * @param qc parsed query context (will not be modified)
+   */
+  private QueryPlan(final QueryContext qc) {
+    // copy plan, using a temporary query context for assigning variable ids
+    final QueryContext tmp = new QueryContext(qc.context);
+    tmp.vars.copy(qc.vars, tmp);
+    root = qc.root.copy(tmp);
+    vars = tmp.vars;
+    updating = qc.updating;
+    serialOpts = qc.serialOpts != null ? new SerializerOptions(qc.serialOpts) : null;
+    readLocks = qc.readLocks.toArray();
+    writeLocks = qc.writeLocks.toArray();
+  }
+
+  /**
+   * Creates a plan for the specified query context, or returns {@code null} if the parsed
+   * query cannot be cached.
+   * @param qc parsed query context
+   * @param ctxItem context item before parsing
+   * @return plan or {@code null}
+   */
+  static QueryPlan get(final QueryContext qc, final MainModule ctxItem) {
+    return qc.root == null || qc.ctxItem != ctxItem || qc.funcs.funcs().length != 0 ||
+      !qc.modParsed.isEmpty() || !qc.modDeclared.isEmpty() || !qc.tempOpts.isEmpty() ||
+      qc.resources.modules().imported() ? null : new QueryPlan(qc);
+  }
+
+  /**
+   * Assigns a copy of the plan to the specified query context.
+   * @param qc query context
+   * @param query query string
+   */
+  void assign(final QueryContext qc, final String query) {
+    qc.info.query = query;
+    qc.vars.copy(vars, qc);
+    qc.root = root.copy(qc);
+    qc.updating = updating;
+    if(serialOpts != null) qc.serialOpts = new SerializerOptions(serialOpts);
+    qc.readLocks.add(readLocks);
+    qc.writeLocks.add(writeLocks);
+  }
+}
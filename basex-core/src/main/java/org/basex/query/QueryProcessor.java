@@ -35,6 +35,8 @@ public final class QueryProcessor extends Proc implements AutoCloseable {
   private final String query;
   /** Parsed flag. */
   private boolean parsed;
+  /** Indicates if the query plan can be cached. */
+  private boolean cache = true;
 
   /**
    * Default constructor.
@@ -54,7 +56,8 @@ public final class QueryProcessor extends Proc implements AutoCloseable {
   public void parse() throws QueryException {
     if(parsed) return;
     parsed = true;
-    qc.parseMain(query, null, sc);
+    if(cache) qc.parseCached(query, sc);
+    else qc.parseMain(query, null, sc);
     updating = qc.updating;
   }
 
@@ -192,6 +195,7 @@ public final class QueryProcessor extends Proc implements AutoCloseable {
    */
   public QueryProcessor namespace(final String prefix, final String uri) throws QueryException {
     sc.namespace(prefix, uri);
+    cache = false;
     return this;
   }
 
@@ -220,6 +224,7 @@ public final class QueryProcessor extends Proc implements AutoCloseable {
    */
   public void module(final String uri, final String file) {
     qc.modDeclared.put(uri, file);
+    cache = false;
   }
 
   /**
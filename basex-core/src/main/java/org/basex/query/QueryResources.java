@@ -23,7 +23,8 @@ import org.basex.util.list.*;
 
 /**
  * This class provides access to all kinds of resources (databases, documents, database connections,
- * sessions) used by an XQuery expression.
+ * sessions) used by an XQuery expression. Resources may be accessed by multiple threads
+ * (see {@link org.basex.query.func.xquery.XQueryForkJoin}).
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
@@ -88,7 +89,7 @@ public final class QueryResources {
    * Adds an external resource.
    * @param ext external resource
    */
-  public void add(final QueryResource ext) {
+  public synchronized void add(final QueryResource ext) {
     external.put(ext.getClass(), ext);
   }
 
@@ -99,7 +100,7 @@ public final class QueryResources {
    * @return resource
    */
   @SuppressWarnings("unchecked")
-  public <R extends QueryResource> R get(final Class<? extends R> resource) {
+  public synchronized <R extends QueryResource> R get(final Class<? extends R> resource) {
     return (R) external.get(resource);
   }
 
@@ -123,7 +124,7 @@ public final class QueryResources {
    * @return database instance
    * @throws QueryException query exception
    */
-  public Data database(final String name, final InputInfo info) throws QueryException {
+  public synchronized Data database(final String name, final InputInfo info) throws QueryException {
     // check if a database with the same name has already been opened
     for(final Data data : datas) {
       if(data.inMemory()) continue;
@@ -148,7 +149,7 @@ public final class QueryResources {
    * @return document
    * @throws QueryException query exception
    */
-  public DBNode doc(final QueryInput qi, final IO baseIO, final InputInfo info)
+  public synchronized DBNode doc(final QueryInput qi, final IO baseIO, final InputInfo info)
       throws QueryException {
 
     // favor default database
@@ -182,7 +183,7 @@ public final class QueryResources {
    * @return collection
    * @throws QueryException query exception
    */
-  public Value collection(final InputInfo info) throws QueryException {
+  public synchronized Value collection(final InputInfo info) throws QueryException {
     if(colls.isEmpty()) throw NODEFCOLL.get(info);
     return colls.get(0);
   }
@@ -196,7 +197,7 @@ public final class QueryResources {
    * @return collection
    * @throws QueryException query exception
    */
-  public Value collection(final QueryInput qi, final IO baseIO, final InputInfo info)
+  public synchronized Value collection(final QueryInput qi, final IO baseIO, final InputInfo info)
       throws QueryException {
 
     // favor default database
@@ -241,7 +242,7 @@ public final class QueryResources {
    * Returns a reference to the updates.
    * @return updates
    */
-  public Updates updates() {
+  public synchronized Updates updates() {
     if(updates == null) updates = new Updates();
     return updates;
   }
@@ -250,7 +251,7 @@ public final class QueryResources {
    * Returns the module loader.
    * @return module loader
    */
-  public ModuleLoader modules() {
+  public synchronized ModuleLoader modules() {
     if(modules == null) modules = new ModuleLoader(qc.context);
     return modules;
   }
@@ -259,7 +260,7 @@ public final class QueryResources {
    * Removes and closes a database if it has not been added by the global context.
    * @param name name of database to be removed
    */
-  public void remove(final String name) {
+  public synchronized void remove(final String name) {
     final int ds = datas.size();
     for(int d = globalData ? 1 : 0; d < ds; d++) {
       final Data data = datas.get(d);
@@ -275,7 +276,7 @@ public final class QueryResources {
    * Returns the globally opened database.
    * @return database or {@code null} if no database is globally opened
    */
-  Data globalData() {
+  synchronized Data globalData() {
     return globalData ? datas.get(0) : null;
   }
 
@@ -309,7 +310,8 @@ public final class QueryResources {
    * @param baseIO base URI
    * @throws QueryException query exception
    */
-  public void addDoc(final String name, final String path, final IO baseIO) throws QueryException {
+  public synchronized void addDoc(final String name, final String path, final IO baseIO)
+      throws QueryException {
     final QueryInput qi = new QueryInput(path);
     final Data d = create(qi, true, baseIO, null);
     if(name != null) d.meta.original = name;
@@ -320,7 +322,7 @@ public final class QueryResources {
    * @param uri resource uri
    * @param strings resource strings (path, encoding)
    */
-  public void addResource(final String uri, final String... strings) {
+  public synchronized void addResource(final String uri, final String... strings) {
     texts.put(uri, strings);
   }
 
@@ -331,7 +333,7 @@ public final class QueryResources {
    * @param baseIO base URI
    * @throws QueryException query exception
    */
-  public void addCollection(final String name, final String[] paths, final IO baseIO)
+  public synchronized void addCollection(final String name, final String[] paths, final IO baseIO)
       throws QueryException {
 
     final int ns = paths.length;
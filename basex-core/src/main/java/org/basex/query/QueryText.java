@@ -704,6 +704,8 @@ public interface QueryText {
   byte[] PLAN = token("QueryPlan");
   /** Query Info: compiled. */
   byte[] COMPILED = token("compiled");
+  /** Query Info: Java call-site cache. */
+  String JAVACACHE = "Java call sites: % of % calls resolved from cache (%%)";
   /** Query Plan. */
   byte[] OP = token("op");
   /** Query Plan. */
@@ -820,4 +822,10 @@ public interface QueryText {
   String OPTCHILD = "converting % to child steps";
   /** Optimization info. */
   String OPTUNROLL = "unrolling %";
+  /** Optimization info. */
+  String OPTLIMIT = "sorting first % result(s) of %";
+  /** Optimization info. */
+  String OPTAGGR = "pre-aggregating %";
+  /** Optimization info. */
+  String OPTSUMMARY = "evaluating % via path summary";
 }
@@ -133,11 +133,13 @@ public final class And extends Logical {
 
   @Override
   public boolean indexAccessible(final IndexInfo ii) throws QueryException {
-    final int es = exprs.length;
+    // date comparisons are only merged if they will be answered by the range index
+    final Expr[] ex = ii.ic.data.meta.rangeindex ? dateRanges() : exprs;
+    final int es = ex.length;
     final int[] ics = new int[es];
     final Expr[] tmp = new Expr[es];
     for(int e = 0; e < es; e++) {
-      final Expr expr = exprs[e];
+      final Expr expr = ex[e];
       // check if expression can be rewritten, and if access is not sequential
       if(!expr.indexAccessible(ii)) return false;
       // skip queries with no results
@@ -149,14 +151,36 @@ public final class And extends Logical {
 
     // evaluate arguments with higher selectivity first
     final int[] ord = Array.createOrder(ics, true);
-    final Expr[] ex = new Expr[es];
-    for(int e = 0; e < es; ++e) ex[e] = tmp[ord[e]];
-    ii.expr = new InterSect(info, ex);
+    final Expr[] ordered = new Expr[es];
+    for(int e = 0; e < es; ++e) ordered[e] = tmp[ord[e]];
+    ii.expr = new InterSect(info, ordered);
     // use worst costs for estimation, as all index results may need to be scanned
     ii.costs = ics[ord[es - 1]];
     return true;
   }
 
+  /**
+   * Merges adjacent date comparisons to date range expressions.
+   * @return merged expressions
+   * @throws QueryException query exception
+   */
+  private Expr[] dateRanges() throws QueryException {
+    final int es = exprs.length;
+    final ExprList list = new ExprList(es);
+    for(int i = 0; i < es; i++) {
+      Expr e = exprs[i] instanceof CmpG ? CmpDR.get((CmpG) exprs[i]) : exprs[i];
+      while(e instanceof CmpDR && i + 1 < es && exprs[i + 1] instanceof CmpG) {
+        final Expr dr = CmpDR.get((CmpG) exprs[i + 1]);
+        final Expr tmp = dr instanceof CmpDR ? ((CmpDR) e).intersect((CmpDR) dr) : null;
+        if(!(tmp instanceof CmpDR)) break;
+        e = tmp;
+        i++;
+      }
+      list.add(e);
+    }
+    return list.finish();
+  }
+
   @Override
   public String toString() {
     return toString(' ' + AND + ' ');
@@ -0,0 +1,177 @@
+package org.basex.query.expr;
+
+import static org.basex.query.QueryError.*;
+import static org.basex.query.QueryText.*;
+
+import org.basex.data.*;
+import org.basex.index.query.*;
+import org.basex.query.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.query.value.type.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+
+/**
+ * Date range expression.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class CmpDR extends Single {
+  /** Minimum ({@code null} if undefined). */
+  private final ADate min;
+  /** Include minimum value. */
+  private final boolean mni;
+  /** Maximum ({@code null} if undefined). */
+  private final ADate max;
+  /** Include maximum value. */
+  private final boolean mxi;
+  /** Date type. */
+  private final Type type;
+  /** Flag for atomic evaluation. */
+  private final boolean atomic;
+
+  /**
+   * Constructor.
+   * @param expr (compiled) expression
+   * @param min minimum value
+   * @param mni include minimum value
+   * @param max maximum value
+   * @param mxi include maximum value
+   * @param info input info
+   */
+  private CmpDR(final Expr expr, final ADate min, final boolean mni, final ADate max,
+      final boolean mxi, final InputInfo info) {
+
+    super(info, expr);
+    this.min = min;
+    this.mni = mni;
+    this.max = max;
+    this.mxi = mxi;
+    type = (min != null ? min : max).type;
+    seqType = SeqType.BLN;
+    final SeqType st = expr.seqType();
+    atomic = st.zeroOrOne() && !st.mayBeArray();
+  }
+
+  /**
+   * Tries to convert the specified expression into a date range expression.
+   * @param cmp expression to be converted
+   * @return new or original expression
+   */
+  static ParseExpr get(final CmpG cmp) {
+    if(!(cmp.exprs[1] instanceof Dat || cmp.exprs[1] instanceof Dtm)) return cmp;
+    final ADate d = (ADate) cmp.exprs[1];
+    final Expr e = cmp.exprs[0];
+    switch(cmp.op.op) {
+      case EQ: return new CmpDR(e, d,    true,  d,    true,  cmp.info);
+      case GE: return new CmpDR(e, d,    true,  null, true,  cmp.info);
+      case GT: return new CmpDR(e, d,    false, null, true,  cmp.info);
+      case LE: return new CmpDR(e, null, true,  d,    true,  cmp.info);
+      case LT: return new CmpDR(e, null, true,  d,    false, cmp.info);
+      default: return cmp;
+    }
+  }
+
+  @Override
+  public Bln item(final QueryContext qc, final InputInfo ii) throws QueryException {
+    // atomic evaluation of arguments (faster)
+    if(atomic) {
+      final Item it = expr.item(qc, info);
+      return Bln.get(it != null && eval(it));
+    }
+
+    // iterative evaluation
+    final Iter ir = expr.atomIter(qc, info);
+    for(Item it; (it = ir.next()) != null;) {
+      if(eval(it)) return Bln.TRUE;
+    }
+    return Bln.FALSE;
+  }
+
+  /**
+   * Evaluates the range for the specified item.
+   * @param it item to be evaluated
+   * @return result of check
+   * @throws QueryException query exception
+   */
+  private boolean eval(final Item it) throws QueryException {
+    if(it.type != type && !it.type.isUntyped()) throw diffError(info, it, min != null ? min : max);
+    final ADate d = (ADate) (it.type == type ? it : type.cast(it, null, null, info));
+    final int mn = min == null ?  1 : d.diff(min, null, info);
+    final int mx = max == null ? -1 : d.diff(max, null, info);
+    return (mni ? mn >= 0 : mn > 0) && (mxi ? mx <= 0 : mx < 0);
+  }
+
+  /**
+   * Creates an intersection of the existing and the specified expressions.
+   * @param c range comparison
+   * @return resulting expression or {@code null}
+   * @throws QueryException query exception
+   */
+  Expr intersect(final CmpDR c) throws QueryException {
+    // skip intersection if expressions to be compared are different
+    if(type != c.type || !c.expr.sameAs(expr)) return null;
+
+    // find common minimum and maximum value
+    ADate mn = min;
+    boolean in = mni;
+    if(mn == null || c.min != null && c.min.diff(mn, null, info) >= 0) {
+      in = mn == null || c.min.diff(mn, null, info) > 0 ? c.mni : in && c.mni;
+      mn = c.min;
+    }
+    ADate mx = max;
+    boolean ix = mxi;
+    if(mx == null || c.max != null && c.max.diff(mx, null, info) <= 0) {
+      ix = mx == null || c.max.diff(mx, null, info) < 0 ? c.mxi : ix && c.mxi;
+      mx = c.max;
+    }
+
+    if(mn != null && mx != null) {
+      // remove comparisons that will never yield results
+      final int d = mn.diff(mx, null, info);
+      if(d > 0 || d == 0 && !(in && ix)) return Bln.FALSE;
+    }
+    return new CmpDR(c.expr, mn, in, mx, ix, info);
+  }
+
+  @Override
+  public boolean indexAccessible(final IndexInfo ii) {
+    // accept only location path, string and equality expressions
+    final Data data = ii.ic.data;
+    if(!data.meta.rangeindex || !ii.check(expr, false, true)) return false;
+
+    // create range access
+    final TypedRange tr = new TypedRange(ii.text, min, mni, max, mxi);
+    ii.costs = data.costs(tr);
+    final TokenBuilder tb = new TokenBuilder();
+    tb.add(mni ? '[' : '(').addExt(min != null ? min : "").add(',');
+    tb.addExt(max != null ? max : "").add(mxi ? ']' : ')');
+    ii.create(new TypedRangeAccess(info, tr, ii.ic), info, Util.info(OPTRNGINDEX, tb), true);
+    return true;
+  }
+
+  @Override
+  public Expr copy(final QueryContext qc, final VarScope scp, final IntObjMap<Var> vs) {
+    return new CmpDR(expr.copy(qc, scp, vs), min, mni, max, mxi, info);
+  }
+
+  @Override
+  public void plan(final FElem plan) {
+    addPlan(plan, planElem(MIN, min != null ? min : "", MAX, max != null ? max : ""), expr);
+  }
+
+  @Override
+  public String toString() {
+    final TokenBuilder tb = new TokenBuilder();
+    if(min == max) return tb.addExt(expr).add(" = ").addExt(min).toString();
+    if(min != null) tb.addExt(min).add(mni ? " <= " : " < ");
+    tb.addExt(expr);
+    if(max != null) tb.add(mxi ? " <= " : " < ").addExt(max);
+    return tb.toString();
+  }
+}
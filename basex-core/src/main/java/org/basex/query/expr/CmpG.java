@@ -305,6 +305,11 @@ public final class CmpG extends Cmp {
 
   @Override
   public boolean indexAccessible(final IndexInfo ii) throws QueryException {
+    // date comparisons: only rewritten if they will be answered by the range index
+    if(ii.ic.data.meta.rangeindex) {
+      final ParseExpr dr = CmpDR.get(this);
+      if(dr != this) return dr.indexAccessible(ii);
+    }
     // only equality expressions on default collation can be rewritten
     if(op != OpG.EQ || coll != null) return false;
 
@@ -141,6 +141,8 @@ public final class CmpR extends Single {
   public boolean indexAccessible(final IndexInfo ii) {
     // accept only location path, string and equality expressions
     final Data data = ii.ic.data;
+    // typed range index: supports all numbers and exclusive boundaries
+    if(data.meta.rangeindex && ii.check(expr, false, true) && rangeAccessible(ii)) return true;
     // sequential main memory scan is assumed to be faster than range index access
     if(!mni || !mxi || data.inMemory() || !ii.check(expr, false)) return false;
 
@@ -175,6 +177,33 @@ public final class CmpR extends Single {
     return true;
   }
 
+  /**
+   * Checks if the range index can be accessed.
+   * @param ii index info
+   * @return result of check
+   */
+  private boolean rangeAccessible(final IndexInfo ii) {
+    final Stats key = key(ii, ii.text);
+    if(key == null) return false;
+
+    // convert exclusive to inclusive boundaries, restrict range to existing values
+    final TypedRange tr = new TypedRange(ii.text,
+        Math.max(mni ? min : Math.nextUp(min), key.min),
+        Math.min(mxi ? max : Math.nextAfter(max, Double.NEGATIVE_INFINITY), key.max));
+
+    // skip queries with no results
+    if(tr.min > tr.max) {
+      ii.costs = 0;
+      return true;
+    }
+
+    ii.costs = ii.ic.data.costs(tr);
+    final TokenBuilder tb = new TokenBuilder();
+    tb.add(mni ? '[' : '(').addExt(min).add(',').addExt(max).add(mxi ? ']' : ')');
+    ii.create(new TypedRangeAccess(info, tr, ii.ic), info, Util.info(OPTRNGINDEX, tb), true);
+    return true;
+  }
+
   /**
    * Retrieves the statistics key for the element/attribute name.
    * @param ii index info
@@ -10,6 +10,7 @@ import org.basex.query.value.node.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * Except expression.
@@ -73,6 +74,18 @@ public final class Except extends Set {
     return nc;
   }
 
+  @Override
+  protected IntList merge(final IntList pres1, final IntList pres2) {
+    final int s1 = pres1.size(), s2 = pres2.size();
+    final IntList pres = new IntList(s1);
+    for(int i1 = 0, i2 = 0; i1 < s1; i1++) {
+      final int p1 = pres1.get(i1);
+      while(i2 < s2 && pres2.get(i2) < p1) i2++;
+      if(i2 == s2 || pres2.get(i2) != p1) pres.add(p1);
+    }
+    return pres;
+  }
+
   @Override
   protected NodeIter iter(final Iter[] iter) {
     return new SetIter(iter) {
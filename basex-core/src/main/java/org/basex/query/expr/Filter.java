@@ -143,6 +143,8 @@ public abstract class Filter extends Preds {
     if(preds.length == 1) {
       // pre-evaluate if root is value and if one single position() or last() function is specified
       iter = posIterator();
+      // limit number of requested results of FLWOR expression
+      if(pos != null && root instanceof GFLWOR) ((GFLWOR) root).limit(pos.max, qc);
       if(root.isValue()) {
         final Value v = (Value) root;
         if(last) return optPre(SubSeq.get(v, v.size() - 1, 1), qc);
@@ -7,6 +7,7 @@ import org.basex.query.value.node.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * Intersect expression.
@@ -32,7 +33,7 @@ public final class InterSect extends Set {
 
   @Override
   protected NodeSeqBuilder eval(final Iter[] iter) throws QueryException {
-    NodeSeqBuilder nc = new NodeSeqBuilder();
+    NodeSeqBuilder nc = new NodeSeqBuilder().check();
 
     for(Item it; (it = iter[0].next()) != null;) nc.add(toNode(it));
     final boolean db = nc.dbnodes();
@@ -58,6 +59,20 @@ public final class InterSect extends Set {
     return copyType(is);
   }
 
+  @Override
+  protected IntList merge(final IntList pres1, final IntList pres2) {
+    final int s1 = pres1.size(), s2 = pres2.size();
+    final IntList pres = new IntList(Math.min(s1, s2));
+    int i1 = 0, i2 = 0;
+    while(i1 < s1 && i2 < s2) {
+      final int p1 = pres1.get(i1), p2 = pres2.get(i2);
+      if(p1 <= p2) i1++;
+      if(p2 <= p1) i2++;
+      if(p1 == p2) pres.add(p1);
+    }
+    return pres;
+  }
+
   @Override
   protected NodeIter iter(final Iter[] iter) {
     return new SetIter(iter) {
@@ -4,12 +4,17 @@ import static org.basex.query.QueryText.*;
 
 import java.util.*;
 
+import org.basex.data.*;
 import org.basex.query.*;
 import org.basex.query.iter.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
+import org.basex.query.value.seq.*;
 import org.basex.query.value.type.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * Set expression.
@@ -55,9 +60,55 @@ abstract class Set extends Arr {
     final int el = exprs.length;
     final Iter[] iter = new Iter[el];
     for(int e = 0; e < el; e++) iter[e] = qc.iter(exprs[e]);
-    return iterable ? iter(iter) : eval(iter).sort();
+    if(iterable) return iter(iter);
+
+    // cache operands; merge their pre values if all nodes belong to the same database
+    final DBNodeSeqBuilder[] nbs = new DBNodeSeqBuilder[el];
+    Data data = null;
+    IntList pres = null;
+    for(int e = 0; e < el; e++) {
+      final DBNodeSeqBuilder nb = cache(iter[e]);
+      nbs[e] = nb;
+      final IntList pr = nb.pres();
+      final Data d = nb.data();
+      if(pr == null || d != null && data != null && d != data) {
+        for(int n = 0; n <= e; n++) iter[n] = nbs[n];
+        return eval(iter).sort();
+      }
+      if(d != null) data = d;
+      pres = pres == null ? pr : merge(pres, pr);
+    }
+    return new DBNodeSeqBuilder(pres, data);
+  }
+
+  /**
+   * Caches the nodes of the specified iterator.
+   * @param iter iterator
+   * @return node builder
+   * @throws QueryException query exception
+   */
+  private DBNodeSeqBuilder cache(final Iter iter) throws QueryException {
+    if(iter instanceof DBNodeSeqBuilder) return (DBNodeSeqBuilder) iter;
+    final DBNodeSeqBuilder nb = new DBNodeSeqBuilder();
+    if(iter instanceof ValueIter) {
+      final Value value = ((ValueIter) iter).value();
+      if(value instanceof DBNodeSeq) {
+        nb.add((DBNodeSeq) value);
+        return nb;
+      }
+    }
+    for(Item it; (it = iter.next()) != null;) nb.add(toNode(it));
+    return nb;
   }
 
+  /**
+   * Merges two sorted and duplicate-free lists of pre values in linear time.
+   * @param pres1 first list
+   * @param pres2 second list
+   * @return resulting list
+   */
+  protected abstract IntList merge(final IntList pres1, final IntList pres2);
+
   /**
    * Evaluates the specified iterators.
    * @param iter iterators
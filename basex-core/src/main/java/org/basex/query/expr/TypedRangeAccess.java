@@ -0,0 +1,85 @@
+package org.basex.query.expr;
+
+import static org.basex.query.QueryText.*;
+
+import org.basex.data.*;
+import org.basex.index.query.*;
+import org.basex.query.*;
+import org.basex.query.iter.*;
+import org.basex.query.util.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.query.var.*;
+import org.basex.util.*;
+import org.basex.util.hash.*;
+
+/**
+ * This index class retrieves numeric and date ranges from the range index.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class TypedRangeAccess extends IndexAccess {
+  /** Index token. */
+  private final TypedRange index;
+
+  /**
+   * Constructor.
+   * @param info input info
+   * @param index index reference
+   * @param ictx index context
+   */
+  public TypedRangeAccess(final InputInfo info, final TypedRange index, final IndexContext ictx) {
+    super(ictx, info);
+    this.index = index;
+  }
+
+  @Override
+  public AxisIter iter(final QueryContext qc) {
+    final byte kind = index.text ? Data.TEXT : Data.ATTR;
+    final Data data = ictx.data;
+    final IndexIterator ii = data.iter(index);
+
+    return new AxisIter() {
+      @Override
+      public ANode next() {
+        return ii.more() ? new DBNode(data, ii.pre(), kind) : null;
+      }
+    };
+  }
+
+  @Override
+  public Expr copy(final QueryContext qc, final VarScope scp, final IntObjMap<Var> vs) {
+    return new TypedRangeAccess(info, index, ictx);
+  }
+
+  @Override
+  public void plan(final FElem plan) {
+    addPlan(plan, planElem(DATA, ictx.data.meta.name, MIN, min(), MAX, max(),
+        TYP, index.text ? TEXT : ATTRIBUTE));
+  }
+
+  /**
+   * Returns the minimum value.
+   * @return minimum value ({@code null} if undefined)
+   */
+  private Item min() {
+    return index.type == null ? Dbl.get(index.min) : index.dmin;
+  }
+
+  /**
+   * Returns the maximum value.
+   * @return maximum value ({@code null} if undefined)
+   */
+  private Item max() {
+    return index.type == null ? Dbl.get(index.max) : index.dmax;
+  }
+
+  @Override
+  public String toString() {
+    final Item min = min(), max = max();
+    return new TokenBuilder(DB_PREFIX).add(':').add(index.text ? TEXT : ATTRIBUTE).
+      add("-range(").add(min == null ? "()" : min.toString()).add(SEP).
+      add(max == null ? "()" : max.toString()).add(')').toString();
+  }
+}
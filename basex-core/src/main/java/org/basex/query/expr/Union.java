@@ -11,6 +11,7 @@ import org.basex.query.value.seq.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * Union expression.
@@ -66,6 +67,22 @@ public final class Union extends Set {
     return nc;
   }
 
+  @Override
+  protected IntList merge(final IntList pres1, final IntList pres2) {
+    final int s1 = pres1.size(), s2 = pres2.size();
+    final IntList pres = new IntList(s1 + s2);
+    int i1 = 0, i2 = 0;
+    while(i1 < s1 && i2 < s2) {
+      final int p1 = pres1.get(i1), p2 = pres2.get(i2);
+      if(p1 <= p2) i1++;
+      if(p2 <= p1) i2++;
+      pres.add(Math.min(p1, p2));
+    }
+    while(i1 < s1) pres.add(pres1.get(i1++));
+    while(i2 < s2) pres.add(pres2.get(i2++));
+    return pres;
+  }
+
   @Override
   protected NodeIter iter(final Iter[] iter) {
     return new SetIter(iter) {
@@ -6,7 +6,6 @@ import static org.basex.util.Token.*;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
-import org.basex.query.util.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
 import org.basex.query.value.type.*;
@@ -44,15 +43,15 @@ public final class CElem extends CName {
 
   @Override
   public CElem compile(final QueryContext qc, final VarScope scp) throws QueryException {
-    final int s = addNS();
+    final int s = addNS(qc);
     super.compile(qc, scp);
-    sc.ns.size(s);
+    qc.namespaces.size(s);
     return this;
   }
 
   @Override
   public FElem item(final QueryContext qc, final InputInfo ii) throws QueryException {
-    final int s = addNS();
+    final int s = addNS(qc);
     try {
       // adds in-scope namespaces
       final Atts ns = new Atts();
@@ -70,12 +69,12 @@ public final class CElem extends CName {
       // analyze element namespace unless it is "xml"
       if(!eq(cp, XML)) {
         // request namespace for the specified uri
-        final byte[] uri = sc.ns.uri(cp);
+        final byte[] uri = sc.ns.uri(cp, qc);
 
         // check if element has a namespace
         if(nm.hasURI()) {
           // add to statically known namespaces
-          if(!comp && (uri == null || !eq(uri, cu))) sc.ns.add(cp, cu);
+          if(!comp && (uri == null || !eq(uri, cu))) qc.namespaces.add(cp, cu);
           // add to in-scope namespaces
           if(!ns.contains(cp)) ns.add(cp, cu);
         } else {
@@ -129,7 +128,7 @@ public final class CElem extends CName {
       return node.optimize();
 
     } finally {
-      sc.ns.size(s);
+      qc.namespaces.size(s);
     }
   }
 
@@ -176,10 +175,11 @@ public final class CElem extends CName {
 
   /**
    * Adds namespaces to the namespace stack.
+   * @param qc query context
    * @return old position in namespace stack
    */
-  private int addNS() {
-    final NSContext ns = sc.ns;
+  private int addNS(final QueryContext qc) {
+    final Atts ns = qc.namespaces;
     final int s = ns.size(), nl = nspaces.size();
     for(int n = 0; n < nl; n++) ns.add(nspaces.name(n), nspaces.value(n));
     return s;
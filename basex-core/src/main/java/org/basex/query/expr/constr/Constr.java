@@ -62,7 +62,7 @@ public final class Constr {
    * @throws QueryException query exception
    */
   public Constr add(final QueryContext qc, final Expr... expr) throws QueryException {
-    final int s = sc.ns.size();
+    final int s = qc.namespaces.size();
     try {
       for(final Expr e : expr) {
         more = false;
@@ -72,7 +72,7 @@ public final class Constr {
       if(!text.isEmpty()) children.add(new FTxt(text.toArray()));
       return this;
     } finally {
-      sc.ns.size(s);
+      qc.namespaces.size(s);
     }
   }
 
@@ -122,7 +122,7 @@ public final class Constr {
         // add attribute
         atts.add(new FAttr(name, node.string()));
         // add new namespace
-        if(name.hasURI()) sc.ns.add(name.prefix(), name.uri());
+        if(name.hasURI()) qc.namespaces.add(name.prefix(), name.uri());
 
       } else if(ip == NodeType.NSP) {
         // type: namespace node
@@ -3,6 +3,7 @@ package org.basex.query.expr.ft;
 import static org.basex.util.Token.*;
 
 import org.basex.util.*;
+import org.basex.util.list.*;
 
 /**
  * Wildcard expression.
@@ -122,6 +123,78 @@ public final class FTWildcard {
     return tb.finish();
   }
 
+  /**
+   * Returns the initial state of an automaton that matches tokens character by character.
+   * A state consists of pairs of query positions and numbers of characters that have been
+   * consumed by the wildcard at the query position.
+   * @return initial state
+   */
+  public int[] start() {
+    return close(new IntList().add(0).add(0));
+  }
+
+  /**
+   * Returns the state that is reached by consuming the specified character.
+   * @param state current state
+   * @param cp codepoint
+   * @return new state, or {@code null} if no match is possible anymore
+   */
+  public int[] step(final int[] state, final int cp) {
+    final IntList il = new IntList();
+    final int sl = state.length;
+    for(int s = 0; s < sl; s += 2) {
+      final int qi = state[s], c = state[s + 1];
+      if(qi == size) continue;
+      if(wc[qi] == DOT) {
+        final int m = max[qi];
+        if(c < m) add(il, qi, m == Integer.MAX_VALUE ? Math.min(c + 1, min[qi]) : c + 1);
+      } else if(wc[qi] == cp) {
+        add(il, qi + 1, 0);
+      }
+    }
+    return il.isEmpty() ? null : close(il);
+  }
+
+  /**
+   * Checks if the specified state accepts the consumed characters.
+   * @param state state
+   * @return result of check
+   */
+  public boolean accepts(final int[] state) {
+    final int sl = state.length;
+    for(int s = 0; s < sl; s += 2) {
+      if(state[s] == size) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Adds all states that can be reached without consuming characters.
+   * @param il states
+   * @return states
+   */
+  private int[] close(final IntList il) {
+    for(int s = 0; s < il.size(); s += 2) {
+      final int qi = il.get(s);
+      if(qi < size && wc[qi] == DOT && il.get(s + 1) >= min[qi]) add(il, qi + 1, 0);
+    }
+    return il.finish();
+  }
+
+  /**
+   * Adds a state if it does not exist yet.
+   * @param il states
+   * @param qi query position
+   * @param c number of consumed characters
+   */
+  private static void add(final IntList il, final int qi, final int c) {
+    final int is = il.size();
+    for(int s = 0; s < is; s += 2) {
+      if(il.get(s) == qi && il.get(s + 1) == c) return;
+    }
+    il.add(qi).add(c);
+  }
+
   /**
    * Checks if the wildcard can match a sub-string in a string.
    * @param t token to search for match
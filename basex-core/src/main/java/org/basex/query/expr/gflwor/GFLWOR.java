@@ -29,6 +29,8 @@ public final class GFLWOR extends ParseExpr {
   private final LinkedList<Clause> clauses;
   /** Return expression. */
   public Expr ret;
+  /** Maximum number of results that will be requested by the parent expression. */
+  private long limit = Long.MAX_VALUE;
 
   /**
    * Constructor.
@@ -56,7 +58,10 @@ public final class GFLWOR extends ParseExpr {
       }
     };
 
-    for(final Clause cls : clauses) e = cls.eval(e);
+    final Clause last = topK() ? clauses.getLast() : null;
+    for(final Clause cls : clauses) {
+      e = cls == last ? ((OrderBy) cls).eval(e, limit) : cls.eval(e);
+    }
     final Eval ev = e;
 
     return new Iter() {
@@ -81,6 +86,28 @@ public final class GFLWOR extends ParseExpr {
     };
   }
 
+  /**
+   * Assigns the maximum number of results that will be requested by the parent expression.
+   * If the expression ends with an order by clause, only the required tuples will be sorted.
+   * @param max maximum number of results
+   * @param qc query context
+   */
+  public void limit(final long max, final QueryContext qc) {
+    if(max >= limit) return;
+    limit = max;
+    if(topK()) qc.compInfo(QueryText.OPTLIMIT, max, this);
+  }
+
+  /**
+   * Checks if the order by clause at the end of the expression can be limited to the
+   * tuples with the smallest keys. This is the case if each tuple yields a single result.
+   * @return result of check
+   */
+  private boolean topK() {
+    return limit != Long.MAX_VALUE && clauses.getLast() instanceof OrderBy && ret.size() == 1 &&
+        !ret.has(Flag.UPD);
+  }
+
   @Override
   public Expr compile(final QueryContext qc, final VarScope scp) throws QueryException {
     int i = 0;
@@ -218,6 +245,17 @@ public final class GFLWOR extends ParseExpr {
 
     mergeWheres();
 
+    // aggregate values of non-grouping variables while building the groups
+    final int cs = clauses.size();
+    for(int c = 0; c < cs; c++) {
+      final Clause clause = clauses.get(c);
+      if(clause instanceof GroupBy) {
+        final ArrayList<Expr> scope = new ArrayList<Expr>(clauses.subList(c + 1, cs));
+        scope.add(ret);
+        ((GroupBy) clause).aggregate(scope, qc);
+      }
+    }
+
     size = calcSize();
     if(size == 0 && !has(Flag.NDT) && !has(Flag.UPD)) {
       qc.compInfo(QueryText.OPTWRITE, this);
@@ -730,7 +768,9 @@ public final class GFLWOR extends ParseExpr {
   public Expr copy(final QueryContext qc, final VarScope scp, final IntObjMap<Var> vs) {
     final LinkedList<Clause> cls = new LinkedList<>();
     for(final Clause clause : clauses) cls.add(clause.copy(qc, scp, vs));
-    return copyType(new GFLWOR(info, cls, ret.copy(qc, scp, vs)));
+    final GFLWOR gflwor = new GFLWOR(info, cls, ret.copy(qc, scp, vs));
+    gflwor.limit = limit;
+    return copyType(gflwor);
   }
 
   /**
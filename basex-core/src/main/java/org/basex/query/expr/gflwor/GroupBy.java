@@ -1,15 +1,19 @@
 package org.basex.query.expr.gflwor;
 
+import static org.basex.query.QueryError.*;
 import static org.basex.query.QueryText.*;
 
 import java.util.*;
 
+import org.basex.core.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.gflwor.GFLWOR.Eval;
+import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
 import org.basex.query.util.collation.*;
+import org.basex.query.value.*;
 import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
 import org.basex.query.value.seq.*;
@@ -18,6 +22,7 @@ import org.basex.query.value.type.SeqType.Occ;
 import org.basex.query.var.*;
 import org.basex.util.*;
 import org.basex.util.hash.*;
+import org.basex.util.list.*;
 
 /**
  * The GFLWOR {@code group by} expression.
@@ -26,6 +31,13 @@ import org.basex.util.hash.*;
  * @author Leo Woerteler
  */
 public final class GroupBy extends GFLWOR.Clause {
+  /** Number of bits used for choosing a partition. */
+  private static final int PARTBITS = 5;
+  /** Number of partitions into which tuples are distributed if memory is exceeded. */
+  private static final int PARTS = 1 << PARTBITS;
+  /** Maximum recursion depth for partitioning tuples. */
+  private static final int MAXDEPTH = 6;
+
   /** Grouping specs. */
   private final Spec[] specs;
   /** Non-grouping variable expressions. */
@@ -34,6 +46,8 @@ public final class GroupBy extends GFLWOR.Clause {
   private Var[] post;
   /** Number of non-occluded grouping variables. */
   private final int nonOcc;
+  /** Aggregation of non-grouping variables ({@code null} entries: values will be cached). */
+  private Agg[] aggs;
 
   /**
    * Constructor.
@@ -51,6 +65,7 @@ public final class GroupBy extends GFLWOR.Clause {
     int n = 0;
     for(final Spec spec : specs) if(!spec.occluded) n++;
     nonOcc = n;
+    aggs = new Agg[post.length];
   }
 
   /**
@@ -59,15 +74,17 @@ public final class GroupBy extends GFLWOR.Clause {
    * @param pre pre-grouping expressions
    * @param post post-grouping variables
    * @param nonOcc number of non-occluded grouping variables
+   * @param aggs aggregations of non-grouping variables
    * @param info input info
    */
   private GroupBy(final Spec[] specs, final Expr[] pre, final Var[] post, final int nonOcc,
-      final InputInfo info) {
+      final Agg[] aggs, final InputInfo info) {
     super(info, vars(specs, post));
     this.specs = specs;
     preExpr = pre;
     this.post = post;
     this.nonOcc = nonOcc;
+    this.aggs = aggs;
   }
 
   /**
@@ -89,13 +106,23 @@ public final class GroupBy extends GFLWOR.Clause {
     return new Eval() {
       /** Groups to iterate over. */
       private Group[] groups;
+      /** Partitions on disk that still need to be grouped. */
+      private final ArrayList<TupleFile> parts = new ArrayList<>();
+      /** Recursion depths of the partitions. */
+      private final IntList depths = new IntList();
+      /** Indicates if values of non-grouping variables will be cached. */
+      private final boolean cache = cache();
       /** Current position. */
       private int pos;
 
       @Override
       public boolean next(final QueryContext qc) throws QueryException {
         if(groups == null) groups = init(qc);
-        if(pos == groups.length) return false;
+        while(pos == groups.length) {
+          if(parts.isEmpty()) return false;
+          groups = group(parts.remove(parts.size() - 1), depths.pop(), qc);
+          pos = 0;
+        }
 
         final Group curr = groups[pos];
         // be nice to the garbage collector
@@ -109,79 +136,163 @@ public final class GroupBy extends GFLWOR.Clause {
           }
         }
         final int pl = post.length;
-        for(int i = 0; i < pl; i++) qc.set(post[i], curr.ngv[i].value(), info);
+        for(int i = 0; i < pl; i++) qc.set(post[i], curr.value(i), info);
         return true;
       }
 
       /**
-       * Builds up the groups.
+       * Builds up the groups. If the main memory budget is exceeded, the tuples will be
+       * distributed to partitions on disk, which will be grouped one by one. In this case,
+       * the groups will be returned partition by partition instead of in the order in which
+       * their keys first occurred (the order of groups is implementation-dependent).
        * @param qc query context
+       * @return groups in main memory
        * @throws QueryException query exception
        */
       private Group[] init(final QueryContext qc) throws QueryException {
-        final ArrayList<Group> grps = new ArrayList<>();
-        final IntObjMap<Group> map = new IntObjMap<>();
-        final Collation[] colls = new Collation[nonOcc];
-        int c = 0;
-        for(final Spec spec : specs) {
-          if(!spec.occluded) colls[c++] = spec.coll;
-        }
+        final int spill = qc.context.options.get(MainOptions.SPILLSIZE);
+        Groups grps = new Groups();
+        TupleFile[] files = null;
 
         while(sub.next(qc)) {
           final Item[] key = new Item[nonOcc];
-          int p = 0, hash = 1;
+          int p = 0;
           for(final Spec spec : specs) {
             final Item atom = spec.atomItem(qc, info);
-            if(!spec.occluded) {
-              key[p++] = atom;
-              // If the values are compared using a special collation, we let them collide
-              // here and let the comparison do all the work later.
-              // This enables other non-collation specs to avoid the collision.
-              hash = 31 * hash + (atom == null || spec.coll != null ? 0 : atom.hash(info));
-            }
+            if(!spec.occluded) key[p++] = atom;
             qc.set(spec.var, atom == null ? Empty.SEQ : atom, info);
           }
-
-          // find the group for this key
-          final Group fst;
-          Group grp = null;
-          // no collations, so we can use hashing
-          for(Group g = fst = map.get(hash); g != null; g = g.next) {
-            if(eq(key, g.key, colls)) {
-              grp = g;
-              break;
+          final int hash = hash(key);
+
+          if(files != null) {
+            final Group grp = new Group(key, hash);
+            grp.add(qc);
+            files[partition(hash, 0)].write(grp.tuple());
+          } else {
+            // add values of non-grouping variables to the group
+            grps.get(key, hash).add(qc);
+            if(cache) grps.size++;
+            if(spill > 0 && grps.size > spill) {
+              files = grps.spill(0, qc);
+              grps = null;
             }
           }
+        }
+        if(files == null) return grps.toArray();
+        add(files, 1);
+        return new Group[0];
+      }
 
-          final int pl = preExpr.length;
-          if(grp == null) {
-            // new group, add it to the list
-            final ValueBuilder[] ngs = new ValueBuilder[pl];
-            final int nl = ngs.length;
-            for(int n = 0; n < nl; n++) ngs[n] = new ValueBuilder();
-            grp = new Group(key, ngs);
-            grps.add(grp);
-
-            // insert the group into the hash table
-            if(fst == null) {
-              map.put(hash, grp);
-            } else {
-              final Group nxt = fst.next;
-              fst.next = grp;
-              grp.next = nxt;
+      /**
+       * Groups the tuples of a partition.
+       * @param file partition
+       * @param depth recursion depth
+       * @param qc query context
+       * @return groups in main memory
+       * @throws QueryException query exception
+       */
+      private Group[] group(final TupleFile file, final int depth, final QueryContext qc)
+          throws QueryException {
+
+        final int spill = qc.context.options.get(MainOptions.SPILLSIZE);
+        Groups grps = new Groups();
+        TupleFile[] files = null;
+        for(Value[] tuple; (tuple = file.read()) != null;) {
+          final Item[] key = new Item[nonOcc];
+          for(int k = 0; k < nonOcc; k++) key[k] = (Item) tuple[k];
+          final int hash = hash(key);
+
+          if(files != null) {
+            files[partition(hash, depth)].write(tuple);
+          } else {
+            grps.get(key, hash).add(tuple);
+            if(cache) grps.size++;
+            // partition again, unless a single group exceeds the budget,
+            // or all hash bits have been consumed
+            if(grps.size > spill && grps.list.size() > 1 && depth < MAXDEPTH) {
+              files = grps.spill(depth, qc);
+              grps = null;
             }
           }
-
-          // add values of non-grouping variables to the group
-          for(int g = 0; g < pl; g++) grp.ngv[g].add(preExpr[g].value(qc));
         }
+        if(files == null) return grps.toArray();
+        add(files, depth + 1);
+        return new Group[0];
+      }
 
-        // we're finished, copy the array so the list can be garbage-collected
-        return grps.toArray(new Group[grps.size()]);
+      /**
+       * Registers partitions that need to be grouped.
+       * @param files partitions
+       * @param depth recursion depth
+       * @throws QueryException query exception
+       */
+      private void add(final TupleFile[] files, final int depth) throws QueryException {
+        // the first partition will be grouped first
+        for(int f = files.length - 1; f >= 0; f--) {
+          files[f].finish();
+          parts.add(files[f]);
+          depths.add(depth);
+        }
       }
     };
   }
 
+  /**
+   * Adds an item to a sum, following the rules of {@code fn:sum}.
+   * @param sum sum ({@code null} if no item has been added yet)
+   * @param it item
+   * @return new sum
+   * @throws QueryException query exception
+   */
+  private Item sum(final Item sum, final Item it) throws QueryException {
+    if(sum == null) {
+      final Item rs = it.type.isUntyped() ? Dbl.get(it.dbl(info)) : it;
+      if(!(rs instanceof ANum) && rs.type != AtomType.DTD && rs.type != AtomType.YMD)
+        throw SUM_X_X.get(info, rs.type, rs);
+      return rs;
+    }
+    final boolean num = sum instanceof ANum;
+    if(it.type.isNumberOrUntyped()) {
+      if(!num) throw SUMDUR_X_X.get(info, it.type, it);
+    } else {
+      if(num) throw SUMNUM_X_X.get(info, it.type, it);
+      if(it.type != sum.type) throw SUMDUR_X_X.get(info, it.type, it);
+    }
+    return Calc.PLUS.ev(info, sum, it);
+  }
+
+  /**
+   * Computes the hash value of a grouping key.
+   * @param key key
+   * @return hash value
+   * @throws QueryException query exception
+   */
+  private int hash(final Item[] key) throws QueryException {
+    int hash = 1, p = 0;
+    for(final Spec spec : specs) {
+      if(spec.occluded) continue;
+      final Item atom = key[p++];
+      // If the values are compared using a special collation, we let them collide
+      // here and let the comparison do all the work later.
+      // This enables other non-collation specs to avoid the collision.
+      hash = 31 * hash + (atom == null || spec.coll != null ? 0 : atom.hash(info));
+    }
+    return hash;
+  }
+
+  /**
+   * Returns the partition of a grouping key. Different bits of the scrambled hash value are
+   * chosen for each recursion depth.
+   * @param hash hash value of the key
+   * @param depth recursion depth
+   * @return partition
+   */
+  private static int partition(final int hash, final int depth) {
+    int h = hash * 0x9E3779B9;
+    h ^= h >>> 16;
+    return h >>> depth * PARTBITS & PARTS - 1;
+  }
+
   /**
    * Checks two keys for equality.
    * @param its1 first keys
@@ -218,12 +329,78 @@ public final class GroupBy extends GFLWOR.Clause {
   public GroupBy optimize(final QueryContext qc, final VarScope scp) throws QueryException {
     final int pl = preExpr.length;
     for(int p = 0; p < pl; p++) {
+      if(aggs[p] != null) continue;
       final SeqType it = preExpr[p].seqType();
       post[p].refineType(it.withOcc(it.mayBeZero() ? Occ.ZERO_MORE : Occ.ONE_MORE), qc, info);
     }
     return this;
   }
 
+  /**
+   * Checks if the non-grouping variables are only referenced as first arguments of
+   * {@code fn:count} or {@code fn:sum}. If this is the case, their values will be aggregated
+   * while the groups are built, and the full sequences will never be materialized.
+   * @param exprs expressions in the scope of the non-grouping variables
+   * @param qc query context
+   */
+  void aggregate(final ArrayList<Expr> exprs, final QueryContext qc) {
+    final int pl = post.length;
+    final int[] refs = new int[pl], counts = new int[pl], sums = new int[pl];
+    final ASTVisitor visitor = new ASTVisitor() {
+      @Override
+      public boolean used(final VarRef ref) {
+        final int p = index(ref.var);
+        if(p != -1) refs[p]++;
+        return true;
+      }
+
+      @Override
+      public boolean funcCall(final StandardFunc call) {
+        final boolean count = call.isFunction(Function.COUNT);
+        if((count || call.isFunction(Function.SUM)) && call.exprs[0] instanceof VarRef) {
+          final int p = index(((VarRef) call.exprs[0]).var);
+          if(p != -1) (count ? counts : sums)[p]++;
+        }
+        return true;
+      }
+    };
+    for(final Expr expr : exprs) expr.accept(visitor);
+
+    for(int p = 0; p < pl; p++) {
+      // values are only summed up in advance if their atomization cannot fail
+      final Type type = preExpr[p].seqType().type;
+      final Agg agg = refs[p] == 0 ? null : counts[p] == refs[p] ? Agg.COUNT :
+        sums[p] == refs[p] && (type instanceof NodeType || type.instanceOf(AtomType.AAT)) ?
+        Agg.SUM : null;
+      if(agg != null && aggs[p] == null) qc.compInfo(OPTAGGR, post[p]);
+      aggs[p] = agg;
+    }
+  }
+
+  /**
+   * Returns the index of a non-grouping variable.
+   * @param var variable
+   * @return index, or {@code -1} if the variable is no non-grouping variable
+   */
+  private int index(final Var var) {
+    final int pl = post.length;
+    for(int p = 0; p < pl; p++) {
+      if(post[p].is(var)) return p;
+    }
+    return -1;
+  }
+
+  /**
+   * Checks if the values of at least one non-grouping variable will be cached.
+   * @return result of check
+   */
+  private boolean cache() {
+    for(final Agg agg : aggs) {
+      if(agg == null) return true;
+    }
+    return false;
+  }
+
   @Override
   public boolean removable(final Var var) {
     for(final Spec b : specs) if(!b.removable(var)) return false;
@@ -257,7 +434,7 @@ public final class GroupBy extends GFLWOR.Clause {
     }
 
     // done
-    return new GroupBy(Arr.copyAll(qc, scp, vs, specs), pEx, ps, nonOcc, info);
+    return new GroupBy(Arr.copyAll(qc, scp, vs, specs), pEx, ps, nonOcc, aggs.clone(), info);
   }
 
   @Override
@@ -275,6 +452,7 @@ public final class GroupBy extends GFLWOR.Clause {
     for(int p = 0; p < post.length; p++) {
       if(!used.get(post[p].id)) {
         preExpr = Array.delete(preExpr, p);
+        aggs = Array.delete(aggs, p);
         post = Array.delete(post, p--);
       }
     }
@@ -395,28 +573,215 @@ public final class GroupBy extends GFLWOR.Clause {
     }
   }
 
+  /**
+   * Aggregation of the values of a non-grouping variable.
+   */
+  private enum Agg {
+    /** Number of items (all references are arguments of {@code fn:count}). */
+    COUNT,
+    /** Sum of items (all references are arguments of {@code fn:sum}). */
+    SUM
+  }
+
   /**
    * A group of tuples of post-grouping variables.
    *
    * @author BaseX Team 2005-15, BSD License
    * @author Leo Woerteler
    */
-  private static final class Group {
+  private final class Group {
     /** Grouping key, may contain {@code null} values. */
     final Item[] key;
-    /** Non-grouping variables. */
+    /** Hash value of the key. */
+    final int hash;
+    /** Non-grouping variables ({@code null} entries: values are aggregated). */
     final ValueBuilder[] ngv;
+    /** Numbers of items of aggregated variables. */
+    final long[] counts;
+    /** Sums of aggregated variables ({@code null} entries: no item has been added yet). */
+    final Item[] sums;
     /** Overflow list. */
     Group next;
 
     /**
      * Constructor.
-     * @param k grouping key
-     * @param ng non-grouping variables
+     * @param key grouping key
+     * @param hash hash value of the key
+     */
+    Group(final Item[] key, final int hash) {
+      this.key = key;
+      this.hash = hash;
+      final int pl = preExpr.length;
+      ngv = new ValueBuilder[pl];
+      for(int p = 0; p < pl; p++) {
+        if(aggs[p] == null) ngv[p] = new ValueBuilder();
+      }
+      counts = new long[pl];
+      sums = new Item[pl];
+    }
+
+    /**
+     * Adds the values of the current tuple.
+     * @param qc query context
+     * @throws QueryException query exception
+     */
+    void add(final QueryContext qc) throws QueryException {
+      final int pl = preExpr.length;
+      for(int p = 0; p < pl; p++) {
+        final Agg agg = aggs[p];
+        if(agg == Agg.SUM) {
+          final Iter iter = preExpr[p].atomIter(qc, info);
+          for(Item it; (it = iter.next()) != null;) sum(p, it);
+        } else {
+          final Value val = preExpr[p].value(qc);
+          if(agg == Agg.COUNT) counts[p] += val.size();
+          else ngv[p].add(val);
+        }
+      }
+    }
+
+    /**
+     * Adds the values of a tuple that has been created by {@link #tuple()}.
+     * @param tuple tuple
+     * @throws QueryException query exception
+     */
+    void add(final Value[] tuple) throws QueryException {
+      final int pl = preExpr.length;
+      for(int p = 0; p < pl; p++) {
+        final Value val = tuple[nonOcc + p];
+        final Agg agg = aggs[p];
+        if(agg == Agg.COUNT) {
+          counts[p] += ((Int) val).itr();
+        } else if(agg == Agg.SUM) {
+          if(val != null) for(final Item it : val) sum(p, it);
+        } else {
+          ngv[p].add(val);
+        }
+      }
+    }
+
+    /**
+     * Adds an item to a sum. If the item cannot be added, all remaining items will be cached,
+     * and the error will be raised when {@code fn:sum} is evaluated.
+     * @param p index of the variable
+     * @param it item
+     */
+    private void sum(final int p, final Item it) {
+      if(ngv[p] == null) {
+        try {
+          sums[p] = GroupBy.this.sum(sums[p], it);
+          return;
+        } catch(final QueryException ex) {
+          Util.debug(ex);
+          ngv[p] = new ValueBuilder();
+          if(sums[p] != null) ngv[p].add(sums[p]);
+        }
+      }
+      ngv[p].add(it);
+    }
+
+    /**
+     * Returns the value of a non-grouping variable.
+     * @param p index of the variable
+     * @return value
+     */
+    Value value(final int p) {
+      if(ngv[p] != null) return ngv[p].value();
+      if(aggs[p] == Agg.SUM) return sums[p] == null ? Empty.SEQ : sums[p];
+      // only the number of items will be requested
+      final long c = counts[p];
+      return c == 0 ? Empty.SEQ : RangeSeq.get(1, c, true);
+    }
+
+    /**
+     * Returns a tuple with the key and the (aggregated) values of the non-grouping variables.
+     * @return tuple
+     */
+    Value[] tuple() {
+      final int pl = preExpr.length;
+      final Value[] tuple = Arrays.copyOf(key, nonOcc + pl, Value[].class);
+      for(int p = 0; p < pl; p++) {
+        tuple[nonOcc + p] = ngv[p] != null ? ngv[p].value() :
+          aggs[p] == Agg.COUNT ? Int.get(counts[p]) : sums[p];
+      }
+      return tuple;
+    }
+  }
+
+  /**
+   * Groups in main memory.
+   */
+  private final class Groups {
+    /** Groups, in the order of their creation. */
+    private final ArrayList<Group> list = new ArrayList<>();
+    /** Hash table for the groups. */
+    private final IntObjMap<Group> map = new IntObjMap<>();
+    /** Collations of the non-occluded grouping specs. */
+    private final Collation[] colls = new Collation[nonOcc];
+    /** Number of created groups and cached tuples. */
+    int size;
+
+    /**
+     * Constructor.
+     */
+    Groups() {
+      int c = 0;
+      for(final Spec spec : specs) {
+        if(!spec.occluded) colls[c++] = spec.coll;
+      }
+    }
+
+    /**
+     * Returns the group for the specified key. A new group will be created if none exists.
+     * @param key grouping key
+     * @param hash hash value of the key
+     * @return group
+     * @throws QueryException query exception
+     */
+    Group get(final Item[] key, final int hash) throws QueryException {
+      // find the group for this key
+      final Group fst = map.get(hash);
+      for(Group g = fst; g != null; g = g.next) {
+        if(eq(key, g.key, colls)) return g;
+      }
+
+      // new group, add it to the list
+      final Group grp = new Group(key, hash);
+      list.add(grp);
+      size++;
+
+      // insert the group into the hash table
+      if(fst == null) {
+        map.put(hash, grp);
+      } else {
+        final Group nxt = fst.next;
+        fst.next = grp;
+        grp.next = nxt;
+      }
+      return grp;
+    }
+
+    /**
+     * Writes all groups to partitions on disk.
+     * @param depth recursion depth
+     * @param qc query context
+     * @return partitions
+     * @throws QueryException query exception
+     */
+    TupleFile[] spill(final int depth, final QueryContext qc) throws QueryException {
+      final TupleFile[] files = new TupleFile[PARTS];
+      for(int f = 0; f < PARTS; f++) files[f] = TupleFile.create(qc, info);
+      for(final Group grp : list) files[partition(grp.hash, depth)].write(grp.tuple());
+      return files;
+    }
+
+    /**
+     * Returns the groups as array.
+     * @return groups
      */
-    Group(final Item[] k, final ValueBuilder[] ng) {
-      key = k;
-      ngv = ng;
+    Group[] toArray() {
+      // copy the array so the list can be garbage-collected
+      return list.toArray(new Group[list.size()]);
     }
   }
 }
@@ -4,8 +4,8 @@ import static org.basex.query.QueryError.*;
 import static org.basex.query.QueryText.*;
 
 import java.util.*;
-import java.util.List;
 
+import org.basex.core.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.expr.gflwor.GFLWOR.Eval;
@@ -44,23 +44,43 @@ public final class OrderBy extends GFLWOR.Clause {
 
   @Override
   Eval eval(final Eval sub) {
+    return eval(sub, Long.MAX_VALUE);
+  }
+
+  /**
+   * Evaluates the clause. If a limit is specified, only the tuples with the smallest keys
+   * will be kept in main memory and returned.
+   * @param sub wrapped evaluator
+   * @param limit maximum number of returned tuples
+   * @return evaluator
+   */
+  Eval eval(final Eval sub, final long limit) {
     return new Eval() {
-      /** Sorted output tuples. */
-      private Value[][] tpls;
-      /** Permutation of the values. */
-      private Integer[] perm;
+      /** Tuples in main memory. */
+      private Tuples tuples;
+      /** Permutation of the tuples in main memory. */
+      private int[] perm;
+      /** Sorted runs on disk ({@code null} if all tuples are kept in main memory). */
+      private Runs runs;
       /** Current position. */
-      int pos;
+      private int pos;
+
       @Override
       public boolean next(final QueryContext qc) throws QueryException {
-        if(tpls == null) sort(qc);
-        if(pos == tpls.length) return false;
-        final int p = perm[pos++];
-        final Value[] tuple = tpls[p];
-        // free the space occupied by the tuple
-        tpls[p] = null;
+        if(tuples == null) init(qc);
+        final Value[] vals;
+        if(runs != null) {
+          vals = runs.next();
+          if(vals == null) return false;
+        } else {
+          if(pos == perm.length) return false;
+          final int p = perm[pos++];
+          vals = tuples.vals[p];
+          // free the space occupied by the tuple
+          tuples.vals[p] = null;
+        }
         final int rl = refs.length;
-        for(int r = 0; r < rl; r++) qc.set(refs[r].var, tuple[r], info);
+        for(int r = 0; r < rl; r++) qc.set(refs[r].var, vals[r], info);
         return true;
       }
 
@@ -69,65 +89,158 @@ public final class OrderBy extends GFLWOR.Clause {
        * @param qc query context
        * @throws QueryException evaluation exception
        */
-      private void sort(final QueryContext qc) throws QueryException {
-        // keys are stored at odd positions, values at even ones
-        List<Value[]> tuples = new ArrayList<>();
-        while(sub.next(qc)) {
-          final int kl = keys.length;
-          final Item[] key = new Item[kl];
-          for(int k = 0; k < kl; k++) key[k] = keys[k].expr.atomItem(qc, keys[k].info);
-          tuples.add(key);
-
-          final int rl = refs.length;
-          final Value[] vals = new Value[rl];
-          for(int r = 0; r < rl; r++) vals[r] = refs[r].value(qc);
-          tuples.add(vals);
+      private void init(final QueryContext qc) throws QueryException {
+        tuples = new Tuples();
+        final int spill = qc.context.options.get(MainOptions.SPILLSIZE);
+        if(limit < Integer.MAX_VALUE && (spill <= 0 || limit <= spill)) {
+          perm = top(qc, (int) limit);
+          return;
+        }
+
+        final ArrayList<TupleFile> files = new ArrayList<>();
+        for(long seq = 0; sub.next(qc); seq++) {
+          tuples.add(keys(qc), values(qc), seq);
+          if(tuples.size == spill) {
+            // write sorted tuples to disk
+            files.add(write(qc));
+            tuples = new Tuples();
+          }
+        }
+        if(files.isEmpty()) {
+          perm = sort(tuples);
+        } else {
+          if(tuples.size != 0) files.add(write(qc));
+          tuples = new Tuples();
+          runs = new Runs(files.toArray(new TupleFile[files.size()]));
         }
+      }
 
-        final int len = tuples.size() >>> 1;
-        final Item[][] ks = new Item[len][];
-        perm = new Integer[len];
-        tpls = new Value[len][];
-        for(int i = 0; i < len; i++) {
-          perm[i] = i;
-          tpls[i] = tuples.get(i << 1 | 1);
-          ks[i] = (Item[]) tuples.get(i << 1);
+      /**
+       * Caches the tuples with the smallest keys, and sorts them.
+       * @param qc query context
+       * @param k maximum number of tuples
+       * @return permutation of the cached tuples
+       * @throws QueryException evaluation exception
+       */
+      private int[] top(final QueryContext qc, final int k) throws QueryException {
+        if(k == 0) return new int[0];
+
+        // heap, containing the largest cached tuple at the top
+        final Tuples tp = tuples;
+        final IndexOrder order = new IndexOrder() {
+          @Override
+          int compare(final int a, final int b) throws QueryException {
+            return -tp.compare(a, b);
+          }
+        };
+        int[] heap = new int[Math.min(k, Array.CAPACITY)];
+        for(long seq = 0; sub.next(qc); seq++) {
+          final Item[] ks = keys(qc);
+          final int size = tp.size;
+          if(size < k) {
+            if(size == heap.length) heap = Arrays.copyOf(heap, Math.min(k, Array.newSize(size)));
+            heap[size] = size;
+            tp.add(ks, values(qc), seq);
+            order.siftUp(heap, size);
+          } else if(OrderBy.this.compare(ks, tp.keys[heap[0]]) < 0) {
+            // replace largest tuple (tuples with equal keys are kept in input order)
+            tp.set(heap[0], ks, values(qc), seq);
+            order.siftDown(heap, 0, size);
+          }
         }
-        // be nice to the garbage collector
-        tuples = null;
-        try {
-          Arrays.sort(perm, new Comparator<Integer>() {
-            @Override
-            public int compare(final Integer x, final Integer y) {
-              try {
-                final Item[] a = ks[x], b = ks[y];
-                final int kl = keys.length;
-                for(int k = 0; k < kl; k++) {
-                  final Key or = keys[k];
-                  Item m = a[k], n = b[k];
-                  if(m == Dbl.NAN || m == Flt.NAN) m = null;
-                  if(n == Dbl.NAN || n == Flt.NAN) n = null;
-                  if(m != null && n != null && !m.comparable(n))
-                    throw castError(or.info, n, m.type);
-
-                  final int c = m == null
-                      ? n == null ? 0                 : or.least ? -1 : 1
-                      : n == null ? or.least ? 1 : -1 : m.diff(n, or.coll, or.info);
-                  if(c != 0) return or.desc ? -c : c;
-                }
-                return 0;
-              } catch(final QueryException ex) {
-                throw new QueryRTException(ex);
-              }
-            }
-          });
-        } catch(final QueryRTException ex) {
-          throw ex.getCause();
+        return sort(tp);
+      }
+
+      /**
+       * Sorts the tuples in main memory and writes them to a temporary file.
+       * @param qc query context
+       * @return file
+       * @throws QueryException evaluation exception
+       */
+      private TupleFile write(final QueryContext qc) throws QueryException {
+        final TupleFile tf = TupleFile.create(qc, info);
+        final int kl = keys.length, rl = refs.length;
+        for(final int p : sort(tuples)) {
+          // values are followed by keys
+          final Value[] tuple = Arrays.copyOf(tuples.vals[p], rl + kl);
+          System.arraycopy(tuples.keys[p], 0, tuple, rl, kl);
+          tf.write(tuple);
         }
+        tf.finish();
+        return tf;
+      }
+
+      /**
+       * Returns the sort keys of the current tuple.
+       * @param qc query context
+       * @return keys
+       * @throws QueryException evaluation exception
+       */
+      private Item[] keys(final QueryContext qc) throws QueryException {
+        final int kl = keys.length;
+        final Item[] ks = new Item[kl];
+        for(int k = 0; k < kl; k++) ks[k] = keys[k].expr.atomItem(qc, keys[k].info);
+        return ks;
+      }
+
+      /**
+       * Returns the values of the current tuple.
+       * @param qc query context
+       * @return values
+       * @throws QueryException evaluation exception
+       */
+      private Value[] values(final QueryContext qc) throws QueryException {
+        final int rl = refs.length;
+        final Value[] vals = new Value[rl];
+        for(int r = 0; r < rl; r++) vals[r] = refs[r].value(qc);
+        return vals;
       }
     };
   }
 
+  /**
+   * Returns a stable sort order of the specified tuples.
+   * @param tuples tuples
+   * @return permutation
+   * @throws QueryException query exception
+   */
+  private static int[] sort(final Tuples tuples) throws QueryException {
+    final int size = tuples.size;
+    final int[] perm = new int[size];
+    for(int p = 0; p < size; p++) perm[p] = p;
+    new IndexOrder() {
+      @Override
+      int compare(final int a, final int b) throws QueryException {
+        return tuples.compare(a, b);
+      }
+    }.sort(perm);
+    return perm;
+  }
+
+  /**
+   * Compares two lists of sort keys.
+   * @param a first keys
+   * @param b second keys
+   * @return result of comparison
+   * @throws QueryException query exception
+   */
+  private int compare(final Item[] a, final Item[] b) throws QueryException {
+    final int kl = keys.length;
+    for(int k = 0; k < kl; k++) {
+      final Key or = keys[k];
+      Item m = a[k], n = b[k];
+      if(m == Dbl.NAN || m == Flt.NAN) m = null;
+      if(n == Dbl.NAN || n == Flt.NAN) n = null;
+      if(m != null && n != null && !m.comparable(n)) throw castError(or.info, n, m.type);
+
+      final int c = m == null
+          ? n == null ? 0                 : or.least ? -1 : 1
+          : n == null ? or.least ? 1 : -1 : m.diff(n, or.coll, or.info);
+      if(c != 0) return or.desc ? -c : c;
+    }
+    return 0;
+  }
+
   @Override
   public void plan(final FElem plan) {
     final FElem e = planElem();
@@ -287,4 +400,228 @@ public final class OrderBy extends GFLWOR.Clause {
       return expr.exprSize();
     }
   }
+
+  /**
+   * Tuples in main memory.
+   */
+  private final class Tuples {
+    /** Sort keys. */
+    private Item[][] keys = new Item[Array.CAPACITY][];
+    /** Values. */
+    private Value[][] vals = new Value[Array.CAPACITY][];
+    /** Input positions. */
+    private long[] seqs = new long[Array.CAPACITY];
+    /** Number of tuples. */
+    private int size;
+
+    /**
+     * Adds a tuple.
+     * @param ks sort keys
+     * @param vs values
+     * @param seq input position
+     */
+    void add(final Item[] ks, final Value[] vs, final long seq) {
+      if(size == keys.length) {
+        final int s = Array.newSize(size);
+        keys = Arrays.copyOf(keys, s);
+        vals = Arrays.copyOf(vals, s);
+        seqs = Arrays.copyOf(seqs, s);
+      }
+      set(size++, ks, vs, seq);
+    }
+
+    /**
+     * Replaces a tuple.
+     * @param i index
+     * @param ks sort keys
+     * @param vs values
+     * @param seq input position
+     */
+    void set(final int i, final Item[] ks, final Value[] vs, final long seq) {
+      keys[i] = ks;
+      vals[i] = vs;
+      seqs[i] = seq;
+    }
+
+    /**
+     * Compares two tuples. Tuples with equal keys are ordered by their input positions.
+     * @param a index of first tuple
+     * @param b index of second tuple
+     * @return result of comparison
+     * @throws QueryException query exception
+     */
+    int compare(final int a, final int b) throws QueryException {
+      final int c = OrderBy.this.compare(keys[a], keys[b]);
+      return c != 0 ? c : seqs[a] < seqs[b] ? -1 : seqs[a] > seqs[b] ? 1 : 0;
+    }
+  }
+
+  /**
+   * Sorted runs on disk, which are merged while being read.
+   */
+  private final class Runs extends IndexOrder {
+    /** Runs (in input order). */
+    private final TupleFile[] files;
+    /** Current tuples of all runs. */
+    private final Value[][] tuples;
+    /** Sort keys of the current tuples. */
+    private final Item[][] ks;
+    /** Heap, containing the run with the smallest tuple at the top. */
+    private final int[] heap;
+    /** Number of runs on the heap. */
+    private int size;
+
+    /**
+     * Constructor.
+     * @param files runs
+     * @throws QueryException query exception
+     */
+    Runs(final TupleFile[] files) throws QueryException {
+      this.files = files;
+      final int fl = files.length;
+      tuples = new Value[fl][];
+      ks = new Item[fl][];
+      heap = new int[fl];
+      for(int f = 0; f < fl; f++) {
+        read(f);
+        heap[size] = f;
+        siftUp(heap, size++);
+      }
+    }
+
+    /**
+     * Returns the next tuple.
+     * @return tuple or {@code null}
+     * @throws QueryException query exception
+     */
+    Value[] next() throws QueryException {
+      if(size == 0) return null;
+      final int f = heap[0];
+      final Value[] tuple = tuples[f];
+      if(!read(f)) heap[0] = heap[--size];
+      siftDown(heap, 0, size);
+      return tuple;
+    }
+
+    /**
+     * Reads the next tuple of a run.
+     * @param f index of run
+     * @return {@code true} if a tuple was read
+     * @throws QueryException query exception
+     */
+    private boolean read(final int f) throws QueryException {
+      final Value[] tuple = files[f].read();
+      tuples[f] = tuple;
+      if(tuple == null) return false;
+      final int kl = keys.length, rl = refs.length;
+      final Item[] k = new Item[kl];
+      for(int i = 0; i < kl; i++) k[i] = (Item) tuple[rl + i];
+      ks[f] = k;
+      return true;
+    }
+
+    @Override
+    int compare(final int a, final int b) throws QueryException {
+      // runs are ordered by their input positions
+      final int c = OrderBy.this.compare(ks[a], ks[b]);
+      return c != 0 ? c : a - b;
+    }
+  }
+
+  /**
+   * Order of integer indexes, which are sorted and organized in heaps.
+   */
+  private abstract static class IndexOrder {
+    /**
+     * Compares two indexes.
+     * @param a first index
+     * @param b second index
+     * @return result of comparison
+     * @throws QueryException query exception
+     */
+    abstract int compare(int a, int b) throws QueryException;
+
+    /**
+     * Sorts the specified indexes (merge sort).
+     * @param perm indexes
+     * @throws QueryException query exception
+     */
+    final void sort(final int[] perm) throws QueryException {
+      sort(perm.clone(), perm, 0, perm.length);
+    }
+
+    /**
+     * Sorts a range of indexes.
+     * @param src source indexes
+     * @param dst target indexes (must have the same contents as the source)
+     * @param lo index of first entry
+     * @param hi index of last entry + 1
+     * @throws QueryException query exception
+     */
+    private void sort(final int[] src, final int[] dst, final int lo, final int hi)
+        throws QueryException {
+
+      if(hi - lo < 7) {
+        // insertion sort on small ranges
+        for(int i = lo + 1; i < hi; i++) {
+          final int e = dst[i];
+          int j = i;
+          for(; j > lo && compare(dst[j - 1], e) > 0; j--) dst[j] = dst[j - 1];
+          dst[j] = e;
+        }
+        return;
+      }
+      final int mid = lo + hi >>> 1;
+      sort(dst, src, lo, mid);
+      sort(dst, src, mid, hi);
+      // skip merge if both halves are already in order
+      if(compare(src[mid - 1], src[mid]) <= 0) {
+        System.arraycopy(src, lo, dst, lo, hi - lo);
+        return;
+      }
+      for(int i = lo, p = lo, q = mid; i < hi; i++) {
+        dst[i] = q >= hi || p < mid && compare(src[p], src[q]) <= 0 ? src[p++] : src[q++];
+      }
+    }
+
+    /**
+     * Moves a heap entry upwards (the smallest entry is placed at the top).
+     * @param heap heap
+     * @param i index of entry
+     * @throws QueryException query exception
+     */
+    final void siftUp(final int[] heap, final int i) throws QueryException {
+      final int e = heap[i];
+      int c = i;
+      while(c > 0) {
+        final int p = c - 1 >>> 1;
+        if(compare(heap[p], e) <= 0) break;
+        heap[c] = heap[p];
+        c = p;
+      }
+      heap[c] = e;
+    }
+
+    /**
+     * Moves a heap entry downwards (the smallest entry is placed at the top).
+     * @param heap heap
+     * @param i index of entry
+     * @param size size of heap
+     * @throws QueryException query exception
+     */
+    final void siftDown(final int[] heap, final int i, final int size) throws QueryException {
+      if(size == 0) return;
+      final int e = heap[i];
+      int p = i;
+      while(true) {
+        int c = (p << 1) + 1;
+        if(c >= size) break;
+        if(c + 1 < size && compare(heap[c + 1], heap[c]) < 0) c++;
+        if(compare(e, heap[c]) <= 0) break;
+        heap[p] = heap[c];
+        p = c;
+      }
+      heap[p] = e;
+    }
+  }
 }
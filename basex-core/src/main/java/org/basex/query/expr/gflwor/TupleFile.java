@@ -0,0 +1,282 @@
+package org.basex.query.expr.gflwor;
+
+import static org.basex.query.QueryError.*;
+
+import java.io.*;
+import java.util.*;
+
+import org.basex.core.*;
+import org.basex.data.*;
+import org.basex.io.*;
+import org.basex.io.in.DataInput;
+import org.basex.io.out.DataOutput;
+import org.basex.query.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.query.value.seq.*;
+import org.basex.query.value.type.*;
+import org.basex.util.*;
+
+/**
+ * Temporary file, to which the tuples of a FLWOR clause are written if their number exceeds
+ * the main memory budget (see {@link MainOptions#SPILLSIZE}).
+ *
+ * Atomic items and database nodes are written to disk. All other items, such as fragments,
+ * function items and QNames, remain referenced in main memory, as their identity or
+ * static context would otherwise be lost.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class TupleFile {
+  /** Entry type: item in main memory. */
+  private static final int MEMORY = 1;
+  /** Entry type: atomic item. */
+  private static final int ATOMIC = 2;
+  /** Entry type: database node. */
+  private static final int NODE = 3;
+
+  /** Objects that are referenced in main memory (items and data references). */
+  private final ArrayList<Object> objects = new ArrayList<>();
+  /** Positions of referenced data instances. */
+  private final IdentityHashMap<Data, Integer> datas = new IdentityHashMap<>();
+  /** Types, indexed by their ids (lazily assigned). */
+  private final Type[] types = new Type[256];
+  /** Query context. */
+  private final QueryContext qc;
+  /** Input info. */
+  private final InputInfo info;
+  /** File. */
+  private final IOFile file;
+  /** Output stream ({@code null} if file is being read). */
+  private DataOutput out;
+  /** Input stream ({@code null} if file has not been completely written yet). */
+  private DataInput in;
+  /** Number of tuples to be read. */
+  private long size;
+
+  /**
+   * Constructor.
+   * @param qc query context
+   * @param info input info
+   * @throws QueryException query exception
+   */
+  private TupleFile(final QueryContext qc, final InputInfo info) throws QueryException {
+    this.qc = qc;
+    this.info = info;
+    try {
+      file = new IOFile(File.createTempFile(Prop.NAME, IO.BASEXSUFFIX));
+      out = new DataOutput(file);
+    } catch(final IOException ex) {
+      throw IOERR_X.get(info, ex);
+    }
+  }
+
+  /**
+   * Creates a new temporary file, which will be deleted when the query is closed.
+   * @param qc query context
+   * @param info input info
+   * @return file
+   * @throws QueryException query exception
+   */
+  static TupleFile create(final QueryContext qc, final InputInfo info) throws QueryException {
+    TupleFiles files;
+    synchronized(qc.resources) {
+      files = qc.resources.get(TupleFiles.class);
+      if(files == null) {
+        files = new TupleFiles();
+        qc.resources.add(files);
+      }
+    }
+    final TupleFile tf = new TupleFile(qc, info);
+    files.add(tf);
+    return tf;
+  }
+
+  /**
+   * Writes a tuple.
+   * @param tuple tuple (entries may be {@code null})
+   * @throws QueryException query exception
+   */
+  void write(final Value[] tuple) throws QueryException {
+    try {
+      out.writeNum(tuple.length);
+      for(final Value value : tuple) {
+        if(value == null) {
+          out.writeNum(0);
+        } else {
+          out.writeNum((int) value.size() + 1);
+          for(final Item it : value) writeItem(it);
+        }
+      }
+      size++;
+    } catch(final IOException ex) {
+      throw IOERR_X.get(info, ex);
+    }
+  }
+
+  /**
+   * Finishes the output. Afterwards, the tuples can be read in the order in which they
+   * have been written.
+   * @throws QueryException query exception
+   */
+  void finish() throws QueryException {
+    try {
+      out.close();
+      out = null;
+      in = new DataInput(file);
+    } catch(final IOException ex) {
+      throw IOERR_X.get(info, ex);
+    }
+  }
+
+  /**
+   * Reads the next tuple.
+   * @return tuple, or {@code null} if all tuples have been read
+   * @throws QueryException query exception
+   */
+  Value[] read() throws QueryException {
+    if(size == 0) {
+      delete();
+      return null;
+    }
+    size--;
+    try {
+      final int tl = in.readNum();
+      final Value[] tuple = new Value[tl];
+      for(int t = 0; t < tl; t++) {
+        final int vs = in.readNum() - 1;
+        if(vs == 0) {
+          tuple[t] = Empty.SEQ;
+        } else if(vs == 1) {
+          tuple[t] = readItem();
+        } else if(vs > 1) {
+          final ValueBuilder vb = new ValueBuilder(vs);
+          for(int v = 0; v < vs; v++) vb.add(readItem());
+          tuple[t] = vb.value();
+        }
+      }
+      return tuple;
+    } catch(final IOException ex) {
+      throw IOERR_X.get(info, ex);
+    }
+  }
+
+  /**
+   * Closes and deletes the file.
+   */
+  void delete() {
+    try {
+      if(out != null) out.close();
+      if(in != null) in.close();
+    } catch(final IOException ex) {
+      Util.debug(ex);
+    }
+    out = null;
+    in = null;
+    size = 0;
+    objects.clear();
+    datas.clear();
+    file.delete();
+  }
+
+  /**
+   * Writes an item.
+   * @param it item
+   * @throws IOException I/O exception
+   * @throws QueryException query exception
+   */
+  private void writeItem(final Item it) throws IOException, QueryException {
+    if(it.getClass() == DBNode.class) {
+      final DBNode node = (DBNode) it;
+      Integer d = datas.get(node.data);
+      if(d == null) {
+        d = objects.size();
+        objects.add(node.data);
+        datas.put(node.data, d);
+      }
+      out.write1(NODE);
+      out.writeNum(d);
+      out.writeNum(node.pre);
+    } else if(atomic(it)) {
+      out.write1(ATOMIC);
+      out.write1(it.type.id().asByte() & 0xFF);
+      out.writeToken(it.string(info));
+    } else {
+      out.write1(MEMORY);
+      out.writeNum(objects.size());
+      objects.add(it);
+    }
+  }
+
+  /**
+   * Reads an item.
+   * @return item
+   * @throws IOException I/O exception
+   * @throws QueryException query exception
+   */
+  private Item readItem() throws IOException, QueryException {
+    switch(in.read()) {
+      case MEMORY:
+        return (Item) objects.get(in.readNum());
+      case NODE:
+        final Data data = (Data) objects.get(in.readNum());
+        return new DBNode(data, in.readNum());
+      default:
+        final Type type = type(in.read());
+        final byte[] value = in.readToken();
+        if(type == AtomType.STR) return Str.get(value);
+        if(type == AtomType.ATM) return new Atm(value);
+        return (Item) type.cast(Str.get(value), qc, null, info);
+    }
+  }
+
+  /**
+   * Checks if the specified item can be restored from its type and string representation.
+   * @param it item
+   * @return result of check
+   */
+  private boolean atomic(final Item it) {
+    if(!(it instanceof AStr || it instanceof Atm || it instanceof ANum || it instanceof Bln ||
+        it instanceof ADateDur || it instanceof Bin)) return false;
+    return type(it.type.id().asByte() & 0xFF) == it.type;
+  }
+
+  /**
+   * Returns the type with the specified id.
+   * @param id type id
+   * @return type (can be {@code null})
+   */
+  private Type type(final int id) {
+    Type type = types[id];
+    if(type == null) {
+      type = Type.ID.getType((byte) id);
+      types[id] = type;
+    }
+    return type;
+  }
+
+  /**
+   * Temporary files of a query, which will be deleted when the query is closed.
+   */
+  static final class TupleFiles implements QueryResource {
+    /** Files. */
+    private final ArrayList<TupleFile> files = new ArrayList<>();
+
+    /**
+     * Adds a file.
+     * @param file file
+     */
+    synchronized void add(final TupleFile file) {
+      files.add(file);
+    }
+
+    @Override
+    public synchronized void close() {
+      for(final TupleFile file : files) file.delete();
+      files.clear();
+    }
+  }
+}
@@ -39,7 +39,7 @@ final class CachedPath extends AxisPath {
     final long cp = qc.pos, cs = qc.size;
     final Value cv = qc.value, r = root != null ? qc.value(root) : cv;
     try {
-      final NodeSeqBuilder nb = new NodeSeqBuilder().check();
+      final DBNodeSeqBuilder nb = new DBNodeSeqBuilder();
       if(r != null) {
         final Iter ir = qc.iter(r);
         for(Item it; (it = ir.next()) != null;) {
@@ -53,7 +53,7 @@ final class CachedPath extends AxisPath {
         qc.value = null;
         iter(0, nb, qc);
       }
-      return nb.sort();
+      return nb;
     } finally {
       qc.value = cv;
       qc.size = cs;
@@ -68,7 +68,7 @@ final class CachedPath extends AxisPath {
    * @param qc query context
    * @throws QueryException query exception
    */
-  private void iter(final int l, final NodeSeqBuilder nc, final QueryContext qc)
+  private void iter(final int l, final DBNodeSeqBuilder nc, final QueryContext qc)
       throws QueryException {
 
     // cast is safe (steps will always return a {@link NodeIter} instance)
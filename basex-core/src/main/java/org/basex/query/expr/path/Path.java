@@ -246,9 +246,8 @@ public abstract class Path extends ParseExpr {
    * @return path nodes or {@code null} if nodes cannot be evaluated
    */
   public final ArrayList<PathNode> pathNodes(final QueryContext qc) {
-    final Value init = initial(qc);
-    final Data data = init != null && init.type == NodeType.DOC ? init.data() : null;
-    if(data == null || !data.meta.uptodate) return null;
+    final Data data = summary(qc);
+    if(data == null) return null;
 
     ArrayList<PathNode> nodes = data.paths.root();
     final int sl = steps.length;
@@ -380,13 +379,8 @@ public abstract class Path extends ParseExpr {
    * @return number of results
    */
   private long size(final QueryContext qc) {
-    final Value rt = initial(qc);
-    // skip computation if value is not a document node
-    if(rt == null || rt.type != NodeType.DOC) return -1;
-    final Data data = rt.data();
-    // skip computation if no database instance is available, is out-of-date or
-    // if context does not contain all database nodes
-    if(data == null || !data.meta.uptodate || data.resources.docs().size() != rt.size()) return -1;
+    final Data data = summary(qc);
+    if(data == null) return -1;
 
     ArrayList<PathNode> nodes = data.paths.root();
     long m = 1;
@@ -409,6 +403,22 @@ public abstract class Path extends ParseExpr {
     return sz * m;
   }
 
+  /**
+   * Returns the database whose path summary reflects the results of this path.
+   * @param qc query context (may be {@code null})
+   * @return data reference or {@code null}
+   */
+  private Data summary(final QueryContext qc) {
+    final Value rt = initial(qc);
+    // skip computation if value is not a document node
+    if(rt == null || rt.type != NodeType.DOC) return null;
+    final Data data = rt.data();
+    // skip computation if no database instance is available, is out-of-date or
+    // if context does not contain all database nodes
+    return data == null || !data.meta.uptodate || data.resources.docs().size() != rt.size() ?
+      null : data;
+  }
+
   /**
    * Returns all summary path nodes for the specified location step or
    * {@code null} if nodes cannot be retrieved or are found on different levels.
@@ -1191,6 +1191,9 @@ public enum Function {
       arg(STR, ITEM), NOD, flag(NDT), XQUERY_URI),
   /** XQuery function. */
   _XQUERY_TYPE(XQueryType.class, "type(value)", arg(ITEM_ZM), ITEM_ZM, XQUERY_URI),
+  /** XQuery function. */
+  _XQUERY_FORK_JOIN(XQueryForkJoin.class, "fork-join(functions)",
+      arg(FUN_ZM), ITEM_ZM, flag(HOF), XQUERY_URI),
 
   /* XSLT Module. */
 
@@ -0,0 +1,356 @@
+package org.basex.query.func;
+
+import java.lang.invoke.*;
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.query.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.util.*;
+
+/**
+ * Call site of a Java function. The candidate constructors, methods or fields are resolved
+ * once for each observed combination of argument types, and the chosen target and the
+ * required argument conversions are cached.
+ *
+ * The cache is replaced atomically when a new combination is found, so a single call site
+ * can be evaluated by multiple threads.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+final class JavaCallSite {
+  /** Maximum number of cached argument signatures. */
+  private static final int MAX = 8;
+  /** Conversion mode: convert argument to Java object (no check required). */
+  private static final byte CAST = 0;
+  /** Conversion mode: convert argument to Java object and check its type. */
+  private static final byte JAVA = 1;
+  /** Conversion mode: pass on argument as value and check its type. */
+  private static final byte VALUE = 2;
+  /** Converters for primitive parameter types. */
+  private static final Map<Class<?>, MethodHandle> CONVERTERS = new ConcurrentHashMap<>();
+
+  /** Class on which non-static targets are invoked ({@code null} for static targets). */
+  private final Class<?> clazz;
+  /** Candidates, in the order in which they will be checked. */
+  private final Target[] targets;
+  /** Cached bindings. */
+  private volatile Binding[] bindings = new Binding[0];
+
+  /**
+   * Constructor.
+   * @param clazz class on which non-static targets are invoked
+   * @param targets candidates
+   */
+  JavaCallSite(final Class<?> clazz, final Target[] targets) {
+    this.clazz = clazz;
+    this.targets = targets;
+  }
+
+  /**
+   * Returns the binding for the specified arguments.
+   * @param args arguments
+   * @param qc query context
+   * @return binding or {@code null} if no candidate accepts the arguments
+   * @throws QueryException query exception
+   */
+  Binding binding(final Value[] args, final QueryContext qc) throws QueryException {
+    final Binding[] bs = bindings;
+    for(final Binding b : bs) {
+      if(b.matches(args)) {
+        qc.javaCall(true);
+        return b;
+      }
+    }
+    qc.javaCall(false);
+
+    for(final Target target : targets) {
+      final byte[] modes = modes(target, args);
+      if(modes == null) continue;
+      final Binding b = new Binding(target, signature(args), modes);
+      // cache binding, unless the call site is megamorphic
+      final int bl = bs.length;
+      if(bl < MAX) {
+        final Binding[] tmp = new Binding[bl + 1];
+        System.arraycopy(bs, 0, tmp, 0, bl);
+        tmp[bl] = b;
+        bindings = tmp;
+      }
+      return b;
+    }
+    return null;
+  }
+
+  /**
+   * Returns the conversion modes for the function parameters of a candidate.
+   * {@code null} is returned if conversion is not possible.
+   * @param target candidate
+   * @param args arguments
+   * @return modes or {@code null}
+   * @throws QueryException query exception
+   */
+  private static byte[] modes(final Target target, final Value[] args) throws QueryException {
+    final Class<?>[] params = target.params;
+    final int s = target.stat ? 0 : 1, l = args.length - s;
+    if(l != params.length) return null;
+
+    final byte[] modes = new byte[l];
+    for(int a = 0; a < l; a++) {
+      final Class<?> param = params[a];
+      final Value arg = args[s + a];
+      if(arg.type.instanceOf(JavaMapping.type(param))) {
+        // convert to Java object if an XQuery type exists for the function parameter
+        modes[a] = CAST;
+      } else {
+        // convert to Java object if
+        // - argument is of type {@link Jav}, wrapping a Java object, or
+        // - function parameter is not of type {@link Value}, or a sub-class of it
+        final boolean java = arg instanceof Jav || !Value.class.isAssignableFrom(param);
+        // abort conversion if argument is not an instance of function parameter
+        if(!param.isInstance(java ? arg.toJava() : arg)) return null;
+        modes[a] = java ? JAVA : VALUE;
+      }
+    }
+    return modes;
+  }
+
+  /**
+   * Returns the signature of the specified arguments.
+   * The signature consists of the class and type of each argument, and the class of Java
+   * objects that are wrapped by arguments of type {@link Jav}.
+   * @param args arguments
+   * @return signature
+   */
+  private static Object[] signature(final Value[] args) {
+    final int al = args.length;
+    final Object[] sig = new Object[al * 3];
+    for(int a = 0; a < al; a++) {
+      final Value arg = args[a];
+      sig[a * 3] = arg.getClass();
+      sig[a * 3 + 1] = arg.type;
+      sig[a * 3 + 2] = wrapped(arg);
+    }
+    return sig;
+  }
+
+  /**
+   * Returns the class of a wrapped Java object.
+   * @param arg argument
+   * @return class or {@code null}
+   */
+  private static Class<?> wrapped(final Value arg) {
+    if(!(arg instanceof Jav)) return null;
+    final Object o = ((Jav) arg).toJava();
+    return o == null ? null : o.getClass();
+  }
+
+  /**
+   * Chosen target and argument conversions for a specific argument signature.
+   */
+  final class Binding {
+    /** Target. */
+    private final Target target;
+    /** Argument signature. */
+    private final Object[] sig;
+    /** Conversion modes. */
+    private final byte[] modes;
+
+    /**
+     * Constructor.
+     * @param target target
+     * @param sig argument signature
+     * @param modes conversion modes
+     */
+    private Binding(final Target target, final Object[] sig, final byte[] modes) {
+      this.target = target;
+      this.sig = sig;
+      this.modes = modes;
+    }
+
+    /**
+     * Checks if the binding applies to the specified arguments.
+     * @param args arguments
+     * @return result of check
+     */
+    private boolean matches(final Value[] args) {
+      final int al = args.length;
+      if(al * 3 != sig.length) return false;
+      for(int a = 0; a < al; a++) {
+        final Value arg = args[a];
+        if(sig[a * 3] != arg.getClass() || sig[a * 3 + 1] != arg.type ||
+           sig[a * 3 + 2] != wrapped(arg)) return false;
+      }
+      return true;
+    }
+
+    /**
+     * Invokes the target.
+     * @param args arguments
+     * @param qc query context
+     * @param sc static context
+     * @return result
+     * @throws Exception exception (exceptions raised by the target will be wrapped in an
+     *   {@link InvocationTargetException}, invalid arguments will be rejected with an
+     *   {@link IllegalArgumentException})
+     */
+    Object invoke(final Value[] args, final QueryContext qc, final StaticContext sc)
+        throws Exception {
+
+      final int s = target.stat ? 0 : 1, l = modes.length;
+      final Class<?>[] params = target.params;
+      final Object[] vals = new Object[s + l];
+      if(s != 0) {
+        final Value v = args[0];
+        final Object inst = clazz.isInstance(v) ? v : v.toJava();
+        if(!clazz.isInstance(inst)) throw new IllegalArgumentException("Invalid instance");
+        if(inst instanceof QueryModule) {
+          final QueryModule mod = (QueryModule) inst;
+          mod.staticContext = sc;
+          mod.queryContext = qc;
+        }
+        vals[0] = inst;
+      }
+      final MethodHandle mh = target.handle();
+      for(int a = 0; a < l; a++) {
+        final Value arg = args[s + a];
+        final byte mode = modes[a];
+        final Object val = mode == VALUE ? arg : arg.toJava();
+        final Class<?> param = params[a];
+        if(mode != CAST && !param.isInstance(val)) {
+          throw new IllegalArgumentException("Invalid argument");
+        }
+        vals[s + a] = mode == CAST ? convert(param, val) : val;
+      }
+
+      // conversions have been performed: all remaining errors are raised by the target
+      try {
+        return (Object) mh.invokeExact(vals);
+      } catch(final Throwable th) {
+        throw new InvocationTargetException(th);
+      }
+    }
+  }
+
+  /**
+   * Converts a Java object to the specified parameter type. The conversion rules are the
+   * same as for reflective invocations: primitive values may be unboxed and widened.
+   * @param param parameter type
+   * @param val value to be converted
+   * @return converted value (primitive values will be boxed again)
+   * @throws IllegalArgumentException if the value cannot be converted
+   */
+  private static Object convert(final Class<?> param, final Object val) {
+    if(!param.isPrimitive()) {
+      if(val != null && !param.isInstance(val)) {
+        throw new IllegalArgumentException("Argument type mismatch");
+      }
+      return val;
+    }
+    try {
+      return (Object) converter(param).invokeExact(val);
+    } catch(final Throwable th) {
+      Util.debug(th);
+      throw new IllegalArgumentException("Argument type mismatch");
+    }
+  }
+
+  /**
+   * Returns a method handle that converts an object to the specified primitive type.
+   * @param prim primitive type
+   * @return method handle, expecting and returning an object
+   */
+  private static MethodHandle converter(final Class<?> prim) {
+    MethodHandle mh = CONVERTERS.get(prim);
+    if(mh == null) {
+      mh = MethodHandles.identity(prim).asType(MethodType.methodType(Object.class,
+          Object.class));
+      CONVERTERS.put(prim, mh);
+    }
+    return mh;
+  }
+
+  /**
+   * Candidate constructor, method or field.
+   */
+  static final class Target {
+    /** Parameter types. */
+    private final Class<?>[] params;
+    /** Static flag (if {@code false}, the first argument is the instance). */
+    private final boolean stat;
+    /** Constructor, method or field. */
+    private final Member member;
+    /** Bound instance ({@code null} if no instance is bound). */
+    private final Object inst;
+    /** Method handle, expecting and returning objects ({@code null} if not resolved yet). */
+    private volatile MethodHandle handle;
+
+    /**
+     * Constructor for constructors.
+     * @param con constructor
+     */
+    Target(final Constructor<?> con) {
+      this(con, con.getParameterTypes(), true, null);
+    }
+
+    /**
+     * Constructor for methods.
+     * @param meth method
+     * @param inst instance to which a non-static method will be bound (can be {@code null})
+     */
+    Target(final Method meth, final Object inst) {
+      this(meth, meth.getParameterTypes(), inst != null ||
+          Modifier.isStatic(meth.getModifiers()), inst);
+    }
+
+    /**
+     * Constructor for fields.
+     * @param field field
+     */
+    Target(final Field field) {
+      this(field, new Class<?>[0], Modifier.isStatic(field.getModifiers()), null);
+    }
+
+    /**
+     * Constructor.
+     * @param member member
+     * @param params parameter types
+     * @param stat static flag
+     * @param inst bound instance
+     */
+    private Target(final Member member, final Class<?>[] params, final boolean stat,
+        final Object inst) {
+      this.member = member;
+      this.params = params;
+      this.stat = stat;
+      this.inst = inst;
+    }
+
+    /**
+     * Returns the method handle, which takes a single object array as argument.
+     * @return method handle
+     * @throws IllegalAccessException access exception
+     */
+    private MethodHandle handle() throws IllegalAccessException {
+      MethodHandle mh = handle;
+      if(mh == null) {
+        final MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        if(member instanceof Constructor) {
+          mh = lookup.unreflectConstructor((Constructor<?>) member);
+        } else if(member instanceof Method) {
+          mh = lookup.unreflect((Method) member);
+          if(inst != null && !Modifier.isStatic(member.getModifiers())) mh = mh.bindTo(inst);
+        } else {
+          mh = lookup.unreflectGetter((Field) member);
+        }
+        mh = mh.asFixedArity();
+        mh = mh.asType(mh.type().generic());
+        mh = mh.asSpreader(Object[].class, mh.type().parameterCount());
+        handle = mh;
+      }
+      return mh;
+    }
+  }
+}
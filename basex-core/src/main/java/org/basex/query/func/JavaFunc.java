@@ -4,11 +4,11 @@ import static org.basex.query.QueryError.*;
 import static org.basex.query.QueryText.*;
 
 import java.lang.reflect.*;
+import java.util.*;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.value.*;
-import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
 import org.basex.query.var.*;
 import org.basex.util.*;
@@ -25,6 +25,8 @@ final class JavaFunc extends JavaMapping {
   private final Class<?> clazz;
   /** Java method. */
   private final String method;
+  /** Call site ({@code null} if the function has not been called yet). */
+  private JavaCallSite site;
 
   /**
    * Constructor.
@@ -44,7 +46,12 @@ final class JavaFunc extends JavaMapping {
   @Override
   protected Object eval(final Value[] args, final QueryContext qc) throws QueryException {
     try {
-      return method.equals(NEW) ? constructor(args) : method(args, qc);
+      final JavaCallSite.Binding binding = site().binding(args, qc);
+      if(binding == null) {
+        throw (method.equals(NEW) ? JAVACONSTR_X_X : JAVAMETHOD_X_X).get(info, name(),
+            foundArgs(args));
+      }
+      return binding.invoke(args, qc, sc);
     } catch(final InvocationTargetException ex) {
       final Throwable cause = ex.getCause();
       throw cause instanceof QueryException ? ((QueryException) cause).info(info) :
@@ -63,117 +70,46 @@ final class JavaFunc extends JavaMapping {
   }
 
   /**
-   * Calls a constructor.
-   * @param ar arguments
-   * @return resulting object
-   * @throws Exception exception
-   */
-  private Object constructor(final Value[] ar) throws Exception {
-    for(final Constructor<?> con : clazz.getConstructors()) {
-      final Object[] arg = args(con.getParameterTypes(), null, ar, true);
-      if(arg != null) return con.newInstance(arg);
-    }
-    throw JAVACONSTR_X_X.get(info, name(), foundArgs(ar));
-  }
-
-  /**
-   * Calls a method.
-   * @param ar arguments
-   * @param qc query context
-   * @return resulting object
-   * @throws Exception exception
+   * Returns the call site. The candidates are resolved when the function is called for the
+   * first time: a field with the specified name will be chosen if it exists and if the number
+   * of arguments matches; otherwise, all constructors or methods with the specified name will
+   * be considered.
+   * @return call site
    */
-  private Object method(final Value[] ar, final QueryContext qc) throws Exception {
-    // check if a field with the specified name exists
-    try {
-      final Field f = clazz.getField(method);
-      final boolean st = Modifier.isStatic(f.getModifiers());
-      if(ar.length == (st ? 0 : 1)) {
-        return f.get(st ? null : instObj(ar[0]));
-      }
-    } catch(final NoSuchFieldException ex) { /* ignored */ }
-
-    for(final Method meth : clazz.getMethods()) {
-      if(!meth.getName().equals(method)) continue;
-      final boolean st = Modifier.isStatic(meth.getModifiers());
-      final Object[] arg = args(meth.getParameterTypes(), null, ar, st);
-      if(arg != null) {
-        Object inst = null;
-        if(!st) {
-          inst = instObj(ar[0]);
-          if(inst instanceof QueryModule) {
-            final QueryModule mod = (QueryModule) inst;
-            mod.staticContext = sc;
-            mod.queryContext = qc;
-          }
+  private JavaCallSite site() {
+    JavaCallSite cs = site;
+    if(cs == null) {
+      final ArrayList<JavaCallSite.Target> targets = new ArrayList<>();
+      if(method.equals(NEW)) {
+        for(final Constructor<?> con : clazz.getConstructors()) {
+          targets.add(new JavaCallSite.Target(con));
         }
-        return meth.invoke(inst, arg);
-      }
-    }
-    throw JAVAMETHOD_X_X.get(info, name(), foundArgs(ar));
-  }
-
-  /**
-   * Creates the instance on which a non-static field getter or method is
-   * invoked.
-   * @param v XQuery value
-   * @return Java object
-   * @throws QueryException query exception
-   */
-  private Object instObj(final Value v) throws QueryException {
-    return clazz.isInstance(v) ? v : v.toJava();
-  }
-
-  /**
-   * Converts the arguments to objects that match the specified function parameters.
-   * {@code null} is returned if conversion is not possible.
-   * @param params parameters
-   * @param vTypes value types
-   * @param args arguments
-   * @param stat static flag
-   * @return argument array or {@code null}
-   * @throws QueryException query exception
-   */
-  static Object[] args(final Class<?>[] params, final boolean[] vTypes, final Value[] args,
-      final boolean stat) throws QueryException {
-
-    final int s = stat ? 0 : 1;
-    final int l = args.length - s;
-    if(l != params.length) return null;
-
-    // function arguments
-    final boolean[] vType = vTypes == null ? values(params) : vTypes;
-    final Object[] vals = new Object[l];
-    for(int a = 0; a < l; a++) {
-      final Class<?> param = params[a];
-      final Value arg = args[s + a];
-
-      if(arg.type.instanceOf(type(param))) {
-        // convert to Java object if an XQuery type exists for the function parameter
-        vals[a] = arg.toJava();
       } else {
-        // convert to Java object if
-        // - argument is of type {@link Jav}, wrapping a Java object, or
-        // - function parameter is not of type {@link Value}, or a sub-class of it
-        vals[a] = arg instanceof Jav || !vType[a] ? arg.toJava() : arg;
-        // abort conversion if argument is not an instance of function parameter
-        if(!param.isInstance(vals[a])) return null;
+        final Field field = field();
+        if(field != null) {
+          targets.add(new JavaCallSite.Target(field));
+        } else {
+          for(final Method meth : clazz.getMethods()) {
+            if(meth.getName().equals(method)) targets.add(new JavaCallSite.Target(meth, null));
+          }
+        }
       }
+      cs = new JavaCallSite(clazz, targets.toArray(new JavaCallSite.Target[targets.size()]));
+      site = cs;
     }
-    return vals;
+    return cs;
   }
 
   /**
-   * Returns a boolean array that indicated which of the specified function parameters are of
-   * (sub)class {@link Value}.
-   * @param params parameters
-   * @return array
+   * Returns a field with the specified name if the number of arguments matches.
+   * @return field or {@code null}
    */
-  static boolean[] values(final Class<?>[] params) {
-    final int l = params.length;
-    final boolean[] vals = new boolean[l];
-    for(int a = 0; a < l; a++) vals[a] = Value.class.isAssignableFrom(params[a]);
-    return vals;
+  private Field field() {
+    try {
+      final Field f = clazz.getField(method);
+      if(exprs.length == (Modifier.isStatic(f.getModifiers()) ? 0 : 1)) return f;
+    } catch(final NoSuchFieldException ex) { /* ignored */ }
+    return null;
   }
 
   @Override
@@ -53,6 +53,13 @@ public abstract class JavaMapping extends Arr {
     AtomType.DEC, AtomType.ITR, AtomType.QNM, AtomType.STR, AtomType.STR,
     AtomType.URI, AtomType.URI
   };
+  /** Mapping from Java to XQuery types. */
+  private static final HashMap<Class<?>, Type> TYPES = new HashMap<>();
+
+  static {
+    final int jl = JAVA.length;
+    for(int j = 0; j < jl; ++j) TYPES.put(JAVA[j], XQUERY[j]);
+  }
 
   /** Static context. */
   final StaticContext sc;
@@ -300,9 +307,7 @@ public abstract class JavaMapping extends Arr {
    * @return item type or {@code null} if no appropriate type was found
    */
   static Type type(final Class<?> type) {
-    final int jl = JAVA.length;
-    for(int j = 0; j < jl; ++j) if(JAVA[j] == type) return XQUERY[j];
-    return null;
+    return TYPES.get(type);
   }
 
   /**
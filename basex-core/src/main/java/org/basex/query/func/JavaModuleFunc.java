@@ -26,10 +26,8 @@ final class JavaModuleFunc extends JavaMapping {
   private final Object module;
   /** Method to be called. */
   private final Method method;
-  /** Method parameters. */
-  private final Class<?>[] params;
-  /** Indicates if function parameters are of (sub)class {@link Value}. */
-  private final boolean[] vTypes;
+  /** Call site. */
+  private final JavaCallSite site;
 
   /**
    * Constructor.
@@ -45,8 +43,8 @@ final class JavaModuleFunc extends JavaMapping {
     super(sc, info, args);
     this.module = module;
     this.method = method;
-    params = method.getParameterTypes();
-    vTypes = JavaFunc.values(params);
+    site = new JavaCallSite(null, new JavaCallSite.Target[] {
+      new JavaCallSite.Target(method, module) });
   }
 
   @Override
@@ -63,10 +61,10 @@ final class JavaModuleFunc extends JavaMapping {
       mod.queryContext = qc;
     }
 
-    final Object[] args = JavaFunc.args(params, vTypes, vals, true);
-    if(args != null) {
+    final JavaCallSite.Binding binding = site.binding(vals, qc);
+    if(binding != null) {
       try {
-        return method.invoke(module, args);
+        return binding.invoke(vals, qc, sc);
       } catch(final Exception ex) {
         Throwable e = ex;
         if(e.getCause() != null) {
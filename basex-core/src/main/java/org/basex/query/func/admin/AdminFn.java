@@ -27,4 +27,10 @@ abstract class AdminFn extends StandardFunc {
   static final String TYPE = "type";
   /** QName: ms. */
   static final String MS = "ms";
+  /** QName: state. */
+  static final String STATE = "state";
+  /** Session state: active. */
+  static final String ACTIVE = "active";
+  /** Session state: idle. */
+  static final String IDLE = "idle";
 }
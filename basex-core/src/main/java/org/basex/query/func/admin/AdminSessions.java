@@ -28,6 +28,7 @@ public final class AdminSessions extends AdminFn {
         final Data data = sp.context().data();
         final FElem elem = new FElem(SESSION).add(USER, user).add(ADDRESS, addr);
         if(data != null) elem.add(DATABASE, data.meta.name);
+        elem.add(STATE, sp.idle() ? IDLE : ACTIVE);
         vb.add(elem);
       }
     }
@@ -51,8 +51,8 @@ abstract class DbAccess extends DbFn {
     if(exprs.length <= a) return ia.iter(qc);
 
     // parse and compile the name test
-    final QNm nm = new QNm(toToken(exprs[a], qc), sc);
-    if(!nm.hasPrefix()) nm.uri(sc.ns.uri(Token.EMPTY));
+    final QNm nm = new QNm(toToken(exprs[a], qc), sc, qc);
+    if(!nm.hasPrefix()) nm.uri(sc.ns.uri(Token.EMPTY, qc));
 
     final NameTest nt = new NameTest(nm, NameTest.Kind.URI_NAME, true, sc.elemNS);
     // return empty sequence if test will yield no results
@@ -1,7 +1,10 @@
 package org.basex.query.func.db;
 
+import static org.basex.query.QueryError.*;
 import static org.basex.util.Token.*;
 
+import java.io.*;
+
 import org.basex.io.*;
 import org.basex.query.*;
 import org.basex.query.func.*;
@@ -21,6 +24,8 @@ public final class DbBackups extends StandardFunc {
   private static final String BACKUP = "backup";
   /** Size element name. */
   private static final String SIZE = "size";
+  /** Base element name. */
+  private static final String BASE = "base";
 
   @Override
   public Iter iter(final QueryContext qc) throws QueryException {
@@ -34,11 +39,18 @@ public final class DbBackups extends StandardFunc {
       int up = -1;
 
       @Override
-      public Item next() {
+      public Item next() throws QueryException {
         if(++up >= backups.size()) return null;
         final String backup = backups.get(up);
-        final long length = new IOFile(dbpath, backup + IO.ZIPSUFFIX).length();
-        return new FElem(BACKUP).add(backup).add(SIZE, token(length));
+        final IOFile file = new IOFile(dbpath, backup + IO.ZIPSUFFIX);
+        final FElem elem = new FElem(BACKUP).add(backup).add(SIZE, token(file.length()));
+        try {
+          final String base = Backup.base(file);
+          if(!base.isEmpty()) elem.add(BASE, base);
+        } catch(final IOException ex) {
+          throw IOERR_X.get(info, ex);
+        }
+        return elem;
       }
     };
   }
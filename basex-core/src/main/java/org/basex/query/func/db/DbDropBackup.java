@@ -3,7 +3,10 @@ package org.basex.query.func.db;
 import static org.basex.query.QueryError.*;
 import static org.basex.util.Token.*;
 
+import java.io.*;
+
 import org.basex.core.*;
+import org.basex.core.cmd.*;
 import org.basex.query.*;
 import org.basex.query.up.*;
 import org.basex.query.up.primitives.name.*;
@@ -25,6 +28,12 @@ public final class DbDropBackup extends DbAccess {
 
     final StringList backups = qc.context.databases.backups(name);
     if(backups.isEmpty()) throw BXDB_WHICHBACK_X.get(info, name);
+    try {
+      final String[] based = DropBackup.based(backups, qc.context);
+      if(based != null) throw BXDB_BASEDBACK_X_X.get(info, based[0], based[1]);
+    } catch(final IOException ex) {
+      throw IOERR_X.get(info, ex);
+    }
 
     final Updates updates = qc.resources.updates();
     for(final String backup : backups) updates.add(new BackupDrop(backup, info, qc), qc);
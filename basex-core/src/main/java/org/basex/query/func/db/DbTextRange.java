@@ -1,10 +1,12 @@
 package org.basex.query.func.db;
 
+import org.basex.data.*;
 import org.basex.index.query.*;
 import org.basex.query.*;
 import org.basex.query.expr.*;
 import org.basex.query.iter.*;
 import org.basex.query.util.*;
+import org.basex.query.value.item.*;
 
 /**
  * Function implementation.
@@ -19,18 +21,31 @@ public class DbTextRange extends DbAccess {
   }
 
   /**
-   * Returns a range index accessor.
+   * Returns a range index accessor. If the database has a range index, numbers, dates and
+   * date/times will be looked up in this index. Otherwise, and for all other items, the string
+   * values will be looked up in the text or attribute index.
    * @param text text/attribute flag
    * @param qc query context
    * @return iterator
    * @throws QueryException query exception
    */
-  final StringRangeAccess rangeAccess(final boolean text, final QueryContext qc)
+  final IndexAccess rangeAccess(final boolean text, final QueryContext qc)
       throws QueryException {
 
-    final byte[] min = toToken(exprs[1], qc);
-    final byte[] max = toToken(exprs[2], qc);
-    final StringRange sr = new StringRange(text, min, true, max, true);
-    return new StringRangeAccess(info, sr, new IndexContext(checkData(qc), false));
+    final Data data = checkData(qc);
+    final IndexContext ic = new IndexContext(data, false);
+    final Item min = toAtomItem(exprs[1], qc), max = toAtomItem(exprs[2], qc);
+
+    if(data.meta.rangeindex) {
+      if(min.type.isNumber() && max.type.isNumber()) {
+        return new TypedRangeAccess(info, new TypedRange(text, min.dbl(info), max.dbl(info)), ic);
+      }
+      if((min instanceof Dat || min instanceof Dtm) && min.type == max.type) {
+        return new TypedRangeAccess(info,
+            new TypedRange(text, (ADate) min, true, (ADate) max, true), ic);
+      }
+    }
+    final StringRange sr = new StringRange(text, min.string(info), true, max.string(info), true);
+    return new StringRangeAccess(info, sr, ic);
   }
 }
@@ -2,6 +2,7 @@ package org.basex.query.func.fn;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.expr.path.*;
 import org.basex.query.func.*;
 import org.basex.query.func.map.*;
 import org.basex.query.iter.*;
@@ -36,7 +37,11 @@ public final class FnCount extends StandardFunc {
     if(e.has(Flag.NDT) || e.has(Flag.UPD) || e instanceof VarRef) return this;
 
     final long c = e.size();
-    if(c >= 0) return Int.get(c);
+    if(c >= 0) {
+      // sizes of paths are computed from the path summary
+      if(e instanceof Path) qc.compInfo(QueryText.OPTSUMMARY, this);
+      return Int.get(c);
+    }
 
     if(e instanceof MapKeys) {
       return Function._MAP_SIZE.get(sc, info, ((MapKeys) e).exprs);
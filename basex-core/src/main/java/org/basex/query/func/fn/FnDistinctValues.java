@@ -97,6 +97,7 @@ public final class FnDistinctValues extends StandardFunc {
       for(final byte[] c : pn.stats.cats) is.put(new Atm(c), info);
     }
     // return resulting sequence
+    qc.compInfo(QueryText.OPTSUMMARY, this);
     final ValueBuilder vb = new ValueBuilder(is.size());
     for(final Item i : is) vb.add(i);
     return vb.value();
@@ -2,6 +2,7 @@ package org.basex.query.func.fn;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.expr.path.*;
 import org.basex.query.func.*;
 import org.basex.query.value.item.*;
 import org.basex.query.var.*;
@@ -23,7 +24,9 @@ public final class FnEmpty extends StandardFunc {
   protected Expr opt(final QueryContext qc, final VarScope scp) {
     // ignore non-deterministic expressions (e.g.: error())
     final Expr e = exprs[0];
-    return e.size() == -1 || e.has(Flag.NDT) || e.has(Flag.CNS) || e.has(Flag.UPD) ? this :
-      Bln.get(e.size() == 0);
+    if(e.size() == -1 || e.has(Flag.NDT) || e.has(Flag.CNS) || e.has(Flag.UPD)) return this;
+    // sizes of paths are computed from the path summary
+    if(e instanceof Path) qc.compInfo(QueryText.OPTSUMMARY, this);
+    return Bln.get(e.size() == 0);
   }
 }
@@ -2,6 +2,7 @@ package org.basex.query.func.fn;
 
 import org.basex.query.*;
 import org.basex.query.expr.*;
+import org.basex.query.expr.gflwor.*;
 import org.basex.query.func.*;
 import org.basex.query.iter.*;
 import org.basex.query.value.*;
@@ -136,9 +137,23 @@ public final class FnSubsequence extends StandardFunc {
   }
 
   @Override
-  protected Expr opt(final QueryContext qc, final VarScope scp) {
-    final SeqType st = exprs[0].seqType();
+  protected Expr opt(final QueryContext qc, final VarScope scp) throws QueryException {
+    final Expr ex = exprs[0];
+    final SeqType st = ex.seqType();
     seqType = SeqType.get(st.type, st.zeroOrOne() ? Occ.ZERO_ONE : Occ.ZERO_MORE);
+
+    // limit number of requested results of FLWOR expression
+    if(ex instanceof GFLWOR) {
+      final int el = exprs.length;
+      for(int e = 1; e < el; e++) if(!exprs[e].isValue()) return this;
+      final long[] range = range(qc);
+      if(range == null) {
+        ((GFLWOR) ex).limit(0, qc);
+      } else if(range != ALL && range[1] != Long.MAX_VALUE) {
+        final long end = range[0] + range[1] - 1;
+        if(end >= 0) ((GFLWOR) ex).limit(end, qc);
+      }
+    }
     return this;
   }
 }
@@ -0,0 +1,152 @@
+package org.basex.query.func.xquery;
+
+import static org.basex.query.QueryError.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.core.*;
+import org.basex.query.*;
+import org.basex.query.ann.*;
+import org.basex.query.func.*;
+import org.basex.query.iter.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.seq.*;
+import org.basex.util.*;
+
+/**
+ * Function implementation.
+ *
+ * The specified functions are evaluated in parallel by the worker threads of the database
+ * context (see {@link ForkPool}). Each function is invoked with a separate query context,
+ * which shares the resources of the calling query, and function items are evaluated with
+ * separate copies of their function bodies. No additional locks are acquired:
+ * all databases that may be accessed by the functions have already been locked for the
+ * calling query.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class XQueryForkJoin extends StandardFunc {
+  /** Interval for checking if the calling query has been stopped (ms). */
+  private static final long INTERVAL = 100;
+
+  @Override
+  public Iter iter(final QueryContext qc) throws QueryException {
+    return value(qc).iter();
+  }
+
+  @Override
+  public Value value(final QueryContext qc) throws QueryException {
+    final Value value = exprs[0].value(qc);
+    final int size = (int) value.size();
+    final ArrayList<FItem> funcs = new ArrayList<>(size);
+    for(final Item it : value) {
+      final FItem func = checkArity(it, 0, qc);
+      if(func.annotations().contains(Annotation.UPDATING)) throw BXXQ_UPDATING.get(info);
+      funcs.add(func);
+    }
+    if(size == 0) return Empty.SEQ;
+    if(size == 1) return funcs.get(0).invokeValue(qc, info);
+
+    // assign date and time before evaluation, as it must be identical for all functions
+    qc.initDateTime();
+    final QueryContext[] qcs = new QueryContext[size];
+    for(int f = 0; f < size; f++) qcs[f] = branch(qc);
+
+    final ArrayList<FutureTask<Value>> futures = new ArrayList<>(size);
+    for(int f = 0; f < size; f++) {
+      final int index = f;
+      final QueryContext qctx = qcs[f];
+      final FItem fi = funcs.get(f);
+      final FItem func = fi instanceof FuncItem ? ((FuncItem) fi).copy(qctx) : fi;
+      futures.add(new FutureTask<>(new Callable<Value>() {
+        @Override
+        public Value call() throws QueryException {
+          try {
+            return func.invokeValue(qctx, info);
+          } catch(final QueryException | RuntimeException ex) {
+            // stop subsequent functions: errors of preceding functions take precedence
+            for(int q = index + 1; q < size; q++) qcs[q].stop();
+            throw ex;
+          } finally {
+            qctx.close();
+          }
+        }
+      }));
+    }
+    try {
+      for(final FutureTask<Value> future : futures) qc.context.forks.execute(future);
+
+      // wait for all functions, and pass on the first exception that is not caused by a stop
+      final ValueBuilder vb = new ValueBuilder();
+      Throwable error = null;
+      for(final Future<Value> future : futures) {
+        try {
+          final Value v = get(future, qc, qcs);
+          if(error == null) vb.add(v);
+        } catch(final ExecutionException ex) {
+          final Throwable th = ex.getCause();
+          if(error == null || error instanceof ProcException) error = th;
+        }
+      }
+      if(error instanceof QueryException) throw (QueryException) error;
+      if(error instanceof RuntimeException) throw (RuntimeException) error;
+      if(error instanceof Error) throw (Error) error;
+      return vb.value();
+    } finally {
+      // stop functions that are still running or have not been started yet
+      for(final FutureTask<Value> future : futures) future.cancel(false);
+    }
+  }
+
+  /**
+   * Creates a query context for evaluating a function in a separate thread.
+   * @param qc calling query context
+   * @return query context
+   */
+  private static QueryContext branch(final QueryContext qc) {
+    final QueryContext qctx = new QueryContext(qc);
+    qctx.http = qc.http;
+    qctx.stop = qc.stop;
+    qctx.thes = qc.thes;
+    qctx.scoring = qc.scoring;
+    qctx.maxCalls = qc.maxCalls;
+    qctx.ftOpt(qc.ftOpt());
+    qctx.date = qc.date;
+    qctx.dtm = qc.dtm;
+    qctx.time = qc.time;
+    qctx.zone = qc.zone;
+    qctx.nano = qc.nano;
+    // namespaces of enclosing element constructors
+    final Atts ns = qc.namespaces;
+    final int nl = ns.size();
+    for(int n = 0; n < nl; n++) qctx.namespaces.add(ns.name(n), ns.value(n));
+    return qctx;
+  }
+
+  /**
+   * Waits for the result of a function. If the calling query is stopped, all functions
+   * will be stopped as well.
+   * @param future future
+   * @param qc calling query context
+   * @param qcs query contexts of the functions
+   * @return result
+   * @throws ExecutionException execution exception
+   */
+  private static Value get(final Future<Value> future, final QueryContext qc,
+      final QueryContext[] qcs) throws ExecutionException {
+    while(true) {
+      try {
+        qc.checkStop();
+        return future.get(INTERVAL, TimeUnit.MILLISECONDS);
+      } catch(final TimeoutException ex) {
+        // continue waiting
+      } catch(final InterruptedException | ProcException ex) {
+        for(final QueryContext q : qcs) q.stop();
+        throw new ProcException();
+      }
+    }
+  }
+}
@@ -0,0 +1,160 @@
+package org.basex.query.iter;
+
+import org.basex.data.*;
+import org.basex.query.value.*;
+import org.basex.query.value.item.*;
+import org.basex.query.value.node.*;
+import org.basex.query.value.seq.*;
+import org.basex.util.*;
+import org.basex.util.list.*;
+
+/**
+ * This class can be used to build new node sequences.
+ * At the same time, it serves as an iterator.
+ *
+ * As long as all nodes are database nodes of the same database, only their pre values are
+ * stored, and nodes will only be created if they are requested by the iterator. Otherwise,
+ * all nodes are passed on to a {@link NodeSeqBuilder}. Before nodes are returned, they are
+ * sorted, and duplicates are removed.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class DBNodeSeqBuilder extends NodeIter {
+  /** Pre values ({@code null} if nodes are cached by {@link #nodes}). */
+  private IntList pres;
+  /** Data reference ({@code null} if no pre value has been added yet). */
+  private Data data;
+  /** Node cache (assigned if not all nodes are database nodes of the same database). */
+  private NodeSeqBuilder nodes;
+  /** Indicates if pre values need to be sorted. */
+  private boolean sort;
+  /** Current iterator position. */
+  private int pos = -1;
+
+  /**
+   * Constructor.
+   */
+  public DBNodeSeqBuilder() {
+    pres = new IntList();
+  }
+
+  /**
+   * Lightweight constructor, assigning sorted and duplicate-free pre values.
+   * @param pres pre values
+   * @param data data reference (can be {@code null} if no pre values are specified)
+   */
+  public DBNodeSeqBuilder(final IntList pres, final Data data) {
+    this.pres = pres;
+    this.data = data;
+  }
+
+  /**
+   * Adds a node.
+   * @param node node to be added
+   */
+  public void add(final ANode node) {
+    if(nodes == null) {
+      // database nodes with full-text data or scores will be cached as nodes
+      if(node.getClass() == DBNode.class && node.score() == 0) {
+        final DBNode n = (DBNode) node;
+        if(data == null) data = n.data;
+        if(data == n.data) {
+          add(n.pre);
+          return;
+        }
+      }
+      nodes = new NodeSeqBuilder().check();
+      final int ps = pres.size();
+      for(int p = 0; p < ps; p++) nodes.add(new DBNode(data, pres.get(p)));
+      pres = null;
+    }
+    nodes.add(node);
+  }
+
+  /**
+   * Adds the nodes of a database node sequence.
+   * @param seq node sequence
+   */
+  public void add(final DBNodeSeq seq) {
+    final Data d = seq.data();
+    if(nodes == null && (data == null || data == d)) {
+      data = d;
+      for(final int pre : seq.pres) add(pre);
+    } else {
+      for(final Item it : seq) add((ANode) it);
+    }
+  }
+
+  /**
+   * Returns the data reference of the pre values.
+   * @return data reference ({@code null} if no pre values have been added)
+   */
+  public Data data() {
+    return data;
+  }
+
+  /**
+   * Returns the sorted and duplicate-free pre values, or {@code null} if not all nodes
+   * are database nodes of the same database.
+   * @return pre values (internal representation!) or {@code null}
+   */
+  public IntList pres() {
+    if(nodes != null) return null;
+    sort();
+    return pres;
+  }
+
+  @Override
+  public ANode next() {
+    if(nodes != null) return nodes.next();
+    sort();
+    return ++pos < pres.size() ? new DBNode(data, pres.get(pos)) : null;
+  }
+
+  @Override
+  public ANode get(final long i) {
+    if(nodes != null) return nodes.get(i);
+    sort();
+    return i < pres.size() ? new DBNode(data, pres.get((int) i)) : null;
+  }
+
+  @Override
+  public long size() {
+    if(nodes != null) return nodes.size();
+    sort();
+    return pres.size();
+  }
+
+  @Override
+  public Value value() {
+    if(nodes != null) return nodes.value();
+    sort();
+    return DBNodeSeq.get(pres, data, false, false);
+  }
+
+  /**
+   * Adds a pre value.
+   * @param pre pre value
+   */
+  private void add(final int pre) {
+    final int ps = pres.size();
+    if(!sort && ps != 0 && pres.get(ps - 1) >= pre) sort = true;
+    pres.add(pre);
+  }
+
+  /**
+   * Sorts the pre values and removes duplicates.
+   */
+  private void sort() {
+    if(sort) {
+      pres.sort().distinct();
+      sort = false;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return nodes != null ? nodes.toString() : Util.className(this) + pres;
+  }
+}
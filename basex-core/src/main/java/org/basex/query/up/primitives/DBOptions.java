@@ -19,16 +19,17 @@ import org.basex.util.options.*;
 public final class DBOptions {
   /** Parsing options. */
   public static final Option<?>[] PARSING = { MainOptions.CREATEFILTER, MainOptions.ADDARCHIVES,
-    MainOptions.SKIPCORRUPT, MainOptions.ADDRAW, MainOptions.ADDCACHE, MainOptions.CSVPARSER,
-    MainOptions.TEXTPARSER, MainOptions.JSONPARSER, MainOptions.HTMLPARSER, MainOptions.PARSER,
-    MainOptions.CHOP, MainOptions.INTPARSE, MainOptions.STRIPNS, MainOptions.DTD,
-    MainOptions.CATFILE };
+    MainOptions.SKIPCORRUPT, MainOptions.ADDRAW, MainOptions.PARSERTHREADS, MainOptions.ADDCACHE,
+    MainOptions.CSVPARSER, MainOptions.TEXTPARSER, MainOptions.JSONPARSER, MainOptions.HTMLPARSER,
+    MainOptions.PARSER, MainOptions.CHOP, MainOptions.INTPARSE, MainOptions.STRIPNS,
+    MainOptions.DTD, MainOptions.CATFILE };
   /** Indexing options. */
   public static final Option<?>[] INDEXING = { MainOptions.MAXCATS, MainOptions.MAXLEN,
-    MainOptions.INDEXSPLITSIZE, MainOptions.FTINDEXSPLITSIZE, MainOptions.LANGUAGE,
+    MainOptions.INDEXSPLITSIZE, MainOptions.FTINDEXSPLITSIZE, MainOptions.INDEXTHREADS,
+    MainOptions.LANGUAGE,
     MainOptions.STOPWORDS, MainOptions.TEXTINDEX, MainOptions.ATTRINDEX, MainOptions.FTINDEX,
-    MainOptions.STEMMING, MainOptions.CASESENS, MainOptions.DIACRITICS, MainOptions.UPDINDEX,
-    MainOptions.AUTOOPTIMIZE };
+    MainOptions.RANGEINDEX, MainOptions.STEMMING, MainOptions.CASESENS, MainOptions.DIACRITICS,
+    MainOptions.UPDINDEX, MainOptions.AUTOOPTIMIZE };
 
   /** Runtime options. */
   private final HashMap<Option<?>, Object> map = new HashMap<>();
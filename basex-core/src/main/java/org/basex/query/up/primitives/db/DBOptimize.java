@@ -66,6 +66,7 @@ public final class DBOptimize extends DBUpdate {
     options.assign(MainOptions.TEXTINDEX,    meta.createtext);
     options.assign(MainOptions.ATTRINDEX,    meta.createattr);
     options.assign(MainOptions.FTINDEX,      meta.createftxt);
+    options.assign(MainOptions.RANGEINDEX,   meta.createrange);
     options.assign(MainOptions.UPDINDEX,     meta.updindex);
     options.assign(MainOptions.AUTOOPTIMIZE, meta.autoopt);
     options.assign(opts);
@@ -74,6 +75,7 @@ public final class DBOptimize extends DBUpdate {
     meta.createtext = opts.get(MainOptions.TEXTINDEX);
     meta.createattr = opts.get(MainOptions.ATTRINDEX);
     meta.createftxt = opts.get(MainOptions.FTINDEX);
+    meta.createrange = opts.get(MainOptions.RANGEINDEX);
     meta.updindex = opts.get(MainOptions.UPDINDEX);
 
     // check if indexing options have changed
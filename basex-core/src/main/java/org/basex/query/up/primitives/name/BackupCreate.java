@@ -30,7 +30,7 @@ public final class BackupCreate extends NameUpdate {
   @Override
   public void apply() throws QueryException {
     try {
-      CreateBackup.backup(name, qc.context.soptions, null);
+      CreateBackup.backup(name, qc.context, false, null);
     } catch(final IOException ex) {
       throw UPDBOPTERR_X.get(info, ex);
     }
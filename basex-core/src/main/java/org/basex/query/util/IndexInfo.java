@@ -62,6 +62,17 @@ public final class IndexInfo {
    * @return location step or {@code null}
    */
   public boolean check(final Expr ex, final boolean ft) {
+    return check(ex, ft, false);
+  }
+
+  /**
+   * Checks if the specified expression can be rewritten for index access.
+   * @param ex expression (must be {@link Context} or {@link AxisPath})
+   * @param ft full-text flag
+   * @param range range index flag
+   * @return result of check
+   */
+  public boolean check(final Expr ex, final boolean ft, final boolean range) {
     orig = ex;
 
     // context reference: work with index step
@@ -91,6 +102,13 @@ public final class IndexInfo {
     // check for full-text index access
     if(ft) return (elem || s.test.type == NodeType.TXT) && data.meta.ftxtindex;
 
+    // check for range index access
+    if(range) {
+      text = elem || s.test.type == NodeType.TXT;
+      attr = !text && s.test.type == NodeType.ATT;
+      return (text || attr) && data.meta.rangeindex;
+    }
+
     // check for text or attribute index access
     text = (elem || s.test.type == NodeType.TXT) && data.meta.textindex;
     attr = !text && s.test.type == NodeType.ATT && data.meta.attrindex;
@@ -8,7 +8,9 @@ import org.basex.query.*;
 import org.basex.util.*;
 
 /**
- * This class references all statically known namespaces.
+ * This class references all statically known namespaces. Namespaces that are added by
+ * element constructors at runtime are stored in the query context
+ * (see {@link QueryContext#namespaces}).
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
@@ -16,7 +18,7 @@ import org.basex.util.*;
 public final class NSContext {
   /** Static namespaces, containing prefixes and URIs. */
   private final Atts ns = new Atts();
-  /** Dynamically added namespaces. */
+  /** Namespaces added by direct element constructors at parsing time. */
   private Atts stack;
 
   /**
@@ -63,15 +65,39 @@ public final class NSContext {
    * @return namespace URI or {@code null}
    */
   public byte[] uri(final byte[] pref) {
-    if(stack != null) {
-      for(int s = stack.size() - 1; s >= 0; s--) {
-        if(eq(stack.name(s), pref)) return stack.value(s);
-      }
-    }
+    final byte[] uri = uri(pref, stack);
+    if(uri != null) return uri;
     final byte[] u = staticURI(pref);
     return u == null ? pref.length == 0 ? null : NSGlobal.uri(pref) : u.length == 0 ? null : u;
   }
 
+  /**
+   * Returns the namespace URI for the specified prefix if it is either found in the
+   * namespaces that have been added at runtime, or in the static or predefined namespaces.
+   * @param pref prefix of the namespace
+   * @param qc query context (can be {@code null})
+   * @return namespace URI or {@code null}
+   */
+  public byte[] uri(final byte[] pref, final QueryContext qc) {
+    final byte[] uri = qc == null ? null : uri(pref, qc.namespaces);
+    return uri != null ? uri : uri(pref);
+  }
+
+  /**
+   * Returns the namespace URI for the specified prefix from a namespace stack.
+   * @param pref prefix of the namespace
+   * @param atts namespace stack (can be {@code null})
+   * @return namespace URI or {@code null}
+   */
+  private static byte[] uri(final byte[] pref, final Atts atts) {
+    if(atts != null) {
+      for(int s = atts.size() - 1; s >= 0; s--) {
+        if(eq(atts.name(s), pref)) return atts.value(s);
+      }
+    }
+    return null;
+  }
+
   /**
    * Returns the number of dynamic namespaces.
    * @return namespaces
@@ -105,17 +131,4 @@ public final class NSContext {
     if(stack == null) stack = new Atts();
     return stack;
   }
-
-  /**
-   * Adds the namespaces that are currently in scope.
-   * @param atts namespaces
-   */
-  public void inScope(final Atts atts) {
-    if(stack != null) {
-      for(int s = stack.size() - 1; s >= 0; s--) {
-        final byte[] nm = stack.name(s);
-        if(!atts.contains(nm)) atts.add(nm, stack.value(s));
-      }
-    }
-  }
 }
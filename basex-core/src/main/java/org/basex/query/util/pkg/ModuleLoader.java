@@ -59,6 +59,14 @@ public final class ModuleLoader {
     }
   }
 
+  /**
+   * Checks if modules or Java archives have been imported.
+   * @return result of check
+   */
+  public boolean imported() {
+    return javaModules != null || loader != LOADER || !urls.isEmpty();
+  }
+
   /**
    * Adds a package from the repository or a Java class.
    * @param uri module uri
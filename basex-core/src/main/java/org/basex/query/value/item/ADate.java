@@ -399,16 +399,31 @@ public abstract class ADate extends ADateDur {
    * @return seconds
    */
   final BigDecimal seconds() {
-    int z = zon;
-    if(z == Short.MAX_VALUE) {
-      // [CG] XQuery, DateTime: may be removed
-      final long n = System.currentTimeMillis();
-      z = Calendar.getInstance().getTimeZone().getOffset(n) / 60000;
-    }
+    // [CG] XQuery, DateTime: may be removed
+    final int z = zon == Short.MAX_VALUE ? implicitZone() : zon;
     return (sec == null ? BigDecimal.ZERO : sec).add(
         BigDecimal.valueOf(Math.max(0, hou) * 3600 + Math.max(0, min) * 60 - z * 60));
   }
 
+  /**
+   * Returns the number of seconds since the beginning of the proleptic Gregorian calendar.
+   * Other than in comparisons, no implicit timezone is assigned to dates without timezone.
+   * @return seconds
+   */
+  public final BigDecimal localSeconds() {
+    final int z = zon == Short.MAX_VALUE ? 0 : zon;
+    return (sec == null ? BigDecimal.ZERO : sec).add(BigDecimal.valueOf(Math.max(0, hou) * 3600 +
+        Math.max(0, min) * 60 - z * 60)).add(days().multiply(DAYSECONDS));
+  }
+
+  /**
+   * Returns the implicit timezone in minutes, which is assigned to dates without timezone.
+   * @return timezone
+   */
+  public static int implicitZone() {
+    return Calendar.getInstance().getTimeZone().getOffset(System.currentTimeMillis()) / 60000;
+  }
+
   /**
    * Returns a day count.
    * @return days
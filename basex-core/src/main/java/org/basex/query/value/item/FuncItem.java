@@ -182,6 +182,27 @@ public final class FuncItem extends FItem implements Scope {
     return new FuncItem(sc, anns, name, vs, ft, checked, vsc.stackSize());
   }
 
+  /**
+   * Creates a copy of this function item with a separate copy of the function body.
+   * Required if the function is evaluated by several threads at the same time, as some
+   * expressions cache data during evaluation.
+   * @param qc query context
+   * @return copy
+   */
+  public FuncItem copy(final QueryContext qc) {
+    final VarScope vsc = new VarScope(sc);
+    final IntObjMap<Var> vs = new IntObjMap<>();
+    final int pl = params.length;
+    final Var[] ps = new Var[pl];
+    for(int p = 0; p < pl; p++) {
+      ps[p] = vsc.newCopyOf(qc, params[p]);
+      vs.put(params[p].id, ps[p]);
+    }
+    final Expr e = expr.copy(qc, vsc, vs);
+    e.markTailCalls(null);
+    return new FuncItem(sc, anns, name, ps, funcType(), e, ctxValue, pos, size, vsc.stackSize());
+  }
+
   @Override
   public boolean accept(final ASTVisitor visitor) {
     return visitor.funcItem(this);
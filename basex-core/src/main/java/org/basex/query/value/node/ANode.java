@@ -153,10 +153,11 @@ public abstract class ANode extends Item {
 
   /**
    * Returns a copy of the namespace hierarchy.
-   * @param sc static context
+   * @param qc query context, containing namespaces that have been added at runtime
+   *   (can be {@code null})
    * @return namespaces
    */
-  public final Atts nsScope(final StaticContext sc) {
+  public final Atts nsScope(final QueryContext qc) {
     final Atts ns = new Atts();
     ANode node = this;
     do {
@@ -169,7 +170,13 @@ public abstract class ANode extends Item {
       }
       node = node.parent();
     } while(node != null && node.type == NodeType.ELM);
-    if(sc != null) sc.ns.inScope(ns);
+    if(qc != null) {
+      final Atts qns = qc.namespaces;
+      for(int a = qns.size() - 1; a >= 0; a--) {
+        final byte[] key = qns.name(a);
+        if(!ns.contains(key)) ns.add(key, qns.value(a));
+      }
+    }
     return ns;
   }
 
@@ -15,6 +15,7 @@ import org.basex.query.value.item.*;
 import org.basex.query.value.node.*;
 import org.basex.query.value.type.*;
 import org.basex.util.*;
+import org.basex.util.hash.*;
 
 /**
  * Static variable to which an expression can be assigned.
@@ -52,6 +53,24 @@ public final class StaticVar extends StaticDecl {
     lazy = anns.contains(Annotation._BASEX_LAZY);
   }
 
+  /**
+   * Creates a copy of this variable without bound expression.
+   * @return copy
+   */
+  StaticVar copy() {
+    return new StaticVar(sc, new VarScope(sc), anns, name, declType, null, external,
+        docString(), info);
+  }
+
+  /**
+   * Assigns a copy of the expression of the specified variable.
+   * @param var variable to be copied
+   * @param qc query context
+   */
+  void copyExpr(final StaticVar var, final QueryContext qc) {
+    if(var.expr != null) expr = var.expr.copy(qc, scope, new IntObjMap<Var>());
+  }
+
   @Override
   public void compile(final QueryContext qc) throws QueryException {
     if(expr == null) throw VAREMPTY_X.get(info, '$' + Token.string(name.string()));
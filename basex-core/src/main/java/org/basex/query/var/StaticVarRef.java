@@ -72,8 +72,10 @@ final class StaticVarRef extends ParseExpr {
 
   @Override
   public Expr copy(final QueryContext qc, final VarScope scp, final IntObjMap<Var> vs) {
+    // choose variable of target context (differs if a cached query plan is instantiated)
     final StaticVarRef ref = new StaticVarRef(info, name, sc);
-    ref.var = var;
+    final StaticVar sv = qc.vars.get(name);
+    ref.var = sv != null ? sv : var;
     return ref;
   }
 
@@ -49,6 +49,34 @@ public final class Variables extends ExprInfo implements Iterable<StaticVar> {
     return var;
   }
 
+  /**
+   * Declares copies of the variables of the specified container.
+   * @param vrs variables to be copied
+   * @param qc query context
+   */
+  public void copy(final Variables vrs, final QueryContext qc) {
+    final int vs = vrs.vars.size();
+    final StaticVar[] source = new StaticVar[vs], target = new StaticVar[vs];
+    int v = 0;
+    for(final Entry<QNm, VarEntry> e : vrs.vars.entrySet()) {
+      source[v] = e.getValue().var;
+      target[v] = source[v].copy();
+      vars.put(e.getKey(), new VarEntry(target[v++]));
+    }
+    // copy expressions after all variables have been declared
+    for(v = 0; v < vs; v++) target[v].copyExpr(source[v], qc);
+  }
+
+  /**
+   * Returns the declared variable with the specified name.
+   * @param name variable name
+   * @return variable or {@code null}
+   */
+  StaticVar get(final QNm name) {
+    final VarEntry ve = vars.get(name);
+    return ve != null ? ve.var : null;
+  }
+
   /**
    * Checks if none of the variables contains an updating expression.
    * @throws QueryException query exception
@@ -4,7 +4,9 @@ import static org.basex.core.Text.*;
 
 import java.io.*;
 import java.net.*;
+import java.nio.channels.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 import org.basex.*;
 import org.basex.core.*;
@@ -20,12 +22,17 @@ import org.basex.util.list.*;
 
 /**
  * Server-side client session in the client-server architecture.
+ * Sessions are executed by the worker threads of a {@link ClientPool}: if no input is
+ * pending, the session will be parked until the client sends the next command.
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Andreas Weiler
  * @author Christian Gruen
  */
-public final class ClientListener extends Thread {
+public final class ClientListener implements Runnable {
+  /** Session id counter. */
+  private static final AtomicLong IDS = new AtomicLong();
+
   /** Timer for authentication time out. */
   public final Timer auth = new Timer();
   /** Timestamp of last interaction. */
@@ -41,6 +48,10 @@ public final class ClientListener extends Thread {
   private final BaseXServer server;
   /** Socket reference. */
   private final Socket socket;
+  /** Client pool. */
+  private final ClientPool pool;
+  /** Session id. */
+  private final long sid = IDS.incrementAndGet();
 
   /** Socket for events. */
   private Socket esocket;
@@ -56,30 +67,49 @@ public final class ClientListener extends Thread {
   private Command command;
   /** Query id counter. */
   private int id;
-  /** Indicates if the server thread is running. */
-  private boolean running;
+  /** Indicates if the session is running. */
+  private volatile boolean running;
+  /** Indicates if the session is parked and waiting for input. */
+  private volatile boolean idle;
 
   /**
    * Constructor.
    * @param socket socket
    * @param context database context
    * @param server server reference
+   * @param pool client pool
    */
-  public ClientListener(final Socket socket, final Context context, final BaseXServer server) {
+  public ClientListener(final Socket socket, final Context context, final BaseXServer server,
+      final ClientPool pool) {
     this.context = new Context(context, this);
     this.socket = socket;
     this.server = server;
+    this.pool = pool;
     last = System.currentTimeMillis();
-    setDaemon(true);
   }
 
   @Override
   public void run() {
-    if(!authenticate()) return;
+    // parked sessions are resumed if their channel is readable (new input or end of stream)
+    boolean readable = idle;
+    idle = false;
+    // authenticate new sessions (input stream will only be assigned once)
+    if(in == null && !authenticate()) return;
 
     try {
       while(running) {
         command = null;
+        // clear interrupt flag: interrupted threads would close the socket channel
+        Thread.interrupted();
+        // release worker thread if no input is pending. the number of available bytes
+        // cannot be used to detect the end of a stream, and it may always be 0 for channels
+        if(!readable && in.available() == 0) {
+          idle = true;
+          pool.park(this);
+          return;
+        }
+        readable = false;
+
         String cmd;
         final ServerCmd sc;
         try {
@@ -247,6 +277,7 @@ public final class ClientListener extends Thread {
     try {
       new Close().run(context);
       socket.close();
+      pool.wakeup();
       if(events) {
         esocket.close();
         // remove this session from all events in pool
@@ -258,6 +289,30 @@ public final class ClientListener extends Thread {
     }
   }
 
+  /**
+   * Returns the id of this session.
+   * @return id
+   */
+  public long getId() {
+    return sid;
+  }
+
+  /**
+   * Indicates if the session is idle and waiting for the next command.
+   * @return result of check
+   */
+  public boolean idle() {
+    return idle;
+  }
+
+  /**
+   * Returns the socket channel of this session.
+   * @return channel
+   */
+  SocketChannel channel() {
+    return socket.getChannel();
+  }
+
   /**
    * Returns the context of this session.
    * @return user reference
@@ -0,0 +1,153 @@
+package org.basex.server;
+
+import java.io.*;
+import java.nio.channels.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+import org.basex.util.*;
+
+/**
+ * This class multiplexes the client sessions of the database server.
+ *
+ * Sessions are executed by a pool of worker threads. As soon as a session is waiting for
+ * the next command, its socket channel is registered with a selector, and the worker thread
+ * is released. The session will be resumed by a worker thread when new input arrives.
+ * Idle sessions thus occupy no threads.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class ClientPool implements Runnable {
+  /** Number of created worker threads. */
+  private final AtomicInteger threads = new AtomicInteger();
+  /** Sessions to be registered with the selector. */
+  private final ConcurrentLinkedQueue<ClientListener> parked = new ConcurrentLinkedQueue<>();
+  /** Worker threads. */
+  private final ExecutorService workers;
+  /** Selector for idle sessions. */
+  private final Selector selector;
+  /** Indicates if the pool is running. */
+  private volatile boolean running = true;
+
+  /**
+   * Constructor.
+   * @throws IOException I/O exception
+   */
+  public ClientPool() throws IOException {
+    selector = Selector.open();
+    workers = Executors.newCachedThreadPool(new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable r) {
+        final Thread t = new Thread(r, Util.className(ClientListener.class) + '-' +
+            threads.incrementAndGet());
+        t.setDaemon(true);
+        return t;
+      }
+    });
+    final Thread t = new Thread(this, Util.className(ClientPool.class));
+    t.setDaemon(true);
+    t.start();
+  }
+
+  /**
+   * Executes a session in a worker thread.
+   * @param client client session
+   */
+  public void execute(final ClientListener client) {
+    try {
+      workers.execute(client);
+    } catch(final RejectedExecutionException ex) {
+      // pool has been shut down: remaining sessions are closed by the server
+      Util.debug(ex);
+    }
+  }
+
+  /**
+   * Parks a session until new input arrives.
+   * @param client client session
+   */
+  void park(final ClientListener client) {
+    parked.add(client);
+    selector.wakeup();
+  }
+
+  /**
+   * Wakes up the selector. Needs to be called after the socket of a parked session
+   * has been closed, as the channel will only be closed after it has been deregistered.
+   */
+  void wakeup() {
+    selector.wakeup();
+  }
+
+  /**
+   * Shuts down the pool.
+   */
+  public void close() {
+    running = false;
+    selector.wakeup();
+    workers.shutdown();
+  }
+
+  @Override
+  public void run() {
+    final ArrayList<ClientListener> ready = new ArrayList<>();
+    try {
+      while(running) {
+        selector.select();
+        if(!running) break;
+
+        // cancel the keys of all sessions with incoming data
+        final Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+        while(keys.hasNext()) {
+          final SelectionKey key = keys.next();
+          keys.remove();
+          key.cancel();
+          ready.add((ClientListener) key.attachment());
+        }
+        // deregister cancelled keys, switch channels back to blocking mode, resume sessions
+        if(!ready.isEmpty()) {
+          selector.selectNow();
+          for(final ClientListener client : ready) resume(client);
+          ready.clear();
+        }
+
+        // register new idle sessions
+        for(ClientListener client; (client = parked.poll()) != null;) {
+          try {
+            final SocketChannel channel = client.channel();
+            channel.configureBlocking(false);
+            channel.register(selector, SelectionKey.OP_READ, client);
+          } catch(final IOException ex) {
+            // socket was closed in the meantime: session will be closed by the worker thread
+            Util.debug(ex);
+            execute(client);
+          }
+        }
+      }
+    } catch(final IOException ex) {
+      Util.stack(ex);
+    } finally {
+      try {
+        selector.close();
+      } catch(final IOException ex) {
+        Util.debug(ex);
+      }
+    }
+  }
+
+  /**
+   * Resumes a session.
+   * @param client client session
+   */
+  private void resume(final ClientListener client) {
+    try {
+      client.channel().configureBlocking(true);
+    } catch(final IOException ex) {
+      // socket was closed in the meantime: session will be closed by the worker thread
+      Util.debug(ex);
+    }
+    execute(client);
+  }
+}
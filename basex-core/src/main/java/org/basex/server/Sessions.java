@@ -19,13 +19,18 @@ public final class Sessions extends CopyOnWriteArrayList<ClientListener> {
    * @return data reference
    */
   public synchronized String info() {
-    final TokenBuilder tb = new TokenBuilder();
-    tb.addExt(SESSIONS_X, size()).add(size() == 0 ? DOT : COL);
-
     final StringList sl = new StringList();
+    int idle = 0;
     for(final ClientListener sp : this) {
       sl.add(sp.context().user().name() + ' ' + sp);
+      if(sp.idle()) idle++;
     }
+
+    final TokenBuilder tb = new TokenBuilder();
+    final int size = sl.size();
+    tb.addExt(SESSIONS_X, size);
+    if(size != 0) tb.addExt(SESSION_STATES_X_X, size - idle, idle);
+    tb.add(size == 0 ? DOT : COL);
     for(final String sp : sl.sort()) tb.add(NL).add(LI).add(sp);
     return tb.toString();
   }
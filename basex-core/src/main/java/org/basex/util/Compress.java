@@ -19,10 +19,6 @@ public final class Compress {
   private int pc;
   /** Pack offset. */
   private int po;
-  /** Current unpack position. */
-  private int uc;
-  /** Unpack offset. */
-  private int uo;
 
   /**
    * Compresses the specified text.
@@ -93,75 +89,47 @@ public final class Compress {
    * @return unpacked text
    */
   public byte[] unpack(final byte[] txt) {
-    // initialize decompression
-    final byte[] tmp = bl.get();
-    bl.set(txt);
-    uc = Num.length(txt, 0);
-    uo = 0;
-
-    // read packer bit
-    pull();
-    // choose mapping
-    final byte[] unpack = pull() ? UNPACK1 : UNPACK2;
+    // initialize decompression, skip packer bit and choose mapping
+    final int tl = txt.length;
+    int t = Num.length(txt, 0), bits = txt[t++] & 0xFF, bs = 6;
+    final byte[] unpack = (bits & 2) != 0 ? UNPACK1 : UNPACK2;
+    bits >>>= 2;
 
-    // decompress all characters
+    // decompress all characters; up to 12 bits are consumed per character
     final int l = Num.get(txt, 0);
     final byte[] res = new byte[l];
     for(int r = 0; r < l; r++) {
+      while(bs <= 24 && t < tl) {
+        bits |= (txt[t++] & 0xFF) << bs;
+        bs += 8;
+      }
       final int b;
-      if(pull()) { // 1 xxx
-        b = pull(3);
-      } else if(pull()) { // 01 xxx
-        b = pull(3) | 0x08;
-      } else if(pull()) { // 001 xxxx
-        b = pull(4) | 0x10;
-      } else if(pull()) { // 0001 xxxxx
-        b = pull(5) | 0x20;
+      if((bits & 1) != 0) { // 1 xxx
+        b = bits >>> 1 & 0x07;
+        bits >>>= 4;
+        bs -= 4;
+      } else if((bits & 2) != 0) { // 01 xxx
+        b = bits >>> 2 & 0x07 | 0x08;
+        bits >>>= 5;
+        bs -= 5;
+      } else if((bits & 4) != 0) { // 001 xxxx
+        b = bits >>> 3 & 0x0F | 0x10;
+        bits >>>= 7;
+        bs -= 7;
+      } else if((bits & 8) != 0) { // 0001 xxxxx
+        b = bits >>> 4 & 0x1F | 0x20;
+        bits >>>= 9;
+        bs -= 9;
       } else { // 0000 xxxxxxxx
-        b = pull(8);
+        b = bits >>> 4 & 0xFF;
+        bits >>>= 12;
+        bs -= 12;
       }
       res[r] = (byte) (b >= 128 ? b : unpack[b]);
     }
-    // make sure that the external txt byte array does not remain in this class
-    bl.set(tmp);
     return res;
   }
 
-  /**
-   * Pulls the specified number of bits and returns the result.
-   * @param s number of bytes
-   * @return result
-   */
-  private int pull(final int s) {
-    int oo = uo, cc = uc, x = 0;
-    final byte[] l = bl.get();
-    for(int i = 0; i < s; i++) {
-      if((l[cc] & 1 << oo) != 0) x |= 1 << i;
-      if(++oo == 8) {
-        oo = 0;
-        ++cc;
-      }
-    }
-    uo = oo;
-    uc = cc;
-    return x;
-  }
-
-  /**
-   * Pulls a single bit.
-   * @return result
-   */
-  private boolean pull() {
-    int oo = uo;
-    final boolean b = (bl.get()[uc] & 1 << oo) != 0;
-    if(++oo == 8) {
-      oo = 0;
-      ++uc;
-    }
-    uo = oo;
-    return b;
-  }
-
   /** First mapping for unpacking data. */
   private static final byte[] UNPACK1 = {
     0x20, 0x61, 0x65, 0x6E, 0x69, 0x6F, 0x72, 0x73, // encode via 1 xxx
@@ -205,16 +173,6 @@ public final class Compress {
 
   /** Local ByteList implementation to make protected fields accessible. */
   private static final class MyByteList extends ByteList {
-    /**
-     * Exchanges the actual byte array backing this list instance.
-     * @param newList the new value for ByteList.list, including
-     *   setting ByteList.size to list.size.
-     */
-    private void set(final byte[] newList) {
-      list = newList;
-      size = newList.length;
-    }
-
     /**
      * Direct access to the backing byte array.
      * @return ByteList.list
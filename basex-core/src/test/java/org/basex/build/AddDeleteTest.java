@@ -7,6 +7,7 @@ import java.io.*;
 import org.basex.*;
 import org.basex.core.*;
 import org.basex.core.cmd.*;
+import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.util.*;
 import org.junit.*;
@@ -175,6 +176,45 @@ public final class AddDeleteTest extends SandboxTest {
     assertEquals("0", new XQuery("count(//a)").execute(context));
   }
 
+  /**
+   * Changes document paths after they have been written to disk.
+   * @throws BaseXException exception
+   */
+  @Test
+  public void pathJournal() throws BaseXException {
+    for(int i = 0; i < 100; i++) new Add("d" + i + ".xml", "<a/>").execute(context);
+    assertEquals(1, context.data().resources.docs("d1.xml").size());
+    new Close().execute(context);
+
+    // small changes are appended to the journal
+    new Open(NAME).execute(context);
+    new Rename("d5.xml", "x/e.xml").execute(context);
+    new Delete("d7.xml").execute(context);
+    new Add("a.xml", "<b/>").execute(context);
+    new Close().execute(context);
+    final IOFile journal = new IOFile(context.soptions.dbpath(NAME), DataText.DATAPTH + 'l' +
+        IO.BASEXSUFFIX);
+    assertTrue(journal.exists());
+
+    // changes are replayed
+    new Open(NAME).execute(context);
+    assertEquals(100, docs());
+    assertEquals(0, context.data().resources.docs("d7.xml").size());
+    assertEquals(0, context.data().resources.docs("d5.xml").size());
+    assertEquals(1, context.data().resources.docs("x").size());
+    assertEquals(1, context.data().resources.docs("a.xml").size());
+
+    // many changes lead to a rewrite of the paths
+    new XQuery("for $i in 1 to 100 return db:add('" + NAME + "', <a/>, 'new/' || $i || '.xml')").
+      execute(context);
+    new Close().execute(context);
+    assertFalse(journal.exists());
+    new Open(NAME).execute(context);
+    assertEquals(200, docs());
+    assertEquals(100, context.data().resources.docs("new").size());
+    assertEquals(1, context.data().resources.docs("x/e.xml").size());
+  }
+
   /**
    * Adds a non-existent file.
    * @throws BaseXException expected.
@@ -249,6 +289,38 @@ public final class AddDeleteTest extends SandboxTest {
     assertTrue(io.delete());
   }
 
+  /**
+   * Parses files in parallel and compares the result with a sequential run.
+   * @throws BaseXException exception
+   */
+  @Test
+  public void parallel() throws BaseXException {
+    final String query = "string-join(for $d in db:open('" + NAME + "') " +
+        "return document-uri($d) || serialize($d), '\n')";
+    new Set(MainOptions.SKIPCORRUPT, true).execute(context);
+    try {
+      new CreateDB(NAME, DIR).execute(context);
+      final String expected = new XQuery(query).execute(context);
+      new Set(MainOptions.PARSERTHREADS, 4).execute(context);
+      new CreateDB(NAME, DIR).execute(context);
+      assertEquals(expected, new XQuery(query).execute(context));
+
+      new CreateDB(NAME).execute(context);
+      new Add("a", FLDR).execute(context);
+      new Add("b", ZIPFILE).execute(context);
+      assertEquals(NFLDR + 4, docs());
+
+      new Set(MainOptions.SKIPCORRUPT, false).execute(context);
+      try {
+        new CreateDB(NAME, DIR).execute(context);
+        fail("Broken file was added to the database.");
+      } catch(final BaseXException ignored) { }
+    } finally {
+      new Set(MainOptions.SKIPCORRUPT, false).execute(context);
+      new Set(MainOptions.PARSERTHREADS, 1).execute(context);
+    }
+  }
+
   /**
    * Returns the number of documents in the current database.
    * @return number of documents
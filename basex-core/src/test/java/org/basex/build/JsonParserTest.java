@@ -0,0 +1,194 @@
+package org.basex.build;
+
+import static org.basex.util.Token.*;
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.basex.*;
+import org.basex.build.json.*;
+import org.basex.build.json.JsonOptions.*;
+import org.basex.core.*;
+import org.basex.core.MainOptions.MainParser;
+import org.basex.core.cmd.*;
+import org.basex.io.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * JSON Parser Test.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class JsonParserTest extends SandboxTest {
+  /** Temporary JSON file. */
+  private static final String TEMP = Prop.TMP + NAME + IO.JSONSUFFIX;
+  /** Test document. */
+  private static final String JSON = "{ \"a\": 1, \"b c\": [ true, null, \"x\\n\\u00e4\", [], {} ], " +
+      "\"\": { \"_\": -1.5e3, \"d\": false }, \"e\": \"\" }";
+
+  /**
+   * Creates the initial database.
+   * @throws BaseXException exception
+   */
+  @BeforeClass
+  public static void before() throws BaseXException {
+    new Set(MainOptions.PARSER, MainParser.JSON).execute(context);
+  }
+
+  /**
+   * Removes the temporary JSON file.
+   */
+  @AfterClass
+  public static void after() {
+    new IOFile(TEMP).delete();
+  }
+
+  /**
+   * Sets initial options.
+   * @throws BaseXException exception
+   */
+  @Before
+  public void init() throws BaseXException {
+    new Set(MainOptions.JSONPARSER, new JsonParserOptions()).execute(context);
+  }
+
+  /**
+   * Drops the database.
+   * @throws BaseXException exception
+   */
+  @After
+  public void finish() throws BaseXException {
+    new DropDB(NAME).execute(context);
+  }
+
+  /**
+   * Tests the direct conversion.
+   * @throws Exception exception
+   */
+  @Test
+  public void direct() throws Exception {
+    parse(JSON, "");
+    parse("[ 1, \"2\" ]", "");
+    parse("\"x\"", "");
+    parse("1", "");
+    final JsonParserOptions jopts = context.options.get(MainOptions.JSONPARSER);
+    jopts.set(JsonOptions.STRINGS, true);
+    parse(JSON, "'strings': true()");
+    jopts.set(JsonOptions.STRINGS, false);
+    jopts.set(JsonOptions.LAX, true);
+    parse(JSON, "'lax': true()");
+  }
+
+  /**
+   * Tests the attributes conversion.
+   * @throws Exception exception
+   */
+  @Test
+  public void attributes() throws Exception {
+    final JsonParserOptions jopts = context.options.get(MainOptions.JSONPARSER);
+    jopts.set(JsonOptions.FORMAT, JsonFormat.ATTRIBUTES);
+    parse(JSON, "'format': 'attributes'");
+    parse("[ 1, [ 2 ] ]", "'format': 'attributes'");
+    parse("null", "'format': 'attributes'");
+  }
+
+  /**
+   * Tests conversions that are performed in main memory.
+   * @throws Exception exception
+   */
+  @Test
+  public void memory() throws Exception {
+    final JsonParserOptions jopts = context.options.get(MainOptions.JSONPARSER);
+    jopts.set(JsonOptions.MERGE, true);
+    parse(JSON, "'merge': true()");
+    jopts.set(JsonOptions.MERGE, false);
+    jopts.set(JsonOptions.FORMAT, JsonFormat.JSONML);
+    parse("[ \"a\", { \"b\": \"c\" }, \"d\" ]", "'format': 'jsonml'");
+  }
+
+  /**
+   * Tests constructors and unquoted keys.
+   * @throws Exception exception
+   */
+  @Test
+  public void liberal() throws Exception {
+    final JsonParserOptions jopts = context.options.get(MainOptions.JSONPARSER);
+    jopts.set(JsonParserOptions.LIBERAL, true);
+    parse("{ a: new Date(1, [ 2 ]), b: [ 3, ] }", "'liberal': true()");
+    jopts.set(JsonOptions.FORMAT, JsonFormat.ATTRIBUTES);
+    parse("{ a: new Date(1, [ 2 ]), b: [ 3, ] }", "'liberal': true(), 'format': 'attributes'");
+  }
+
+  /**
+   * Tests whitespace chopping.
+   * @throws Exception exception
+   */
+  @Test
+  public void chop() throws Exception {
+    write("{ \"a\": \" x \" }");
+    new CreateDB(NAME, TEMP).execute(context);
+    assertEquals("<json type=\"object\"><a>x</a></json>",
+        new XQuery(".").execute(context).replaceAll("\\s*\\n\\s*", ""));
+  }
+
+  /**
+   * Tests parse errors.
+   * @throws Exception exception
+   */
+  @Test
+  public void error() throws Exception {
+    write("{ \"a\": [ 1, 2 }");
+    try {
+      new CreateDB(NAME, TEMP).execute(context);
+      fail("Error expected");
+    } catch(final BaseXException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains("1/15"));
+    }
+    // errors at the end of the input point to the last consumed character
+    error("{\"a\":1", "1/6");
+    error("[tru", "1/2");
+  }
+
+  /**
+   * Checks if parsing the specified JSON string yields an error at the specified position.
+   * @param json JSON string
+   * @param pos expected error position
+   * @throws Exception exception
+   */
+  private static void error(final String json, final String pos) throws Exception {
+    write(json);
+    try {
+      new CreateDB(NAME, TEMP).execute(context);
+      fail("Error expected");
+    } catch(final BaseXException ex) {
+      assertTrue(ex.getMessage(), ex.getMessage().contains(pos));
+    }
+  }
+
+  /**
+   * Creates a database from the specified JSON string and compares the result with
+   * the output of {@code json:parse}.
+   * @param json JSON string
+   * @param options options of {@code json:parse}
+   * @throws Exception exception
+   */
+  private static void parse(final String json, final String options) throws Exception {
+    write(json);
+    new CreateDB(NAME, TEMP).execute(context);
+    final String query = "deep-equal(., json:parse(file:read-text('" + TEMP + "'), map { " +
+        options + " }))";
+    assertEquals(json + ", " + options, "true", new XQuery(query).execute(context));
+  }
+
+  /**
+   * Writes the specified test file.
+   * @param data data to write
+   * @throws IOException I/O exception
+   */
+  private static void write(final String data) throws IOException {
+    new IOFile(TEMP).write(token(data));
+  }
+}
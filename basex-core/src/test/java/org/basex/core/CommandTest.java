@@ -388,10 +388,13 @@ public class CommandTest extends SandboxTest {
   public final void optimize() {
     no(new Optimize());
     no(new OptimizeAll());
+    no(new OptimizeAll(true));
     ok(new CreateDB(NAME, FILE));
     ok(new Optimize());
     ok(new Optimize());
     ok(new OptimizeAll());
+    ok(new OptimizeAll(true));
+    ok(new XQuery("count(//*)"));
   }
 
   /** Command test. */
@@ -472,6 +475,58 @@ public class CommandTest extends SandboxTest {
     ok(new DropDB(Databases.DBCHARS));
   }
 
+  /** Incremental backups. */
+  @Test
+  public final void incrementalBackup() {
+    // first backup is a full backup
+    ok(new CreateDB(NAME, FILE));
+    ok(new CreateBackup(NAME, true));
+    ok(new XQuery("insert node <x/> into /*"));
+    ok(new CreateBackup(NAME, true));
+    ok(new XQuery("delete node //x, insert node <y/> into /*"));
+    ok(new CreateBackup(NAME, true));
+    ok(new XQuery("insert node <z/> into /*"));
+
+    // check lineage
+    final String backups = _DB_BACKUPS.args(NAME);
+    assertEquals("3", ok(new XQuery(COUNT.args(backups))));
+    assertEquals("2", ok(new XQuery(COUNT.args(backups + "/@base"))));
+    final String[] names = ok(new XQuery(backups + "/string()")).split("\\s+");
+    assertEquals(names[1], ok(new XQuery(backups + "[1]/@base/string()")));
+    assertEquals(names[2], ok(new XQuery(backups + "[2]/@base/string()")));
+    assertTrue(ok(new ShowBackups()).contains(names[2]));
+
+    // restore latest and intermediate backup
+    ok(new Restore(NAME));
+    ok(new Open(NAME));
+    assertEquals("<y/>", ok(new XQuery("/*/(x, y, z)")));
+    ok(new Restore(names[1]));
+    ok(new Open(NAME));
+    assertEquals("<x/>", ok(new XQuery("/*/(x, y, z)")));
+
+    // backups cannot be dropped if other backups are based on them
+    no(new DropBackup(names[1]));
+    no(new DropBackup(names[2]));
+    assertEquals("3", ok(new XQuery(COUNT.args(backups))));
+
+    // restore fails if the chain is incomplete
+    ok(new XQuery(_FILE_DELETE.args(_DB_SYSTEM.args() + "//dbpath || '/" + names[1] +
+        IO.ZIPSUFFIX + '\'')));
+    no(new Restore(NAME));
+    ok(new DropBackup(NAME));
+
+    // unchanged files are not stored again
+    ok(new CreateBackup(NAME, true));
+    ok(new CreateBackup(NAME, true));
+    assertEquals("1", ok(new XQuery(COUNT.args(_ARCHIVE_ENTRIES.args(_FILE_READ_BINARY.args(
+        _DB_SYSTEM.args() + "//dbpath || '/' || " + backups + "[1] || '" + IO.ZIPSUFFIX +
+        '\''))))));
+    ok(new Restore(NAME));
+    ok(new Open(NAME));
+    assertEquals("<x/>", ok(new XQuery("/*/(x, y, z)")));
+    ok(new DropBackup(NAME));
+  }
+
   /**
    * Dropping backups.
    */
@@ -0,0 +1,121 @@
+package org.basex.core;
+
+import static org.basex.query.func.Function.*;
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.core.cmd.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for optimizing databases in the online mode.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class OptimizeOnlineTest extends SandboxTest {
+  /** Number of elements in the test database. */
+  private static final int SIZE = 200000;
+
+  /**
+   * Creates the test database.
+   * @throws BaseXException database exception
+   */
+  @Before
+  public void init() throws BaseXException {
+    final StringBuilder sb = new StringBuilder("<x>");
+    for(int i = 0; i < SIZE; i++) sb.append("<a b='").append(i).append("'>").append(i % 100).
+      append("</a>");
+    new CreateDB(NAME, sb.append("</x>").toString()).execute(context);
+    new Close().execute(context);
+  }
+
+  /**
+   * Drops the test database.
+   * @throws BaseXException database exception
+   */
+  @After
+  public void finish() throws BaseXException {
+    new DropDB(NAME).execute(context);
+  }
+
+  /**
+   * Reads the database while it is optimized.
+   * @throws Exception exception
+   */
+  @Test
+  public void read() throws Exception {
+    final Optimizer opt = new Optimizer();
+    // the database can be read while it is rebuilt
+    assertEquals(Integer.toString(SIZE), new XQuery(COUNT.args(_DB_OPEN.args(NAME) + "//a")).
+        execute(client()));
+    assertTrue("Database was read after it had been optimized.", opt.isAlive());
+    opt.finish();
+  }
+
+  /**
+   * Updates the database while it is optimized. The update will be performed when the read
+   * lock of the command is replaced with a write lock. As a result, the database will be
+   * rebuilt again, and the update will not get lost.
+   * @throws Exception exception
+   */
+  @Test
+  public void update() throws Exception {
+    final Optimizer opt = new Optimizer();
+    new XQuery("insert node <b/> into " + _DB_OPEN.args(NAME) + "/x").execute(client());
+    assertTrue("Database was updated after it had been optimized.", opt.isAlive());
+    opt.finish();
+    assertEquals("1", new XQuery(COUNT.args(_DB_OPEN.args(NAME) + "//b")).execute(context));
+  }
+
+  /**
+   * Returns a new client context.
+   * @return context
+   */
+  private static Context client() {
+    final Context ctx = new Context(context, null);
+    ctx.user(context.user());
+    return ctx;
+  }
+
+  /** Thread for optimizing the database in the online mode. */
+  private static final class Optimizer extends Thread {
+    /** Command. */
+    private final OptimizeAll cmd = new OptimizeAll(true);
+    /** Context. */
+    private final Context ctx = client();
+    /** Error. */
+    private volatile Exception error;
+
+    /**
+     * Constructor. Starts the command and waits until the database is rebuilt.
+     * @throws Exception exception
+     */
+    private Optimizer() throws Exception {
+      new Open(NAME).execute(ctx);
+      start();
+      while(!(cmd.prog() > 0) && isAlive()) Performance.sleep(1);
+    }
+
+    @Override
+    public void run() {
+      try {
+        cmd.execute(ctx);
+      } catch(final Exception ex) {
+        error = ex;
+      }
+    }
+
+    /**
+     * Waits until the command has been executed.
+     * @throws Exception exception
+     */
+    private void finish() throws Exception {
+      join();
+      new Close().execute(ctx);
+      if(error != null) throw error;
+    }
+  }
+}
@@ -37,6 +37,7 @@ public final class XMLCommandTest extends SandboxTest {
     ok("<copy name='X' newname='X'/>");
 
     ok("<create-backup name='X'/>");
+    ok("<create-backup name='X' incremental='true'/>");
 
     ok("<create-db name='X'/>");
     ok("<create-db name='X'>X</create-db>");
@@ -100,6 +101,7 @@ public final class XMLCommandTest extends SandboxTest {
     ok("<optimize/>");
 
     ok("<optimize-all/>");
+    ok("<optimize-all online='true'/>");
 
     ok("<password/>");
     ok("<password>X</password>");
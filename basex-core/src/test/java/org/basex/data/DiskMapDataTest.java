@@ -0,0 +1,68 @@
+package org.basex.data;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.query.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Test index updates when using disk storage with memory-mapped table access.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class DiskMapDataTest extends MemDataTest {
+  /** Test database name. */
+  private final String dbname = Util.className(DiskMapDataTest.class);
+
+  @Override
+  @Before
+  public void setUp() throws BaseXException {
+    context.options.set(MainOptions.MAPTABLE, true);
+    new CreateDB(dbname, XMLSTR).execute(context);
+  }
+
+  /**
+   * Clean up method; executed after each test; drops the database.
+   * @throws BaseXException the database cannot be dropped
+   */
+  @After
+  public void cleanUp() throws BaseXException {
+    new DropDB(dbname).execute(context);
+    context.options.set(MainOptions.MAPTABLE, false);
+  }
+
+  /**
+   * Checks that the mapped table is used and returns consistent results for concurrent readers.
+   * @throws Exception exception
+   */
+  @Test
+  public void concurrentReads() throws Exception {
+    new XQuery("insert node (1 to 5000) ! <g>{ . }</g> into /a").execute(context);
+    assertTrue(new InfoStorage("0", "0").execute(context).contains(Text.MEMORY_MAPPED));
+
+    final ExecutorService es = Executors.newFixedThreadPool(8);
+    try {
+      final Future<?>[] futures = new Future<?>[16];
+      for(int f = 0; f < futures.length; f++) {
+        futures[f] = es.submit(new Callable<String>() {
+          @Override
+          public String call() throws Exception {
+            try(final QueryProcessor qp = new QueryProcessor("sum(//g ! xs:integer(.))", context)) {
+              return qp.value().toString();
+            }
+          }
+        });
+      }
+      for(final Future<?> f : futures) assertEquals("12502500", f.get());
+    } finally {
+      es.shutdown();
+    }
+  }
+}
@@ -4,13 +4,15 @@ import static org.basex.query.func.Function.*;
 
 import org.basex.core.*;
 import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.CmdIndex;
 import org.basex.query.*;
 import org.basex.query.func.*;
 import org.junit.*;
 import org.junit.Test;
 
 /**
- * This class tests the {@link MainOptions#UPDINDEX} and {@link MainOptions#AUTOOPTIMIZE} options.
+ * This class tests the {@link MainOptions#UPDINDEX}, {@link MainOptions#AUTOOPTIMIZE} and
+ * {@link MainOptions#INDEXTHREADS} options.
  *
  * @author BaseX Team 2005-15, BSD License
  * @author Christian Gruen
@@ -24,6 +26,9 @@ public final class IndexTest extends AdvancedQueryTest {
   public void after() throws BaseXException {
     run(new Set(MainOptions.UPDINDEX, false));
     run(new Set(MainOptions.AUTOOPTIMIZE, false));
+    run(new Set(MainOptions.INDEXTHREADS, 1));
+    run(new Set(MainOptions.INDEXSPLITSIZE, 0));
+    run(new Set(MainOptions.FTINDEXSPLITSIZE, 0));
   }
 
   /**
@@ -145,6 +150,60 @@ public final class IndexTest extends AdvancedQueryTest {
     run(new Close());
   }
 
+  /**
+   * Checks if buffered index updates are merged with the on-disk index.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void updindexDelta() throws BaseXException {
+    run(new Set(MainOptions.UPDINDEX, true));
+    run(new CreateDB(NAME, "<x><a>1</a><a>2</a><a>3</a><b c='1'/></x>"));
+    query("replace value of node /x/a[1] with '4'");
+    query("delete node /x/a[2]");
+    query("insert node <a>5</a> into /x");
+    query("replace value of node /x/b/@c with '3'");
+    query("replace value of node /x/a[2] with '3'");
+    for(int i = 0; i < 2; i++) {
+      query(_DB_TEXT.args(NAME, "1"), "");
+      query(_DB_TEXT.args(NAME, "2"), "");
+      query(_DB_TEXT.args(NAME, "4"), "4");
+      query("count(" + _DB_TEXT_RANGE.args(NAME, "1", "5") + ")", "3");
+      query("data(" + _DB_ATTRIBUTE.args(NAME, "3") + ")", "3");
+      query(_DB_ATTRIBUTE.args(NAME, "1"), "");
+      query("string-join(" + _INDEX_TEXTS.args(NAME) + ", ',')", "3,4,5");
+      query("string-join(" + _INDEX_TEXTS.args(NAME, "", false) + ", ',')", "5,4,3");
+      query("string-join(" + _INDEX_TEXTS.args(NAME, "3") + "/@count, ',')", "1");
+      // write buffered updates to disk
+      run(new Close());
+      run(new Open(NAME));
+    }
+  }
+
+  /**
+   * Updates keys of a larger database that are not cached, closes and reopens the database.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void updindexClose() throws BaseXException {
+    run(new Set(MainOptions.UPDINDEX, true));
+    final StringBuilder sb = new StringBuilder("<x>");
+    for(int i = 1; i <= 30000; i++) sb.append("<a>").append(i).append("</a>");
+    run(new CreateDB(NAME, sb.append("</x>").toString()));
+    run(new Close());
+    query("for $a in " + _DB_OPEN.args(NAME) + "//a[. mod 1000 = 0] " +
+        "return replace value of node $a with 'X'");
+    query("count(" + _DB_TEXT.args(NAME, "X") + ")", "30");
+    run(new Open(NAME));
+    query("replace value of node /x/a[1] with 'Y'");
+    run(new Close());
+    run(new Open(NAME));
+    query("count(" + _DB_TEXT.args(NAME, "X") + ")", "30");
+    query(_DB_TEXT.args(NAME, "Y") + "/..", "<a>Y</a>");
+    query(_DB_TEXT.args(NAME, "1000"), "");
+    query(_DB_TEXT.args(NAME, "1"), "");
+    query(_DB_TEXT.args(NAME, "2"), "2");
+  }
+
   /**
    * Test.
    * @throws BaseXException database exception
@@ -170,6 +229,35 @@ public final class IndexTest extends AdvancedQueryTest {
     query(Function._DB_INFO.args(NAME) + "//textindex/text()", "false");
   }
 
+  /**
+   * Test.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void indexthreads() throws BaseXException {
+    run(new Close());
+    query(_DB_CREATE.args(NAME,
+        "<x>{ (1 to 50000) ! <a b='{ . mod 100 }'>{ . mod 7 } t{ . }</a> }</x>", "x.xml"));
+    run(new Open(NAME));
+    final String[] queries = { _DB_TEXT.args(NAME, "3 t10") + "/..",
+      "count(" + _DB_ATTRIBUTE.args(NAME, "42") + ')',
+      "count(//a[text() contains text '5'])", "//a[text() contains text 't4999.' using wildcards]" };
+    final String[] results = new String[queries.length];
+    for(int q = 0; q < queries.length; q++) results[q] = query(queries[q]);
+
+    for(final int threads : new int[] { 0, 3 }) {
+      for(final int split : new int[] { 0, 1000 }) {
+        run(new Set(MainOptions.INDEXTHREADS, threads));
+        run(new Set(MainOptions.INDEXSPLITSIZE, split));
+        run(new Set(MainOptions.FTINDEXSPLITSIZE, split));
+        run(new CreateIndex(CmdIndex.TEXT));
+        run(new CreateIndex(CmdIndex.ATTRIBUTE));
+        run(new CreateIndex(CmdIndex.FULLTEXT));
+        for(int q = 0; q < queries.length; q++) query(queries[q], results[q]);
+      }
+    }
+  }
+
   /**
    * Runs the specified command.
    * @param cmd command to be run
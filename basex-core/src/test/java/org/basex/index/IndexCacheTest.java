@@ -5,6 +5,8 @@ import static org.junit.Assert.*;
 
 import java.util.*;
 
+import org.basex.core.*;
+import org.basex.util.*;
 import org.junit.*;
 
 /**
@@ -74,6 +76,36 @@ public final class IndexCacheTest {
     assertNull(cache.get(key));
   }
 
+  /** Test for the capacity of the cache. */
+  @Test
+  public void testCapacity() {
+    cache = new IndexCache(64);
+    for(int i = 0; i < 4000; ++i) cache.add(token("keyCapacity" + i), i, i);
+
+    int found = 0;
+    for(int i = 0; i < 4000; ++i) {
+      if(cache.get(token("keyCapacity" + i)) != null) found++;
+    }
+    assertTrue("Entries: " + found, found > 0 && found <= 64);
+    // most recently added entry must still be available
+    assertCacheEntry(token("keyCapacity" + 3999), 3999, 3999);
+  }
+
+  /** Test for method {@link IndexCache#info(TokenBuilder)}. */
+  @Test
+  public void testInfo() {
+    final byte[] key = token("keyInfo");
+    cache.add(key, 1, 1);
+    cache.get(key);
+    cache.get(token("keyMissing"));
+
+    final TokenBuilder tb = new TokenBuilder();
+    cache.info(tb);
+    final String info = tb.toString();
+    assertTrue(info, info.contains(Text.LI_CACHE_HITS + "1 (50%)"));
+    assertTrue(info, info.contains(Text.LI_CACHE_MISSES + '1'));
+  }
+
   /**
    * Test that new records can be continuously added without hitting
    * {@link OutOfMemoryError}.
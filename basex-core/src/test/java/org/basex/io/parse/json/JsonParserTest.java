@@ -144,6 +144,18 @@ public final class JsonParserTest {
     parse("null", true);
 
     error("true123", true);
+
+    // error messages contain the complete literal and point to its first character
+    for(final String json : new String[] { "nul", "nx", " fals", "[tru]" }) {
+      try {
+        parse(json, false);
+        fail("Should have failed: '" + json + '\'');
+      } catch(final QueryIOException qe) {
+        final String msg = qe.getMessage(), lit = json.replaceAll("[ \\[\\]]", "");
+        assertTrue(msg, msg.contains("(1:" + (json.indexOf(lit) + 1) + ')'));
+        assertTrue(msg, msg.contains('\'' + lit));
+      }
+    }
   }
 
   /**
@@ -218,6 +218,40 @@ public class DataAccessTest {
     assertEquals(STR, Token.string(da.readBytes(bytes.length)));
   }
 
+  /** Test method for {@link DataReader#readToken(long)}. */
+  @Test
+  public final void testReaderReadToken() {
+    final DataReader dr = da.reader();
+    assertEquals(STR, Token.string(dr.readToken(0L)));
+    assertEquals(STR, Token.string(dr.readToken(BLOCK_BOUNDARY_POS)));
+  }
+
+  /** Test method for {@link DataReader#readNum(long)}. */
+  @Test
+  public final void testReaderReadNum() {
+    final DataReader dr = da.reader();
+    long off = STR_BIN.length + BYTE_BIN.length + LONG_BIN.length + INT_BIN.length;
+    assertEquals(CINT5, dr.readNum(off));
+    off += CINT5_BIN.length;
+    assertEquals(CINT4, dr.readNum(off));
+    off += CINT4_BIN.length;
+    assertEquals(CINT2, dr.readNum(off));
+    off += CINT2_BIN.length;
+    assertEquals(CINT1, dr.readNum(off));
+    assertEquals(LONG, dr.read5(STR_BIN.length + BYTE_BIN.length));
+    assertEquals(INT, dr.read4(STR_BIN.length + BYTE_BIN.length + LONG_BIN.length));
+  }
+
+  /** Test method for {@link DataReader#readToken(long)}, reading unflushed changes. */
+  @Test
+  public final void testReaderUnflushed() {
+    final long pos = da.length();
+    da.writeToken(pos, Token.token(STR_LONG));
+    assertEquals(STR_LONG, Token.string(da.reader().readToken(pos)));
+    da.flush();
+    assertEquals(STR_LONG, Token.string(da.reader().readToken(pos)));
+  }
+
   /** Test method for {@link DataAccess#cursor(long)}. */
   @Test
   public final void testCursorLong() {
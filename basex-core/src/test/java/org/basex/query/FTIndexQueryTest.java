@@ -23,6 +23,7 @@ public final class FTIndexQueryTest extends SandboxTest {
    * @throws BaseXException database exception
    */
   private static void init(final String input) throws BaseXException {
+    new Set(MainOptions.FTINDEX, false).execute(SandboxTest.context);
     new CreateDB(NAME, input).execute(SandboxTest.context);
     new Set(MainOptions.FTINDEX, true).execute(SandboxTest.context);
     new CreateDB(NAME + "ix", input).execute(SandboxTest.context);
@@ -52,6 +53,48 @@ public final class FTIndexQueryTest extends SandboxTest {
     assertQuery(_FT_MARK.args(" //*[text() contains text 'A' ftand 'B'], 'b'"));
   }
 
+  /**
+   * Fuzzy and wildcard expansion test.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void testExpansion() throws BaseXException {
+    init("<x><a>house</a><a>hause</a><a>mouse</a><a>houses</a><a>hose</a><a>ohuse</a>"
+        + "<a>H\u00e4user</a><a>Hausmann</a><a>haus</a><a>ab</a><a>abc</a><a>xyz</a>"
+        + "<a>\u00e6\u4e2d</a></x>");
+    for(final String t : new String[] { "house", "haus", "hauser", "abc", "ab", "b" }) {
+      assertQuery("//a[text() contains text '" + t + "' using fuzzy]");
+    }
+    for(final String t : new String[] { "h.use", "h.*", "ha.*s", ".*se", "ho.?s.+", ".{2,3}",
+        "a.", ".", "x.{0,1}z", "\u00e6.", "hauser" }) {
+      assertQuery("//a[text() contains text '" + t + "' using wildcards]");
+    }
+  }
+
+  /**
+   * Fuzzy search with multi-byte tokens. The index search derives the number of allowed errors
+   * from the byte length of the query token, whereas the sequential search uses its number of
+   * characters.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void testFuzzyMultiByte() throws BaseXException {
+    final String dobryj = "\u0434\u043e\u0431\u0440\u044b\u0439";
+    final String dobroj = "\u0434\u043e\u0431\u0440\u043e\u0439";
+    final String dabryj = "\u0434\u0430\u0431\u0440\u044b\u0439";
+    final String dobro = "\u0434\u043e\u0431\u0440\u043e";
+    final String nihongo = "\u65e5\u672c\u8a9e\u3067\u3059";
+    init("<x><a>" + dobryj + "</a><a>" + dobroj + "</a><a>" + dobryj + "\u0439</a><a>" + dabryj +
+        "</a><a>" + dobro + "</a><a>" + nihongo + "</a></x>");
+
+    final String query = "string-join(//a[text() contains text '" + dobryj + "' using fuzzy], ' ')";
+    final String result = dobryj + ' ' + dobroj + ' ' + dobryj + "\u0439 " + dabryj;
+    new Open(NAME).execute(context);
+    assertEquals(result, new XQuery(query).execute(context));
+    new Open(NAME + "ix").execute(context);
+    assertEquals(result + ' ' + dobro, new XQuery(query).execute(context));
+  }
+
   /**
    * Assert that a query returns the same result with and without ft index.
    * @param q query
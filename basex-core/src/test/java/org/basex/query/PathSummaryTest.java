@@ -0,0 +1,106 @@
+package org.basex.query;
+
+import static org.junit.Assert.*;
+
+import java.io.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.cmd.Set;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests if queries are answered by the path summary.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class PathSummaryTest extends AdvancedQueryTest {
+  /** Compilation info of rewritten queries. */
+  private static final String SUMMARY =
+      QueryText.OPTSUMMARY.substring(QueryText.OPTSUMMARY.indexOf('%') + 1);
+
+  /**
+   * Creates a test database.
+   * @throws Exception exception
+   */
+  @BeforeClass
+  public static void start() throws Exception {
+    new Set(MainOptions.QUERYINFO, true).execute(context);
+    new CreateDB(NAME).execute(context);
+    new Add("one.xml", "<xml><a x='p'>A</a><a x='q'>B</a><b/></xml>").execute(context);
+    new Add("two.xml", "<xml><a x='p'>C</a></xml>").execute(context);
+    new Optimize().execute(context);
+  }
+
+  /**
+   * Drops the test database.
+   * @throws Exception exception
+   */
+  @AfterClass
+  public static void stop() throws Exception {
+    new DropDB(NAME).execute(context);
+    new Set(MainOptions.QUERYINFO, false).execute(context);
+  }
+
+  /** Counts. */
+  @Test
+  public void count() {
+    check("count(//a)", "3", true);
+    check("count(/xml/a/@x)", "3", true);
+    check("count(db:open('" + NAME + "')//b)", "1", true);
+    check("count(//c)", "0", false);
+    // predicates, single documents
+    check("count(//a[@x = 'p'])", "2", false);
+    check("count(db:open('" + NAME + "', 'one.xml')//a)", "2", false);
+  }
+
+  /** Existence tests. */
+  @Test
+  public void exists() {
+    check("exists(//a)", "true", true);
+    check("empty(//b)", "false", true);
+    check("exists(db:open('" + NAME + "', 'two.xml')//b)", "false", false);
+  }
+
+  /** Distinct values. */
+  @Test
+  public void distinctValues() {
+    check("distinct-values(//a)", "A B C", true);
+    check("distinct-values(//a/@x)", "p q", true);
+    check("distinct-values(db:open('" + NAME + "', 'one.xml')//a)", "A B", false);
+  }
+
+  /** Outdated path summary. */
+  @Test
+  public void outdated() {
+    try {
+      new Delete("two.xml").execute(context);
+      check("count(//a)", "2", false);
+      check("distinct-values(//a/@x)", "p q", false);
+      new Optimize().execute(context);
+      check("count(//a)", "2", true);
+      new Add("two.xml", "<xml><a x='p'>C</a></xml>").execute(context);
+      new Optimize().execute(context);
+    } catch(final BaseXException ex) {
+      fail(Util.message(ex));
+    }
+  }
+
+  /**
+   * Checks the result of the specified query, and if it has been answered by the path summary.
+   * @param query query to be tested
+   * @param result expected query result
+   * @param summary expected usage of path summary
+   */
+  private static void check(final String query, final String result, final boolean summary) {
+    try(final QueryProcessor qp = new QueryProcessor(query, context)) {
+      assertEquals(result, qp.value().serialize().toString().replaceAll("\"", ""));
+      assertEquals("Query: " + query + "\n" + qp.info(), summary, qp.info().contains(SUMMARY));
+    } catch(final QueryException | IOException ex) {
+      fail(Util.message(ex) + "\n- Query: " + query);
+    }
+  }
+}
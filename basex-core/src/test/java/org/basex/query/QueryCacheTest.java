@@ -0,0 +1,125 @@
+package org.basex.query;
+
+import static org.junit.Assert.*;
+
+import org.basex.*;
+import org.basex.core.*;
+import org.basex.util.*;
+import org.junit.*;
+
+/**
+ * Tests for the query plan cache.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class QueryCacheTest extends SandboxTest {
+  /**
+   * Evaluates a cached query with different bindings.
+   * @throws QueryException query exception
+   */
+  @Test
+  public void bindings() throws QueryException {
+    final String query = "declare variable $x external := 1; declare variable $y := $x * 2; " +
+        "sum(for $i in 1 to $y return $i + $x)";
+    final Context ctx = new Context();
+    try {
+      assertEquals("5", query(query, ctx, null));
+      assertEquals("410", query(query, ctx, 10));
+      assertEquals("1620", query(query, ctx, 20));
+      assertEquals("5", query(query, ctx, null));
+      assertEquals(Util.info(Text.QUERY_CACHE_X_X_X, 1, 3, 1), ctx.queries.info());
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Checks that queries with functions are not cached.
+   * @throws QueryException query exception
+   */
+  @Test
+  public void functions() throws QueryException {
+    final String query = "declare function local:f($a) { $a * 2 }; local:f(3)";
+    final Context ctx = new Context();
+    try {
+      assertEquals("6", query(query, ctx, null));
+      assertEquals("6", query(query, ctx, null));
+      assertEquals(Util.info(Text.QUERY_CACHE_X_X_X, 0, 0, 2), ctx.queries.info());
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Checks that options are considered when looking up cached plans.
+   * @throws QueryException query exception
+   */
+  @Test
+  public void options() throws QueryException {
+    final String query = "for $i in 1 to 3 return $i";
+    final Context ctx = new Context();
+    try {
+      assertEquals("(1, 2, 3)", query(query, ctx, null));
+      ctx.options.set(MainOptions.INLINELIMIT, 0);
+      assertEquals("(1, 2, 3)", query(query, ctx, null));
+      assertEquals("(1, 2, 3)", query(query, ctx, null));
+      assertEquals(Util.info(Text.QUERY_CACHE_X_X_X, 2, 1, 2), ctx.queries.info());
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Evaluates a cached query with element constructors in parallel.
+   * @throws Exception exception
+   */
+  @Test
+  public void parallel() throws Exception {
+    final String query = "count(for $i in 1 to 1000 return " +
+        "<a xmlns:p='u'>{ element { 'p:b' } { $i } }</a>/*[namespace-uri() = 'u'])";
+    final Context ctx = new Context();
+    try {
+      assertEquals("1000", query(query, ctx, null));
+      final int ts = 8;
+      final Thread[] threads = new Thread[ts];
+      final Throwable[] errors = new Throwable[ts];
+      for(int t = 0; t < ts; t++) {
+        final int n = t;
+        threads[t] = new Thread() {
+          @Override
+          public void run() {
+            try {
+              for(int i = 0; i < 20; i++) assertEquals("1000", query(query, ctx, null));
+            } catch(final Throwable th) {
+              errors[n] = th;
+            }
+          }
+        };
+        threads[t].start();
+      }
+      for(final Thread thread : threads) thread.join();
+      for(final Throwable error : errors) {
+        if(error != null) throw new AssertionError(error);
+      }
+    } finally {
+      ctx.close();
+    }
+  }
+
+  /**
+   * Evaluates a query.
+   * @param query query
+   * @param ctx database context
+   * @param value value to be bound to {@code $x} (can be {@code null})
+   * @return string result
+   * @throws QueryException query exception
+   */
+  private static String query(final String query, final Context ctx, final Object value)
+      throws QueryException {
+    try(final QueryProcessor qp = new QueryProcessor(query, ctx)) {
+      if(value != null) qp.bind("x", value);
+      return qp.value().toString();
+    }
+  }
+}
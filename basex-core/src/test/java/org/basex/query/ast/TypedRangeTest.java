@@ -0,0 +1,122 @@
+package org.basex.query.ast;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.core.parse.Commands.CmdIndex;
+import org.basex.query.*;
+import org.basex.query.expr.*;
+import org.basex.util.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * This class tests if numeric and date range queries are correctly evaluated with(out) the
+ * range index.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class TypedRangeTest extends QueryPlanTest {
+  /**
+   * Initializes the tests.
+   * @throws BaseXException database exception
+   */
+  @BeforeClass
+  public static void start() throws BaseXException {
+    final TokenBuilder tb = new TokenBuilder();
+    tb.add("<xml>");
+    for(int i = -500; i < 500; i++) {
+      // add numeric values
+      tb.add("<n v='").addInt(i).add("'>").addInt(i).add("</n>");
+      tb.add("<d>").add(Double.toString(i / 4d)).add("</d>");
+    }
+    for(int i = 1; i <= 28; i++) {
+      // add dates and date/times with and without timezone
+      final String day = "2000-02-" + (i < 10 ? "0" : "") + i;
+      tb.add("<date>").add(day).add("</date>");
+      tb.add("<date>").add(day).add("Z</date>");
+      tb.add("<dtm>").add(day).add("T12:00:00.5</dtm>");
+      tb.add("<dtm>").add(day).add("T12:00:00.5+01:00</dtm>");
+    }
+    tb.add("</xml>");
+    new CreateDB(NAME, tb.toString()).execute(context);
+  }
+
+  /**
+   * Finishes the tests.
+   * @throws BaseXException database exception
+   */
+  @AfterClass
+  public static void finish() throws BaseXException {
+    new DropDB(NAME).execute(context);
+  }
+
+  /**
+   * Numeric ranges.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void numbers() throws BaseXException {
+    test("count(//n[text() >= 10 and text() <= 19])", "10");
+    test("count(//n[text() > -10 and text() < 10])", "19");
+    test("count(//n[text() >= -500.5 and text() < -499])", "1");
+    test("count(//n[text() > 0])", "499");
+    test("count(//n[text() <= -0])", "501");
+    test("count(//d[text() > -0.25 and text() <= 0.25])", "2");
+    test("count(//d[text() >= 1.1 and text() <= 1.4])", "1");
+    test("count(//n[@v >= 100 and @v < 200])", "100");
+    test("count(//n[text() > 498])", "1");
+  }
+
+  /**
+   * Date ranges.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void dates() throws BaseXException {
+    test("count(//date[text() >= xs:date('2000-02-10') and " +
+        "text() < xs:date('2000-02-20')])", "20");
+    test("count(//date[text() = xs:date('2000-02-10Z')])", "2");
+    test("count(//date[text() > xs:date('2000-02-27+01:00')])", "4");
+    test("count(//dtm[text() >= xs:dateTime('2000-02-10T12:00:00.5') and " +
+        "text() <= xs:dateTime('2000-02-10T12:00:00.5')])", "1");
+    test("count(//dtm[text() >= xs:dateTime('2000-02-10T11:00:00.5Z') and " +
+        "text() <= xs:dateTime('2000-02-10T12:00:00.5Z')])", "2");
+    test("count(//dtm[text() > xs:dateTime('2000-02-10T11:00:00.5Z') and " +
+        "text() <= xs:dateTime('2000-02-10T12:00:00.4999Z')])", "0");
+    test("count(//dtm[text() < xs:dateTime('2000-02-01T12:00:00.5001+01:00')])", "1");
+    // no rewriting of date comparisons without range index
+    check("count(//date[text() > xs:date('2000-02-27+01:00')])", "4", "empty(//CmpDR)");
+  }
+
+  /**
+   * Index functions.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void functions() throws BaseXException {
+    new CreateIndex(CmdIndex.RANGE).execute(context);
+    query("count(db:text-range('" + NAME + "', -1, 1))", "12");
+    query("count(db:attribute-range('" + NAME + "', 1e2, 199.5))", "100");
+    query("count(db:text-range('" + NAME + "', xs:date('2000-02-01'), " +
+        "xs:date('2000-02-02')))", "4");
+    new DropIndex(CmdIndex.RANGE).execute(context);
+    // fallback to string range access
+    query("count(db:text-range('" + NAME + "', 1, 2))", "256");
+    query("count(//text()[string() >= '1' and string() <= '2'])", "256");
+  }
+
+  /**
+   * Tests a query with and without index.
+   * @param query query
+   * @param result expected result
+   * @throws BaseXException database exception
+   */
+  private static void test(final String query, final String result) throws BaseXException {
+    final String clz = Util.className(TypedRangeAccess.class);
+    new CreateIndex(CmdIndex.RANGE).execute(context);
+    check(query, result, "exists(//" + clz + ')');
+    new DropIndex(CmdIndex.RANGE).execute(context);
+    check(query, result, "not(//" + clz + ')');
+  }
+}
@@ -28,6 +28,72 @@ public final class GFLWORTest extends AdvancedQueryTest {
     query("let $i := 1 group by $i, $i return $i", "1");
   }
 
+  /** Tests order by clauses with a limited number of requested results. */
+  @Test
+  public void orderByLimit() {
+    final String flwor = "for $i in (5, 3, 4, 1, 3, 2) order by $i return $i";
+    query("(" + flwor + ")[position() <= 3]", "1 2 3");
+    query("(" + flwor + ")[2]", "2");
+    query("head(" + flwor + ")", "1");
+    query("subsequence(" + flwor + ", 3, 2)", "3 3");
+    query("subsequence(" + flwor + ", 5)", "4 5");
+    query("subsequence(" + flwor + ", -1, 3)", "1");
+
+    // tuples with equal keys are returned in input order
+    query("(for $i in ('b1', 'a1', 'b2', 'a2', 'a3') order by substring($i, 1, 1) " +
+        "return $i)[position() <= 3]", "a1 a2 a3");
+    query("(for $i in 1 to 6 let $k := $i[. mod 2 = 0] order by $k descending empty least " +
+        "return $i)[position() <= 4]", "6 4 2 1");
+    // multiple results per tuple
+    query("(for $i in (3, 1, 2) order by $i return ($i, $i))[position() <= 3]", "1 1 2");
+  }
+
+  /** Tests order by clauses that write tuples to disk. */
+  @Test
+  public void orderBySpill() {
+    final String flwor = "for $i in 1 to 1000 let $s := string($i mod 7) " +
+        "order by $i mod 5 descending, $s, -$i " +
+        "return ($i, $s, xs:int($i) instance of xs:int, <a>{ $i }</a>/text(), 1 div $i, " +
+        "xs:date('2000-01-01') + xs:dayTimeDuration('P' || $i mod 30 || 'D'))";
+    final String expected = query(flwor);
+    query("declare option db:spillsize '10'; " + flwor, expected);
+    query("declare option db:spillsize '10'; (" + flwor + ")[position() <= 100]",
+        query("(" + flwor + ")[position() <= 100]"));
+    error("declare option db:spillsize '1'; for $i in (1, 'a', 2) order by $i return $i",
+        INVCAST_X_X_X);
+  }
+
+  /** Tests group by clauses with aggregated non-grouping variables. */
+  @Test
+  public void groupByAggregate() {
+    query("for $i in 1 to 10 group by $k := $i mod 2 order by $k " +
+        "return $k || ':' || count($i) || ':' || sum($i)", "0:5:30 1:5:25");
+    query("for $i in 1 to 4 let $e := $i[. > 2] group by $k := $i mod 2 order by $k " +
+        "return count($e) || ':' || sum($e) || ':' || sum($e, -1)", "1:4:4 1:3:3");
+    query("for $i in 1 to 2 let $e := () group by $k := $i " +
+        "return count($e) || ':' || sum($e) || ':' || sum($e, -1)", "0:0:-1 0:0:-1");
+    query("for $i in 1 to 3 let $d := xs:dayTimeDuration('PT' || $i || 'S') group by $k := 1 " +
+        "return sum($d)", "PT6S");
+    query("for $a in <a><b>1</b><b>2</b></a>/b group by $k := 1 return sum($a)", "3");
+    // errors are only raised if the sum is evaluated
+    query("for $i in (1, 'a') group by $k := 1 return if($k = 2) then sum($i) else 'ok'", "ok");
+    error("for $i in (1, 'a') group by $k := 1 return sum($i)", SUMNUM_X_X);
+  }
+
+  /** Tests group by clauses that write tuples to disk. */
+  @Test
+  public void groupBySpill() {
+    final String flwor = "for $i in 1 to 1000 let $s := string($i mod 7), " +
+        "$k := if($i mod 11 = 0) then () else $i mod 29 " +
+        "group by $k, $s collation 'http://www.w3.org/2005/xpath-functions/collation/codepoint' " +
+        "order by $k, $s " +
+        "return $k || '/' || $s || '/' || count($i) || '/' || sum($i) || '/' || $i[1]";
+    final String expected = query(flwor);
+    query("declare option db:spillsize '10'; " + flwor, expected);
+    query("declare option db:spillsize '10'; " + flwor.replace("sum($i)", "$i[last()]"),
+        query(flwor.replace("sum($i)", "$i[last()]")));
+  }
+
   /**
    * Runs an updating query and matches the result of the second query
    * against the expected output.
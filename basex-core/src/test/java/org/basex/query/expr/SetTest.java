@@ -0,0 +1,56 @@
+package org.basex.query.expr;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.query.*;
+import org.junit.*;
+import org.junit.Test;
+
+/**
+ * Tests for the set operators.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+public final class SetTest extends AdvancedQueryTest {
+  /**
+   * Creates the test database.
+   * @throws BaseXException exception
+   */
+  @BeforeClass
+  public static void before() throws BaseXException {
+    new CreateDB(NAME, "<r><a>1</a><b>2</b><a>3</a><c/></r>").execute(context);
+  }
+
+  /**
+   * Drops the test database.
+   * @throws BaseXException exception
+   */
+  @AfterClass
+  public static void after() throws BaseXException {
+    new DropDB(NAME).execute(context);
+  }
+
+  /** Merges database nodes of the same database. */
+  @Test
+  public void singleDatabase() {
+    query("count(reverse(//*) | //a)", 5);
+    query("(reverse(//a) | reverse(//b)) ! string()", "1 2 3");
+    query("(reverse(//*) intersect (//b, //a)) ! name()", "a b a");
+    query("(reverse(//*) intersect (//b, //a) intersect //a) ! string()", "1 3");
+    query("(reverse(//*) except (//b, //r)) ! name()", "a a c");
+    query("(reverse(//*) except //* except //a) ! name()", "");
+    query("let $u := reverse(//b) | reverse(//a) return ($u[2] ! string(), count($u))", "2 3");
+    query("count((//b, //a)/..)", 1);
+    query("((//c, //b)/preceding-sibling::*) ! string()", "1 2 3");
+  }
+
+  /** Combines database nodes with other nodes. */
+  @Test
+  public void mixed() {
+    query("count(reverse(//a) | <x/>)", 3);
+    query("count((reverse(//a) | reverse(//b)) intersect <x/>)", 0);
+    query("count(reverse(//a) | doc('src/test/resources/input.xml')//title)", 3);
+    query("(reverse(//*) except (<x/>, //a)) ! name()", "r b c");
+  }
+}
@@ -11,6 +11,7 @@ import java.util.*;
 import org.basex.core.*;
 import org.basex.core.cmd.*;
 import org.basex.core.parse.*;
+import org.basex.data.*;
 import org.basex.io.*;
 import org.basex.query.*;
 import org.basex.util.*;
@@ -96,6 +97,36 @@ public final class DbModuleTest extends AdvancedQueryTest {
     error(_DB_OPEN_ID.args(NAME, Integer.MAX_VALUE), BXDB_RANGE_X_X_X);
   }
 
+  /**
+   * Test method.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void openIdUpdates() throws BaseXException {
+    new CreateDB(NAME, "<a><b/><c>X</c><d/></a>").execute(context);
+    final String id = _DB_NODE_ID.args(" " + _DB_OPEN.args(NAME) + "/a/c");
+    final String deleted = query(id);
+    query("insert node <e><f/></e> after " + _DB_OPEN.args(NAME) + "/a/b");
+    query("delete node " + _DB_OPEN.args(NAME) + "/a/c");
+    query("replace node " + _DB_OPEN.args(NAME) + "/a/d with <g a='1'>Y</g>");
+    query("insert node <h/> as first into " + _DB_OPEN.args(NAME) + "/a");
+
+    final String check = "every $n in " + _DB_OPEN.args(NAME) + "/descendant-or-self::node() " +
+        "satisfies " + _DB_OPEN_ID.args(NAME, " " + _DB_NODE_ID.args(" $n")) + " is $n";
+    query(check, "true");
+    error(_DB_OPEN_ID.args(NAME, Integer.parseInt(deleted)), BXDB_RANGE_X_X_X);
+
+    // mapping is persisted, or rebuilt if it does not exist
+    new Close().execute(context);
+    query(check, "true");
+    new Close().execute(context);
+    assertTrue(new IOFile(context.soptions.dbpath(NAME), DataText.DATAIDP + IO.BASEXSUFFIX).
+        delete());
+    query(check, "true");
+    query("insert node <i/> into " + _DB_OPEN.args(NAME) + "/a/b");
+    query(check, "true");
+  }
+
   /**
    * Test method.
    * @throws BaseXException database exception
@@ -176,6 +207,46 @@ public final class DbModuleTest extends AdvancedQueryTest {
     new DropDB(NAME + 2).execute(context);
   }
 
+  /**
+   * Test method.
+   * @throws BaseXException database exception
+   */
+  @Test
+  public void listUpdates() throws BaseXException {
+    // bulk insertion, single insertion
+    query("for $i in 1 to 50 return " +
+        _DB_ADD.args(NAME, " <x>{ $i }</x>", " 'd' || $i mod 5 || '/' || $i || '.xml'"));
+    query(_DB_ADD.args(NAME, " <x>a</x>", "d0/a.xml"));
+    final String check = "every $p in " + _DB_LIST.args(NAME) + " satisfies " +
+        _DB_PATH.args(_DB_OPEN.args(NAME, " $p")) + " = $p";
+    for(int i = 0; i < 2; i++) {
+      query(COUNT.args(_DB_LIST.args(NAME, "d0")), 11);
+      query(COUNT.args(_DB_OPEN.args(NAME, "d3/")), 10);
+      query(_DB_OPEN.args(NAME, "d3/13.xml") + "/x/string()", 13);
+      query(_DB_IS_XML.args(NAME, "d3/14.xml"), false);
+      query(check, true);
+      // reopen database
+      new Close().execute(context);
+      new Open(NAME).execute(context);
+    }
+
+    // renames and deletions
+    query(_DB_RENAME.args(NAME, "d3", "a"));
+    query(_DB_DELETE.args(NAME, "d1"));
+    query(_DB_RENAME.args(NAME, "d2/12.xml", "d4/12.xml"));
+    for(int i = 0; i < 2; i++) {
+      query(COUNT.args(_DB_OPEN.args(NAME, "d3")), 0);
+      query(COUNT.args(_DB_OPEN.args(NAME, "d1")), 0);
+      query(COUNT.args(_DB_OPEN.args(NAME, "a")), 10);
+      query(COUNT.args(_DB_OPEN.args(NAME, "d4")), 11);
+      query(_DB_OPEN.args(NAME, "a/13.xml") + "/x/string()", 13);
+      query(_DB_IS_XML.args(NAME, "d4/12.xml"), true);
+      query(check, true);
+      new Close().execute(context);
+      new Open(NAME).execute(context);
+    }
+  }
+
   /** Test method. */
   @Test
   public void listDetails() {
@@ -715,9 +786,10 @@ public final class DbModuleTest extends AdvancedQueryTest {
 
   /**
    * db:drop-backup test method.
+   * @throws BaseXException database exception
    */
   @Test
-  public void dropBackup() {
+  public void dropBackup() throws BaseXException {
     // create and drop backup
     query(_DB_CREATE_BACKUP.args(NAME));
     query(_DB_DROP_BACKUP.args(NAME));
@@ -733,6 +805,14 @@ public final class DbModuleTest extends AdvancedQueryTest {
     error(_DB_DROP_BACKUP.args(NAME), BXDB_WHICHBACK_X);
     // check if drop is called before create
     error(_DB_CREATE_BACKUP.args(NAME) + ',' + _DB_DROP_BACKUP.args(NAME), BXDB_WHICHBACK_X);
+
+    // backups cannot be dropped if other backups are based on them
+    new CreateBackup(NAME, true).execute(context);
+    final String full = query(_DB_BACKUPS.args(NAME));
+    new CreateBackup(NAME, true).execute(context);
+    error(_DB_DROP_BACKUP.args(full), BXDB_BASEDBACK_X_X);
+    query(_DB_DROP_BACKUP.args(NAME));
+    query(COUNT.args(_DB_BACKUPS.args(NAME)), "0");
   }
 
   /**
@@ -2,6 +2,7 @@ package org.basex.query.func;
 
 import static org.basex.query.func.Function.*;
 
+import org.basex.build.html.*;
 import org.basex.query.*;
 import org.junit.*;
 
@@ -27,4 +28,18 @@ public final class HtmlModuleTest extends AdvancedQueryTest {
     // check if the function returns <html/>
     query(_HTML_PARSE.args("&lt;html/&gt;", " map {'nons': true()}"), "<html/>");
   }
+
+  /** Test method. */
+  @Test
+  public void parseNamespaces() {
+    // namespaces are only assigned by TagSoup
+    if(!HtmlParser.available()) return;
+    query(_HTML_PARSE.args("&lt;html/&gt;", " map {'nons': false()}"),
+        "<html xmlns=\"http://www.w3.org/1999/xhtml\"/>");
+    // prefixes of names without namespace are removed
+    query(_HTML_PARSE.args("&lt;html&gt;&lt;o:p a:b='c'/&gt;&lt;/html&gt;") + "//*:p",
+        "<p xmlns:a=\"urn:x-prefix:a\" a:b=\"c\"/>");
+    query(_HTML_PARSE.args("&lt;html&gt;&lt;o:p/&gt;&lt;/html&gt;", " map {'nons': false()}") +
+        "//*:p", "<o:p xmlns:o=\"urn:x-prefix:o\" xmlns=\"http://www.w3.org/1999/xhtml\"/>");
+  }
 }
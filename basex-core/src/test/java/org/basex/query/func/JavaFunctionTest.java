@@ -47,6 +47,16 @@ public final class JavaFunctionTest extends AdvancedQueryTest {
     query("declare namespace p = 'java.util.Properties'; p:new()", "{}");
   }
 
+  /** Tests repeated calls with changing argument types. */
+  @Test
+  public void callSite() {
+    query("sum(for $i in 1 to 1000 return Q{java.lang.Math}abs(xs:int(-$i)))", 500500);
+    query("for $a in (xs:int(1), 'a', true(), xs:int(2), 'b', xs:double(1.5)) " +
+        "return Q{java:java.lang.String}valueOf($a)", "1 a true 2 b 1.5");
+    query("for $i in (xs:int(1), 'x') return Q{java:java.lang.StringBuilder}new($i) ! " +
+        "Q{java:java.lang.StringBuilder}length(.)", "0 1");
+  }
+
   /** Tests importing a Java class. */
   @Test
   public void importClass() {
@@ -89,6 +99,17 @@ public final class JavaFunctionTest extends AdvancedQueryTest {
         "try { qm:error() } catch * { local-name-from-QName($err:code) }", "BASX0000");
   }
 
+  /** Tests arguments that cannot be converted to the parameter types. */
+  @Test
+  public void argumentError() {
+    // primitive values will be widened
+    query("Q{java.lang.Character}toChars(xs:short(65))", "A");
+    // invalid arguments are no errors raised by the Java function
+    error("Q{java.lang.Character}isDigit('1')", JAVACALL_X_X);
+    query("Q{java.lang.Integer}parseInt('1')", 1);
+    error("Q{java.lang.Integer}parseInt('x')", JAVAERROR_X);
+  }
+
   /** Tests ambiguous function signatures. */
   @Test
   public void ambiguousSignature() {
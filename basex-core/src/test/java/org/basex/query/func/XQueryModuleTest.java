@@ -101,4 +101,40 @@ public final class XQueryModuleTest extends AdvancedQueryTest {
       System.setErr(ERR);
     }
   }
+
+  /** Test method. */
+  @Test
+  public void forkJoin() {
+    query(_XQUERY_FORK_JOIN.args(" ()"), "");
+    query(_XQUERY_FORK_JOIN.args(" function() { 1 }"), 1);
+    query(_XQUERY_FORK_JOIN.args(" (function() { 1 }, function() { (2, 3) })"), "1 2 3");
+    query(_XQUERY_FORK_JOIN.args(" for $i in 1 to 100 return function() { $i * 2 }") +
+        " => sum()", 10100);
+    query(_XQUERY_FORK_JOIN.args(" for $i in 1 to 10 return function() { $i || '/' ||" +
+        " count(doc('" + PATH + "')//*) }") + "[last()]", "10/10");
+    query("count(distinct-values(" + _XQUERY_FORK_JOIN.args(
+        " (1 to 10) ! function() { current-dateTime() }") + "))", 1);
+    // functions are evaluated with separate namespaces and function bodies
+    query(_XQUERY_FORK_JOIN.args(" (1 to 8) ! function() { count((1 to 1000) ! " +
+        "<a xmlns:p='u'>{ element { 'p:b' } { 'x y' } }</a>/*[text() contains text 'x']) }") +
+        " => sum()", 8000);
+    query("<a xmlns:p='u'>{ " + _XQUERY_FORK_JOIN.args(" (1, 2) ! function() { " +
+        "element { 'p:b' } {} }") + " }</a>/* ! namespace-uri()", "u u");
+
+    error(_XQUERY_FORK_JOIN.args(" function($a) { $a }"), INVCAST_X_X_X);
+    error(_XQUERY_FORK_JOIN.args(" (function() { 1 }, function() { error() })"), FUNERR1);
+    error(_XQUERY_FORK_JOIN.args(" %updating function() { delete node <a/> }"),
+        BXXQ_UPDATING);
+    // first error in input order is returned
+    query("try { " + _XQUERY_FORK_JOIN.args(" (function() { prof:sleep(500), 1 }, " +
+        "function() { error(xs:QName('a')) }, function() { error(xs:QName('b')) })") +
+        " } catch * { $err:code }", "a");
+    // nested functions
+    query(_XQUERY_FORK_JOIN.args(" (1 to 20) ! function() { " + _XQUERY_FORK_JOIN.args(
+        " (1 to 20) ! function() { 1 }") + " => sum() }") + " => sum()", 400);
+    // stop all functions if the calling query is stopped
+    error(_XQUERY_EVAL.args("\"" + _XQUERY_FORK_JOIN.args(
+        " (1 to 4) ! function() { sum((1 to 100000000000) ! (. * 2)) }") + "\"",
+        " map {}", " map { 'timeout': 1 }"), BXXQ_STOPPED);
+  }
 }
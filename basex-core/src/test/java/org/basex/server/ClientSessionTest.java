@@ -3,8 +3,10 @@ package org.basex.server;
 import static org.junit.Assert.*;
 
 import java.io.*;
+import java.util.*;
 
 import org.basex.*;
+import org.basex.api.client.*;
 import org.basex.util.*;
 import org.junit.*;
 
@@ -46,4 +48,43 @@ public class ClientSessionTest extends SessionTest {
       fail(Util.message(ex));
     }
   }
+
+  /**
+   * Runs commands on a large number of concurrently opened sessions.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void idleSessions() throws IOException {
+    final ClientSession[] sessions = new ClientSession[100];
+    try {
+      for(int s = 0; s < sessions.length; s++) sessions[s] = createClient();
+      for(int r = 0; r < 2; r++) {
+        for(final ClientSession cs : sessions) assertEquals("1", cs.execute("xquery 1"));
+      }
+    } finally {
+      for(final ClientSession cs : sessions) if(cs != null) cs.close();
+    }
+  }
+
+  /**
+   * Closes the socket of an idle session without exiting it.
+   * @throws IOException I/O exception
+   */
+  @Test
+  public void droppedSocket() throws IOException {
+    final Sessions sessions = server.context.sessions;
+    final ArrayList<ClientListener> listeners = new ArrayList<>(sessions);
+    final ClientSession cs = createClient();
+    assertEquals("1", cs.execute("xquery 1"));
+    // find new session
+    final ArrayList<ClientListener> added = new ArrayList<>(sessions);
+    added.removeAll(listeners);
+    assertEquals(1, added.size());
+    final ClientListener cl = added.get(0);
+
+    // close socket without sending an exit command
+    cs.close();
+    for(int c = 0; c < 100 && sessions.contains(cl); c++) Performance.sleep(50);
+    assertFalse(sessions.contains(cl));
+  }
 }
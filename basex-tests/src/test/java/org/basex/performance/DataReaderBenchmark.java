@@ -0,0 +1,160 @@
+package org.basex.performance;
+
+import java.io.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.basex.io.*;
+import org.basex.io.random.*;
+import org.basex.util.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * This class compares concurrent token reads via the synchronized {@link DataAccess}
+ * methods and the stateless {@link DataReader}.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DataReaderBenchmark {
+  /** Number of tokens. */
+  private static final int TOKENS = 1 << 20;
+
+  /** Temporary file. */
+  private IOFile file;
+  /** Data access. */
+  private DataAccess da;
+  /** Token offsets. */
+  private long[] offsets;
+
+  /**
+   * Creates a file with random tokens.
+   * @throws IOException I/O exception
+   */
+  @Setup
+  public void setup() throws IOException {
+    file = new IOFile(Prop.TMP, Util.className(DataReaderBenchmark.class) + IO.BASEXSUFFIX);
+    file.delete();
+    da = new DataAccess(file);
+    offsets = new long[TOKENS];
+    final Random rnd = new Random(0);
+    for(int t = 0; t < TOKENS; t++) {
+      final byte[] token = new byte[1 + rnd.nextInt(64)];
+      for(int b = 0; b < token.length; b++) token[b] = (byte) ('a' + rnd.nextInt(26));
+      offsets[t] = da.length();
+      da.writeToken(offsets[t], token);
+    }
+    da.flush();
+  }
+
+  /**
+   * Closes and deletes the file.
+   */
+  @TearDown
+  public void tearDown() {
+    da.close();
+    file.delete();
+  }
+
+  /**
+   * Reads tokens via the synchronized data access (1 thread).
+   * @return result
+   */
+  @Benchmark
+  @Threads(1)
+  public int access01() {
+    return access();
+  }
+
+  /**
+   * Reads tokens via the synchronized data access (4 threads).
+   * @return result
+   */
+  @Benchmark
+  @Threads(4)
+  public int access04() {
+    return access();
+  }
+
+  /**
+   * Reads tokens via the synchronized data access (16 threads).
+   * @return result
+   */
+  @Benchmark
+  @Threads(16)
+  public int access16() {
+    return access();
+  }
+
+  /**
+   * Reads tokens via the stateless reader (1 thread).
+   * @return result
+   */
+  @Benchmark
+  @Threads(1)
+  public int reader01() {
+    return reader();
+  }
+
+  /**
+   * Reads tokens via the stateless reader (4 threads).
+   * @return result
+   */
+  @Benchmark
+  @Threads(4)
+  public int reader04() {
+    return reader();
+  }
+
+  /**
+   * Reads tokens via the stateless reader (16 threads).
+   * @return result
+   */
+  @Benchmark
+  @Threads(16)
+  public int reader16() {
+    return reader();
+  }
+
+  /**
+   * Reads a random token via the synchronized data access.
+   * @return token length
+   */
+  private int access() {
+    return da.readToken(offset()).length;
+  }
+
+  /**
+   * Reads a random token via the stateless reader.
+   * @return token length
+   */
+  private int reader() {
+    return da.reader().readToken(offset()).length;
+  }
+
+  /**
+   * Returns a random token offset.
+   * @return offset
+   */
+  private long offset() {
+    return offsets[ThreadLocalRandom.current().nextInt(TOKENS)];
+  }
+
+  /**
+   * Runs the benchmark.
+   * @param args command-line arguments
+   * @throws RunnerException runner exception
+   */
+  public static void main(final String... args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(DataReaderBenchmark.class.getSimpleName()).
+        build()).run();
+  }
+}
@@ -0,0 +1,109 @@
+package org.basex.performance;
+
+import java.io.*;
+import java.util.concurrent.*;
+
+import org.basex.core.*;
+import org.basex.core.cmd.*;
+import org.basex.io.out.*;
+import org.basex.io.serial.*;
+import org.basex.query.value.node.*;
+import org.basex.util.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.*;
+import org.openjdk.jmh.runner.options.*;
+
+/**
+ * This class measures the serialization of database nodes. The chunk-wise output of UTF-8
+ * serialization is compared with the character-wise output of other encodings.
+ *
+ * @author BaseX Team 2005-15, BSD License
+ * @author Christian Gruen
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SerializerBenchmark {
+  /** XMark document. */
+  private static final String FILE = "src/test/resources/qt3ts/app/XMark/XMarkAuction.xml";
+  /** Database name. */
+  private static final String NAME = Util.className(SerializerBenchmark.class);
+
+  /** Database context. */
+  private Context context;
+  /** Document node. */
+  private DBNode node;
+  /** Output. */
+  private ArrayOutput out;
+
+  /**
+   * Creates the XMark database.
+   * @throws BaseXException database exception
+   */
+  @Setup
+  public void setup() throws BaseXException {
+    context = new Context();
+    new CreateDB(NAME, FILE).execute(context);
+    node = new DBNode(context.data(), 0);
+    out = new ArrayOutput();
+  }
+
+  /**
+   * Drops the database.
+   * @throws BaseXException database exception
+   */
+  @TearDown
+  public void tearDown() throws BaseXException {
+    new DropDB(NAME).execute(context);
+    context.close();
+  }
+
+  /**
+   * Serializes the document as UTF-8.
+   * @return number of written bytes
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public long utf8() throws IOException {
+    return serialize(Strings.UTF8);
+  }
+
+  /**
+   * Serializes the document as ISO-8859-1.
+   * @return number of written bytes
+   * @throws IOException I/O exception
+   */
+  @Benchmark
+  public long latin1() throws IOException {
+    return serialize("ISO-8859-1");
+  }
+
+  /**
+   * Serializes the document with the specified encoding.
+   * @param encoding encoding
+   * @return number of written bytes
+   * @throws IOException I/O exception
+   */
+  private long serialize(final String encoding) throws IOException {
+    final SerializerOptions sopts = new SerializerOptions();
+    sopts.set(SerializerOptions.ENCODING, encoding);
+    out.reset();
+    final Serializer ser = Serializer.get(out, sopts);
+    ser.serialize(node);
+    ser.close();
+    return out.size();
+  }
+
+  /**
+   * Runs the benchmark.
+   * @param args command-line arguments
+   * @throws RunnerException runner exception
+   */
+  public static void main(final String... args) throws RunnerException {
+    new Runner(new OptionsBuilder().include(SerializerBenchmark.class.getSimpleName()).
+        build()).run();
+  }
+}